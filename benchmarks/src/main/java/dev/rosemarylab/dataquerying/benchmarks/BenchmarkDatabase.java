@@ -0,0 +1,81 @@
+package dev.rosemarylab.dataquerying.benchmarks;
+
+import dev.rosemarylab.dataquerying.benchmarks.model.Country;
+import dev.rosemarylab.dataquerying.benchmarks.model.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * In-memory H2 databases holding generated customers, shared by the benchmarks.
+ */
+public final class BenchmarkDatabase {
+    private static final String[] FIRST_NAMES = {"Alice", "Bob", "Charlie", "Dave", "Eve", "Frank", "Grace", "Heidi",
+            "Ivan", "Judy", "Mallory", "Niaj", "Olivia", "Peggy", "Rupert", "Sybil", "Trent", "Victor", "Walter"};
+    private static final int COUNTRIES = 20;
+    private static final int BATCH_SIZE = 500;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Creates an entity manager factory over a new, empty in-memory database.
+     *
+     * @param name the database name, unique per benchmark state
+     * @return the entity manager factory
+     */
+    public static EntityManagerFactory create(String name) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1"));
+        factory.setPackagesToScan(Customer.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // Hibernate's SessionFactory clashes with Spring's proxy over JPA 3.2
+        factory.setEntityManagerFactoryInterface(EntityManagerFactory.class);
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.jdbc.batch_size", String.valueOf(BATCH_SIZE),
+                "hibernate.order_inserts", "true"));
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+
+    /**
+     * Inserts the given number of customers, with values drawn from a fixed seed so every run sees the same data.
+     *
+     * @param entityManagerFactory the entity manager factory
+     * @param customers            the number of customers
+     */
+    public static void populate(EntityManagerFactory entityManagerFactory, int customers) {
+        Random random = new Random(42);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            List<Country> countries = new ArrayList<>();
+            for (int i = 0; i < COUNTRIES; i++) {
+                Country country = new Country("C" + i, "Country " + i);
+                entityManager.persist(country);
+                countries.add(country);
+            }
+            for (int i = 0; i < customers; i++) {
+                String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + i;
+                entityManager.persist(new Customer(name, "customer" + i + "@example.com", 18 + random.nextInt(60),
+                        random.nextBoolean(), countries.get(random.nextInt(COUNTRIES))));
+                if (i % BATCH_SIZE == BATCH_SIZE - 1) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    countries.replaceAll(country -> entityManager.getReference(Country.class, country.getId()));
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
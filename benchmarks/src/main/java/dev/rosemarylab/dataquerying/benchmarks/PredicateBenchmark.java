@@ -0,0 +1,70 @@
+package dev.rosemarylab.dataquerying.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.SearchRequest;
+import dev.rosemarylab.dataquerying.benchmarks.model.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the JPA predicate of a {@link Query} with Hibernate's {@link CriteriaBuilder}, for a flat and a deep
+ * filter tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateBenchmark {
+
+    @Param({"0", "8"})
+    private int depth;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+    private Query<Customer> query;
+    private Specification<Customer> specification;
+
+    @Setup
+    public void setUp() throws IOException {
+        entityManagerFactory = BenchmarkDatabase.create("predicate");
+        entityManager = entityManagerFactory.createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        SearchRequest request = new ObjectMapper().readValue(SearchRequests.json(depth), SearchRequest.class)
+                .validate(entityManagerFactory.getMetamodel(), Customer.class);
+        query = request.getQuery();
+        specification = query.buildSpecification();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Predicate toPredicate() {
+        CriteriaQuery<Customer> criteriaQuery = criteriaBuilder.createQuery(Customer.class);
+        Root<Customer> root = criteriaQuery.from(Customer.class);
+        return specification.toPredicate(root, criteriaQuery, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate buildSpecificationAndPredicate() {
+        CriteriaQuery<Customer> criteriaQuery = criteriaBuilder.createQuery(Customer.class);
+        Root<Customer> root = criteriaQuery.from(Customer.class);
+        return query.buildSpecification().toPredicate(root, criteriaQuery, criteriaBuilder);
+    }
+}
@@ -0,0 +1,70 @@
+package dev.rosemarylab.dataquerying.benchmarks;
+
+import dev.rosemarylab.dataquerying.api.Projection;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.benchmarks.model.Customer;
+import dev.rosemarylab.dataquerying.benchmarks.model.CustomerDto;
+import dev.rosemarylab.dataquerying.benchmarks.model.CustomerView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paged {@link Projection#findAll(Query, Pageable)} queries end to end, on an in-memory H2 database holding generated
+ * customers: predicate construction, SQL execution, the count query and the mapping of the page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionFindAllBenchmark {
+
+    @Param({"10000", "100000"})
+    private int customers;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private Projection<Customer, CustomerDto> classProjection;
+    private Projection<Customer, CustomerView> interfaceProjection;
+    private Query<Customer> query;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        entityManagerFactory = BenchmarkDatabase.create("projection" + customers);
+        BenchmarkDatabase.populate(entityManagerFactory, customers);
+        entityManager = entityManagerFactory.createEntityManager();
+        classProjection = Projection.create(entityManager, Customer.class, CustomerDto.class);
+        interfaceProjection = Projection.create(entityManager, Customer.class, CustomerView.class);
+        query = Query.<Customer>where("active", true)
+                .and("age", SearchOperator.GTE, 30)
+                .and("country.code", SearchOperator.IN, List.of("C1", "C2", "C3", "C4", "C5"));
+        pageable = PageRequest.of(5, 50, Sort.by("name"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Page<CustomerDto> findAllToClass() {
+        return classProjection.findAll(query, pageable);
+    }
+
+    @Benchmark
+    public Page<CustomerView> findAllToInterface() {
+        return interfaceProjection.findAll(query, pageable);
+    }
+}
@@ -0,0 +1,73 @@
+package dev.rosemarylab.dataquerying.benchmarks;
+
+import dev.rosemarylab.dataquerying.api.EntityReplica;
+import dev.rosemarylab.dataquerying.api.Projection;
+import dev.rosemarylab.dataquerying.api.ProjectionFactory;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.benchmarks.model.Customer;
+import dev.rosemarylab.dataquerying.benchmarks.model.CustomerDto;
+import dev.rosemarylab.dataquerying.benchmarks.model.CustomerView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of rows to projections, to a class and to an interface, without the database. The customers are loaded
+ * into an {@link EntityReplica}, which answers {@link Projection#findTop(Query, Sort, int)} from memory: an unfiltered,
+ * unsorted query only copies the selected values of each row before they are mapped. The database is closed once the
+ * replica is loaded, so a call falling back to it fails instead of being measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionMappingBenchmark {
+    private static final int CUSTOMERS = 1000;
+
+    @Param({"50", "1000"})
+    private int rows;
+
+    private EntityReplica<Customer> replica;
+    private Projection<Customer, CustomerDto> classProjection;
+    private Projection<Customer, CustomerView> interfaceProjection;
+    private Query<Customer> query;
+
+    @Setup
+    public void setUp() {
+        EntityManagerFactory entityManagerFactory = BenchmarkDatabase.create("mapping" + rows);
+        BenchmarkDatabase.populate(entityManagerFactory, CUSTOMERS);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            replica = EntityReplica.create(entityManager, Customer.class, "name", "email", "age", "active");
+            ProjectionFactory projectionFactory = new ProjectionFactory(entityManager);
+            projectionFactory.replicate(replica);
+            classProjection = projectionFactory.create(Customer.class, CustomerDto.class);
+            interfaceProjection = projectionFactory.create(Customer.class, CustomerView.class);
+            query = Query.get();
+        } finally {
+            entityManager.close();
+            entityManagerFactory.close();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        replica.close();
+    }
+
+    @Benchmark
+    public List<CustomerDto> mapToClass() {
+        return classProjection.findTop(query, Sort.unsorted(), rows);
+    }
+
+    @Benchmark
+    public List<CustomerView> mapToInterface() {
+        return interfaceProjection.findTop(query, Sort.unsorted(), rows);
+    }
+}
@@ -0,0 +1,38 @@
+package dev.rosemarylab.dataquerying.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.SearchRequest;
+import dev.rosemarylab.dataquerying.benchmarks.model.Customer;
+import dev.rosemarylab.dataquerying.internal.search.SearchRequestQueryTransformer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transformation of the filters of a {@link SearchRequest} into a {@link Query}, for a flat and a deep filter tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryTransformerBenchmark {
+
+    @Param({"0", "8"})
+    private int depth;
+
+    private SearchRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        request = new ObjectMapper().readValue(SearchRequests.json(depth), SearchRequest.class);
+    }
+
+    @Benchmark
+    public Query<Customer> toQuery() {
+        return SearchRequestQueryTransformer.toQuery(request);
+    }
+}
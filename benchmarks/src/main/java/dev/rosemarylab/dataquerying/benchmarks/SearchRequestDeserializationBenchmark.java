@@ -0,0 +1,36 @@
+package dev.rosemarylab.dataquerying.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.SearchRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of a {@link SearchRequest} through the library's custom enum deserializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchRequestDeserializationBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Param({"0", "8"})
+    private int depth;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        json = SearchRequests.json(depth);
+    }
+
+    @Benchmark
+    public SearchRequest deserialize() throws IOException {
+        return mapper.readValue(json, SearchRequest.class);
+    }
+}
@@ -0,0 +1,34 @@
+package dev.rosemarylab.dataquerying.benchmarks;
+
+/**
+ * JSON search requests over customers: a small flat one and deep ones of nested AND/OR groups.
+ */
+public final class SearchRequests {
+    private SearchRequests() {
+    }
+
+    /**
+     * Returns the JSON of a search request.
+     *
+     * @param depth the number of nested filter groups, 0 for a flat request of three filters
+     * @return the JSON
+     */
+    public static String json(int depth) {
+        return """
+                {"filters": [%s], "conditionalOperator": "AND", "page": {"pageNumber": 2, "pageSize": 50},
+                 "order": [{"attribute": "name", "sortOrder": "ASC"}, {"attribute": "id", "sortOrder": "DESC"}]}
+                """.formatted(filters(depth, 0));
+    }
+
+    private static String filters(int depth, int level) {
+        String leaves = """
+                {"attribute": "name", "searchOperator": "STARTS_WITH", "value": "A%1$d"},
+                {"attribute": "age", "searchOperator": "GTE", "value": %2$d},
+                {"attribute": "country.code", "searchOperator": "IN", "value": ["C%1$d", "C%3$d"]}"""
+                .formatted(level, 18 + level, level + 1);
+        if (level == depth) return leaves;
+        String operator = level % 2 == 0 ? "OR" : "AND";
+        return leaves + """
+                , {"conditionalOperator": "%s", "filters": [%s]}""".formatted(operator, filters(depth, level + 1));
+    }
+}
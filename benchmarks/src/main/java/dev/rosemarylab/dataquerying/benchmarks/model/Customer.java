@@ -0,0 +1,55 @@
+package dev.rosemarylab.dataquerying.benchmarks.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+
+@Entity
+public class Customer {
+    @Id
+    @GeneratedValue
+    private Long id;
+    private String name;
+    private String email;
+    private Integer age;
+    private boolean active;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Country country;
+
+    public Customer() {
+    }
+
+    public Customer(String name, String email, Integer age, boolean active, Country country) {
+        this.name = name;
+        this.email = email;
+        this.age = age;
+        this.active = active;
+        this.country = country;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public Country getCountry() {
+        return country;
+    }
+}
@@ -0,0 +1,13 @@
+package dev.rosemarylab.dataquerying.benchmarks.model;
+
+public interface CustomerView {
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    Integer getAge();
+
+    boolean isActive();
+}
@@ -0,0 +1,20 @@
+package dev.rosemarylab.dataquerying.api;
+
+import dev.rosemarylab.dataquerying.internal.deserializers.AggregateFunctionDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+@JsonDeserialize(using = AggregateFunctionDeserializer.class)
+public enum AggregateFunction {
+    COUNT("COUNT"),
+    COUNT_DISTINCT("COUNT_DISTINCT"),
+    SUM("SUM"),
+    AVG("AVG"),
+    MIN("MIN"),
+    MAX("MAX");
+
+    public final String function;
+
+    AggregateFunction(String function) {
+        this.function = function;
+    }
+}
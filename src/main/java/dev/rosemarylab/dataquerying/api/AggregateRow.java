@@ -0,0 +1,53 @@
+package dev.rosemarylab.dataquerying.api;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A single result row of an {@link Aggregation}, holding the grouped attributes and aggregated values by alias.
+ */
+public class AggregateRow {
+    private final Map<String, Object> values;
+
+    public AggregateRow(Map<String, Object> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Returns the value stored under the given alias.
+     *
+     * @param alias the alias of a grouped attribute or aggregated value
+     * @return the value, may be {@code null}
+     */
+    public Object get(String alias) {
+        if (!values.containsKey(alias))
+            throw new IllegalArgumentException("Alias '" + alias + "' is not part of the aggregation.");
+        return values.get(alias);
+    }
+
+    /**
+     * Returns the value stored under the given alias, cast to the given type.
+     *
+     * @param alias the alias of a grouped attribute or aggregated value
+     * @param type  the expected type of the value
+     * @param <V>   the value type
+     * @return the value, may be {@code null}
+     */
+    public <V> V get(String alias, Class<V> type) {
+        return type.cast(get(alias));
+    }
+
+    /**
+     * Returns all values of the row, keyed by alias in selection order.
+     *
+     * @return an unmodifiable map of the row values
+     */
+    public Map<String, Object> toMap() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "AggregateRow" + values;
+    }
+}
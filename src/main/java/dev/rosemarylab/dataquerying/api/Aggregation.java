@@ -0,0 +1,209 @@
+package dev.rosemarylab.dataquerying.api;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a grouped aggregation that is executed by the database, see
+ * {@link Projection#aggregate(Query, Aggregation)}.
+ * <br><br>
+ * Group-by attributes can include a nested path, such as <code>role.name</code>, in which case the required join is
+ * applied automatically as a {@link jakarta.persistence.criteria.JoinType#LEFT}. Every grouped attribute and
+ * aggregated value is available in the result row under its alias. If no alias is given for a group-by attribute,
+ * its path in camel case is used, e.g. <code>role.name</code> becomes <code>roleName</code>.
+ * <p>Example usage:
+ * <pre>
+ * Aggregation aggregation = Aggregation.groupBy("role.name")
+ *     .count("users")
+ *     .max("createdAt", "lastCreated")
+ *     .having("users", SearchOperator.GT, 10);
+ *
+ * List&lt;AggregateRow&gt; rows = projection.aggregate(query, aggregation);
+ * </pre>
+ * </p>
+ */
+public class Aggregation {
+    private final List<GroupBy> groupBy = new ArrayList<>();
+    private final List<Metric> metrics = new ArrayList<>();
+    private final List<Having> having = new ArrayList<>();
+    private Sort sort = Sort.unsorted();
+
+    /**
+     * A grouped attribute.
+     *
+     * @param attribute the attribute path
+     * @param alias     the name of the attribute in the result row
+     */
+    public record GroupBy(String attribute, String alias) {
+    }
+
+    /**
+     * An aggregated value.
+     *
+     * @param function  the aggregate function
+     * @param attribute the aggregated attribute path, {@code null} for counting rows
+     * @param alias     the name of the value in the result row
+     */
+    public record Metric(AggregateFunction function, String attribute, String alias) {
+    }
+
+    /**
+     * A condition on an aggregated value, applied as a <code>HAVING</code> clause.
+     *
+     * @param alias    the alias of the aggregated value
+     * @param operator the operator to apply
+     * @param value    the value to compare against
+     */
+    public record Having(String alias, SearchOperator operator, Object value) {
+    }
+
+    private Aggregation() {
+    }
+
+    /**
+     * Creates an aggregation over all matching rows, without grouping.
+     *
+     * @return a new {@link Aggregation}
+     */
+    public static Aggregation create() {
+        return new Aggregation();
+    }
+
+    /**
+     * Creates an aggregation grouped by the given attributes.
+     *
+     * @param attributes the attribute paths to group by
+     * @return a new {@link Aggregation}
+     */
+    public static Aggregation groupBy(String... attributes) {
+        Aggregation aggregation = new Aggregation();
+        for (String attribute : attributes) {
+            aggregation.thenGroupBy(attribute, defaultAlias(attribute));
+        }
+        return aggregation;
+    }
+
+    /**
+     * Adds a grouped attribute with an explicit alias.
+     *
+     * @param attribute the attribute path to group by
+     * @param alias     the name of the attribute in the result row
+     * @return the current {@link Aggregation}
+     */
+    public Aggregation thenGroupBy(String attribute, String alias) {
+        groupBy.add(new GroupBy(attribute, alias));
+        return this;
+    }
+
+    /**
+     * Counts the rows of each group.
+     *
+     * @param alias the name of the count in the result row
+     * @return the current {@link Aggregation}
+     */
+    public Aggregation count(String alias) {
+        return metric(AggregateFunction.COUNT, null, alias);
+    }
+
+    /**
+     * Counts the distinct values of an attribute in each group.
+     *
+     * @param attribute the attribute path
+     * @param alias     the name of the count in the result row
+     * @return the current {@link Aggregation}
+     */
+    public Aggregation countDistinct(String attribute, String alias) {
+        return metric(AggregateFunction.COUNT_DISTINCT, attribute, alias);
+    }
+
+    public Aggregation sum(String attribute, String alias) {
+        return metric(AggregateFunction.SUM, attribute, alias);
+    }
+
+    public Aggregation avg(String attribute, String alias) {
+        return metric(AggregateFunction.AVG, attribute, alias);
+    }
+
+    public Aggregation min(String attribute, String alias) {
+        return metric(AggregateFunction.MIN, attribute, alias);
+    }
+
+    public Aggregation max(String attribute, String alias) {
+        return metric(AggregateFunction.MAX, attribute, alias);
+    }
+
+    /**
+     * Adds an aggregated value.
+     *
+     * @param function  the aggregate function
+     * @param attribute the attribute path, may be {@code null} for {@link AggregateFunction#COUNT}
+     * @param alias     the name of the value in the result row
+     * @return the current {@link Aggregation}
+     */
+    public Aggregation metric(AggregateFunction function, String attribute, String alias) {
+        if (function == null || alias == null)
+            throw new IllegalArgumentException("Aggregate function and alias cannot be null.");
+        if (attribute == null && function != AggregateFunction.COUNT)
+            throw new IllegalArgumentException(function + " requires an attribute.");
+        metrics.add(new Metric(function, attribute, alias));
+        return this;
+    }
+
+    /**
+     * Adds a <code>HAVING</code> condition on an aggregated value. Multiple conditions are combined with AND.
+     * Case-insensitive operators are translated by the projection's {@link QueryDialect}, as in its filters.
+     *
+     * @param alias    the alias of an aggregated value added through this aggregation
+     * @param operator the {@link SearchOperator} to apply
+     * @param value    the value to compare against
+     * @return the current {@link Aggregation}
+     */
+    public Aggregation having(String alias, SearchOperator operator, Object value) {
+        having.add(new Having(alias, operator, value));
+        return this;
+    }
+
+    /**
+     * Orders the result rows. Sort properties refer to aliases of grouped attributes or aggregated values.
+     *
+     * @param sort the sort criteria
+     * @return the current {@link Aggregation}
+     */
+    public Aggregation orderBy(Sort sort) {
+        this.sort = sort == null ? Sort.unsorted() : sort;
+        return this;
+    }
+
+    public List<GroupBy> getGroupBy() {
+        return Collections.unmodifiableList(groupBy);
+    }
+
+    public List<Metric> getMetrics() {
+        return Collections.unmodifiableList(metrics);
+    }
+
+    public List<Having> getHaving() {
+        return Collections.unmodifiableList(having);
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    private static String defaultAlias(String attribute) {
+        StringBuilder alias = new StringBuilder(attribute.length());
+        boolean upperNext = false;
+        for (char c : attribute.toCharArray()) {
+            if (c == '.') {
+                upperNext = true;
+            } else {
+                alias.append(upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            }
+        }
+        return alias.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package dev.rosemarylab.dataquerying.api;
+
+import dev.rosemarylab.dataquerying.internal.batch.ProjectionBatchLoader;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Collects key lookups issued by many callers and resolves them with a single {@link SearchOperator#IN} query
+ * per batch, backed by a {@link Projection}.
+ * <br><br>
+ * Keys are buffered until either {@link BatchLoaderOptions#window()} elapses or
+ * {@link BatchLoaderOptions#maxBatchSize()} keys are pending, whichever comes first. The batch is then executed as
+ * <code>keyAttribute IN (...)</code> and the rows are split back to each caller's future.
+ * <p>Result handling is deterministic:
+ * <ul>
+ *     <li>each key resolves to the list of rows whose key matches, in the order given by
+ *     {@link BatchLoaderOptions#sort()};</li>
+ *     <li>keys without matching rows resolve to an empty list;</li>
+ *     <li>the same key requested several times within a batch is queried once and shares the same future.</li>
+ * </ul>
+ * </p>
+ * <p>Example usage:
+ * <pre>
+ * BatchLoader&lt;Long, UserDto&gt; loader = BatchLoader.create(projection, "role.id", UserDto::getRoleId);
+ *
+ * CompletableFuture&lt;List&lt;UserDto&gt;&gt; users = loader.load(roleId);
+ * </pre>
+ * </p>
+ * The underlying {@link Projection} is invoked from the dispatching thread, so its {@code EntityManager}
+ * must be usable outside the caller's thread (e.g. the Spring shared {@code EntityManager} proxy).
+ *
+ * @param <K> the key type; must match the Java type of the key attribute
+ * @param <P> the projection (DTO) type
+ */
+public interface BatchLoader<K, P> extends AutoCloseable {
+
+    /**
+     * Creates a new {@code BatchLoader} with {@link BatchLoaderOptions#defaults() default options}.
+     *
+     * @param projection   the projection used to execute the batched queries
+     * @param keyAttribute the attribute the keys are matched against, may be a nested path such as <code>role.id</code>
+     * @param keyExtractor extracts the key from a projected row, used to split the results between callers
+     * @param <T>          the entity type
+     * @param <P>          the projection type
+     * @param <K>          the key type
+     * @return a new {@code BatchLoader}
+     */
+    static <T, P, K> BatchLoader<K, P> create(Projection<T, P> projection, String keyAttribute, Function<P, K> keyExtractor) {
+        return create(projection, keyAttribute, keyExtractor, BatchLoaderOptions.defaults());
+    }
+
+    /**
+     * Creates a new {@code BatchLoader} with the given options.
+     *
+     * @param projection   the projection used to execute the batched queries
+     * @param keyAttribute the attribute the keys are matched against, may be a nested path such as <code>role.id</code>
+     * @param keyExtractor extracts the key from a projected row, used to split the results between callers
+     * @param options      the batching options
+     * @param <T>          the entity type
+     * @param <P>          the projection type
+     * @param <K>          the key type
+     * @return a new {@code BatchLoader}
+     */
+    static <T, P, K> BatchLoader<K, P> create(Projection<T, P> projection, String keyAttribute, Function<P, K> keyExtractor, BatchLoaderOptions options) {
+        return new ProjectionBatchLoader<>(projection, keyAttribute, keyExtractor, options);
+    }
+
+    /**
+     * Requests the rows matching a single key. The lookup is deferred until the current batch is dispatched.
+     *
+     * @param key the key to look up; must not be {@code null}
+     * @return a future completed with the matching rows, or an empty list if there are none
+     */
+    CompletableFuture<List<P>> load(K key);
+
+    /**
+     * Requests the rows matching several keys. The keys join the current batch like individual {@link #load(Object)}
+     * calls would.
+     *
+     * @param keys the keys to look up; must not contain {@code null}
+     * @return a future completed with a map of each requested key to its rows, in the iteration order of {@code keys}
+     */
+    CompletableFuture<Map<K, List<P>>> loadMany(Collection<K> keys);
+
+    /**
+     * Dispatches the pending keys immediately instead of waiting for the batching window to elapse.
+     */
+    void dispatch();
+
+    /**
+     * Dispatches the pending keys and releases the scheduler used for the batching window.
+     * Subsequent {@link #load(Object)} calls are rejected.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,54 @@
+package dev.rosemarylab.dataquerying.api;
+
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Options controlling how a {@link BatchLoader} groups and executes key lookups.
+ *
+ * @param maxBatchSize the number of pending keys that triggers an immediate dispatch
+ * @param window       how long the first key of a batch waits for other keys before the batch is dispatched
+ * @param sort         the order of the rows returned for each key; unsorted means database order
+ * @param executor     the executor running the batched queries, or {@code null} to run them on the loader's
+ *                     scheduler thread
+ */
+public record BatchLoaderOptions(int maxBatchSize, Duration window, Sort sort, Executor executor) {
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    private static final Duration DEFAULT_WINDOW = Duration.ofMillis(2);
+
+    public BatchLoaderOptions {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Max batch size must be greater than zero.");
+        if (window == null || window.isNegative())
+            throw new IllegalArgumentException("Batching window must be a non-negative duration.");
+        if (sort == null)
+            sort = Sort.unsorted();
+    }
+
+    /**
+     * Returns the default options: batches of up to 100 keys, a 2 millisecond window and database order.
+     *
+     * @return the default options
+     */
+    public static BatchLoaderOptions defaults() {
+        return new BatchLoaderOptions(DEFAULT_MAX_BATCH_SIZE, DEFAULT_WINDOW, Sort.unsorted(), null);
+    }
+
+    public BatchLoaderOptions withMaxBatchSize(int maxBatchSize) {
+        return new BatchLoaderOptions(maxBatchSize, window, sort, executor);
+    }
+
+    public BatchLoaderOptions withWindow(Duration window) {
+        return new BatchLoaderOptions(maxBatchSize, window, sort, executor);
+    }
+
+    public BatchLoaderOptions withSort(Sort sort) {
+        return new BatchLoaderOptions(maxBatchSize, window, sort, executor);
+    }
+
+    public BatchLoaderOptions withExecutor(Executor executor) {
+        return new BatchLoaderOptions(maxBatchSize, window, sort, executor);
+    }
+}
@@ -0,0 +1,25 @@
+package dev.rosemarylab.dataquerying.api;
+
+/**
+ * The storage of an attribute in a {@link ColumnarResult}.
+ */
+public enum ColumnType {
+    /**
+     * An <code>int[]</code> column, for integer, short, byte and boolean attributes. Booleans are stored as 1 and 0.
+     */
+    INT,
+    /**
+     * A <code>long[]</code> column, for long attributes and for {@link java.time.Instant} and {@link java.util.Date}
+     * attributes, stored as milliseconds since the epoch.
+     */
+    LONG,
+    /**
+     * A <code>double[]</code> column, for double, float and {@link java.math.BigDecimal} attributes.
+     */
+    DOUBLE,
+    /**
+     * An <code>int[]</code> column of codes into a dictionary of the distinct values, for string and enum attributes.
+     * Enums are stored by name.
+     */
+    DICTIONARY
+}
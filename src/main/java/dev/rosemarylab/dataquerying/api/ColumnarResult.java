@@ -0,0 +1,99 @@
+package dev.rosemarylab.dataquerying.api;
+
+import java.util.List;
+
+/**
+ * Query results stored by column, in primitive arrays, see {@link Projection#findColumns(Query, org.springframework.data.domain.Sort)}.
+ * <p>Each attribute of the projection type is a column whose storage depends on the type of the entity attribute, see
+ * {@link ColumnType}. Values are read from the query results straight into the arrays, without building a map or a
+ * projection per row. Strings and enums are dictionary-encoded: a row holds the code of its value, the index of the
+ * value in the {@link #getDictionary(String) dictionary}, which lists the distinct values in order of appearance.</p>
+ * <p>The arrays returned are the ones of the result, not copies, and have exactly {@link #size()} elements. A
+ * {@code null} value is stored as zero, or as the code -1 in a dictionary column, and reported by
+ * {@link #isNull(String, int)}.</p>
+ * <pre>
+ * ColumnarResult points = projection.findColumns(Query.where("sensor", "s1"), Sort.by("timestamp"));
+ * long[] timestamps = points.getLongs("timestamp");
+ * double[] values = points.getDoubles("value");
+ * </pre>
+ */
+public interface ColumnarResult {
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    int size();
+
+    /**
+     * Returns the attributes of the result, in the order of the projection type.
+     *
+     * @return the attribute names
+     */
+    List<String> getAttributes();
+
+    /**
+     * Returns the storage of an attribute.
+     *
+     * @param attribute the attribute name
+     * @return the column type
+     * @throws IllegalArgumentException if the attribute is not part of the result
+     */
+    ColumnType getType(String attribute);
+
+    /**
+     * Returns the values of an {@link ColumnType#INT} column.
+     *
+     * @param attribute the attribute name
+     * @return the values
+     * @throws IllegalArgumentException if the attribute is not part of the result or is stored in another type of column
+     */
+    int[] getInts(String attribute);
+
+    /**
+     * Returns the values of a {@link ColumnType#LONG} column.
+     *
+     * @param attribute the attribute name
+     * @return the values
+     * @throws IllegalArgumentException if the attribute is not part of the result or is stored in another type of column
+     */
+    long[] getLongs(String attribute);
+
+    /**
+     * Returns the values of a {@link ColumnType#DOUBLE} column.
+     *
+     * @param attribute the attribute name
+     * @return the values
+     * @throws IllegalArgumentException if the attribute is not part of the result or is stored in another type of column
+     */
+    double[] getDoubles(String attribute);
+
+    /**
+     * Returns the dictionary codes of a {@link ColumnType#DICTIONARY} column.
+     *
+     * @param attribute the attribute name
+     * @return the codes, -1 for {@code null} values
+     * @throws IllegalArgumentException if the attribute is not part of the result or is stored in another type of column
+     */
+    int[] getCodes(String attribute);
+
+    /**
+     * Returns the distinct values of a {@link ColumnType#DICTIONARY} column, indexed by code.
+     *
+     * @param attribute the attribute name
+     * @return the dictionary
+     * @throws IllegalArgumentException if the attribute is not part of the result or is stored in another type of column
+     */
+    List<String> getDictionary(String attribute);
+
+    /**
+     * Checks whether the value of an attribute is {@code null} in a row.
+     *
+     * @param attribute the attribute name
+     * @param row       the row index
+     * @return {@code true} if the value is {@code null}
+     * @throws IllegalArgumentException if the attribute is not part of the result
+     */
+    boolean isNull(String attribute, int row);
+}
@@ -0,0 +1,86 @@
+package dev.rosemarylab.dataquerying.api;
+
+import dev.rosemarylab.dataquerying.internal.memory.ReplicaTable;
+import jakarta.persistence.EntityManager;
+
+/**
+ * In-memory copy of the attributes of an entity table, indexed to evaluate queries without the database.
+ * <p>Meant for small tables, up to a few million rows, queried constantly with <code>EQ</code>, <code>IN</code> and
+ * range filters. Every low-cardinality attribute is indexed with one bitmap per value, and every comparable attribute
+ * with its rows sorted by value, so filters are evaluated as AND/OR operations on bitmaps. Other operators scan the
+ * rows.</p>
+ * <p>Once given to {@link ProjectionFactory#replicate}, the {@link Projection}s the factory creates for the entity
+ * answer the <code>findAll</code>,
+ * <code>findTop</code>, <code>count</code> and <code>exists</code> calls taking a {@link Query} from the replica, when
+ * every attribute the call filters, sorts or projects is replicated and the query holds no
+ * {@link org.springframework.data.jpa.domain.Specification}; other calls run in the database. The auto-configuration
+ * gives every {@link EntityReplica} bean to its {@link ProjectionFactory} bean.</p>
+ * <p>The replica is kept up to date by {@link #refresh(Object)} and {@link #remove(Object)}, which
+ * {@link EntityReplicaListener} calls when entities are persisted, updated or removed, once their transaction commits.
+ * Until then, the projections called in a read-write transaction query the database, which sees its changes. Changes
+ * made outside of JPA need a {@link #reload()}.</p>
+ * <pre>
+ * &#64;Bean
+ * public EntityReplica&lt;Country&gt; countryReplica(EntityManager entityManager) {
+ *     return EntityReplica.create(entityManager, Country.class, "code", "name", "region", "population");
+ * }
+ * </pre>
+ *
+ * @param <T> the entity type
+ */
+public interface EntityReplica<T> extends AutoCloseable {
+
+    /**
+     * Creates a replica of the given attributes of an entity, and loads it.
+     *
+     * @param entityManager the entity manager loading the replica
+     * @param entityClass   the entity class, with a single id attribute
+     * @param attributes    the replicated attributes, single-valued paths such as <code>role.name</code> included; the
+     *                      id is always replicated
+     * @param <T>           the entity type
+     * @return the loaded replica
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException if an attribute does not exist
+     */
+    static <T> EntityReplica<T> create(EntityManager entityManager, Class<T> entityClass, String... attributes) {
+        return new ReplicaTable<>(entityManager, entityClass, attributes);
+    }
+
+    /**
+     * Returns the replicated entity class.
+     *
+     * @return the entity class
+     */
+    Class<T> getEntityClass();
+
+    /**
+     * Reloads every row from the database.
+     */
+    void reload();
+
+    /**
+     * Adds the row of an entity, or replaces it.
+     *
+     * @param entity the entity, with its id assigned
+     */
+    void refresh(T entity);
+
+    /**
+     * Removes the row of an entity.
+     *
+     * @param entity the entity
+     */
+    void remove(T entity);
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    int size();
+
+    /**
+     * Closes the replica, the projections of the factories it was given to query the database again.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,44 @@
+package dev.rosemarylab.dataquerying.api;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener keeping the {@link EntityReplica}s of the application's {@link ProjectionFactory} beans up to
+ * date, declared with <code>&#64;EntityListeners(EntityReplicaListener.class)</code> on the entity, or as a default
+ * listener in <code>orm.xml</code>. Entities without a replica are ignored.
+ * <p>The listener finds the factories through the Spring bean container of the JPA provider, which Spring Boot
+ * configures for Hibernate. A listener created by the provider itself reaches no factory and does nothing.</p>
+ * <p>The callbacks read the changed rows when they are flushed, and apply them to the replica once the Spring managed
+ * transaction commits, so a rolled back transaction leaves the replica untouched. Outside of such a transaction they
+ * are applied immediately.</p>
+ */
+public class EntityReplicaListener {
+    private final ObjectProvider<ProjectionFactory> projectionFactories;
+
+    public EntityReplicaListener() {
+        this(null);
+    }
+
+    // Resolved lazily, as the listener is created with the entity manager factory the projection factories depend on
+    @Autowired
+    public EntityReplicaListener(ObjectProvider<ProjectionFactory> projectionFactories) {
+        this.projectionFactories = projectionFactories;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void refresh(Object entity) {
+        if (projectionFactories == null) return;
+        projectionFactories.orderedStream().forEach(factory -> factory.getReplicas().refresh(entity));
+    }
+
+    @PostRemove
+    public void remove(Object entity) {
+        if (projectionFactories == null) return;
+        projectionFactories.orderedStream().forEach(factory -> factory.getReplicas().remove(entity));
+    }
+}
@@ -0,0 +1,16 @@
+package dev.rosemarylab.dataquerying.api;
+
+/**
+ * The formats of {@link Projection#export(Query, org.springframework.data.domain.Sort, ExportOptions, java.io.OutputStream)}.
+ */
+public enum ExportFormat {
+    /**
+     * Comma-separated values as defined by RFC 4180: a header line with the attribute names, then one line per row.
+     * Fields holding a comma, a quote or a line break are quoted, and {@code null} is an empty field.
+     */
+    CSV,
+    /**
+     * Newline-delimited JSON: one JSON object per line, keyed by attribute name.
+     */
+    NDJSON
+}
@@ -0,0 +1,41 @@
+package dev.rosemarylab.dataquerying.api;
+
+/**
+ * Options controlling how {@link Projection#export(Query, org.springframework.data.domain.Sort, ExportOptions, java.io.OutputStream)}
+ * reads and writes rows.
+ *
+ * @param format        the output format
+ * @param fetchSize     the number of rows the JDBC driver fetches per round trip
+ * @param flushInterval the number of rows written between two flushes of the output stream
+ */
+public record ExportOptions(ExportFormat format, int fetchSize, int flushInterval) {
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final int DEFAULT_FLUSH_INTERVAL = 1000;
+
+    public ExportOptions {
+        if (format == null)
+            throw new IllegalArgumentException("Export format cannot be null.");
+        if (fetchSize < 1)
+            throw new IllegalArgumentException("Fetch size must be greater than zero.");
+        if (flushInterval < 1)
+            throw new IllegalArgumentException("Flush interval must be greater than zero.");
+    }
+
+    /**
+     * Returns the default options for a format: 500 rows per fetch and a flush every 1000 rows.
+     *
+     * @param format the output format
+     * @return the default options
+     */
+    public static ExportOptions of(ExportFormat format) {
+        return new ExportOptions(format, DEFAULT_FETCH_SIZE, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    public ExportOptions withFetchSize(int fetchSize) {
+        return new ExportOptions(format, fetchSize, flushInterval);
+    }
+
+    public ExportOptions withFlushInterval(int flushInterval) {
+        return new ExportOptions(format, fetchSize, flushInterval);
+    }
+}
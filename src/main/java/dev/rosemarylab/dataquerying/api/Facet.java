@@ -0,0 +1,144 @@
+package dev.rosemarylab.dataquerying.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a facet computed over the entities matching a {@link SearchRequest}, see
+ * {@link Projection#facets(SearchRequest, java.util.Collection)}.
+ * <ul>
+ *     <li>{@link FacetType#TERMS} facets count the entities per distinct attribute value, most frequent first.</li>
+ *     <li>{@link FacetType#RANGE} facets count the entities per range bucket. Lower bounds are inclusive and upper bounds
+ *     are exclusive; a {@code null} bound leaves the range open on that side.</li>
+ * </ul>
+ * Multi-select facets should use {@link #excludeOwnFilter()}, so the counts of a facet are not restricted by the filters
+ * the user selected on that same facet.
+ * <p>Example usage:
+ * <pre>
+ * List&lt;Facet&gt; facets = List.of(
+ *     Facet.terms("role.name").excludeOwnFilter(),
+ *     Facet.range("age").bucket("young", null, 30).bucket("senior", 30, null));
+ *
+ * Map&lt;String, List&lt;FacetBucket&gt;&gt; counts = projection.facets(request, facets);
+ * </pre>
+ * </p>
+ */
+public class Facet {
+    private final FacetType type;
+    private final String attribute;
+    private final List<Range> ranges = new ArrayList<>();
+    private String name;
+    private Integer size;
+    private boolean excludeOwnFilter;
+
+    /**
+     * A bucket of a {@link FacetType#RANGE} facet.
+     *
+     * @param key  the key of the bucket in the result
+     * @param from the inclusive lower bound, {@code null} for unbounded
+     * @param to   the exclusive upper bound, {@code null} for unbounded
+     */
+    public record Range(String key, Object from, Object to) {
+    }
+
+    private Facet(FacetType type, String attribute) {
+        if (attribute == null)
+            throw new IllegalArgumentException("Facet attribute cannot be null.");
+        this.type = type;
+        this.attribute = attribute;
+        this.name = attribute;
+    }
+
+    /**
+     * Creates a facet counting the entities per distinct value of the attribute.
+     *
+     * @param attribute the attribute path, may be nested such as <code>role.name</code>
+     * @return a new {@link Facet}
+     */
+    public static Facet terms(String attribute) {
+        return new Facet(FacetType.TERMS, attribute);
+    }
+
+    /**
+     * Creates a facet counting the entities per range of the attribute. Buckets are added with
+     * {@link #bucket(String, Object, Object)}.
+     *
+     * @param attribute the attribute path, may be nested such as <code>salary.amount</code>
+     * @return a new {@link Facet}
+     */
+    public static Facet range(String attribute) {
+        return new Facet(FacetType.RANGE, attribute);
+    }
+
+    /**
+     * Adds a bucket to a {@link FacetType#RANGE} facet.
+     *
+     * @param key  the key of the bucket in the result
+     * @param from the inclusive lower bound, {@code null} for unbounded
+     * @param to   the exclusive upper bound, {@code null} for unbounded
+     * @return the current {@link Facet}
+     */
+    public Facet bucket(String key, Object from, Object to) {
+        if (type != FacetType.RANGE)
+            throw new IllegalStateException("Buckets can only be added to RANGE facets.");
+        ranges.add(new Range(key, from, to));
+        return this;
+    }
+
+    /**
+     * Sets the name under which the facet is returned. Defaults to the attribute path.
+     *
+     * @param name the facet name
+     * @return the current {@link Facet}
+     */
+    public Facet named(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Limits a {@link FacetType#TERMS} facet to its most frequent values.
+     *
+     * @param size the maximum number of buckets
+     * @return the current {@link Facet}
+     */
+    public Facet limit(int size) {
+        this.size = size;
+        return this;
+    }
+
+    /**
+     * Computes the facet without the search request's filters on the facet's own attribute.
+     *
+     * @return the current {@link Facet}
+     */
+    public Facet excludeOwnFilter() {
+        this.excludeOwnFilter = true;
+        return this;
+    }
+
+    public FacetType getType() {
+        return type;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Range> getRanges() {
+        return Collections.unmodifiableList(ranges);
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public boolean isExcludeOwnFilter() {
+        return excludeOwnFilter;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.rosemarylab.dataquerying.api;
+
+/**
+ * A single bucket of a {@link Facet} result.
+ *
+ * @param key   the attribute value for a {@link FacetType#TERMS} facet, or the range key for a {@link FacetType#RANGE}
+ *              facet
+ * @param count the number of matching entities in the bucket
+ */
+public record FacetBucket(Object key, long count) {
+}
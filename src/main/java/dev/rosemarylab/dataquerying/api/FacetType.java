@@ -0,0 +1,16 @@
+package dev.rosemarylab.dataquerying.api;
+
+import dev.rosemarylab.dataquerying.internal.deserializers.FacetTypeDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+@JsonDeserialize(using = FacetTypeDeserializer.class)
+public enum FacetType {
+    TERMS("TERMS"),
+    RANGE("RANGE");
+
+    public final String type;
+
+    FacetType(String type) {
+        this.type = type;
+    }
+}
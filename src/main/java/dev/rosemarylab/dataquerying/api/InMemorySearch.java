@@ -0,0 +1,121 @@
+package dev.rosemarylab.dataquerying.api;
+
+import dev.rosemarylab.dataquerying.internal.memory.InMemoryComparator;
+import dev.rosemarylab.dataquerying.internal.memory.InMemoryPredicateVisitor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates a {@link Query} or a {@link SearchRequest} on Java objects instead of the database, e.g. on a cached list
+ * of entities or DTOs, or to check an entity against a query before saving it.
+ * <p>The query is compiled once into a {@link Predicate} with the semantics of the database query: <code>role.name</code>
+ * navigates the object graph, a comparison with {@code null} is not satisfied, and a path through a collection is
+ * satisfied by any of its elements. Properties are read with method handles cached per class, from the getter if there
+ * is one, otherwise from the field. Queries holding a {@link org.springframework.data.jpa.domain.Specification} can't be
+ * evaluated.</p>
+ * <pre>
+ * Predicate&lt;User&gt; adults = InMemorySearch.predicate(Query.where("age", SearchOperator.GTE, 18));
+ * Page&lt;User&gt; page = InMemorySearch.findAll(cachedUsers, searchRequest);
+ * </pre>
+ */
+public final class InMemorySearch {
+    private InMemorySearch() {
+    }
+
+    /**
+     * Compiles a query into a predicate.
+     *
+     * @param query the query
+     * @param <T>   the type of the evaluated objects
+     * @return the predicate, safe to share between threads
+     * @throws UnsupportedOperationException if the query holds a {@link org.springframework.data.jpa.domain.Specification}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Predicate<T> predicate(Query<T> query) {
+        return (Predicate<T>) query.accept(new InMemoryPredicateVisitor());
+    }
+
+    /**
+     * Compiles the filters of a search request into a predicate.
+     *
+     * @param request the search request
+     * @param <T>     the type of the evaluated objects
+     * @return the predicate, safe to share between threads
+     */
+    public static <T> Predicate<T> predicate(SearchRequest request) {
+        return predicate(request.<T>getQuery());
+    }
+
+    /**
+     * Creates a comparator ordering objects as the database orders them for the sort, {@code null} values first in
+     * ascending order. {@link Relevance} orders are supported.
+     *
+     * @param sort the sort
+     * @param <T>  the type of the compared objects
+     * @return the comparator
+     */
+    public static <T> Comparator<T> comparator(Sort sort) {
+        return InMemoryComparator.of(sort);
+    }
+
+    /**
+     * Returns the objects matching the query, in sort order.
+     *
+     * @param source the objects
+     * @param query  the query
+     * @param sort   the sort
+     * @param <T>    the type of the objects
+     * @return the matching objects
+     */
+    public static <T> List<T> findAll(Collection<? extends T> source, Query<T> query, Sort sort) {
+        return source.stream()
+                .<T>map(object -> object)
+                .filter(predicate(query))
+                .sorted(comparator(sort))
+                .toList();
+    }
+
+    /**
+     * Returns a page of the objects matching the query.
+     *
+     * @param source   the objects
+     * @param query    the query
+     * @param pageable the page and its sort
+     * @param <T>      the type of the objects
+     * @return the page
+     */
+    public static <T> Page<T> findAll(Collection<? extends T> source, Query<T> query, Pageable pageable) {
+        List<T> matching = findAll(source, query, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matching, pageable, matching.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        int to = (int) Math.min((long) from + pageable.getPageSize(), matching.size());
+        return new PageImpl<>(matching.subList(from, to), pageable, matching.size());
+    }
+
+    /**
+     * Returns the page of objects a search request asks for: its filters, its sort and its page, or every matching
+     * object if it has no page.
+     *
+     * @param source  the objects
+     * @param request the search request
+     * @param <T>     the type of the objects
+     * @return the page
+     */
+    public static <T> Page<T> findAll(Collection<? extends T> source, SearchRequest request) {
+        Pageable pageable = request.getPageable();
+        if (pageable.isUnpaged()) {
+            List<T> matching = findAll(source, request.getQuery(), request.getSort());
+            return new PageImpl<>(matching, pageable, matching.size());
+        }
+        return findAll(source, request.getQuery(), pageable);
+    }
+}
@@ -0,0 +1,173 @@
+package dev.rosemarylab.dataquerying.api;
+
+import dev.rosemarylab.dataquerying.internal.executor.JdbcProjector;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only {@link Projection} executed as plain SQL, without the JPA provider.
+ * <p>Queries are translated to parameterized SQL over the tables and columns of the entity, see {@link TableMapping},
+ * and run with a {@link JdbcOperations}. The columns of the result set are mapped to the projection directly: no
+ * criteria query is interpreted, no tuple is built and nothing is attached to a persistence context. The results are
+ * the ones of {@link Projection} for the same queries.</p>
+ * <p>Nested attributes such as <code>role.name</code> are read through to-one associations. Collections, specifications
+ * and sorting by {@link Relevance} can't be translated; neither can a {@link QueryDialect} other than the case folding
+ * of {@link QueryDialect#LOWER_CASE} and {@link QueryDialect#UPPER_CASE}.</p>
+ * <p>The SQL runs on the connection of the current Spring transaction, if any. With a
+ * {@link org.springframework.orm.jpa.JpaTransactionManager}, the data source must be set on the transaction manager
+ * for the SQL to see the changes made through the entity manager in the same transaction.</p>
+ * <pre>
+ * JdbcProjection&lt;User, UserDto&gt; users = JdbcProjection.create(entityManager, dataSource, User.class, UserDto.class);
+ * Page&lt;UserDto&gt; page = users.findAll(Query.where("role.name", "ADMIN"), PageRequest.of(0, 20, Sort.by("name")));
+ * </pre>
+ *
+ * @param <T> the entity type from which data is queried
+ * @param <P> the projection (DTO) type to which the query results are mapped
+ */
+public interface JdbcProjection<T, P> {
+
+    /**
+     * Creates a JDBC projection running its SQL on a data source, with the {@link TableMapping#defaults() default}
+     * mapping.
+     *
+     * @param entityManager the entity manager whose metamodel describes the entity
+     * @param dataSource    the data source
+     * @param type          the entity class to be queried
+     * @param projection    the projection (DTO) class to which the results will be mapped
+     * @param <T>           the entity type
+     * @param <P>           the projection type
+     * @return the projection
+     */
+    static <T, P> JdbcProjection<T, P> create(EntityManager entityManager, DataSource dataSource, Class<T> type, Class<P> projection) {
+        return create(entityManager, new JdbcTemplate(dataSource), type, projection, TableMapping.defaults());
+    }
+
+    /**
+     * Creates a JDBC projection running its SQL with the given {@link JdbcOperations}.
+     *
+     * @param entityManager  the entity manager whose metamodel describes the entity
+     * @param jdbcOperations the JDBC operations, typically a {@link JdbcTemplate}
+     * @param type           the entity class to be queried
+     * @param projection     the projection (DTO) class to which the results will be mapped
+     * @param mapping        the tables and columns of the entities
+     * @param <T>            the entity type
+     * @param <P>            the projection type
+     * @return the projection
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException if a projected attribute
+     *                                                                                   can't be mapped to a column
+     */
+    static <T, P> JdbcProjection<T, P> create(EntityManager entityManager, JdbcOperations jdbcOperations, Class<T> type, Class<P> projection, TableMapping mapping) {
+        return new JdbcProjector<>(entityManager.getMetamodel(), jdbcOperations, type, projection, mapping);
+    }
+
+    /**
+     * Creates a JDBC projection running its SQL with the given {@link JdbcOperations}, translating the
+     * case-insensitive filters with the given dialect.
+     *
+     * @param entityManager  the entity manager whose metamodel describes the entity
+     * @param jdbcOperations the JDBC operations, typically a {@link JdbcTemplate}
+     * @param type           the entity class to be queried
+     * @param projection     the projection (DTO) class to which the results will be mapped
+     * @param mapping        the tables and columns of the entities
+     * @param dialect        the dialect of the database
+     * @param <T>            the entity type
+     * @param <P>            the projection type
+     * @return the projection
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException if a projected attribute
+     *                                                                                   can't be mapped to a column
+     */
+    static <T, P> JdbcProjection<T, P> create(EntityManager entityManager, JdbcOperations jdbcOperations, Class<T> type, Class<P> projection, TableMapping mapping,
+                                              QueryDialect dialect) {
+        return new JdbcProjector<>(entityManager.getMetamodel(), jdbcOperations, type, projection, mapping, dialect);
+    }
+
+    /**
+     * Retrieves the entities matching a query, projected to the projection type.
+     *
+     * @param query the query, may be {@code null}
+     * @return a list of projections
+     */
+    List<P> findAll(Query<T> query);
+
+    /**
+     * Retrieves the entities matching a query in the given order, projected to the projection type.
+     *
+     * @param query the query, may be {@code null}
+     * @param sort  the sort, may be {@code null}
+     * @return a list of projections
+     */
+    List<P> findAll(Query<T> query, Sort sort);
+
+    /**
+     * Retrieves the entities matching a query in the given order into primitive columns, see {@link ColumnarResult}.
+     * Numeric columns are read with the primitive getters of the result set, so no value is boxed.
+     *
+     * @param query the query, may be {@code null}
+     * @param sort  the sort, may be {@code null}
+     * @return the columns of the projection's attributes
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException if an attribute type can't be
+     *                                                                                   stored in a primitive column
+     */
+    ColumnarResult findColumns(Query<T> query, Sort sort);
+
+    /**
+     * Retrieves a page of the entities matching a query, projected to the projection type.
+     *
+     * @param query    the query, may be {@code null}
+     * @param pageable the pagination information
+     * @return a page of projections
+     */
+    Page<P> findAll(Query<T> query, Pageable pageable);
+
+    /**
+     * Retrieves the page of a search request. If the request lists <code>fields</code>, only those attributes are
+     * selected, see {@link Projection#findAll(SearchRequest)}. The request is validated against the entity first.
+     *
+     * @param request the search request
+     * @return a page of projections
+     */
+    Page<P> findAll(SearchRequest request);
+
+    /**
+     * Retrieves the page of a search request as rows holding only the requested <code>fields</code>, see
+     * {@link Projection#findRows(SearchRequest)}.
+     *
+     * @param request the search request
+     * @return a page of rows
+     */
+    Page<Map<String, Object>> findRows(SearchRequest request);
+
+    /**
+     * Retrieves the first {@code n} entities matching a query in the given order.
+     *
+     * @param query the query, may be {@code null}
+     * @param sort  the sort, may be {@code null}
+     * @param n     the maximum number of results
+     * @return at most {@code n} projections
+     */
+    List<P> findTop(Query<T> query, Sort sort, int n);
+
+    /**
+     * Checks whether any entity matches a query.
+     *
+     * @param query the query, may be {@code null}
+     * @return {@code true} if at least one entity matches
+     */
+    boolean exists(Query<T> query);
+
+    /**
+     * Counts the entities matching a query.
+     *
+     * @param query the query, may be {@code null}
+     * @return the number of matching entities
+     */
+    long count(Query<T> query);
+}
@@ -0,0 +1,68 @@
+package dev.rosemarylab.dataquerying.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+
+import java.io.IOException;
+
+/**
+ * A page of query results that is only ever serialized to JSON, see
+ * {@link Projection#findAllAsJson(Query, org.springframework.data.domain.Pageable)}.
+ * <p>The page holds the selected values of its rows and writes them straight to the {@link JsonGenerator}, so no
+ * projection object is built. Jackson serializes it like a Spring Data
+ * {@link org.springframework.data.web.PagedModel}:</p>
+ * <pre>
+ * {"content":[{"id":1,"name":"John"}],"page":{"size":20,"number":0,"totalElements":1,"totalPages":1}}
+ * </pre>
+ * <p>The rows are written the way the serializing {@link com.fasterxml.jackson.databind.ObjectMapper} writes the
+ * projection type: its <code>&#64;JsonProperty</code>, <code>&#64;JsonIgnore</code>, <code>&#64;JsonFormat</code> and
+ * <code>&#64;JsonInclude(NON_NULL)</code> annotations, and the naming strategy and serializers of the mapper, e.g. for
+ * dates, apply. Getters without a selected attribute aren't written, and the page itself keeps the names above.
+ * {@link #writeTo(JsonGenerator)} uses the mapper of the generator; without one, the rows are written under the
+ * attribute names, dates and UUIDs as their ISO text and enums as their name.</p>
+ */
+public interface JsonPage extends JsonSerializable {
+
+    /**
+     * Returns the number of the page, starting from zero.
+     *
+     * @return the page number
+     */
+    int getNumber();
+
+    /**
+     * Returns the requested size of the page, or the number of rows if the page is unpaged.
+     *
+     * @return the page size
+     */
+    int getSize();
+
+    /**
+     * Returns the number of rows of this page.
+     *
+     * @return the number of rows
+     */
+    int getNumberOfElements();
+
+    /**
+     * Returns the number of rows of all pages.
+     *
+     * @return the total number of rows
+     */
+    long getTotalElements();
+
+    /**
+     * Returns the number of pages.
+     *
+     * @return the total number of pages
+     */
+    int getTotalPages();
+
+    /**
+     * Writes the page as a JSON object.
+     *
+     * @param generator the generator, neither flushed nor closed
+     * @throws IOException if writing fails
+     */
+    void writeTo(JsonGenerator generator) throws IOException;
+}
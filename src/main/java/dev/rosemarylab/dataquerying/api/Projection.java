@@ -7,7 +7,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 /**
  * Represents a projection operation that retrieves data from an underlying entity
@@ -33,6 +38,39 @@ public interface Projection<T, P> {
         return new GenericProjector<>(entityManager, type, projection);
     }
 
+    /**
+     * Creates a new {@code Projection} instance backed by the given entity manager, translating the case-insensitive
+     * and full-text filters and the relevance orders with the given dialect.
+     *
+     * @param entityManager the entity manager used to perform queries
+     * @param type          the entity class to be queried
+     * @param projection    the projection (DTO) class to which the results will be mapped
+     * @param dialect       the dialect of the database
+     * @param <T>           the entity type
+     * @param <P>           the projection type
+     * @return a new instance of {@code Projection} for the specified types
+     */
+    static <T, P> Projection<T, P> create(EntityManager entityManager, Class<T> type, Class<P> projection, QueryDialect dialect) {
+        return new GenericProjector<>(entityManager, type, projection, dialect);
+    }
+
+    /**
+     * Creates a new {@code Projection} instance backed by the given entity manager, translating the queries with the
+     * given dialect and running the OR branches of the queries the union policy selects as separate queries.
+     *
+     * @param entityManager the entity manager used to perform queries
+     * @param type          the entity class to be queried
+     * @param projection    the projection (DTO) class to which the results will be mapped
+     * @param dialect       the dialect of the database
+     * @param unionPolicy   the policy deciding which queries run their OR branches as separate queries
+     * @param <T>           the entity type
+     * @param <P>           the projection type
+     * @return a new instance of {@code Projection} for the specified types
+     */
+    static <T, P> Projection<T, P> create(EntityManager entityManager, Class<T> type, Class<P> projection, QueryDialect dialect, UnionPolicy unionPolicy) {
+        return new GenericProjector<>(entityManager, type, projection, dialect, unionPolicy);
+    }
+
     /**
      * Retrieves all entities projected to the projection type.
      *
@@ -171,5 +209,204 @@ public interface Projection<T, P> {
      * @return a page of projections matching the query criteria
      */
     Page<P> findAll(Query<T> query, Pageable pageable, boolean distinct);
-}
 
+    /**
+     * Retrieves the page of a search request, projected to the projection type. The request is validated against the
+     * entity first, see {@link SearchRequest#validate}, so no invalid request reaches the database.
+     * <p>If the request lists <code>fields</code>, only those attributes of the projection type are selected and the
+     * other attributes of the returned projections are left {@code null}, or at their default value for primitives.
+     * Without fields, this is {@link #findAll(Query, Pageable)} with the query and pageable of the request.</p>
+     *
+     * @param request the {@link SearchRequest} holding the filters, fields, sort and page
+     * @return a page of projections
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException if a field is not an attribute of
+     *                                                                                the projection type
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.InvalidSearchRequestException if the request doesn't match
+     *                                                                                   the entity, see
+     *                                                                                   {@link SearchRequest#validate}
+     */
+    Page<P> findAll(SearchRequest request);
+
+    /**
+     * Retrieves the page of a search request as rows holding only the requested <code>fields</code>, keyed by
+     * attribute in request order. Without fields, every attribute of the projection type is selected.
+     *
+     * @param request the {@link SearchRequest} holding the filters, fields, sort and page
+     * @return a page of rows
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException if a field is not an attribute of
+     *                                                                                the projection type
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.InvalidSearchRequestException if the request doesn't match
+     *                                                                                   the entity, see
+     *                                                                                   {@link SearchRequest#validate}
+     */
+    Page<Map<String, Object>> findRows(SearchRequest request);
+
+    /**
+     * Retrieves all entities matching the query, in the given order, into primitive columns, see
+     * {@link ColumnarResult}. The selected values are unboxed into the columns as they are read, without building the
+     * projection objects.
+     *
+     * @param query the {@link Query} object which contains the data to build the {@link Specification} object;
+     *              may be {@code null} to select all entities
+     * @param sort  the sort criteria; may be {@code null}
+     * @return the columns of the projection's attributes
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException if an attribute type can't be
+     *                                                                                   stored in a primitive column
+     */
+    ColumnarResult findColumns(Query<T> query, Sort sort);
+
+    /**
+     * Retrieves a page of entities matching the query for a response that only serializes it to JSON.
+     * <p>The selected values are written to the JSON as they were read, without building the projection objects; see
+     * {@link JsonPage} for the layout and how the Jackson annotations of the projection type apply. The page runs as a
+     * single query over the database, followed by a count query unless the page is the last one. A distinct query
+     * sorted on attributes the projection doesn't select first reads the ids of the page, then their rows.</p>
+     *
+     * @param query    the {@link Query} object which contains the data to build the {@link Specification} object;
+     *                 may be {@code null} to select all entities
+     * @param pageable the {@link Pageable} object which contains pagination information
+     * @return a page serialized by Jackson as a JSON object
+     */
+    JsonPage findAllAsJson(Query<T> query, Pageable pageable);
+
+    /**
+     * Retrieves the first {@code n} entities matching the criteria built by the provided query in the order of the
+     * provided sort, projected to the projection type. The sort and the limit are applied by the database and no count
+     * query is executed.
+     *
+     * @param query the {@link Query} object which contains the data to build the {@link Specification} object;
+     *              may be {@code null} to consider all entities
+     * @param sort  the sort criteria; may be {@code null}
+     * @param n     the maximum number of results
+     * @return at most {@code n} sorted projections matching the query criteria
+     */
+    List<P> findTop(Query<T> query, Sort sort, int n);
+
+    /**
+     * Checks whether any entity matches the criteria built by the provided query.
+     * Only a constant is selected and at most one row is fetched.
+     *
+     * @param query the {@link Query} object which contains the data to build the {@link Specification} object;
+     *              may be {@code null} to check whether any entity exists
+     * @return {@code true} if at least one entity matches the query criteria
+     */
+    boolean exists(Query<T> query);
+
+    /**
+     * Counts the entities matching the criteria built by the provided query, without selecting or mapping them.
+     * Distinct queries count distinct entities.
+     *
+     * @param query the {@link Query} object which contains the data to build the {@link Specification} object;
+     *              may be {@code null} to count all entities
+     * @return the number of entities matching the query criteria
+     */
+    long count(Query<T> query);
+
+    /**
+     * Retrieves the first entity matching the criteria built by the provided query in the order of the provided sort,
+     * projected to the projection type. At most one row is fetched and no count query is executed.
+     *
+     * @param query the {@link Query} object which contains the data to build the {@link Specification} object;
+     *              may be {@code null} to consider all entities
+     * @param sort  the sort criteria; may be {@code null}, in which case any matching entity may be returned
+     * @return the first projection, or an empty {@link Optional} if no entity matches
+     */
+    Optional<P> findFirst(Query<T> query, Sort sort);
+
+    /**
+     * Executes the aggregation in the database over all entities matching the criteria built by the provided query.
+     *
+     * @param query       the {@link Query} object which contains the data to build the {@link Specification} object;
+     *                    may be {@code null} to aggregate over all entities
+     * @param aggregation the {@link Aggregation} describing the groups, aggregated values and conditions on them
+     * @return one row per group, holding the grouped attributes and aggregated values by alias
+     */
+    List<AggregateRow> aggregate(Query<T> query, Aggregation aggregation);
+
+    /**
+     * Executes the aggregation in the database over all entities matching the criteria built by the provided query,
+     * mapping each group to the given row type by alias.
+     *
+     * @param query       the {@link Query} object which contains the data to build the {@link Specification} object;
+     *                    may be {@code null} to aggregate over all entities
+     * @param aggregation the {@link Aggregation} describing the groups, aggregated values and conditions on them
+     * @param rowType     the class or interface each group is mapped to
+     * @param <R>         the row type
+     * @return one row per group
+     */
+    <R> List<R> aggregate(Query<T> query, Aggregation aggregation, Class<R> rowType);
+
+    /**
+     * Writes all entities matching the query, in the given order, to the output stream in the given format.
+     * <p>Rows are read from a database cursor and written as they are read, without building the projection objects,
+     * so memory use doesn't depend on the number of rows. A sorted distinct query reads its ids from a second cursor and
+     * the rows of the ids in chunks of 500, while that cursor is open, so the JDBC driver must allow a statement on a
+     * connection with an open result set. The stream is flushed but not closed.</p>
+     *
+     * @param query  the {@link Query} object which contains the data to build the {@link Specification} object;
+     *               may be {@code null} to export all entities
+     * @param sort   the sort criteria; may be {@code null}
+     * @param format the output format
+     * @param output the stream the rows are written to
+     * @return the number of exported rows
+     * @throws java.io.UncheckedIOException if writing to the stream fails
+     */
+    long export(Query<T> query, Sort sort, ExportFormat format, OutputStream output);
+
+    /**
+     * Writes all entities matching the query, in the given order, to the output stream, as described in
+     * {@link #export(Query, Sort, ExportFormat, OutputStream)}.
+     *
+     * @param query   the {@link Query} object which contains the data to build the {@link Specification} object;
+     *                may be {@code null} to export all entities
+     * @param sort    the sort criteria; may be {@code null}
+     * @param options the format, fetch size and flush interval
+     * @param output  the stream the rows are written to
+     * @return the number of exported rows
+     * @throws java.io.UncheckedIOException if writing to the stream fails
+     */
+    long export(Query<T> query, Sort sort, ExportOptions options, OutputStream output);
+
+    /**
+     * Computes the facets of the search request, defined by its <code>facets</code> entries, over all entities
+     * matching its filters.
+     *
+     * @param request the {@link SearchRequest} holding the filters and facet definitions
+     * @return the buckets of every facet, keyed by facet name
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.InvalidSearchRequestException if the request doesn't match
+     *                                                                                   the entity, see
+     *                                                                                   {@link SearchRequest#validate}
+     */
+    Map<String, List<FacetBucket>> facets(SearchRequest request);
+
+    /**
+     * Computes the given facets over all entities matching the filters of the search request.
+     * Facets marked with {@link Facet#excludeOwnFilter()} ignore the request's filters on their own attribute.
+     *
+     * @param request the {@link SearchRequest} holding the filters; may be {@code null} to count over all entities
+     * @param facets  the {@link Facet} definitions
+     * @return the buckets of every facet, keyed by facet name
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.InvalidSearchRequestException if the request doesn't match
+     *                                                                                   the entity, see
+     *                                                                                   {@link SearchRequest#validate}
+     */
+    Map<String, List<FacetBucket>> facets(SearchRequest request, Collection<Facet> facets);
+
+    /**
+     * Computes the given facets over all entities matching the filters of the search request, running the facet
+     * queries in parallel on the given executor. Each query uses its own {@link EntityManager} created from the
+     * factory, so it runs outside the caller's transaction and only sees committed data, and the queries may each see
+     * the data as of a different commit. Within a read-write Spring managed transaction, whose uncommitted changes
+     * they wouldn't see, the queries run sequentially on the projection's entity manager instead, as
+     * {@link #facets(SearchRequest, Collection)} does.
+     *
+     * @param request  the {@link SearchRequest} holding the filters; may be {@code null} to count over all entities
+     * @param facets   the {@link Facet} definitions
+     * @param executor the executor running the facet queries
+     * @return the buckets of every facet, keyed by facet name
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.InvalidSearchRequestException if the request doesn't match
+     *                                                                                   the entity, see
+     *                                                                                   {@link SearchRequest#validate}
+     */
+    Map<String, List<FacetBucket>> facets(SearchRequest request, Collection<Facet> facets, Executor executor);
+}
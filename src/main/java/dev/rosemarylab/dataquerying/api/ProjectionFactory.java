@@ -1,15 +1,48 @@
 package dev.rosemarylab.dataquerying.api;
 
+import dev.rosemarylab.dataquerying.internal.executor.GenericProjector;
+import dev.rosemarylab.dataquerying.internal.memory.ReplicaRegistry;
+import dev.rosemarylab.dataquerying.internal.memory.ReplicaTable;
 import jakarta.persistence.EntityManager;
 
 public class ProjectionFactory {
     private final EntityManager entityManager;
+    private final QueryDialect dialect;
+    private final UnionPolicy unionPolicy;
+    private final ReplicaRegistry replicas = new ReplicaRegistry();
 
     public ProjectionFactory(EntityManager entityManager) {
+        this(entityManager, QueryDialect.LOWER_CASE);
+    }
+
+    public ProjectionFactory(EntityManager entityManager, QueryDialect dialect) {
+        this(entityManager, dialect, UnionPolicy.NEVER);
+    }
+
+    public ProjectionFactory(EntityManager entityManager, QueryDialect dialect, UnionPolicy unionPolicy) {
         this.entityManager = entityManager;
+        this.dialect = dialect;
+        this.unionPolicy = unionPolicy;
     }
 
     public <T, P> Projection<T, P> create(Class<T> type, Class<P> projection) {
-        return Projection.create(entityManager, type, projection);
+        return new GenericProjector<>(entityManager, type, projection, dialect, unionPolicy, replicas);
+    }
+
+    /**
+     * Makes the projections of this factory answer from the replica, and {@link EntityReplicaListener} refresh it,
+     * until the replica is closed. Projections created elsewhere keep querying the database.
+     *
+     * @param replica the replica, replacing the replica of the same entity class
+     * @throws IllegalArgumentException if the replica wasn't created by {@link EntityReplica#create}
+     */
+    public void replicate(EntityReplica<?> replica) {
+        if (!(replica instanceof ReplicaTable<?> table))
+            throw new IllegalArgumentException("Replica must be created by EntityReplica.create.");
+        replicas.register(table);
+    }
+
+    ReplicaRegistry getReplicas() {
+        return replicas;
     }
 }
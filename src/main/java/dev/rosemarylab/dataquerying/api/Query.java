@@ -9,6 +9,10 @@ import org.springframework.data.jpa.domain.Specification;
  * with various conditions and joins. This interface provides static factory methods for creating
  * query instances and methods for adding conditions dynamically.
  * <br>
+ * Queries are immutable: each method adding a condition, a join or a hint returns a new query and leaves this one
+ * unchanged, so a query can be shared and used as the base of several others. Up to version 2.0.1 these methods
+ * modified the query they were called on; code that ignores their result must now use it.
+ * <br>
  * This interface is also available as a <b>Spring Bean</b> with a default implementation,
  * so you can use dependency injection to get the instance.
  * <p>Example usage:
@@ -35,6 +39,17 @@ public interface Query<T> {
         return SpecificationQuery.get();
     }
 
+    /**
+     * Creates a new instance matching no entity. Projections return empty results for it without querying the
+     * database. Combining it with AND keeps it empty, combining it with OR yields the other query.
+     *
+     * @param <T> the type of the entity being queried.
+     * @return a new {@link Query} instance matching nothing.
+     */
+    static <T> Query<T> none() {
+        return SpecificationQuery.none();
+    }
+
     /**
      * Creates a new instance with the provided {@link Specification}.
      *
@@ -99,7 +114,7 @@ public interface Query<T> {
      *
      * @param attribute The attribute to filter on.
      * @param value     The value to compare against.
-     * @return The current {@link Query} instance with the added condition.
+     * @return A new {@link Query} instance with the added condition.
      */
     Query<T> and(String attribute, Object value);
 
@@ -113,7 +128,7 @@ public interface Query<T> {
      * @param attribute The attribute to filter on.
      * @param operator  The {@link SearchOperator} to apply (e.g., EQ, LIKE, etc.).
      * @param value     The value to compare against.
-     * @return The current {@link Query} instance with the added condition.
+     * @return A new {@link Query} instance with the added condition.
      */
     Query<T> and(String attribute, SearchOperator operator, Object value);
 
@@ -121,7 +136,7 @@ public interface Query<T> {
      * Combines the current query with another query using an AND operator.
      *
      * @param query The query to combine with.
-     * @return The current {@link Query} instance with the combined conditions.
+     * @return A new {@link Query} instance with the combined conditions.
      */
     Query<T> and(Query<T> query);
 
@@ -134,7 +149,7 @@ public interface Query<T> {
      *
      * @param attribute The attribute to filter on.
      * @param value     The value to compare against.
-     * @return The current {@link Query} instance with the added condition.
+     * @return A new {@link Query} instance with the added condition.
      */
     Query<T> or(String attribute, Object value);
 
@@ -148,7 +163,7 @@ public interface Query<T> {
      * @param attribute The attribute to filter on.
      * @param operator  The {@link SearchOperator} to apply (e.g., EQ, LIKE, etc.).
      * @param value     The value to compare against.
-     * @return The current {@link Query} instance with the added condition.
+     * @return A new {@link Query} instance with the added condition.
      */
     Query<T> or(String attribute, SearchOperator operator, Object value);
 
@@ -156,23 +171,37 @@ public interface Query<T> {
      * Combines the current query with another query using an OR operator.
      *
      * @param query The query to combine with.
-     * @return The current {@link Query} instance with the combined conditions.
+     * @return A new {@link Query} instance with the combined conditions.
      */
     Query<T> or(Query<T> query);
 
+    /**
+     * Hints that a {@link Projection} should run the top-level OR branches of this query as separate queries and merge
+     * the matching ids, whatever the {@link UnionPolicy}. Useful when every branch filters its own indexed column, as in
+     * <code>email = ? OR phone = ?</code>, which a single query often answers with a full scan. Sorting and limits
+     * still apply to the merged result.
+     *
+     * <p>By default, the hint is ignored and this query is returned.</p>
+     *
+     * @return A new {@link Query} instance with the hint.
+     */
+    default Query<T> unionOr() {
+        return this;
+    }
+
     /**
      * Adds a join condition to the query.
      *
      * @param joinAttribute The attribute to join on, supporting nested attributes.
      * @param joinType      The type of join to perform (e.g., INNER, LEFT, etc.).
-     * @return The current {@link Query} instance with the added join condition.
+     * @return A new {@link Query} instance with the added join condition.
      */
     SpecificationQuery<T> join(String joinAttribute, JoinType joinType);
 
     /**
      * Marks the query as distinct, ensuring only unique results are returned.
      *
-     * @return The current {@link Query} instance marked as distinct.
+     * @return A new {@link Query} instance marked as distinct.
      */
     Query<T> distinct();
 
@@ -183,7 +212,35 @@ public interface Query<T> {
      * <p>This method collects all predicates from the built-up specification and applies distinct selection,
      * if specified. The resulting {@link Specification} can then be used to execute a query.</p>
      *
+     * <p>The case-insensitive and full-text operators are translated by {@link QueryDialect#LOWER_CASE}.</p>
+     *
      * @return the combined {@link Specification} representing the current query conditions.
      */
     Specification<T> buildSpecification();
+
+    /**
+     * Builds the {@link Specification} of this query, like {@link #buildSpecification()}, with the case-insensitive and
+     * full-text operators translated by the given dialect. Implementations without such operators may ignore it.
+     *
+     * @param dialect the dialect
+     * @return the combined {@link Specification} representing the current query conditions.
+     */
+    default Specification<T> buildSpecification(QueryDialect dialect) {
+        return buildSpecification();
+    }
+
+    /**
+     * Visits the joins, the DISTINCT flag and the conditions of the query, so they can be inspected or translated
+     * without building a {@link Specification}. See {@link QueryVisitor} for the order of the visit.
+     *
+     * <p>By default, the query is visited as the single {@link Specification} it builds, with
+     * {@link QueryVisitor#visitSpecification(Specification)}.</p>
+     *
+     * @param visitor the visitor
+     * @param <R>     the result of the visit
+     * @return the result of visiting the conditions
+     */
+    default <R> R accept(QueryVisitor<R> visitor) {
+        return visitor.visitSpecification(buildSpecification());
+    }
 }
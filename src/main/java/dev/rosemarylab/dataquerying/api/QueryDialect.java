@@ -0,0 +1,225 @@
+package dev.rosemarylab.dataquerying.api;
+
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decides how the case-insensitive operators ({@link SearchOperator#EQ_IGNORE_CASE},
+ * {@link SearchOperator#LIKE_IGNORE_CASE} and {@link SearchOperator#STARTS_WITH_IGNORE_CASE}) and the
+ * {@link SearchOperator#FULL_TEXT} operator are translated.
+ * <p>The default, {@link #LOWER_CASE}, compares <code>lower(column)</code> with a value lower-cased once in Java, so
+ * the predicate matches a functional index on <code>lower(column)</code>. {@link #UPPER_CASE} does the same with
+ * <code>upper()</code>. Databases with <code>ILIKE</code> or case-insensitive collations override the predicate methods
+ * instead, e.g. with Hibernate:
+ * <pre>
+ * &#64;Bean
+ * public QueryDialect queryDialect() {
+ *     return new QueryDialect() {
+ *         &#64;Override
+ *         public Predicate likeIgnoreCase(CriteriaBuilder cb, Expression&lt;String&gt; expression, String pattern, Character escapeChar) {
+ *             HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+ *             return escapeChar == null ? hcb.ilike(expression, pattern) : hcb.ilike(expression, pattern, escapeChar);
+ *         }
+ *     };
+ * }
+ * </pre>
+ * A {@link QueryDialect} bean is picked up by the auto-configuration and used by every query.</p>
+ * <p>Full-text search falls back to matching every word of the query with a case-insensitive <code>LIKE</code>, which
+ * no index can serve. {@link #fullTextFunctions(String, String)} maps it to the database's full-text search through two
+ * SQL functions registered with the JPA provider, e.g. for PostgreSQL with a Hibernate <code>FunctionContributor</code>:
+ * <pre>
+ * registry.registerPattern("fts_match", "to_tsvector('english', ?1) @@ plainto_tsquery('english', ?2)", booleanType);
+ * registry.registerPattern("fts_rank", "ts_rank(to_tsvector('english', ?1), plainto_tsquery('english', ?2))", doubleType);
+ * </pre>
+ * With an expression index on <code>to_tsvector('english', column)</code>, the match is answered from the index.</p>
+ */
+public interface QueryDialect {
+    /**
+     * Folds both sides with <code>lower()</code>.
+     */
+    QueryDialect LOWER_CASE = new QueryDialect() {
+    };
+
+    /**
+     * Folds both sides with <code>upper()</code>.
+     */
+    QueryDialect UPPER_CASE = new QueryDialect() {
+        @Override
+        public Expression<String> foldCase(CriteriaBuilder criteriaBuilder, Expression<String> expression) {
+            return criteriaBuilder.upper(expression);
+        }
+
+        @Override
+        public String foldCase(String value) {
+            return value.toUpperCase(Locale.ROOT);
+        }
+
+        @Override
+        public String foldCaseSql(String column) {
+            return "UPPER(" + column + ")";
+        }
+    };
+
+    /**
+     * Folds the case of a column expression.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the string expression
+     * @return the case-folded expression
+     */
+    default Expression<String> foldCase(CriteriaBuilder criteriaBuilder, Expression<String> expression) {
+        return criteriaBuilder.lower(expression);
+    }
+
+    /**
+     * Folds the case of a bound value, the same way {@link #foldCase(CriteriaBuilder, Expression)} does in the database.
+     *
+     * @param value the value
+     * @return the case-folded value
+     */
+    default String foldCase(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folds the case of a column in the SQL of a {@link JdbcProjection}, the way
+     * {@link #foldCase(CriteriaBuilder, Expression)} does in a criteria query.
+     *
+     * @param column the SQL expression of the column
+     * @return the SQL expression of the case-folded column
+     */
+    default String foldCaseSql(String column) {
+        return "LOWER(" + column + ")";
+    }
+
+    /**
+     * Builds a case-insensitive equality.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the string expression
+     * @param value           the value, already passed through {@link #foldCase(String)}
+     * @return the predicate
+     */
+    default Predicate equalIgnoreCase(CriteriaBuilder criteriaBuilder, Expression<String> expression, String value) {
+        return criteriaBuilder.equal(foldCase(criteriaBuilder, expression), value);
+    }
+
+    /**
+     * Builds a case-insensitive LIKE.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the string expression
+     * @param pattern         the pattern, built from a value already passed through {@link #foldCase(String)}
+     * @param escapeChar      the escape character used in the pattern, {@code null} if nothing is escaped
+     * @return the predicate
+     */
+    default Predicate likeIgnoreCase(CriteriaBuilder criteriaBuilder, Expression<String> expression, String pattern, Character escapeChar) {
+        Expression<String> folded = foldCase(criteriaBuilder, expression);
+        return escapeChar == null
+                ? criteriaBuilder.like(folded, pattern)
+                : criteriaBuilder.like(folded, pattern, escapeChar);
+    }
+
+    /**
+     * Builds a full-text match of the attribute against a query.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param path            the attribute path, its parent path is the entity or join holding the attribute
+     * @param query           the full-text query typed by the user, never blank
+     * @return the predicate
+     */
+    default Predicate fullText(CriteriaBuilder criteriaBuilder, Path<?> path, String query) {
+        List<Predicate> predicates = new ArrayList<>();
+        for (String word : words(query)) {
+            predicates.add(containsIgnoreCase(criteriaBuilder, path, word));
+        }
+        return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Builds the SQL condition of a full-text match in a {@link JdbcProjection}, the way
+     * {@link #fullText(CriteriaBuilder, Path, String)} does in a criteria query. The full-text query is bound to the
+     * single parameter of the condition. A dialect overriding {@link #fullText(CriteriaBuilder, Path, String)} overrides
+     * this method too, or the SQL falls back to the default match.
+     *
+     * @param column the SQL expression of the attribute's column
+     * @return the SQL condition, or {@code null} to match every word of the query with a case-insensitive
+     * <code>LIKE</code>, as {@link #fullText(CriteriaBuilder, Path, String)} does by default
+     */
+    default String fullTextSql(String column) {
+        return null;
+    }
+
+    /**
+     * Builds the relevance of the attribute for a full-text query, higher is more relevant. Used to sort by
+     * {@link Relevance}.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param path            the attribute path
+     * @param query           the full-text query typed by the user
+     * @return the relevance expression
+     */
+    default Expression<? extends Number> relevance(CriteriaBuilder criteriaBuilder, Path<?> path, String query) {
+        // Number of words of the query found in the attribute
+        Expression<Integer> relevance = criteriaBuilder.literal(0);
+        for (String word : words(query)) {
+            Expression<Integer> found = criteriaBuilder.<Integer>selectCase()
+                    .when(containsIgnoreCase(criteriaBuilder, path, word), 1)
+                    .otherwise(0);
+            relevance = criteriaBuilder.sum(relevance, found);
+        }
+        return relevance;
+    }
+
+    /**
+     * Creates a dialect matching and ranking full-text queries with two SQL functions registered with the JPA
+     * provider, both called with the attribute and the query. Case-insensitive operators use <code>lower()</code>. The
+     * SQL of a {@link JdbcProjection} calls a database function named after the match function, which must then exist
+     * in the database as well.
+     *
+     * @param matchFunction the boolean function matching the attribute against the query
+     * @param rankFunction  the numeric function ranking the attribute for the query
+     * @return the dialect
+     */
+    static QueryDialect fullTextFunctions(String matchFunction, String rankFunction) {
+        return new QueryDialect() {
+            @Override
+            public Predicate fullText(CriteriaBuilder criteriaBuilder, Path<?> path, String query) {
+                return criteriaBuilder.isTrue(criteriaBuilder.function(matchFunction, Boolean.class, path, criteriaBuilder.literal(query)));
+            }
+
+            @Override
+            public String fullTextSql(String column) {
+                return matchFunction + "(" + column + ", ?)";
+            }
+
+            @Override
+            public Expression<? extends Number> relevance(CriteriaBuilder criteriaBuilder, Path<?> path, String query) {
+                return criteriaBuilder.function(rankFunction, Double.class, path, criteriaBuilder.literal(query));
+            }
+        };
+    }
+
+    private static List<String> words(String query) {
+        List<String> words = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate containsIgnoreCase(CriteriaBuilder criteriaBuilder, Path<?> path, String word) {
+        Expression<String> text = path.getJavaType() == String.class ? (Expression<String>) path : path.as(String.class);
+        String folded = foldCase(word);
+        String escaped = SpecificationEngine.escape(folded);
+        return likeIgnoreCase(criteriaBuilder, text, "%" + escaped + "%", escaped.equals(folded) ? null : SpecificationEngine.LIKE_ESCAPE);
+    }
+}
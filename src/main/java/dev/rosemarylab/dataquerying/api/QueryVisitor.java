@@ -0,0 +1,123 @@
+package dev.rosemarylab.dataquerying.api;
+
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Visits the structure of a {@link Query}, see {@link Query#accept(QueryVisitor)}.
+ * <p>The joins and the DISTINCT flag of the query are visited first, then its conditions, bottom-up: each AND or OR
+ * receives the results of its operands. A query without conditions is visited as an empty AND. Filters without a value,
+ * other than <code>EQ</code> and <code>NOT_EQ</code> which then test for NULL, are not visited, as they don't restrict
+ * the query; an AND or OR may therefore receive fewer operands than it had, and doesn't restrict the query when it
+ * receives none.</p>
+ * <p>Translating a query to a JPA predicate is one such visit; others can evaluate a query in memory, translate it for
+ * another backend, or compute a cache key.</p>
+ * <pre>
+ * String text = query.accept(new QueryVisitor&lt;String&gt;() {
+ *     public String visitAnd(List&lt;String&gt; operands) { return "(" + String.join(" AND ", operands) + ")"; }
+ *     public String visitOr(List&lt;String&gt; operands) { return "(" + String.join(" OR ", operands) + ")"; }
+ *     ...
+ * });
+ * </pre>
+ *
+ * @param <R> the result of visiting a condition
+ */
+public interface QueryVisitor<R> {
+
+    /**
+     * Visits conditions combined with AND.
+     *
+     * @param operands the results of the combined conditions
+     * @return the result
+     */
+    R visitAnd(List<R> operands);
+
+    /**
+     * Visits conditions combined with OR.
+     *
+     * @param operands the results of the combined conditions
+     * @return the result
+     */
+    R visitOr(List<R> operands);
+
+    /**
+     * Visits a comparison: {@link SearchOperator#EQ}, {@link SearchOperator#NOT_EQ}, {@link SearchOperator#GT},
+     * {@link SearchOperator#GTE}, {@link SearchOperator#LT}, {@link SearchOperator#LTE} or
+     * {@link SearchOperator#EQ_IGNORE_CASE}.
+     *
+     * @param attribute the attribute path
+     * @param operator  the operator
+     * @param value     the value, {@code null} only for <code>EQ</code> and <code>NOT_EQ</code>
+     * @return the result
+     */
+    R visitComparison(String attribute, SearchOperator operator, Object value);
+
+    /**
+     * Visits an {@link SearchOperator#IN} filter.
+     *
+     * @param attribute the attribute path
+     * @param values    the values
+     * @return the result
+     */
+    R visitIn(String attribute, Collection<?> values);
+
+    /**
+     * Visits a {@link SearchOperator#BETWEEN} filter, both bounds included.
+     *
+     * @param attribute the attribute path
+     * @param lower     the lower bound
+     * @param upper     the upper bound
+     * @return the result
+     */
+    R visitBetween(String attribute, Object lower, Object upper);
+
+    /**
+     * Visits a text filter: {@link SearchOperator#LIKE}, {@link SearchOperator#NOT_LIKE},
+     * {@link SearchOperator#STARTS_WITH}, {@link SearchOperator#ENDS_WITH}, {@link SearchOperator#MATCHES},
+     * {@link SearchOperator#LIKE_IGNORE_CASE}, {@link SearchOperator#STARTS_WITH_IGNORE_CASE} or
+     * {@link SearchOperator#FULL_TEXT}.
+     *
+     * @param attribute the attribute path
+     * @param operator  the operator
+     * @param value     the text, see {@link SearchOperator} for how each operator matches it
+     * @return the result
+     */
+    R visitLike(String attribute, SearchOperator operator, String value);
+
+    /**
+     * Visits a condition no entity matches, see {@link Query#none()}.
+     *
+     * @return the result
+     */
+    R visitNone();
+
+    /**
+     * Visits a condition given as a {@link Specification}, e.g. by {@link Query#get(Specification)}. Its structure
+     * can't be inspected, so visitors that don't translate to JPA can't handle it.
+     *
+     * @param specification the specification
+     * @return the result
+     * @throws UnsupportedOperationException by default
+     */
+    default R visitSpecification(Specification<?> specification) {
+        throw new UnsupportedOperationException("The query contains a Specification, which can't be visited");
+    }
+
+    /**
+     * Visits an explicit join of the query, see {@link Query#join(String, JoinType)}.
+     *
+     * @param attribute the joined association path
+     * @param joinType  the join type
+     */
+    default void visitJoin(String attribute, JoinType joinType) {
+    }
+
+    /**
+     * Visited if the query is distinct, see {@link Query#distinct()}.
+     */
+    default void visitDistinct() {
+    }
+}
@@ -0,0 +1,58 @@
+package dev.rosemarylab.dataquerying.api;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Sorts by the relevance of an attribute for a full-text query, as computed by the {@link QueryDialect}.
+ * <p>The relevance is expressed as a sort property of the form <code>relevance(attribute,query)</code>, so it can be
+ * combined with other orders in a {@link Sort}, and used as the <code>attribute</code> of a {@link SearchRequest}
+ * order. Such properties are understood by {@link Projection}, not by Spring Data repositories.
+ * <pre>
+ * Query&lt;User&gt; query = Query.where("bio", SearchOperator.FULL_TEXT, text);
+ * List&lt;UserDto&gt; users = projection.findAll(query, Sort.by(Relevance.desc("bio", text), Sort.Order.asc("name")));
+ * </pre>
+ * </p>
+ */
+public final class Relevance {
+    private static final String PREFIX = "relevance(";
+
+    private Relevance() {
+    }
+
+    /**
+     * Returns the sort property ranking by the relevance of the attribute for the query.
+     *
+     * @param attribute the attribute path, matched by a {@link SearchOperator#FULL_TEXT} filter
+     * @param query     the full-text query
+     * @return the sort property
+     */
+    public static String property(String attribute, String query) {
+        if (attribute == null || attribute.indexOf(',') >= 0)
+            throw new IllegalArgumentException("Invalid relevance attribute: " + attribute);
+        return PREFIX + attribute + "," + query + ")";
+    }
+
+    /**
+     * Returns the order putting the most relevant entities first.
+     *
+     * @param attribute the attribute path, matched by a {@link SearchOperator#FULL_TEXT} filter
+     * @param query     the full-text query
+     * @return the descending order by relevance
+     */
+    public static Sort.Order desc(String attribute, String query) {
+        return Sort.Order.desc(property(attribute, query));
+    }
+
+    /**
+     * Returns the attribute and the query of a relevance sort property.
+     *
+     * @param property the sort property
+     * @return the attribute and the query, or {@code null} if the property is not a relevance property
+     */
+    public static String[] parse(String property) {
+        if (property == null || !property.startsWith(PREFIX) || !property.endsWith(")")) return null;
+        int comma = property.indexOf(',', PREFIX.length());
+        if (comma < 0) return null;
+        return new String[]{property.substring(PREFIX.length(), comma), property.substring(comma + 1, property.length() - 1)};
+    }
+}
@@ -3,6 +3,18 @@ package dev.rosemarylab.dataquerying.api;
 import dev.rosemarylab.dataquerying.internal.deserializers.SearchOperatorDeserializer;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
+/**
+ * Operators comparing an attribute with a value.
+ * <p>The text operators differ in the pattern they match: {@link #LIKE} and {@link #NOT_LIKE} match the value anywhere
+ * in the text, {@link #STARTS_WITH} and {@link #ENDS_WITH} match a prefix or a suffix. Wildcards typed into the value
+ * are matched literally. Only {@link #MATCHES} takes the value as a LIKE pattern with <code>%</code> and
+ * <code>_</code> wildcards. Prefer {@link #STARTS_WITH} for searches, as it is the only one the database can answer
+ * from an index.</p>
+ * <p>The <code>_IGNORE_CASE</code> operators compare case-insensitively and {@link #FULL_TEXT} runs a full-text search,
+ * both as defined by the {@link QueryDialect}. Full-text results can be sorted by {@link Relevance}. A blank full-text
+ * query is rejected with a {@link dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException}, as it
+ * has no word to match.</p>
+ */
 @JsonDeserialize(using = SearchOperatorDeserializer.class)
 public enum SearchOperator {
     EQ("EQ"),
@@ -14,7 +26,14 @@ public enum SearchOperator {
     IN("IN"),
     BETWEEN("BETWEEN"),
     LIKE("LIKE"),
-    NOT_LIKE("NOT_LIKE");
+    NOT_LIKE("NOT_LIKE"),
+    STARTS_WITH("STARTS_WITH"),
+    ENDS_WITH("ENDS_WITH"),
+    MATCHES("MATCHES"),
+    EQ_IGNORE_CASE("EQ_IGNORE_CASE"),
+    LIKE_IGNORE_CASE("LIKE_IGNORE_CASE"),
+    STARTS_WITH_IGNORE_CASE("STARTS_WITH_IGNORE_CASE"),
+    FULL_TEXT("FULL_TEXT");
 
     public final String operator;
 
@@ -1,11 +1,16 @@
 package dev.rosemarylab.dataquerying.api;
 
 import dev.rosemarylab.dataquerying.internal.enums.ConditionalOperator;
+import dev.rosemarylab.dataquerying.internal.search.AggregationInfo;
+import dev.rosemarylab.dataquerying.internal.search.FacetInfo;
 import dev.rosemarylab.dataquerying.internal.search.FilterData;
 import dev.rosemarylab.dataquerying.internal.search.OrderInfo;
 import dev.rosemarylab.dataquerying.internal.search.PageInfo;
+import dev.rosemarylab.dataquerying.internal.search.RangeInfo;
 import dev.rosemarylab.dataquerying.internal.search.SearchRequestQueryTransformer;
+import dev.rosemarylab.dataquerying.internal.search.SearchRequestValidator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.metamodel.Metamodel;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.domain.PageRequest;
@@ -25,6 +30,9 @@ import java.util.List;
  *     <li>Nested filters with conditional operators (AND/OR)</li>
  *     <li>Sorting based on multiple fields with specified directions</li>
  *     <li>Pagination parameters for efficient data retrieval</li>
+ *     <li>Grouped aggregations executed by the database</li>
+ *     <li>Facet counts (terms and range buckets) over the filtered entities</li>
+ *     <li>Sparse fieldsets: the attributes of the projection to select</li>
  * </ul>
  * <p>
  * This class provides helper methods to generate Spring Data constructs such as
@@ -39,6 +47,27 @@ public class SearchRequest {
     private ConditionalOperator conditionalOperator; // AND, OR for a filter group
     private PageInfo page; // Pagination information
     private List<OrderInfo> order = new ArrayList<>(); // Order information
+    private List<String> groupBy = new ArrayList<>(); // Attributes to group by when aggregating
+    private List<AggregationInfo> aggregations = new ArrayList<>(); // Aggregated values
+    private List<FilterData> having = new ArrayList<>(); // Conditions on aggregated values, combined with AND
+    private List<FacetInfo> facets = new ArrayList<>(); // Facets to count over the filtered entities
+    private List<String> fields = new ArrayList<>(); // Projection attributes to select, all of them if empty
+
+    /**
+     * Validates the search request against the JPA metamodel of the entity, before any query reaches the database.
+     * Every filter, sort, grouping, aggregation, facet and field attribute must exist, and filter values and range
+     * bounds are converted in place to the Java type of their attribute, e.g. <code>"2024-01-31"</code> to a
+     * {@link java.time.LocalDate}, or a JSON number to a {@link Long}. Values then bind with the column's own type.
+     *
+     * @param metamodel   the metamodel, e.g. from {@link jakarta.persistence.EntityManager#getMetamodel()}
+     * @param entityClass the entity class the request will be executed against
+     * @return the current {@link SearchRequest}
+     * @throws dev.rosemarylab.dataquerying.api.exceptions.InvalidSearchRequestException holding all errors found
+     */
+    public SearchRequest validate(Metamodel metamodel, Class<?> entityClass) {
+        SearchRequestValidator.validate(this, metamodel, entityClass);
+        return this;
+    }
 
     /**
      * Converts the search request into a JPA {@link Specification}, which represents
@@ -116,4 +145,49 @@ public class SearchRequest {
         }
         return Sort.by(orders);
     }
+
+    /**
+     * Converts the aggregation details in the search request into an {@link Aggregation}.
+     * Each <code>having</code> entry refers to the alias of an aggregated value, and all of them are combined with AND.
+     * The <code>order</code> entries refer to aliases of grouped attributes or aggregated values.
+     *
+     * @return The {@link Aggregation} representing the grouping and aggregated values.
+     */
+    @JsonIgnore
+    public Aggregation getAggregation() {
+        Aggregation aggregation = Aggregation.groupBy(groupBy.toArray(new String[0]));
+        for (AggregationInfo aggregationInfo : aggregations) {
+            aggregation.metric(aggregationInfo.getFunction(), aggregationInfo.getAttribute(), aggregationInfo.getAlias());
+        }
+        for (FilterData filterData : having) {
+            aggregation.having(filterData.getAttribute(), filterData.getSearchOperator(), filterData.getValue());
+        }
+        return aggregation.orderBy(getSort());
+    }
+
+    /**
+     * Converts the facet details in the search request into {@link Facet} definitions.
+     * Facets without a type are treated as {@link FacetType#TERMS}.
+     *
+     * @return The list of {@link Facet} definitions, in request order.
+     */
+    @JsonIgnore
+    public List<Facet> getFacetDefinitions() {
+        List<Facet> definitions = new ArrayList<>(facets.size());
+        for (FacetInfo facetInfo : facets) {
+            Facet facet = facetInfo.getType() == FacetType.RANGE
+                    ? Facet.range(facetInfo.getAttribute())
+                    : Facet.terms(facetInfo.getAttribute());
+            if (facetInfo.getType() == FacetType.RANGE && facetInfo.getRanges() != null) {
+                for (RangeInfo range : facetInfo.getRanges()) {
+                    facet.bucket(range.getKey(), range.getFrom(), range.getTo());
+                }
+            }
+            if (facetInfo.getName() != null) facet.named(facetInfo.getName());
+            if (facetInfo.getSize() != null) facet.limit(facetInfo.getSize());
+            if (facetInfo.isExcludeOwnFilter()) facet.excludeOwnFilter();
+            definitions.add(facet);
+        }
+        return definitions;
+    }
 }
@@ -0,0 +1,77 @@
+package dev.rosemarylab.dataquerying.api;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Maps entities and attributes to the tables and columns a {@link JdbcProjection} queries.
+ * <p>Names are taken from the mapping annotations (<code>@Table</code>, <code>@Column</code> and
+ * <code>@JoinColumn</code>), or default to the entity and attribute names as JPA defines them, then passed through the
+ * physical naming, the same way the JPA provider names them. Tables and columns given explicitly with
+ * {@link #withTable(Class, String)} and {@link #withColumn(Class, String, String)} are used as they are.</p>
+ *
+ * @param naming  the physical naming of tables and columns
+ * @param tables  the explicit table of each entity class
+ * @param columns the explicit columns of the attributes of each entity or embeddable class
+ */
+public record TableMapping(UnaryOperator<String> naming, Map<Class<?>, String> tables,
+                           Map<Class<?>, Map<String, String>> columns) {
+
+    public TableMapping {
+        if (naming == null)
+            throw new IllegalArgumentException("Naming cannot be null.");
+        tables = tables == null ? Map.of() : Map.copyOf(tables);
+        columns = columns == null ? Map.of() : Map.copyOf(columns);
+    }
+
+    /**
+     * Returns the mapping using the names as they are, as Hibernate does by default.
+     *
+     * @return the default mapping
+     */
+    public static TableMapping defaults() {
+        return new TableMapping(UnaryOperator.identity(), Map.of(), Map.of());
+    }
+
+    /**
+     * Returns the mapping converting camel case names to lower case names separated by underscores, as Spring Boot
+     * configures Hibernate by default: <code>createdAt</code> is mapped to <code>created_at</code>.
+     *
+     * @return the snake case mapping
+     */
+    public static TableMapping snakeCase() {
+        return new TableMapping(TableMapping::toSnakeCase, Map.of(), Map.of());
+    }
+
+    public TableMapping withNaming(UnaryOperator<String> naming) {
+        return new TableMapping(naming, tables, columns);
+    }
+
+    public TableMapping withTable(Class<?> entityClass, String table) {
+        Map<Class<?>, String> copy = new HashMap<>(tables);
+        copy.put(entityClass, table);
+        return new TableMapping(naming, copy, columns);
+    }
+
+    public TableMapping withColumn(Class<?> type, String attribute, String column) {
+        Map<Class<?>, Map<String, String>> copy = new HashMap<>(columns);
+        Map<String, String> typeColumns = new HashMap<>(copy.getOrDefault(type, Map.of()));
+        typeColumns.put(attribute, column);
+        copy.put(type, Map.copyOf(typeColumns));
+        return new TableMapping(naming, tables, copy);
+    }
+
+    // Underscores go between a lower case letter and an upper case letter followed by a lower case letter
+    private static String toSnakeCase(String name) {
+        StringBuilder builder = new StringBuilder(name.replace('.', '_'));
+        for (int i = 1; i < builder.length() - 1; i++) {
+            if (Character.isLowerCase(builder.charAt(i - 1)) && Character.isUpperCase(builder.charAt(i))
+                    && Character.isLowerCase(builder.charAt(i + 1))) {
+                builder.insert(i++, '_');
+            }
+        }
+        return builder.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,42 @@
+package dev.rosemarylab.dataquerying.api;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decides whether a {@link Projection} runs the top-level OR branches of a {@link Query} as separate queries, whose
+ * matching ids are merged in memory, instead of a single query with an OR condition.
+ * <p>A condition such as <code>email = ? OR phone = ?</code> often makes the database scan the whole table, even
+ * though each branch alone is answered by its own index. Run separately, every branch uses its index, and the
+ * projections of the merged ids are then fetched by primary key, sorted and limited by the database. The default,
+ * {@link #NEVER}, keeps the single query; a single query is rewritten with {@link Query#unionOr()}.</p>
+ * <p>A {@link UnionPolicy} bean is picked up by the auto-configuration and given to the projections of the
+ * {@link ProjectionFactory}; a projection created directly takes the policy as an argument.</p>
+ */
+@FunctionalInterface
+public interface UnionPolicy {
+    /**
+     * Always runs a single query.
+     */
+    UnionPolicy NEVER = branchAttributes -> false;
+
+    /**
+     * Runs the branches separately when their filtered attributes are known and not all the same, as in
+     * <code>email = ? OR phone = ?</code>. Branches on the same attribute are better served by one index scan.
+     */
+    UnionPolicy ACROSS_ATTRIBUTES = branchAttributes -> {
+        if (branchAttributes.stream().anyMatch(Objects::isNull)) return false;
+        return new HashSet<>(branchAttributes).size() > 1;
+    };
+
+    /**
+     * Tells whether the branches of a query are run separately.
+     *
+     * @param branchAttributes the attributes filtered by each of the two or more branches, {@code null} for a branch
+     *                         built from a {@link org.springframework.data.jpa.domain.Specification}
+     * @return {@code true} to run the branches as separate queries
+     */
+    boolean useUnion(List<Set<String>> branchAttributes);
+}
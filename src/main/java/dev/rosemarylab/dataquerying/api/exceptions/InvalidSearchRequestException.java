@@ -0,0 +1,26 @@
+package dev.rosemarylab.dataquerying.api.exceptions;
+
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * Thrown when a {@link dev.rosemarylab.dataquerying.api.SearchRequest} does not match the entity it is validated against.
+ * It reports invalid client input, so it holds every error found and is built without a stack trace.
+ */
+public class InvalidSearchRequestException extends SpecificationBuilderException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // An immutable copy, which is serializable whatever list was passed
+    @SuppressWarnings("serial")
+    private final List<String> errors;
+
+    public InvalidSearchRequestException(List<String> errors) {
+        super("Invalid search request: " + String.join("; ", errors), false);
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -4,4 +4,8 @@ public class SpecificationBuilderException extends RuntimeException {
     public SpecificationBuilderException(String s) {
         super(s);
     }
+
+    protected SpecificationBuilderException(String s, boolean writableStackTrace) {
+        super(s, null, false, writableStackTrace);
+    }
 }
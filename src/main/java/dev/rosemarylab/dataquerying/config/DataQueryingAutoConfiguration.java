@@ -1,8 +1,12 @@
 package dev.rosemarylab.dataquerying.config;
 
+import dev.rosemarylab.dataquerying.api.EntityReplica;
 import dev.rosemarylab.dataquerying.api.ProjectionFactory;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.UnionPolicy;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,8 +15,15 @@ public class DataQueryingAutoConfiguration {
     @PersistenceContext
     private EntityManager entityManager;
 
+    // The projections translate the case-insensitive operators with the application's dialect, run OR branches as
+    // separate queries following the application's policy, and answer from the application's replicas, if it declares
+    // them
     @Bean
-    public ProjectionFactory projectionFactory() {
-        return new ProjectionFactory(entityManager);
+    public ProjectionFactory projectionFactory(ObjectProvider<QueryDialect> queryDialect, ObjectProvider<UnionPolicy> unionPolicy,
+                                               ObjectProvider<EntityReplica<?>> entityReplicas) {
+        ProjectionFactory projectionFactory = new ProjectionFactory(entityManager, queryDialect.getIfAvailable(() -> QueryDialect.LOWER_CASE),
+                unionPolicy.getIfAvailable(() -> UnionPolicy.NEVER));
+        entityReplicas.orderedStream().forEach(projectionFactory::replicate);
+        return projectionFactory;
     }
 }
@@ -0,0 +1,156 @@
+package dev.rosemarylab.dataquerying.internal.batch;
+
+import dev.rosemarylab.dataquerying.api.BatchLoader;
+import dev.rosemarylab.dataquerying.api.BatchLoaderOptions;
+import dev.rosemarylab.dataquerying.api.Projection;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Default implementation of the {@link BatchLoader} interface.
+ *
+ * <p>Pending keys are kept in insertion order. A batch is dispatched when the batching window elapses, when the
+ * maximum batch size is reached, or when {@link #dispatch()} is called. Each batch runs a single
+ * <code>keyAttribute IN (...)</code> query through the {@link Projection}.</p>
+ *
+ * @param <T> the entity type
+ * @param <P> the projection type
+ * @param <K> the key type
+ */
+public class ProjectionBatchLoader<T, P, K> implements BatchLoader<K, P> {
+    private final Projection<T, P> projection;
+    private final String keyAttribute;
+    private final Function<P, K> keyExtractor;
+    private final BatchLoaderOptions options;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+
+    private Map<K, CompletableFuture<List<P>>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledDispatch;
+    private boolean closed;
+
+    public ProjectionBatchLoader(Projection<T, P> projection, String keyAttribute, Function<P, K> keyExtractor, BatchLoaderOptions options) {
+        if (projection == null || keyAttribute == null || keyExtractor == null || options == null)
+            throw new IllegalArgumentException("Projection, key attribute, key extractor and options cannot be null.");
+        this.projection = projection;
+        this.keyAttribute = keyAttribute;
+        this.keyExtractor = keyExtractor;
+        this.options = options;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "data-querying-batch-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = options.executor() != null ? options.executor() : scheduler;
+    }
+
+    @Override
+    public CompletableFuture<List<P>> load(K key) {
+        if (key == null)
+            throw new IllegalArgumentException("Key cannot be null.");
+
+        Map<K, CompletableFuture<List<P>>> batch = null;
+        CompletableFuture<List<P>> future;
+        synchronized (this) {
+            if (closed)
+                throw new IllegalStateException("Batch loader is closed.");
+
+            future = pending.get(key);
+            if (future != null)
+                return future;
+
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+
+            if (pending.size() >= options.maxBatchSize()) {
+                batch = takePending();
+            } else if (scheduledDispatch == null) {
+                scheduledDispatch = scheduler.schedule(this::dispatch, options.window().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (batch != null)
+            submit(batch);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Map<K, List<P>>> loadMany(Collection<K> keys) {
+        Map<K, CompletableFuture<List<P>>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            futures.computeIfAbsent(key, this::load);
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<K, List<P>> results = new LinkedHashMap<>();
+                    futures.forEach((key, future) -> results.put(key, future.join()));
+                    return results;
+                });
+    }
+
+    @Override
+    public void dispatch() {
+        Map<K, CompletableFuture<List<P>>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        submit(batch);
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        dispatch();
+        scheduler.shutdown();
+    }
+
+    // Must be called while holding the monitor.
+    private Map<K, CompletableFuture<List<P>>> takePending() {
+        if (scheduledDispatch != null) {
+            scheduledDispatch.cancel(false);
+            scheduledDispatch = null;
+        }
+        Map<K, CompletableFuture<List<P>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void submit(Map<K, CompletableFuture<List<P>>> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            executor.execute(() -> execute(batch));
+        } catch (RejectedExecutionException e) {
+            // The scheduler is shut down while closing, run the last batch on the calling thread
+            execute(batch);
+        }
+    }
+
+    private void execute(Map<K, CompletableFuture<List<P>>> batch) {
+        try {
+            Query<T> query = Query.where(keyAttribute, SearchOperator.IN, new ArrayList<>(batch.keySet()));
+            List<P> rows = projection.findAll(query, options.sort());
+
+            // Split rows by key, preserving the order in which the database returned them
+            Map<K, List<P>> rowsByKey = new HashMap<>();
+            for (P row : rows) {
+                rowsByKey.computeIfAbsent(keyExtractor.apply(row), key -> new ArrayList<>()).add(row);
+            }
+
+            batch.forEach((key, future) -> {
+                List<P> matches = rowsByKey.get(key);
+                future.complete(matches == null ? List.of() : Collections.unmodifiableList(matches));
+            });
+        } catch (Throwable e) {
+            // Callers would wait forever on futures left incomplete by an error, which is still rethrown
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            if (e instanceof Error error) throw error;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dev.rosemarylab.dataquerying.internal.columnar;
+
+import dev.rosemarylab.dataquerying.api.ColumnType;
+import dev.rosemarylab.dataquerying.api.ColumnarResult;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link ColumnarResult} over the arrays filled by a {@link ColumnarResultBuilder}.
+ */
+class ArrayColumnarResult implements ColumnarResult {
+    private final int size;
+    private final Map<String, ColumnarResultBuilder.Column> columns;
+
+    ArrayColumnarResult(int size, Map<String, ColumnarResultBuilder.Column> columns) {
+        this.size = size;
+        this.columns = columns;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<String> getAttributes() {
+        return List.copyOf(columns.keySet());
+    }
+
+    @Override
+    public ColumnType getType(String attribute) {
+        return column(attribute).type();
+    }
+
+    @Override
+    public int[] getInts(String attribute) {
+        return (int[]) column(attribute, ColumnType.INT).values();
+    }
+
+    @Override
+    public long[] getLongs(String attribute) {
+        return (long[]) column(attribute, ColumnType.LONG).values();
+    }
+
+    @Override
+    public double[] getDoubles(String attribute) {
+        return (double[]) column(attribute, ColumnType.DOUBLE).values();
+    }
+
+    @Override
+    public int[] getCodes(String attribute) {
+        return (int[]) column(attribute, ColumnType.DICTIONARY).values();
+    }
+
+    @Override
+    public List<String> getDictionary(String attribute) {
+        return column(attribute, ColumnType.DICTIONARY).dictionary();
+    }
+
+    @Override
+    public boolean isNull(String attribute, int row) {
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("Row " + row + " is out of bounds for " + size + " rows.");
+        return column(attribute).nulls().get(row);
+    }
+
+    private ColumnarResultBuilder.Column column(String attribute) {
+        ColumnarResultBuilder.Column column = columns.get(attribute);
+        if (column == null)
+            throw new IllegalArgumentException("Attribute '" + attribute + "' is not part of the result.");
+        return column;
+    }
+
+    private ColumnarResultBuilder.Column column(String attribute, ColumnType type) {
+        ColumnarResultBuilder.Column column = column(attribute);
+        if (column.type() != type)
+            throw new IllegalArgumentException("Attribute '" + attribute + "' is stored in a " + column.type() + " column.");
+        return column;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarResult[size=" + size + ", attributes=" + columns.keySet() + "]";
+    }
+}
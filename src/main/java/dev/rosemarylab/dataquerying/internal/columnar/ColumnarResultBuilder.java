@@ -0,0 +1,220 @@
+package dev.rosemarylab.dataquerying.internal.columnar;
+
+import dev.rosemarylab.dataquerying.api.ColumnType;
+import dev.rosemarylab.dataquerying.api.ColumnarResult;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.internal.utils.ValueConverter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Fills the primitive columns of a {@link ColumnarResult} row by row.
+ * <p>A row is started with {@link #nextRow()} and its values set by column index, either as the primitive read from a
+ * JDBC result set or as the boxed value of a tuple, which is unboxed into the column. The arrays grow by doubling and
+ * are trimmed once, when the result is built.</p>
+ */
+public class ColumnarResultBuilder {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final List<String> attributes;
+    private final Class<?>[] types;
+    private final ColumnType[] kinds;
+    private final int[][] ints;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final BitSet[] nulls;
+    private final List<Map<String, Integer>> codes;
+    private final List<List<String>> dictionaries;
+    private int capacity = INITIAL_CAPACITY;
+    private int rows;
+
+    /**
+     * Creates a builder for the given attributes.
+     *
+     * @param attributes the attribute names, in column order
+     * @param types      the types of the entity attributes, in column order
+     * @throws SpecificationBuilderException if an attribute type can't be stored in a primitive column
+     */
+    public ColumnarResultBuilder(List<String> attributes, List<Class<?>> types) {
+        int width = attributes.size();
+        this.attributes = List.copyOf(attributes);
+        this.types = new Class<?>[width];
+        this.kinds = new ColumnType[width];
+        this.ints = new int[width][];
+        this.longs = new long[width][];
+        this.doubles = new double[width][];
+        this.nulls = new BitSet[width];
+        this.codes = new ArrayList<>(width);
+        this.dictionaries = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            this.types[i] = ValueConverter.wrapper(types.get(i));
+            kinds[i] = kind(attributes.get(i), this.types[i]);
+            switch (kinds[i]) {
+                case INT, DICTIONARY -> ints[i] = new int[capacity];
+                case LONG -> longs[i] = new long[capacity];
+                case DOUBLE -> doubles[i] = new double[capacity];
+            }
+            nulls[i] = new BitSet();
+            codes.add(kinds[i] == ColumnType.DICTIONARY ? new HashMap<>() : null);
+            dictionaries.add(kinds[i] == ColumnType.DICTIONARY ? new ArrayList<>() : null);
+        }
+    }
+
+    private static ColumnType kind(String attribute, Class<?> type) {
+        if (type == Integer.class || type == Short.class || type == Byte.class || type == Boolean.class) return ColumnType.INT;
+        if (type == Long.class || type == Instant.class || Date.class.isAssignableFrom(type)) return ColumnType.LONG;
+        if (type == Double.class || type == Float.class || type == BigDecimal.class) return ColumnType.DOUBLE;
+        if (type == String.class || type.isEnum()) return ColumnType.DICTIONARY;
+        throw new SpecificationBuilderException("Attribute " + attribute + " of type " + type.getSimpleName() + " can't be stored in a primitive column");
+    }
+
+    /**
+     * Returns the storage of a column.
+     *
+     * @param column the column index
+     * @return the column type
+     */
+    public ColumnType kind(int column) {
+        return kinds[column];
+    }
+
+    /**
+     * Returns the wrapper of the entity attribute type of a column.
+     *
+     * @param column the column index
+     * @return the attribute type
+     */
+    public Class<?> type(int column) {
+        return types[column];
+    }
+
+    /**
+     * Starts a row, whose values are zero until they are set.
+     */
+    public void nextRow() {
+        if (rows == capacity) {
+            capacity *= 2;
+            for (int i = 0; i < kinds.length; i++) {
+                if (ints[i] != null) ints[i] = Arrays.copyOf(ints[i], capacity);
+                if (longs[i] != null) longs[i] = Arrays.copyOf(longs[i], capacity);
+                if (doubles[i] != null) doubles[i] = Arrays.copyOf(doubles[i], capacity);
+            }
+        }
+        rows++;
+    }
+
+    /**
+     * Sets the value of an {@link ColumnType#INT} column in the current row.
+     *
+     * @param column the column index
+     * @param value  the value
+     */
+    public void setInt(int column, int value) {
+        ints[column][rows - 1] = value;
+    }
+
+    /**
+     * Sets the value of a {@link ColumnType#LONG} column in the current row.
+     *
+     * @param column the column index
+     * @param value  the value
+     */
+    public void setLong(int column, long value) {
+        longs[column][rows - 1] = value;
+    }
+
+    /**
+     * Sets the value of a {@link ColumnType#DOUBLE} column in the current row.
+     *
+     * @param column the column index
+     * @param value  the value
+     */
+    public void setDouble(int column, double value) {
+        doubles[column][rows - 1] = value;
+    }
+
+    /**
+     * Sets the value of a {@link ColumnType#DICTIONARY} column in the current row, adding it to the dictionary when it
+     * is seen for the first time.
+     *
+     * @param column the column index
+     * @param value  the value, may be {@code null}
+     */
+    public void setText(int column, String value) {
+        if (value == null) {
+            setNull(column);
+            return;
+        }
+        Integer code = codes.get(column).get(value);
+        if (code == null) {
+            List<String> dictionary = dictionaries.get(column);
+            code = dictionary.size();
+            dictionary.add(value);
+            codes.get(column).put(value, code);
+        }
+        ints[column][rows - 1] = code;
+    }
+
+    /**
+     * Sets the value of a column in the current row to {@code null}.
+     *
+     * @param column the column index
+     */
+    public void setNull(int column) {
+        nulls[column].set(rows - 1);
+        if (kinds[column] == ColumnType.DICTIONARY) ints[column][rows - 1] = -1;
+    }
+
+    /**
+     * Sets the boxed value of a column in the current row, as read from a tuple.
+     *
+     * @param column the column index
+     * @param value  the value, may be {@code null}
+     */
+    public void set(int column, Object value) {
+        switch (value) {
+            case null -> setNull(column);
+            case Boolean bool -> setInt(column, bool ? 1 : 0);
+            case Instant instant -> setLong(column, instant.toEpochMilli());
+            case Date date -> setLong(column, date.getTime());
+            case Enum<?> constant -> setText(column, constant.name());
+            case String text -> setText(column, text);
+            case Number number -> {
+                switch (kinds[column]) {
+                    case INT -> setInt(column, number.intValue());
+                    case LONG -> setLong(column, number.longValue());
+                    default -> setDouble(column, number.doubleValue());
+                }
+            }
+            default -> throw new IllegalArgumentException("Unexpected value of type " + value.getClass().getSimpleName()
+                    + " for attribute " + attributes.get(column));
+        }
+    }
+
+    /**
+     * Builds the result, trimming the columns to the number of rows.
+     *
+     * @return the result
+     */
+    public ColumnarResult build() {
+        Map<String, Column> columns = new LinkedHashMap<>();
+        for (int i = 0; i < kinds.length; i++) {
+            Object values = switch (kinds[i]) {
+                case INT, DICTIONARY -> Arrays.copyOf(ints[i], rows);
+                case LONG -> Arrays.copyOf(longs[i], rows);
+                case DOUBLE -> Arrays.copyOf(doubles[i], rows);
+            };
+            List<String> dictionary = dictionaries.get(i) == null ? null : Collections.unmodifiableList(dictionaries.get(i));
+            columns.put(attributes.get(i), new Column(kinds[i], values, dictionary, nulls[i]));
+        }
+        return new ArrayColumnarResult(rows, columns);
+    }
+
+    /**
+     * A built column: its primitive array, its dictionary and the bitmap of its {@code null} rows.
+     */
+    record Column(ColumnType type, Object values, List<String> dictionary, BitSet nulls) {
+    }
+}
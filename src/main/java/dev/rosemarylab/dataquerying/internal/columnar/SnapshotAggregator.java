@@ -0,0 +1,168 @@
+package dev.rosemarylab.dataquerying.internal.columnar;
+
+import dev.rosemarylab.dataquerying.api.AggregateFunction;
+import dev.rosemarylab.dataquerying.api.Aggregation;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Groups and aggregates the matching rows of a snapshot.
+ *
+ * <p>Rows are grouped by the raw values of their group-by columns, the <code>long</code> value, the bits of the
+ * <code>double</code> value or the dictionary code, so values are only decoded once per group. The aggregated values
+ * have the types the database returns: <code>COUNT</code> a <code>Long</code>, <code>AVG</code> a <code>Double</code>,
+ * <code>SUM</code> a <code>Long</code> for integral columns, and <code>MIN</code> and <code>MAX</code> the type of the
+ * attribute. Aggregates of a group without values are {@code null}.</p>
+ */
+class SnapshotAggregator {
+    private SnapshotAggregator() {
+    }
+
+    static List<Map<String, Object>> aggregate(BitSet rows, Aggregation aggregation, Function<String, SnapshotColumn> columns) {
+        List<SnapshotColumn> groupColumns = new ArrayList<>();
+        for (Aggregation.GroupBy groupBy : aggregation.getGroupBy()) {
+            groupColumns.add(columns.apply(groupBy.attribute()));
+        }
+        List<SnapshotColumn> metricColumns = new ArrayList<>();
+        for (Aggregation.Metric metric : aggregation.getMetrics()) {
+            SnapshotColumn column = metric.attribute() == null ? null : columns.apply(metric.attribute());
+            boolean numeric = metric.function() == AggregateFunction.SUM || metric.function() == AggregateFunction.AVG;
+            if (numeric && (column == null || column.kind == SnapshotColumn.Kind.DICTIONARY))
+                throw new SpecificationBuilderException(metric.function() + " requires a numeric attribute");
+            metricColumns.add(column);
+        }
+
+        Map<GroupKey, Accumulator[]> groups = new LinkedHashMap<>();
+        if (groupColumns.isEmpty()) {
+            groups.put(new GroupKey(new long[0], 0), accumulators(aggregation, metricColumns));
+        }
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            long[] values = new long[groupColumns.size()];
+            long nullMask = 0;
+            for (int i = 0; i < values.length; i++) {
+                SnapshotColumn column = groupColumns.get(i);
+                if (column.isNull(row)) {
+                    nullMask |= 1L << i;
+                } else {
+                    values[i] = raw(column, row);
+                }
+            }
+            Accumulator[] accumulators = groups.computeIfAbsent(new GroupKey(values, nullMask), key -> accumulators(aggregation, metricColumns));
+            for (Accumulator accumulator : accumulators) {
+                accumulator.add(row);
+            }
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(groups.size());
+        for (Map.Entry<GroupKey, Accumulator[]> group : groups.entrySet()) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            GroupKey key = group.getKey();
+            for (int i = 0; i < groupColumns.size(); i++) {
+                boolean isNull = (key.nullMask() & (1L << i)) != 0;
+                values.put(aggregation.getGroupBy().get(i).alias(), isNull ? null : decode(groupColumns.get(i), key.values()[i]));
+            }
+            for (int i = 0; i < metricColumns.size(); i++) {
+                Aggregation.Metric metric = aggregation.getMetrics().get(i);
+                values.put(metric.alias(), group.getValue()[i].result(metric.function()));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    private static Accumulator[] accumulators(Aggregation aggregation, List<SnapshotColumn> metricColumns) {
+        Accumulator[] accumulators = new Accumulator[metricColumns.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i] = new Accumulator(metricColumns.get(i), aggregation.getMetrics().get(i).function());
+        }
+        return accumulators;
+    }
+
+    private static long raw(SnapshotColumn column, int row) {
+        return switch (column.kind) {
+            case LONG -> column.getLong(row);
+            case DOUBLE -> Double.doubleToLongBits(column.getDouble(row));
+            case DICTIONARY -> column.getCode(row);
+        };
+    }
+
+    private static Object decode(SnapshotColumn column, long raw) {
+        return switch (column.kind) {
+            case LONG -> column.decodeLong(raw);
+            case DOUBLE -> column.decodeDouble(Double.longBitsToDouble(raw));
+            case DICTIONARY -> column.entry((int) raw);
+        };
+    }
+
+    /**
+     * The raw values of the group-by columns of a group, and which of them are null.
+     */
+    private record GroupKey(long[] values, long nullMask) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof GroupKey key && nullMask == key.nullMask && Arrays.equals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(values) + Long.hashCode(nullMask);
+        }
+    }
+
+    /**
+     * Accumulates the values of a column within a group, or counts its rows if there is no column.
+     */
+    private static final class Accumulator {
+        private final SnapshotColumn column;
+        private long count;
+        private long longSum;
+        private double doubleSum;
+        private long min;
+        private long max;
+        private double minDouble;
+        private double maxDouble;
+        private final Set<Long> distinct;
+
+        private Accumulator(SnapshotColumn column, AggregateFunction function) {
+            this.column = column;
+            this.distinct = function == AggregateFunction.COUNT_DISTINCT ? new HashSet<>() : null;
+        }
+
+        private void add(int row) {
+            if (column == null) {
+                count++;
+                return;
+            }
+            if (column.isNull(row)) return;
+            if (column.kind == SnapshotColumn.Kind.DOUBLE) {
+                double value = column.getDouble(row);
+                doubleSum += value;
+                minDouble = count == 0 ? value : Math.min(minDouble, value);
+                maxDouble = count == 0 ? value : Math.max(maxDouble, value);
+            } else {
+                long value = raw(column, row);
+                longSum += value;
+                min = count == 0 ? value : Math.min(min, value);
+                max = count == 0 ? value : Math.max(max, value);
+            }
+            if (distinct != null) distinct.add(raw(column, row));
+            count++;
+        }
+
+        private Object result(AggregateFunction function) {
+            if (function == AggregateFunction.COUNT) return count;
+            if (function == AggregateFunction.COUNT_DISTINCT) return distinct == null ? 0L : (long) distinct.size();
+            if (count == 0) return null;
+            boolean isDouble = column.kind == SnapshotColumn.Kind.DOUBLE;
+            return switch (function) {
+                case SUM -> isDouble ? (Object) doubleSum : (Object) longSum;
+                case AVG -> (isDouble ? doubleSum : (double) longSum) / count;
+                case MIN -> isDouble ? column.decodeDouble(minDouble) : decode(column, min);
+                case MAX -> isDouble ? column.decodeDouble(maxDouble) : decode(column, max);
+                default -> throw new SpecificationBuilderException("Unsupported aggregate function " + function);
+            };
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package dev.rosemarylab.dataquerying.internal.columnar;
+
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.internal.utils.ValueConverter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A column of a snapshot, read from the memory-mapped sections of the snapshot file.
+ * <p>Integral and boolean attributes are stored as <code>long</code>s, floating-point attributes as
+ * <code>double</code>s, and strings and enums as <code>int</code> codes into a sorted dictionary of their distinct
+ * values, so the order of the codes is the order of the values. Each column has a bitmap of its {@code null} rows,
+ * whose values are stored as zero.</p>
+ */
+class SnapshotColumn {
+
+    /**
+     * The storage of a column.
+     */
+    enum Kind {
+        LONG, DOUBLE, DICTIONARY
+    }
+
+    final String attribute;
+    final Class<?> type;
+    final Kind kind;
+    final int rows;
+
+    private final LongBuffer nulls;
+    private final LongBuffer longs;
+    private final DoubleBuffer doubles;
+    private final IntBuffer codes;
+    private final IntBuffer dictionaryOffsets;
+    private final ByteBuffer dictionaryBytes;
+
+    SnapshotColumn(String attribute, Class<?> type, int rows, LongBuffer nulls, ByteBuffer values, ByteBuffer dictionary) {
+        this.attribute = attribute;
+        this.type = ValueConverter.wrapper(type);
+        this.kind = kind(type);
+        this.rows = rows;
+        this.nulls = nulls;
+        this.longs = kind == Kind.LONG ? values.asLongBuffer() : null;
+        this.doubles = kind == Kind.DOUBLE ? values.asDoubleBuffer() : null;
+        this.codes = kind == Kind.DICTIONARY ? values.asIntBuffer() : null;
+        if (kind == Kind.DICTIONARY) {
+            int size = dictionary.getInt(0);
+            this.dictionaryOffsets = dictionary.slice(Integer.BYTES, (size + 1) * Integer.BYTES).order(dictionary.order()).asIntBuffer();
+            this.dictionaryBytes = dictionary.slice((size + 2) * Integer.BYTES, dictionary.capacity() - (size + 2) * Integer.BYTES);
+        } else {
+            this.dictionaryOffsets = null;
+            this.dictionaryBytes = null;
+        }
+    }
+
+    /**
+     * Returns the storage of an attribute type.
+     *
+     * @param type the attribute type
+     * @return the storage
+     * @throws SpecificationBuilderException if the type can't be stored in a snapshot
+     */
+    static Kind kind(Class<?> type) {
+        Class<?> wrapper = ValueConverter.wrapper(type);
+        if (wrapper == Long.class || wrapper == Integer.class || wrapper == Short.class || wrapper == Byte.class
+                || wrapper == Boolean.class || wrapper == BigInteger.class) return Kind.LONG;
+        if (wrapper == Double.class || wrapper == Float.class) return Kind.DOUBLE;
+        if (wrapper == BigDecimal.class)
+            throw new SpecificationBuilderException("Decimal attributes can't be stored in a columnar snapshot, a double would lose their precision");
+        if (wrapper == String.class || wrapper.isEnum()) return Kind.DICTIONARY;
+        throw new SpecificationBuilderException("Attributes of type " + type.getSimpleName() + " can't be stored in a columnar snapshot");
+    }
+
+    /**
+     * Encodes a value of a {@link Kind#LONG} column.
+     */
+    static long encodeLong(Object value) {
+        if (value instanceof Boolean bool) return bool ? 1 : 0;
+        if (value instanceof BigInteger integer) return integer.longValueExact();
+        return ((Number) value).longValue();
+    }
+
+    /**
+     * Encodes a value of a {@link Kind#DICTIONARY} column.
+     */
+    static String encodeText(Object value) {
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+
+    boolean isNull(int row) {
+        return (nulls.get(row >>> 6) & (1L << row)) != 0;
+    }
+
+    /**
+     * Returns the word of the null bitmap holding the rows <code>64 * word</code> to <code>64 * word + 63</code>.
+     */
+    long nullWord(int word) {
+        return nulls.get(word);
+    }
+
+    long getLong(int row) {
+        return longs.get(row);
+    }
+
+    double getDouble(int row) {
+        return doubles.get(row);
+    }
+
+    int getCode(int row) {
+        return codes.get(row);
+    }
+
+    int dictionarySize() {
+        return dictionaryOffsets.capacity() - 1;
+    }
+
+    /**
+     * Returns the value of a row, as the attribute type.
+     */
+    Object value(int row) {
+        if (isNull(row)) return null;
+        return switch (kind) {
+            case LONG -> decodeLong(longs.get(row));
+            case DOUBLE -> decodeDouble(doubles.get(row));
+            case DICTIONARY -> entry(codes.get(row));
+        };
+    }
+
+    Object decodeLong(long value) {
+        if (type == Boolean.class) return value != 0;
+        if (type == BigInteger.class) return BigInteger.valueOf(value);
+        return ValueConverter.convert(value, type);
+    }
+
+    Object decodeDouble(double value) {
+        return ValueConverter.convert(value, type);
+    }
+
+    /**
+     * Returns a value of the dictionary, as the attribute type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Object entry(int code) {
+        String text = text(code);
+        return type.isEnum() ? Enum.valueOf((Class<Enum>) type, text) : text;
+    }
+
+    private String text(int code) {
+        int start = dictionaryOffsets.get(code);
+        int end = dictionaryOffsets.get(code + 1);
+        byte[] bytes = new byte[end - start];
+        dictionaryBytes.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the code of a value in the dictionary.
+     *
+     * @param value the value, converted to the attribute type
+     * @return the code, or <code>-(insertion point) - 1</code> if the value is not in the dictionary
+     */
+    int find(Object value) {
+        String text = encodeText(value);
+        int low = 0;
+        int high = dictionarySize() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = text(middle).compareTo(text);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,390 @@
+package dev.rosemarylab.dataquerying.internal.columnar;
+
+import dev.rosemarylab.dataquerying.api.*;
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.internal.memory.InMemoryComparator;
+import dev.rosemarylab.dataquerying.internal.memory.InMemoryPredicateVisitor;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import dev.rosemarylab.dataquerying.internal.utils.ValueConverter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.ManagedType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Default implementation of {@link ColumnarSnapshot}.
+ *
+ * <p>A filter on a <code>long</code> or <code>double</code> column is reduced to a range of values, possibly negated,
+ * and evaluated by a branch-free loop over the column building the result 64 rows at a time, which the JIT compiles to
+ * SIMD instructions where it can. A filter on a dictionary column is first evaluated on each distinct value, then the
+ * column of codes is scanned. Other filters, such as text operators on numbers, read the values row by row.</p>
+ *
+ * @param <T> the entity type
+ */
+public class SnapshotTable<T> implements ColumnarSnapshot<T> {
+    private final EntityManager entityManager;
+    private final Class<T> entityClass;
+    private final Path file;
+    private final List<SnapshotWriter.ColumnDefinition> definitions = new ArrayList<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    private volatile List<SnapshotColumn> columns = List.of();
+    private volatile int rows;
+
+    public SnapshotTable(EntityManager entityManager, Class<T> entityClass, Path file, String... attributes) {
+        if (entityManager == null || entityClass == null || file == null)
+            throw new IllegalArgumentException("Entity manager, entity class and file cannot be null.");
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.file = file;
+
+        ManagedType<T> managedType = entityManager.getMetamodel().managedType(entityClass);
+        for (String attribute : new LinkedHashSet<>(Arrays.asList(attributes))) {
+            Class<?> type = SpecificationEngine.attributeType(managedType, attribute);
+            if (type == null) throw new AttributeNotFoundException(attribute);
+            SnapshotColumn.kind(type);
+            positions.put(attribute, definitions.size());
+            definitions.add(new SnapshotWriter.ColumnDefinition(attribute, type));
+        }
+        load();
+    }
+
+    @Override
+    public synchronized void refresh() {
+        load();
+    }
+
+    // Private, so the constructor doesn't call a method a subclass could override
+    private void load() {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<T> root = criteriaQuery.from(entityClass);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (SnapshotWriter.ColumnDefinition definition : definitions) {
+            selections.add(SpecificationEngine.resolvePath(root, definition.attribute()));
+        }
+        criteriaQuery.select(criteriaBuilder.tuple(selections.toArray(new Selection<?>[0])));
+
+        // Rows are streamed from the database to the column files, never held together in memory
+        try (Stream<Tuple> tuples = entityManager.createQuery(criteriaQuery).getResultStream()) {
+            List<SnapshotColumn> written = SnapshotWriter.write(file, definitions, tuples.map(Tuple::toArray).iterator());
+            rows = written.isEmpty() ? 0 : written.getFirst().rows;
+            columns = written;
+        }
+    }
+
+    @Override
+    public int size() {
+        return rows;
+    }
+
+    @Override
+    public long count(Query<T> query) {
+        return filter(query).cardinality();
+    }
+
+    @Override
+    public long count(SearchRequest request) {
+        return count(request.<T>getQuery());
+    }
+
+    @Override
+    public List<AggregateRow> aggregate(SearchRequest request) {
+        return aggregate(request.getQuery(), request.getAggregation());
+    }
+
+    @Override
+    public List<AggregateRow> aggregate(Query<T> query, Aggregation aggregation) {
+        if (aggregation == null || (aggregation.getGroupBy().isEmpty() && aggregation.getMetrics().isEmpty()))
+            throw new SpecificationBuilderException("Aggregation requires at least one group-by attribute or aggregated value.");
+        List<SnapshotColumn> snapshot = columns;
+        BitSet matching = filter(query, snapshot);
+        List<Map<String, Object>> result = SnapshotAggregator.aggregate(matching, aggregation, attribute -> column(snapshot, attribute));
+
+        if (!aggregation.getHaving().isEmpty()) {
+            Query<Object> having = Query.get();
+            for (Aggregation.Having condition : aggregation.getHaving()) {
+                having = having.and(condition.alias(), condition.operator(), condition.value());
+            }
+            Predicate<Object> predicate = having.accept(new InMemoryPredicateVisitor(alias -> row -> Collections.singletonList(((Map<?, ?>) row).get(alias))));
+            result.removeIf(predicate.negate());
+        }
+        if (aggregation.getSort().isSorted()) {
+            result.sort(InMemoryComparator.of(aggregation.getSort(), alias -> row -> ((Map<?, ?>) row).get(alias)));
+        }
+        return result.stream().map(AggregateRow::new).toList();
+    }
+
+    @Override
+    public void close() {
+        columns = List.of();
+        rows = 0;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // the file is replaced when a snapshot is created again
+        }
+    }
+
+    private BitSet filter(Query<T> query) {
+        return filter(query, columns);
+    }
+
+    // Evaluated on the columns mapped when the call started, a concurrent refresh doesn't affect it
+    private BitSet filter(Query<T> query, List<SnapshotColumn> snapshot) {
+        int count = snapshot.isEmpty() ? rows : snapshot.getFirst().rows;
+        if (query == null) {
+            BitSet all = new BitSet(count);
+            all.set(0, count);
+            return all;
+        }
+        return query.accept(new FilterVisitor(snapshot, count));
+    }
+
+    private SnapshotColumn column(List<SnapshotColumn> snapshot, String attribute) {
+        Integer position = positions.get(attribute);
+        if (position == null || position >= snapshot.size()) throw new AttributeNotFoundException(attribute);
+        return snapshot.get(position);
+    }
+
+    /**
+     * Evaluates a query into the bitmap of its matching rows.
+     */
+    private final class FilterVisitor implements QueryVisitor<BitSet> {
+        private final List<SnapshotColumn> snapshot;
+        private final int count;
+        private final InMemoryPredicateVisitor valueVisitor = new InMemoryPredicateVisitor(attribute -> value -> Collections.singletonList(value));
+
+        private FilterVisitor(List<SnapshotColumn> snapshot, int count) {
+            this.snapshot = snapshot;
+            this.count = count;
+        }
+
+        @Override
+        public BitSet visitAnd(List<BitSet> operands) {
+            BitSet result = all();
+            for (BitSet operand : operands) {
+                result.and(operand);
+            }
+            return result;
+        }
+
+        @Override
+        public BitSet visitOr(List<BitSet> operands) {
+            if (operands.isEmpty()) return all();
+            BitSet result = new BitSet(count);
+            for (BitSet operand : operands) {
+                result.or(operand);
+            }
+            return result;
+        }
+
+        @Override
+        public BitSet visitComparison(String attribute, SearchOperator operator, Object value) {
+            SnapshotColumn column = column(snapshot, attribute);
+            if (value == null) {
+                BitSet nulls = nulls(column);
+                if (operator == SearchOperator.EQ) return nulls;
+                BitSet notNull = all();
+                notNull.andNot(nulls);
+                return notNull;
+            }
+            if (operator == SearchOperator.EQ_IGNORE_CASE || column.kind == SnapshotColumn.Kind.DICTIONARY) {
+                return matchValues(column, valueVisitor.visitComparison(attribute, operator, value));
+            }
+            BigDecimal decimal = decimal(column, value);
+            return switch (operator) {
+                case EQ -> range(column, decimal, true, decimal, true, false);
+                case NOT_EQ -> range(column, decimal, true, decimal, true, true);
+                case GT -> range(column, decimal, false, null, false, false);
+                case GTE -> range(column, decimal, true, null, false, false);
+                case LT -> range(column, null, false, decimal, false, false);
+                case LTE -> range(column, null, false, decimal, true, false);
+                default -> throw new SpecificationBuilderException(operator + " is not a comparison");
+            };
+        }
+
+        @Override
+        public BitSet visitIn(String attribute, Collection<?> values) {
+            SnapshotColumn column = column(snapshot, attribute);
+            if (column.kind == SnapshotColumn.Kind.DICTIONARY) {
+                boolean[] codes = new boolean[column.dictionarySize()];
+                for (Object value : values) {
+                    int code = value == null ? -1 : column.find(convert(column, value));
+                    if (code >= 0) codes[code] = true;
+                }
+                return scanCodes(column, codes);
+            }
+            BitSet result = new BitSet(count);
+            for (Object value : values) {
+                if (value == null) continue;
+                BigDecimal decimal = decimal(column, value);
+                result.or(range(column, decimal, true, decimal, true, false));
+            }
+            return result;
+        }
+
+        @Override
+        public BitSet visitBetween(String attribute, Object lower, Object upper) {
+            SnapshotColumn column = column(snapshot, attribute);
+            if (column.kind == SnapshotColumn.Kind.DICTIONARY) {
+                return matchValues(column, valueVisitor.visitBetween(attribute, lower, upper));
+            }
+            return range(column, decimal(column, lower), true, decimal(column, upper), true, false);
+        }
+
+        @Override
+        public BitSet visitLike(String attribute, SearchOperator operator, String value) {
+            return matchValues(column(snapshot, attribute), valueVisitor.visitLike(attribute, operator, value));
+        }
+
+        @Override
+        public BitSet visitNone() {
+            return new BitSet(count);
+        }
+
+        private BitSet all() {
+            BitSet all = new BitSet(count);
+            all.set(0, count);
+            return all;
+        }
+
+        private BitSet nulls(SnapshotColumn column) {
+            long[] words = new long[words()];
+            for (int word = 0; word < words.length; word++) {
+                words[word] = column.nullWord(word);
+            }
+            return BitSet.valueOf(words);
+        }
+
+        private int words() {
+            return (int) (((long) count + 63) >>> 6);
+        }
+
+        // The non-null rows within the bounds, or outside of them if negated; a null bound is open
+        private BitSet range(SnapshotColumn column, BigDecimal lower, boolean lowerInclusive, BigDecimal upper, boolean upperInclusive, boolean negated) {
+            if (column.kind == SnapshotColumn.Kind.DOUBLE) {
+                double low = lower == null ? Double.NEGATIVE_INFINITY : lower.doubleValue();
+                double high = upper == null ? Double.POSITIVE_INFINITY : upper.doubleValue();
+                return scanDoubles(column, low, lowerInclusive || lower == null, high, upperInclusive || upper == null, negated);
+            }
+            // Integral values within decimal bounds: x > 2.5 is x >= 3, x <= 2.5 is x <= 2
+            long low = Long.MIN_VALUE;
+            long high = Long.MAX_VALUE;
+            if (lower != null) {
+                BigDecimal bound = lowerInclusive ? lower.setScale(0, RoundingMode.CEILING) : lower.setScale(0, RoundingMode.FLOOR).add(BigDecimal.ONE);
+                low = clamp(bound);
+            }
+            if (upper != null) {
+                BigDecimal bound = upperInclusive ? upper.setScale(0, RoundingMode.FLOOR) : upper.setScale(0, RoundingMode.CEILING).subtract(BigDecimal.ONE);
+                high = clamp(bound);
+            }
+            return scanLongs(column, low, high, negated);
+        }
+
+        private static long clamp(BigDecimal value) {
+            if (value.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) <= 0) return Long.MIN_VALUE;
+            if (value.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0) return Long.MAX_VALUE;
+            return value.longValueExact();
+        }
+
+        private BitSet scanLongs(SnapshotColumn column, long low, long high, boolean negated) {
+            long[] words = new long[words()];
+            for (int word = 0; word < words.length; word++) {
+                int base = word << 6;
+                int end = Math.min(64, count - base);
+                long bits = 0;
+                for (int bit = 0; bit < end; bit++) {
+                    long value = column.getLong(base + bit);
+                    bits |= (value >= low & value <= high ? 1L : 0L) << bit;
+                }
+                if (negated) bits = ~bits & mask(end);
+                words[word] = bits & ~column.nullWord(word);
+            }
+            return BitSet.valueOf(words);
+        }
+
+        private BitSet scanDoubles(SnapshotColumn column, double low, boolean lowInclusive, double high, boolean highInclusive, boolean negated) {
+            long[] words = new long[words()];
+            for (int word = 0; word < words.length; word++) {
+                int base = word << 6;
+                int end = Math.min(64, count - base);
+                long bits = 0;
+                for (int bit = 0; bit < end; bit++) {
+                    double value = column.getDouble(base + bit);
+                    boolean aboveLow = lowInclusive ? value >= low : value > low;
+                    boolean belowHigh = highInclusive ? value <= high : value < high;
+                    bits |= (aboveLow & belowHigh ? 1L : 0L) << bit;
+                }
+                if (negated) bits = ~bits & mask(end);
+                words[word] = bits & ~column.nullWord(word);
+            }
+            return BitSet.valueOf(words);
+        }
+
+        private BitSet scanCodes(SnapshotColumn column, boolean[] codes) {
+            long[] words = new long[words()];
+            for (int word = 0; word < words.length; word++) {
+                int base = word << 6;
+                int end = Math.min(64, count - base);
+                long bits = 0;
+                for (int bit = 0; bit < end; bit++) {
+                    bits |= (codes[column.getCode(base + bit)] ? 1L : 0L) << bit;
+                }
+                words[word] = bits & ~column.nullWord(word);
+            }
+            return BitSet.valueOf(words);
+        }
+
+        private static long mask(int bits) {
+            return bits == 64 ? -1L : (1L << bits) - 1;
+        }
+
+        // Rows whose value passes the predicate: each distinct value of a dictionary, every row otherwise
+        private BitSet matchValues(SnapshotColumn column, Predicate<Object> predicate) {
+            if (column.kind == SnapshotColumn.Kind.DICTIONARY) {
+                boolean[] codes = new boolean[column.dictionarySize()];
+                for (int code = 0; code < codes.length; code++) {
+                    codes[code] = predicate.test(column.entry(code));
+                }
+                return scanCodes(column, codes);
+            }
+            BitSet result = new BitSet(count);
+            for (int row = 0; row < count; row++) {
+                Object value = column.value(row);
+                if (value != null && predicate.test(value)) result.set(row);
+            }
+            return result;
+        }
+
+        private static Object convert(SnapshotColumn column, Object value) {
+            try {
+                return ValueConverter.convert(value, column.type);
+            } catch (IllegalArgumentException e) {
+                throw new SpecificationBuilderException("Invalid value for attribute '" + column.attribute + "': " + e.getMessage());
+            }
+        }
+
+        private static BigDecimal decimal(SnapshotColumn column, Object value) {
+            if (value == null) throw new SpecificationBuilderException("Invalid null value for attribute '" + column.attribute + "'");
+            Object converted = value instanceof Number ? value : convert(column, value);
+            if (converted instanceof Boolean bool) return bool ? BigDecimal.ONE : BigDecimal.ZERO;
+            if (converted instanceof BigDecimal decimal) return decimal;
+            if (converted instanceof Number number) return new BigDecimal(number.toString());
+            throw new SpecificationBuilderException("Invalid value for attribute '" + column.attribute + "': " + value);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package dev.rosemarylab.dataquerying.internal.columnar;
+
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Writes the rows of a snapshot to a file, column after column, and maps the file.
+ *
+ * <p>Rows are streamed once into a temporary file per column, so only the null bitmaps and the distinct strings are
+ * held in memory while writing. The columns are then copied into the snapshot file, each section aligned on 8 bytes and
+ * in the native byte order:</p>
+ * <pre>
+ * null bitmap:  ceil(rows / 64) longs
+ * values:       rows longs, doubles or int codes
+ * dictionary:   int size, (size + 1) int offsets, UTF-8 bytes of the sorted values
+ * </pre>
+ * <p>The snapshot file is written next to its target and moved over it, so a snapshot mapping the previous file keeps
+ * reading consistent data until it is remapped.</p>
+ */
+class SnapshotWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SnapshotWriter() {
+    }
+
+    /**
+     * The attribute of a column and its type.
+     */
+    record ColumnDefinition(String attribute, Class<?> type) {
+    }
+
+    /**
+     * Writes the rows to the target file and maps it.
+     *
+     * @param target      the snapshot file, replaced if it exists
+     * @param definitions the columns
+     * @param rows        the values of each row, in the order of the columns
+     * @return the mapped columns
+     */
+    static List<SnapshotColumn> write(Path target, List<ColumnDefinition> definitions, Iterator<Object[]> rows) {
+        Path directory = target.toAbsolutePath().getParent();
+        List<ColumnSpill> spills = new ArrayList<>();
+        try {
+            for (ColumnDefinition definition : definitions) {
+                spills.add(new ColumnSpill(definition, Files.createTempFile(directory, "snapshot-column", ".tmp")));
+            }
+            int count = 0;
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                for (int column = 0; column < spills.size(); column++) {
+                    spills.get(column).append(count, row[column]);
+                }
+                if (++count < 0) throw new SpecificationBuilderException("A columnar snapshot holds at most " + Integer.MAX_VALUE + " rows");
+            }
+
+            Path written = Files.createTempFile(directory, "snapshot", ".tmp");
+            long[][] sections = new long[spills.size()][];
+            try (FileChannel channel = FileChannel.open(written, StandardOpenOption.WRITE)) {
+                for (int column = 0; column < spills.size(); column++) {
+                    sections[column] = spills.get(column).copyTo(channel, count);
+                }
+            }
+            Files.move(written, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return map(target, definitions, sections, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the snapshot " + target, e);
+        } finally {
+            for (ColumnSpill spill : spills) {
+                spill.delete();
+            }
+        }
+    }
+
+    private static List<SnapshotColumn> map(Path file, List<ColumnDefinition> definitions, long[][] sections, int rows) throws IOException {
+        List<SnapshotColumn> columns = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int column = 0; column < definitions.size(); column++) {
+                long[] section = sections[column];
+                ByteBuffer nulls = map(channel, section[0], section[1] - section[0]);
+                ByteBuffer values = map(channel, section[1], section[2] - section[1]);
+                ByteBuffer dictionary = section[3] > section[2] ? map(channel, section[2], section[3] - section[2]) : null;
+                ColumnDefinition definition = definitions.get(column);
+                columns.add(new SnapshotColumn(definition.attribute(), definition.type(), rows, nulls.asLongBuffer(), values, dictionary));
+            }
+        }
+        return columns;
+    }
+
+    // The mapping stays valid once the channel is closed, until the buffer is garbage collected
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) throw new SpecificationBuilderException("A snapshot column can't exceed 2 GB");
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * The values of a column, spilled to a temporary file while the rows are streamed.
+     */
+    private static final class ColumnSpill {
+        private final SnapshotColumn.Kind kind;
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+        private final BitSet nulls = new BitSet();
+        // Codes in order of first appearance, sorted when the column is copied
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        private ColumnSpill(ColumnDefinition definition, Path file) throws IOException {
+            this.kind = SnapshotColumn.kind(definition.type());
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        }
+
+        private void append(int row, Object value) throws IOException {
+            if (buffer.remaining() < Long.BYTES) flush();
+            if (value == null) nulls.set(row);
+            switch (kind) {
+                case LONG -> buffer.putLong(value == null ? 0 : SnapshotColumn.encodeLong(value));
+                case DOUBLE -> buffer.putDouble(value == null ? 0 : ((Number) value).doubleValue());
+                case DICTIONARY -> buffer.putInt(value == null ? 0
+                        : dictionary.computeIfAbsent(SnapshotColumn.encodeText(value), text -> dictionary.size()));
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        // Copies the column at the end of the snapshot file, returns the offsets of its sections and of its end
+        private long[] copyTo(FileChannel target, int rows) throws IOException {
+            flush();
+            long nullsStart = align(target);
+            long[] words = Arrays.copyOf(nulls.toLongArray(), (int) (((long) rows + 63) / 64));
+            ByteBuffer nullBuffer = ByteBuffer.allocate(words.length * Long.BYTES).order(ByteOrder.nativeOrder());
+            nullBuffer.asLongBuffer().put(words);
+            writeFully(target, nullBuffer);
+
+            long valuesStart = align(target);
+            if (kind == SnapshotColumn.Kind.DICTIONARY) {
+                copyCodes(target);
+            } else {
+                long position = 0;
+                long size = channel.size();
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            }
+            long dictionaryStart = align(target);
+            if (kind == SnapshotColumn.Kind.DICTIONARY) {
+                writeDictionary(target);
+            }
+            return new long[]{nullsStart, valuesStart, dictionaryStart, target.position()};
+        }
+
+        // Replaces the codes in order of appearance by the codes in the sorted dictionary
+        private void copyCodes(FileChannel target) throws IOException {
+            int[] sortedCodes = new int[dictionary.size()];
+            List<String> sorted = sortedDictionary();
+            for (int code = 0; code < sorted.size(); code++) {
+                sortedCodes[dictionary.get(sorted.get(code))] = code;
+            }
+            channel.position(0);
+            ByteBuffer output = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+            int read;
+            do {
+                read = channel.read(buffer);
+                buffer.flip();
+                while (buffer.remaining() >= Integer.BYTES) {
+                    if (!output.hasRemaining()) writeFully(target, output.flip());
+                    output.putInt(sortedCodes.length == 0 ? 0 : sortedCodes[buffer.getInt()]);
+                }
+                buffer.compact();
+            } while (read >= 0);
+            writeFully(target, output.flip());
+        }
+
+        private void writeDictionary(FileChannel target) throws IOException {
+            List<String> sorted = sortedDictionary();
+            List<byte[]> encoded = new ArrayList<>(sorted.size());
+            for (String text : sorted) encoded.add(text.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer header = ByteBuffer.allocate((sorted.size() + 2) * Integer.BYTES).order(ByteOrder.nativeOrder());
+            header.putInt(sorted.size());
+            int offset = 0;
+            header.putInt(offset);
+            for (byte[] bytes : encoded) {
+                offset += bytes.length;
+                header.putInt(offset);
+            }
+            writeFully(target, header.flip());
+            for (byte[] bytes : encoded) writeFully(target, ByteBuffer.wrap(bytes));
+        }
+
+        private List<String> sortedDictionary() {
+            List<String> sorted = new ArrayList<>(dictionary.keySet());
+            Collections.sort(sorted);
+            return sorted;
+        }
+
+        private void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // a leftover temporary file doesn't affect the snapshot
+            }
+        }
+    }
+
+    private static long align(FileChannel channel) throws IOException {
+        long padding = (Long.BYTES - channel.position() % Long.BYTES) % Long.BYTES;
+        if (padding > 0) writeFully(channel, ByteBuffer.allocate((int) padding));
+        return channel.position();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
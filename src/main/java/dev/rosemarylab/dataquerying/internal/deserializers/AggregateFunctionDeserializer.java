@@ -0,0 +1,23 @@
+package dev.rosemarylab.dataquerying.internal.deserializers;
+
+import dev.rosemarylab.dataquerying.api.AggregateFunction;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+public class AggregateFunctionDeserializer extends JsonDeserializer<AggregateFunction> {
+    @Override
+    public AggregateFunction deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+        String function = jsonParser.getText();
+
+        for (AggregateFunction aggregateFunction : AggregateFunction.values()) {
+            if (aggregateFunction.function.equalsIgnoreCase(function)) {
+                return aggregateFunction;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid AggregateFunction: " + function);
+    }
+}
@@ -0,0 +1,23 @@
+package dev.rosemarylab.dataquerying.internal.deserializers;
+
+import dev.rosemarylab.dataquerying.api.FacetType;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+public class FacetTypeDeserializer extends JsonDeserializer<FacetType> {
+    @Override
+    public FacetType deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+        String type = jsonParser.getText();
+
+        for (FacetType facetType : FacetType.values()) {
+            if (facetType.type.equalsIgnoreCase(type)) {
+                return facetType;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid FacetType: " + type);
+    }
+}
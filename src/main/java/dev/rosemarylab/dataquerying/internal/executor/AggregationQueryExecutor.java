@@ -0,0 +1,258 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.AggregateFunction;
+import dev.rosemarylab.dataquerying.api.AggregateRow;
+import dev.rosemarylab.dataquerying.api.Aggregation;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.internal.memory.InMemoryPredicateVisitor;
+import dev.rosemarylab.dataquerying.internal.specification.Filter;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.*;
+
+/**
+ * Utility class for executing grouped aggregation queries.
+ *
+ * <p>Grouping, aggregation and <code>HAVING</code> conditions are all translated to the criteria query, so only one
+ * row per group is transferred from the database.</p>
+ *
+ * <p>A filter on a to-many association joins it, which repeats the entity once per matching element. When the
+ * specification joins such an association, the aggregated entities are therefore restricted with
+ * <code>id IN (subquery)</code>, the subquery holding the filter, so each entity is aggregated once.</p>
+ */
+class AggregationQueryExecutor {
+    private AggregationQueryExecutor() {
+    }
+
+    /**
+     * Executes the aggregation over all entities matching the specification.
+     *
+     * @param entityManager the entity manager used to create and execute the query
+     * @param entityClass   the entity class to be queried
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param aggregation   the aggregation to execute
+     * @param dialect       the dialect translating the case-insensitive and full-text filters, HAVING included
+     * @param <T>           the entity type
+     * @return one row per group
+     */
+    public static <T> List<AggregateRow> aggregate(EntityManager entityManager, Class<T> entityClass, Specification<T> specification, Aggregation aggregation,
+                                                   QueryDialect dialect) {
+        return toMaps(entityManager, entityClass, specification, aggregation, dialect).stream()
+                .map(AggregateRow::new)
+                .toList();
+    }
+
+    /**
+     * Executes the aggregation and maps each group to the given row type.
+     *
+     * @param entityManager the entity manager used to create and execute the query
+     * @param entityClass   the entity class to be queried
+     * @param rowType       the class or interface the rows are mapped to, by alias
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param aggregation   the aggregation to execute
+     * @param dialect       the dialect translating the case-insensitive and full-text filters, HAVING included
+     * @param <T>           the entity type
+     * @param <R>           the row type
+     * @return one row per group
+     */
+    public static <T, R> List<R> aggregate(EntityManager entityManager, Class<T> entityClass, Class<R> rowType, Specification<T> specification, Aggregation aggregation,
+                                           QueryDialect dialect) {
+        List<Map<String, Object>> rows = toMaps(entityManager, entityClass, specification, aggregation, dialect);
+        return ProjectionUtils.convertToDtoList(rowType, rows, new ObjectMapper());
+    }
+
+    /**
+     * Executes the aggregation over no entity, without querying the database. As in SQL, an aggregation without
+     * group-by attributes still yields one row, holding 0 for the counts and {@code null} for the other values, unless
+     * its <code>HAVING</code> conditions reject it.
+     *
+     * @param aggregation the aggregation to execute
+     * @param dialect     the dialect comparing the case-insensitive <code>HAVING</code> conditions
+     * @return no row, or the single row of an aggregation without group-by attributes
+     */
+    public static List<AggregateRow> empty(Aggregation aggregation, QueryDialect dialect) {
+        return emptyMaps(aggregation, dialect).stream()
+                .map(AggregateRow::new)
+                .toList();
+    }
+
+    /**
+     * Executes the aggregation over no entity, without querying the database, and maps the row to the given row type,
+     * see {@link #empty(Aggregation, QueryDialect)}.
+     *
+     * @param rowType     the class or interface the rows are mapped to, by alias
+     * @param aggregation the aggregation to execute
+     * @param dialect     the dialect comparing the case-insensitive <code>HAVING</code> conditions
+     * @param <R>         the row type
+     * @return no row, or the single row of an aggregation without group-by attributes
+     */
+    public static <R> List<R> empty(Class<R> rowType, Aggregation aggregation, QueryDialect dialect) {
+        return ProjectionUtils.convertToDtoList(rowType, emptyMaps(aggregation, dialect), new ObjectMapper());
+    }
+
+    private static List<Map<String, Object>> emptyMaps(Aggregation aggregation, QueryDialect dialect) {
+        if (aggregation == null || (aggregation.getGroupBy().isEmpty() && aggregation.getMetrics().isEmpty()))
+            throw new SpecificationBuilderException("Aggregation requires at least one group-by attribute or aggregated value.");
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (Aggregation.GroupBy groupBy : aggregation.getGroupBy()) {
+            putValue(row, groupBy.alias(), null);
+        }
+        for (Aggregation.Metric metric : aggregation.getMetrics()) {
+            boolean count = metric.function() == AggregateFunction.COUNT || metric.function() == AggregateFunction.COUNT_DISTINCT;
+            putValue(row, metric.alias(), count ? 0L : null);
+        }
+        Query<Object> having = Query.get();
+        for (Aggregation.Having condition : aggregation.getHaving()) {
+            if (!row.containsKey(condition.alias()))
+                throw new SpecificationBuilderException("Alias '" + condition.alias() + "' is not part of the aggregation.");
+            having = having.and(condition.alias(), condition.operator(), condition.value());
+        }
+        if (!aggregation.getGroupBy().isEmpty()) return new ArrayList<>();
+        boolean matches = having.accept(new InMemoryPredicateVisitor(alias -> value -> Collections.singletonList(row.get(alias)), dialect)).test(row);
+        return matches ? new ArrayList<>(List.of(row)) : new ArrayList<>();
+    }
+
+    private static <T> List<Map<String, Object>> toMaps(EntityManager entityManager, Class<T> entityClass, Specification<T> specification, Aggregation aggregation,
+                                                        QueryDialect dialect) {
+        if (aggregation == null || (aggregation.getGroupBy().isEmpty() && aggregation.getMetrics().isEmpty()))
+            throw new SpecificationBuilderException("Aggregation requires at least one group-by attribute or aggregated value.");
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<T> root = criteriaQuery.from(entityClass);
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, criteriaQuery, criteriaBuilder);
+            if (predicate != null) {
+                criteriaQuery.where(predicate);
+            }
+            String idAttribute = CriteriaQueryUtils.idAttributeName(entityManager, entityClass);
+            if (idAttribute != null && joinsCollection(root)) {
+                criteriaQuery = criteriaBuilder.createTupleQuery();
+                root = criteriaQuery.from(entityClass);
+                Class<?> idType = entityManager.getMetamodel().entity(entityClass).getIdType().getJavaType();
+                criteriaQuery.where(root.get(idAttribute).in(filteredIds(criteriaQuery, criteriaBuilder, entityClass, specification, idAttribute, idType)));
+            }
+        }
+
+        Map<String, Expression<?>> expressions = new LinkedHashMap<>();
+        List<Expression<?>> grouping = new ArrayList<>();
+        for (Aggregation.GroupBy groupBy : aggregation.getGroupBy()) {
+            Path<?> path = SpecificationEngine.resolvePath(root, groupBy.attribute());
+            grouping.add(path);
+            putExpression(expressions, groupBy.alias(), path);
+        }
+        for (Aggregation.Metric metric : aggregation.getMetrics()) {
+            putExpression(expressions, metric.alias(), buildAggregate(root, criteriaBuilder, metric));
+        }
+
+        List<Selection<?>> selections = new ArrayList<>();
+        expressions.forEach((alias, expression) -> selections.add(expression.alias(alias)));
+        criteriaQuery.select(criteriaBuilder.tuple(selections.toArray(new Selection<?>[0])));
+
+        if (!grouping.isEmpty()) {
+            criteriaQuery.groupBy(grouping);
+        }
+        if (!aggregation.getHaving().isEmpty()) {
+            criteriaQuery.having(buildHaving(criteriaBuilder, expressions, aggregation.getHaving(), dialect));
+        }
+        if (aggregation.getSort().isSorted()) {
+            criteriaQuery.orderBy(buildOrders(criteriaBuilder, expressions, aggregation.getSort()));
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(criteriaQuery).getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String alias : expressions.keySet()) {
+                row.put(alias, tuple.get(alias));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Whether a join of the specification, possibly nested, is a to-many association
+    private static boolean joinsCollection(From<?, ?> from) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().isCollection() || joinsCollection(join)) return true;
+        }
+        return false;
+    }
+
+    // The ids of the entities matching the specification, which is applied to the root of the subquery. The query it
+    // receives is a scratch query, as a subquery is not a CriteriaQuery; its DISTINCT flag doesn't matter to IN.
+    private static <T, I> Subquery<I> filteredIds(CriteriaQuery<Tuple> criteriaQuery, CriteriaBuilder criteriaBuilder, Class<T> entityClass,
+                                                  Specification<T> specification, String idAttribute, Class<I> idType) {
+        Subquery<I> ids = criteriaQuery.subquery(idType);
+        Root<T> idRoot = ids.from(entityClass);
+        ids.select(idRoot.get(idAttribute));
+        Predicate predicate = specification.toPredicate(idRoot, criteriaBuilder.createQuery(), criteriaBuilder);
+        if (predicate != null) {
+            ids.where(predicate);
+        }
+        return ids;
+    }
+
+    private static void putValue(Map<String, Object> row, String alias, Object value) {
+        if (row.containsKey(alias))
+            throw new SpecificationBuilderException("Duplicate aggregation alias '" + alias + "'.");
+        row.put(alias, value);
+    }
+
+    private static void putExpression(Map<String, Expression<?>> expressions, String alias, Expression<?> expression) {
+        if (expressions.putIfAbsent(alias, expression) != null)
+            throw new SpecificationBuilderException("Duplicate aggregation alias '" + alias + "'.");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Expression<?> buildAggregate(Root<T> root, CriteriaBuilder criteriaBuilder, Aggregation.Metric metric) {
+        Expression path = metric.attribute() == null ? root : SpecificationEngine.resolvePath(root, metric.attribute());
+        return switch (metric.function()) {
+            case COUNT -> criteriaBuilder.count(path);
+            case COUNT_DISTINCT -> criteriaBuilder.countDistinct(path);
+            case SUM -> criteriaBuilder.sum((Expression<Number>) path);
+            case AVG -> criteriaBuilder.avg((Expression<Number>) path);
+            // least/greatest are the aggregate forms that work for any comparable type, e.g. dates and strings
+            case MIN -> criteriaBuilder.least((Expression<Comparable>) path);
+            case MAX -> criteriaBuilder.greatest((Expression<Comparable>) path);
+        };
+    }
+
+    private static Predicate buildHaving(CriteriaBuilder criteriaBuilder, Map<String, Expression<?>> expressions, List<Aggregation.Having> conditions,
+                                         QueryDialect dialect) {
+        List<Predicate> predicates = new ArrayList<>();
+        for (Aggregation.Having having : conditions) {
+            Expression<?> expression = getExpression(expressions, having.alias());
+            Filter filter = new Filter(having.alias(), having.operator(), CriteriaQueryUtils.coerceNumber(having.value(), expression.getJavaType()));
+            predicates.add(SpecificationEngine.predicate(filter, criteriaBuilder, expression, dialect));
+        }
+        return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    private static List<Order> buildOrders(CriteriaBuilder criteriaBuilder, Map<String, Expression<?>> expressions, Sort sort) {
+        return sort.stream()
+                .map(order -> {
+                    Expression<?> expression = getExpression(expressions, order.getProperty());
+                    return order.isAscending() ? criteriaBuilder.asc(expression) : criteriaBuilder.desc(expression);
+                })
+                .toList();
+    }
+
+    private static Expression<?> getExpression(Map<String, Expression<?>> expressions, String alias) {
+        Expression<?> expression = expressions.get(alias);
+        if (expression == null)
+            throw new SpecificationBuilderException("Alias '" + alias + "' is not part of the aggregation.");
+        return expression;
+    }
+}
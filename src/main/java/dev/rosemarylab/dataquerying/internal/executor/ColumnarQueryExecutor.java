@@ -0,0 +1,81 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import dev.rosemarylab.dataquerying.api.ColumnarResult;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.internal.columnar.ColumnarResultBuilder;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for executing projection queries into a {@link ColumnarResult}.
+ *
+ * <p>The query selects the attributes of the projection, as {@link ProjectionQueryExecutor} does, and its tuples are
+ * read as a stream and unboxed into the columns as they are read, so neither the list of tuples nor a map or projection
+ * per row is kept. A sorted distinct query selects the ids first, as described in {@link TupleQueryExecutor}.</p>
+ */
+class ColumnarQueryExecutor {
+    private ColumnarQueryExecutor() {
+    }
+
+    /**
+     * Executes a query that retrieves all entities matching the specification into columns.
+     *
+     * @param entityManager the entity manager used to create and execute the query
+     * @param entityClass   the entity class to be queried
+     * @param returnType    the projection (DTO) type whose attributes are selected
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param sort          the sort criteria; may be {@code null}
+     * @param dialect       the dialect computing the relevance orders
+     * @param <T>           the entity type
+     * @param <P>           the projection type
+     * @return the columns of the matching entities
+     */
+    public static <T, P> ColumnarResult all(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification, Sort sort,
+                                            QueryDialect dialect) {
+        ColumnarResultBuilder builder = builder(entityManager, entityClass, returnType);
+        List<String> attributes = ReflectionUtils.getAttributeNames(returnType);
+        try (Stream<Tuple> tuples = TupleQueryExecutor.stream(entityManager, entityClass, attributes, specification, false, sort, Map.of(), dialect)) {
+            for (Iterator<Tuple> iterator = tuples.iterator(); iterator.hasNext(); ) {
+                Tuple tuple = iterator.next();
+                builder.nextRow();
+                for (int i = 0; i < attributes.size(); i++) {
+                    builder.set(i, tuple.get(i));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns an empty result with the columns of the projection.
+     *
+     * @param entityManager the entity manager whose metamodel describes the entity
+     * @param entityClass   the entity class
+     * @param returnType    the projection (DTO) type
+     * @param <T>           the entity type
+     * @param <P>           the projection type
+     * @return the empty result
+     */
+    public static <T, P> ColumnarResult empty(EntityManager entityManager, Class<T> entityClass, Class<P> returnType) {
+        return builder(entityManager, entityClass, returnType).build();
+    }
+
+    // The column types are the types of the selected entity attributes, taken from the selection of an unfiltered query
+    private static <T> ColumnarResultBuilder builder(EntityManager entityManager, Class<T> entityClass, Class<?> returnType) {
+        CriteriaQuery<Tuple> criteriaQuery = CriteriaQueryUtils.prepareCriteriaQuery(entityManager, entityClass, returnType, false, null).getKey();
+        List<Class<?>> types = criteriaQuery.getSelection().getCompoundSelectionItems().stream()
+                .<Class<?>>map(Selection::getJavaType)
+                .toList();
+        return new ColumnarResultBuilder(ReflectionUtils.getAttributeNames(returnType), types);
+    }
+}
@@ -1,13 +1,18 @@
 package dev.rosemarylab.dataquerying.internal.executor;
 
+import dev.rosemarylab.dataquerying.api.QueryDialect;
 import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.metamodel.EntityType;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +21,22 @@ class CriteriaQueryUtils {
     }
 
     static <T, R> Map.Entry<CriteriaQuery<Tuple>, Root<T>> prepareCriteriaQuery(EntityManager entityManager, Class<T> entityClass, Class<R> pojo, boolean distinct, Specification<T> specification) {
+        return prepareCriteriaQuery(entityManager, entityClass, ReflectionUtils.getAttributeNames(pojo), distinct, specification);
+    }
+
+    // Selects the given attributes instead of all attributes of a projection type
+    static <T> Map.Entry<CriteriaQuery<Tuple>, Root<T>> prepareCriteriaQuery(EntityManager entityManager, Class<T> entityClass, List<String> attributes, boolean distinct, Specification<T> specification) {
+        Map.Entry<CriteriaQuery<Tuple>, Root<T>> filteredQueryObjects = filterCriteriaQuery(entityManager, entityClass, distinct, specification);
+
+        // Apply the selection fields
+        SpecificationEngine.applySelection(filteredQueryObjects.getValue(), filteredQueryObjects.getKey(), entityManager.getCriteriaBuilder(), attributes);
+
+        return filteredQueryObjects;
+    }
+
+    // Creates the tuple query restricted by the specification, without a selection. Whether the specification made the
+    // query distinct is only known once it is applied, so the caller can still choose what to select.
+    static <T> Map.Entry<CriteriaQuery<Tuple>, Root<T>> filterCriteriaQuery(EntityManager entityManager, Class<T> entityClass, boolean distinct, Specification<T> specification) {
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
         Root<T> root = criteriaQuery.from(entityClass);
@@ -32,42 +53,61 @@ class CriteriaQueryUtils {
             }
         }
 
-        // Apply the selection fields
-        SpecificationEngine.applySelection(root, criteriaQuery, criteriaBuilder, pojo);
-
         return Map.entry(criteriaQuery, root);
     }
 
-    static <T> void applySorting(Pageable pageable, Root<T> root, CriteriaBuilder criteriaBuilder, CriteriaQuery<Tuple> criteriaQuery) {
-        if (pageable == null) return;
-        if (pageable.getSort().isSorted()) {
-            List<Order> orders = pageable.getSort().stream()
-                    .map(order -> buildOrder(root, criteriaBuilder, order))
+    static <T> void applySelection(Root<T> root, CriteriaQuery<Tuple> criteriaQuery, CriteriaBuilder criteriaBuilder, Class<?> pojo) {
+        SpecificationEngine.applySelection(root, criteriaQuery, criteriaBuilder, ReflectionUtils.getAttributeNames(pojo));
+    }
+
+    // Returns the name of the single id attribute of the entity, or null for composite ids
+    static <T> String idAttributeName(EntityManager entityManager, Class<T> entityClass) {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        if (!entityType.hasSingleIdAttribute()) return null;
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+
+    // Numeric values coming from JSON are widened or narrowed to the type of the compared expression to avoid a
+    // parameter type mismatch, e.g. an Integer compared to a Long attribute or to a COUNT.
+    static Object coerceNumber(Object value, Class<?> type) {
+        if (value instanceof Collection<?> values) {
+            return values.stream().map(v -> coerceNumber(v, type)).toList();
+        }
+        if (!(value instanceof Number number) || type == null || type.isInstance(value)) {
+            return value;
+        }
+        if (type == Long.class || type == long.class) return number.longValue();
+        if (type == Double.class || type == double.class) return number.doubleValue();
+        if (type == Integer.class || type == int.class) return number.intValue();
+        if (type == Float.class || type == float.class) return number.floatValue();
+        if (type == Short.class || type == short.class) return number.shortValue();
+        if (type == BigDecimal.class) return new BigDecimal(number.toString());
+        if (type == BigInteger.class) return BigInteger.valueOf(number.longValue());
+        return value;
+    }
+
+    static <T> void applySorting(Sort sort, Root<T> root, CriteriaBuilder criteriaBuilder, CriteriaQuery<Tuple> criteriaQuery, QueryDialect dialect) {
+        if (sort == null) return;
+        if (sort.isSorted()) {
+            List<Order> orders = sort.stream()
+                    .map(order -> buildOrder(root, criteriaBuilder, order, dialect))
                     .toList();
 
             criteriaQuery.orderBy(orders);
         }
     }
 
-    private static <T> Order buildOrder(Root<T> root, CriteriaBuilder criteriaBuilder, Sort.Order order) {
-        String property = order.getProperty();
-        Path<?> path = property.contains(".")
-                ? buildJoinedPath(root, property)
-                : root.get(property);
+    private static <T> Order buildOrder(Root<T> root, CriteriaBuilder criteriaBuilder, Sort.Order order, QueryDialect dialect) {
+        Expression<?> expression = sortExpression(root, criteriaBuilder, order.getProperty(), dialect);
 
         return order.isAscending()
-                ? criteriaBuilder.asc(path)
-                : criteriaBuilder.desc(path);
+                ? criteriaBuilder.asc(expression)
+                : criteriaBuilder.desc(expression);
     }
 
-    private static <T> Path<?> buildJoinedPath(Root<T> root, String propertyPath) {
-        String[] attributes = propertyPath.split("\\.");
-        From<?, ?> joinPath = root;
-
-        for (int i = 0; i < attributes.length - 1; i++) {
-            joinPath = joinPath.join(attributes[i], JoinType.LEFT);
-        }
-
-        return joinPath.get(attributes[attributes.length - 1]);
+    // Resolves a sort property, joining nested paths with LEFT joins so entities without the association are kept.
+    // Joins already created by the filters or explicit joins of the query are reused.
+    static <T> Expression<?> sortExpression(Root<T> root, CriteriaBuilder criteriaBuilder, String property, QueryDialect dialect) {
+        return SpecificationEngine.resolveSortExpression(root, property, criteriaBuilder, dialect);
     }
 }
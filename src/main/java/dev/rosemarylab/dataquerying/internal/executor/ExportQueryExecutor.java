@@ -0,0 +1,194 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.ExportFormat;
+import dev.rosemarylab.dataquerying.api.ExportOptions;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for exporting projection queries to a stream.
+ *
+ * <p>The query selects the attributes of the projection, as {@link ProjectionQueryExecutor} does, and its result is
+ * read as a stream, which the JPA provider backs with a scrolling database cursor. Each tuple is written to the output
+ * as soon as it is read and then dropped: no list of results and no projection object is built, and selecting values
+ * rather than entities leaves the persistence context empty. A sorted distinct query reads the ids from a cursor too,
+ * and the rows of the ids in chunks as the ids are read, as described in {@link TupleQueryExecutor}.</p>
+ */
+class ExportQueryExecutor {
+    // Hint understood by Hibernate, other providers ignore it
+    private static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ExportQueryExecutor() {
+    }
+
+    /**
+     * Exports the entities matching the specification.
+     *
+     * @param entityManager the entity manager used to create and execute the query
+     * @param entityClass   the entity class to be queried
+     * @param returnType    the projection (DTO) type whose attributes are exported
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param sort          the sort criteria; may be {@code null}
+     * @param options       the format, fetch size and flush interval
+     * @param output        the stream the rows are written to, flushed but not closed
+     * @param dialect       the dialect computing the relevance orders
+     * @param <T>           the entity type
+     * @param <P>           the projection type
+     * @return the number of exported rows
+     */
+    public static <T, P> long export(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification,
+                                     Sort sort, ExportOptions options, OutputStream output, QueryDialect dialect) {
+        List<String> attributes = ReflectionUtils.getAttributeNames(returnType);
+
+        try (RowWriter writer = writer(options.format(), output, returnType);
+             Stream<Tuple> tuples = TupleQueryExecutor.stream(entityManager, entityClass, attributes, specification, false, sort,
+                     Map.of(FETCH_SIZE_HINT, options.fetchSize()), dialect)) {
+            long rows = 0;
+            Object[] values = new Object[attributes.size()];
+            for (Iterator<Tuple> iterator = tuples.iterator(); iterator.hasNext(); ) {
+                Tuple tuple = iterator.next();
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = tuple.get(i);
+                }
+                writer.write(values);
+                if (++rows % options.flushInterval() == 0) writer.flush();
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export " + entityClass.getSimpleName() + " rows", e);
+        }
+    }
+
+    /**
+     * Exports no rows: writes the CSV header only, nothing for NDJSON.
+     *
+     * @param returnType the projection (DTO) type whose attributes are exported
+     * @param options    the format
+     * @param output     the stream, flushed but not closed
+     * @param <P>        the projection type
+     * @return zero
+     */
+    public static <P> long empty(Class<P> returnType, ExportOptions options, OutputStream output) {
+        try {
+            // The CSV header is written when the writer is created and flushed when it is closed
+            writer(options.format(), output, returnType).close();
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export rows", e);
+        }
+    }
+
+    private static RowWriter writer(ExportFormat format, OutputStream output, Class<?> returnType) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvWriter(output, ReflectionUtils.getAttributeNames(returnType));
+            case NDJSON -> new NdjsonWriter(output, returnType);
+        };
+    }
+
+    /**
+     * Writes rows in an export format. Closing a writer flushes it without closing the output stream.
+     */
+    private interface RowWriter extends Closeable {
+        void write(Object[] values) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvWriter(OutputStream output, List<String> attributes) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            write(attributes.toArray());
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                if (values[i] != null) writeField(text(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String field) throws IOException {
+            boolean quoted = false;
+            for (int i = 0; i < field.length() && !quoted; i++) {
+                char c = field.charAt(i);
+                quoted = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quoted) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static String text(Object value) {
+            if (value instanceof BigDecimal decimal) return decimal.toPlainString();
+            if (value instanceof Enum<?> constant) return constant.name();
+            return value.toString();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final SerializableString[] names;
+
+        private NdjsonWriter(OutputStream output, Class<?> returnType) throws IOException {
+            this.generator = MAPPER.getFactory().createGenerator(output)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+            this.names = JsonValues.fieldNames(returnType);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(names[i]);
+                JsonValues.write(generator, values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import dev.rosemarylab.dataquerying.api.Facet;
+import dev.rosemarylab.dataquerying.api.FacetBucket;
+import dev.rosemarylab.dataquerying.api.FacetType;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.SearchRequest;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.internal.search.SearchRequestQueryTransformer;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Utility class for computing facet counts over the entities matching a {@link SearchRequest}.
+ *
+ * <p>Facets sharing the same effective filter are batched: all {@link FacetType#RANGE} buckets of such facets are
+ * counted by a single query with one conditional count per bucket, while each {@link FacetType#TERMS} facet is a
+ * <code>GROUP BY</code> count query. When an {@link Executor} is given, the queries run in parallel, each on its own
+ * {@link EntityManager}, unless a read-write transaction is active: the other entity managers wouldn't see its
+ * uncommitted changes, so the queries then run sequentially on the given entity manager.</p>
+ */
+class FacetQueryExecutor {
+    private FacetQueryExecutor() {
+    }
+
+    /**
+     * Computes the facet counts.
+     *
+     * @param entityManager the entity manager used to create and execute the queries
+     * @param entityClass   the entity class to be queried
+     * @param request       the search request whose filters restrict the counted entities; may be {@code null}
+     * @param facets        the facets to compute
+     * @param executor      the executor running the facet queries in parallel; {@code null} to run them sequentially
+     *                      on the given entity manager
+     * @param dialect       the dialect translating the case-insensitive and full-text filters
+     * @param <T>           the entity type
+     * @return the buckets of every facet, keyed by facet name in the order of the given facets
+     */
+    public static <T> Map<String, List<FacetBucket>> facets(EntityManager entityManager, Class<T> entityClass, SearchRequest request, Collection<Facet> facets, Executor executor,
+                                                            QueryDialect dialect) {
+        Map<String, List<FacetBucket>> result = new LinkedHashMap<>();
+        for (Facet facet : facets) {
+            if (result.put(facet.getName(), List.of()) != null)
+                throw new SpecificationBuilderException("Duplicate facet name '" + facet.getName() + "'.");
+        }
+
+        // Facets are grouped by the attribute whose filters they exclude; null stands for the full filter tree
+        Map<String, List<Facet>> groups = new LinkedHashMap<>();
+        for (Facet facet : facets) {
+            String excluded = facet.isExcludeOwnFilter() && request != null && SearchRequestQueryTransformer.isFiltered(request, facet.getAttribute())
+                    ? facet.getAttribute()
+                    : null;
+            groups.computeIfAbsent(excluded, k -> new ArrayList<>()).add(facet);
+        }
+
+        List<Function<EntityManager, Map<String, List<FacetBucket>>>> tasks = new ArrayList<>();
+        for (Map.Entry<String, List<Facet>> group : groups.entrySet()) {
+            Specification<T> specification = request == null ? null
+                    : SpecificationQuery.rootSpecification(SearchRequestQueryTransformer.<T>toQuery(request, group.getKey()), dialect);
+
+            List<Facet> ranges = group.getValue().stream().filter(f -> f.getType() == FacetType.RANGE).toList();
+            if (!ranges.isEmpty()) {
+                tasks.add(em -> countRanges(em, entityClass, specification, ranges));
+            }
+            for (Facet facet : group.getValue()) {
+                if (facet.getType() == FacetType.TERMS) {
+                    tasks.add(em -> Map.of(facet.getName(), countTerms(em, entityClass, specification, facet)));
+                }
+            }
+        }
+
+        if (executor == null || tasks.size() < 2 || isReadWriteTransactionActive()) {
+            tasks.forEach(task -> result.putAll(task.apply(entityManager)));
+        } else {
+            List<CompletableFuture<Map<String, List<FacetBucket>>>> futures = tasks.stream()
+                    .map(task -> CompletableFuture.supplyAsync(() -> runIsolated(entityManager, task), executor))
+                    .toList();
+            try {
+                futures.forEach(future -> result.putAll(future.join()));
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    // Read-only transactions have no change of their own to see, read-write ones may have
+    private static boolean isReadWriteTransactionActive() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    // An EntityManager is not thread-safe, so every parallel query gets its own one from the factory
+    private static <R> R runIsolated(EntityManager entityManager, Function<EntityManager, R> task) {
+        EntityManager isolated = entityManager.getEntityManagerFactory().createEntityManager();
+        try {
+            return task.apply(isolated);
+        } finally {
+            isolated.close();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Map<String, List<FacetBucket>> countRanges(EntityManager entityManager, Class<T> entityClass, Specification<T> specification, List<Facet> facets) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<T> root = criteriaQuery.from(entityClass);
+        Path<?> id = applySpecification(entityManager, entityClass, specification, root, criteriaQuery, criteriaBuilder);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (Facet facet : facets) {
+            Expression path = SpecificationEngine.resolvePath(root, facet.getAttribute());
+            Class<?> type = path.getJavaType();
+            for (Facet.Range range : facet.getRanges()) {
+                List<Predicate> bounds = new ArrayList<>(2);
+                if (range.from() != null) {
+                    bounds.add(criteriaBuilder.greaterThanOrEqualTo(path, (Comparable) CriteriaQueryUtils.coerceNumber(range.from(), type)));
+                }
+                if (range.to() != null) {
+                    bounds.add(criteriaBuilder.lessThan(path, (Comparable) CriteriaQueryUtils.coerceNumber(range.to(), type)));
+                }
+                if (bounds.isEmpty()) {
+                    bounds.add(criteriaBuilder.isNotNull(path));
+                }
+                // COUNT skips the NULLs produced for rows outside the bucket
+                Expression counted = id != null ? id : criteriaBuilder.literal(1);
+                Expression inBucket = criteriaBuilder.selectCase()
+                        .when(criteriaBuilder.and(bounds.toArray(new Predicate[0])), counted);
+                selections.add(id != null ? criteriaBuilder.countDistinct(inBucket) : criteriaBuilder.count(inBucket));
+            }
+        }
+        if (selections.isEmpty()) {
+            return emptyBuckets(facets);
+        }
+        criteriaQuery.select(criteriaBuilder.tuple(selections.toArray(new Selection<?>[0])));
+
+        Tuple tuple = entityManager.createQuery(criteriaQuery).getSingleResult();
+        Map<String, List<FacetBucket>> result = new LinkedHashMap<>();
+        int index = 0;
+        for (Facet facet : facets) {
+            List<FacetBucket> buckets = new ArrayList<>(facet.getRanges().size());
+            for (Facet.Range range : facet.getRanges()) {
+                buckets.add(new FacetBucket(range.key(), tuple.get(index++, Long.class)));
+            }
+            result.put(facet.getName(), buckets);
+        }
+        return result;
+    }
+
+    private static <T> List<FacetBucket> countTerms(EntityManager entityManager, Class<T> entityClass, Specification<T> specification, Facet facet) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<T> root = criteriaQuery.from(entityClass);
+        Path<?> id = applySpecification(entityManager, entityClass, specification, root, criteriaQuery, criteriaBuilder);
+
+        Path<?> path = SpecificationEngine.resolvePath(root, facet.getAttribute());
+        Expression<Long> count = id != null ? criteriaBuilder.countDistinct(id) : criteriaBuilder.count(root);
+
+        Predicate notNull = criteriaBuilder.isNotNull(path);
+        criteriaQuery.where(criteriaQuery.getRestriction() == null ? notNull : criteriaBuilder.and(criteriaQuery.getRestriction(), notNull));
+        criteriaQuery.select(criteriaBuilder.tuple(path, count))
+                .groupBy(path)
+                .orderBy(criteriaBuilder.desc(count), criteriaBuilder.asc(path));
+
+        TypedQuery<Tuple> query = entityManager.createQuery(criteriaQuery);
+        if (facet.getSize() != null) {
+            query.setMaxResults(facet.getSize());
+        }
+        return query.getResultList().stream()
+                .map(tuple -> new FacetBucket(tuple.get(0), tuple.get(1, Long.class)))
+                .toList();
+    }
+
+    // Applies the specification and returns the id path to count distinct entities by, if the specification asked for
+    // a distinct result. DISTINCT on the whole row would not remove the duplicates a to-many join produces in a count.
+    private static <T> Path<?> applySpecification(EntityManager entityManager, Class<T> entityClass, Specification<T> specification,
+                                                  Root<T> root, CriteriaQuery<Tuple> criteriaQuery, CriteriaBuilder criteriaBuilder) {
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, criteriaQuery, criteriaBuilder);
+            if (predicate != null) {
+                criteriaQuery.where(predicate);
+            }
+        }
+        if (!criteriaQuery.isDistinct()) return null;
+
+        criteriaQuery.distinct(false);
+        String idAttribute = CriteriaQueryUtils.idAttributeName(entityManager, entityClass);
+        return idAttribute == null ? null : root.get(idAttribute);
+    }
+
+    private static Map<String, List<FacetBucket>> emptyBuckets(List<Facet> facets) {
+        Map<String, List<FacetBucket>> result = new LinkedHashMap<>();
+        facets.forEach(facet -> result.put(facet.getName(), List.of()));
+        return result;
+    }
+}
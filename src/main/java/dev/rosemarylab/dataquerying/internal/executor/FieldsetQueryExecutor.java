@@ -0,0 +1,74 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for executing queries that select a sparse fieldset: only the requested attributes of a projection.
+ *
+ * <p>Each row is returned as a map of the selected attributes in request order, from which partially populated
+ * projections can be built. Unselected attributes are neither read from the database nor sent to the client. The query
+ * is prepared and sorted by {@link TupleQueryExecutor}, like the queries of whole projections.</p>
+ */
+class FieldsetQueryExecutor {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private FieldsetQueryExecutor() {
+    }
+
+    /**
+     * Executes a paginated query selecting the given attributes.
+     *
+     * @param entityManager the entity manager used to create and execute the query
+     * @param entityClass   the entity class to be queried
+     * @param attributes    the attributes to select, validated against the projection type
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param pageable      the pagination information, may be unpaged
+     * @param sort          the sort criteria of an unpaged query; may be {@code null}
+     * @param dialect       the dialect computing the relevance orders
+     * @param <T>           the entity type
+     * @return a page of rows keyed by attribute
+     */
+    public static <T> Page<Map<String, Object>> paged(EntityManager entityManager, Class<T> entityClass, List<String> attributes, Specification<T> specification,
+                                                      Pageable pageable, Sort sort, QueryDialect dialect) {
+        List<Tuple> tuples = pageable.isPaged()
+                ? TupleQueryExecutor.list(entityManager, entityClass, attributes, specification, false, pageable, dialect)
+                : TupleQueryExecutor.list(entityManager, entityClass, attributes, specification, false, sort, -1, dialect);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < attributes.size(); i++) {
+                row.put(attributes.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        // The count query runs only if the rows don't tell the total
+        return PageableExecutionUtils.getPage(rows, pageable, () -> ProjectionQueryExecutor.count(entityManager, entityClass, specification));
+    }
+
+    /**
+     * Maps rows of a sparse fieldset to partially populated projections, whose unselected attributes are left
+     * {@code null}, or at their default value for primitives.
+     *
+     * @param returnType the projection (DTO) type
+     * @param rows       the page of rows keyed by attribute
+     * @param <P>        the projection type
+     * @return a page of projections
+     */
+    public static <P> Page<P> toProjections(Class<P> returnType, Page<Map<String, Object>> rows) {
+        List<P> content = ProjectionUtils.convertToDtoList(returnType, rows.getContent(), MAPPER);
+        return new PageImpl<>(content, rows.getPageable(), rows.getTotalElements());
+    }
+}
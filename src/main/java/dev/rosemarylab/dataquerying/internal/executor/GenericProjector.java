@@ -1,16 +1,36 @@
 package dev.rosemarylab.dataquerying.internal.executor;
 
+import dev.rosemarylab.dataquerying.api.AggregateRow;
+import dev.rosemarylab.dataquerying.api.Aggregation;
+import dev.rosemarylab.dataquerying.api.ColumnarResult;
+import dev.rosemarylab.dataquerying.api.ExportFormat;
+import dev.rosemarylab.dataquerying.api.ExportOptions;
+import dev.rosemarylab.dataquerying.api.Facet;
+import dev.rosemarylab.dataquerying.api.FacetBucket;
+import dev.rosemarylab.dataquerying.api.JsonPage;
 import dev.rosemarylab.dataquerying.api.Projection;
 import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.SearchRequest;
+import dev.rosemarylab.dataquerying.api.UnionPolicy;
+import dev.rosemarylab.dataquerying.internal.memory.ReplicaRegistry;
+import dev.rosemarylab.dataquerying.internal.memory.ReplicaTable;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationQuery;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 /**
  * Default implementation of the {@link Projection} interface.
@@ -27,18 +47,64 @@ public class GenericProjector<T, P> implements Projection<T, P> {
     private EntityManager entityManager;
     private final Class<T> type;
     private final Class<P> projection;
+    private final QueryDialect dialect;
+    private final UnionPolicy unionPolicy;
+    private final ReplicaRegistry replicas;
 
     /**
-     * Constructs a new {@code GenericProjector}.
+     * Constructs a new {@code GenericProjector} translating the queries with {@link QueryDialect#LOWER_CASE}.
      *
      * @param entityManager the entity manager used to perform queries
      * @param type          the entity class to be queried
      * @param projection    the projection (DTO) class to which results will be mapped
      */
     public GenericProjector(EntityManager entityManager, Class<T> type, Class<P> projection) {
+        this(entityManager, type, projection, QueryDialect.LOWER_CASE);
+    }
+
+    /**
+     * Constructs a new {@code GenericProjector}.
+     *
+     * @param entityManager the entity manager used to perform queries
+     * @param type          the entity class to be queried
+     * @param projection    the projection (DTO) class to which results will be mapped
+     * @param dialect       the dialect translating the case-insensitive and full-text filters and the relevance orders
+     */
+    public GenericProjector(EntityManager entityManager, Class<T> type, Class<P> projection, QueryDialect dialect) {
+        this(entityManager, type, projection, dialect, UnionPolicy.NEVER);
+    }
+
+    /**
+     * Constructs a new {@code GenericProjector}.
+     *
+     * @param entityManager the entity manager used to perform queries
+     * @param type          the entity class to be queried
+     * @param projection    the projection (DTO) class to which results will be mapped
+     * @param dialect       the dialect translating the case-insensitive and full-text filters and the relevance orders
+     * @param unionPolicy   the policy deciding which queries run their OR branches as separate queries
+     */
+    public GenericProjector(EntityManager entityManager, Class<T> type, Class<P> projection, QueryDialect dialect, UnionPolicy unionPolicy) {
+        this(entityManager, type, projection, dialect, unionPolicy, null);
+    }
+
+    /**
+     * Constructs a new {@code GenericProjector} answering the queries it can from the replicas of a registry.
+     *
+     * @param entityManager the entity manager used to perform queries
+     * @param type          the entity class to be queried
+     * @param projection    the projection (DTO) class to which results will be mapped
+     * @param dialect       the dialect translating the case-insensitive and full-text filters and the relevance orders
+     * @param unionPolicy   the policy deciding which queries run their OR branches as separate queries
+     * @param replicas      the registry of the replicas, or {@code null} to always query the database
+     */
+    public GenericProjector(EntityManager entityManager, Class<T> type, Class<P> projection, QueryDialect dialect, UnionPolicy unionPolicy,
+                            ReplicaRegistry replicas) {
         this.entityManager = entityManager;
         this.type = type;
         this.projection = projection;
+        this.dialect = dialect;
+        this.unionPolicy = unionPolicy;
+        this.replicas = replicas;
     }
 
     @Override
@@ -68,7 +134,7 @@ public class GenericProjector<T, P> implements Projection<T, P> {
 
     @Override
     public List<P> findAll(Specification<T> specification, Sort sort, boolean distinct) {
-        return ProjectionQueryExecutor.all(entityManager, type, projection, specification, distinct);
+        return ProjectionQueryExecutor.all(entityManager, type, projection, specification, sort, distinct, dialect);
     }
 
     @Override
@@ -83,7 +149,7 @@ public class GenericProjector<T, P> implements Projection<T, P> {
 
     @Override
     public Page<P> findAll(Specification<T> specification, Pageable pageable, boolean distinct) {
-        return ProjectionQueryExecutor.paged(entityManager, type, projection, specification, pageable, false);
+        return ProjectionQueryExecutor.paged(entityManager, type, projection, specification, pageable, distinct, dialect);
     }
 
     @Override
@@ -98,7 +164,18 @@ public class GenericProjector<T, P> implements Projection<T, P> {
 
     @Override
     public List<P> findAll(Query<T> query, Sort sort, boolean distinct) {
-        return findAll(query.buildSpecification(), sort, distinct);
+        if (SpecificationQuery.isNone(query)) return List.of();
+        ReplicaTable<T> replica = replica();
+        if (replica != null) {
+            List<P> replicated = ReplicaQueryExecutor.all(replica, projection, query, sort, dialect);
+            if (replicated != null) return replicated;
+        }
+        // The union reads one row per entity, while distinct projections are deduplicated by their values
+        List<Specification<T>> branches = distinct ? null : unionBranches(query);
+        if (branches != null) {
+            return UnionQueryExecutor.all(entityManager, type, projection, specification(query), branches, sort, idAttribute(), dialect);
+        }
+        return findAll(specification(query), sort, distinct);
     }
 
     @Override
@@ -110,6 +187,177 @@ public class GenericProjector<T, P> implements Projection<T, P> {
     public Page<P> findAll(Query<T> query, Pageable pageable, boolean distinct) {
         if (query == null)
             throw new IllegalArgumentException("Query cannot be null.");
-        return findAll(query.buildSpecification(), pageable, distinct);
+        if (SpecificationQuery.isNone(query)) return pageable == null ? Page.empty() : Page.empty(pageable);
+        ReplicaTable<T> replica = replica();
+        if (replica != null && pageable != null) {
+            Page<P> replicated = ReplicaQueryExecutor.paged(replica, projection, query, pageable, dialect);
+            if (replicated != null) return replicated;
+        }
+        List<Specification<T>> branches = distinct ? null : unionBranches(query);
+        if (branches != null && pageable != null) {
+            return UnionQueryExecutor.paged(entityManager, type, projection, specification(query), branches, pageable, idAttribute(), dialect);
+        }
+        return findAll(specification(query), pageable, distinct);
+    }
+
+    @Override
+    public Page<P> findAll(SearchRequest request) {
+        if (request == null)
+            throw new IllegalArgumentException("Search request cannot be null.");
+        validate(request);
+        Pageable pageable = request.getPageable();
+        if (request.getFields() == null || request.getFields().isEmpty()) {
+            if (pageable.isPaged()) return findAll(request.getQuery(), pageable);
+            return new PageImpl<>(findAll(request.getQuery(), request.getSort()));
+        }
+        return FieldsetQueryExecutor.toProjections(projection, findRows(request));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findRows(SearchRequest request) {
+        if (request == null)
+            throw new IllegalArgumentException("Search request cannot be null.");
+        validate(request);
+        List<String> attributes = ProjectionUtils.selectAttributes(projection, request.getFields());
+        Query<T> query = request.getQuery();
+        if (SpecificationQuery.isNone(query)) return Page.empty(request.getPageable());
+        return FieldsetQueryExecutor.paged(entityManager, type, attributes, specification(query), request.getPageable(), request.getSort(), dialect);
+    }
+
+    @Override
+    public ColumnarResult findColumns(Query<T> query, Sort sort) {
+        if (SpecificationQuery.isNone(query)) return ColumnarQueryExecutor.empty(entityManager, type, projection);
+        return ColumnarQueryExecutor.all(entityManager, type, projection, specification(query), sort, dialect);
+    }
+
+    @Override
+    public JsonPage findAllAsJson(Query<T> query, Pageable pageable) {
+        if (pageable == null)
+            throw new IllegalArgumentException("Pageable cannot be null.");
+        if (SpecificationQuery.isNone(query)) return JsonPageQueryExecutor.empty(projection, pageable);
+        return JsonPageQueryExecutor.paged(entityManager, type, projection, specification(query), pageable, dialect);
+    }
+
+    @Override
+    public List<P> findTop(Query<T> query, Sort sort, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("Number of results cannot be negative.");
+        if (SpecificationQuery.isNone(query)) return List.of();
+        ReplicaTable<T> replica = replica();
+        if (replica != null) {
+            List<P> replicated = ReplicaQueryExecutor.top(replica, projection, query, sort, n, dialect);
+            if (replicated != null) return replicated;
+        }
+        List<Specification<T>> branches = unionBranches(query);
+        if (branches != null) {
+            return UnionQueryExecutor.top(entityManager, type, projection, specification(query), branches, sort, n, idAttribute(), dialect);
+        }
+        return ProjectionQueryExecutor.top(entityManager, type, projection, specification(query), sort, n, false, dialect);
+    }
+
+    @Override
+    public boolean exists(Query<T> query) {
+        if (SpecificationQuery.isNone(query)) return false;
+        Long replicated = replicatedCount(query);
+        if (replicated != null) return replicated > 0;
+        List<Specification<T>> branches = unionBranches(query);
+        if (branches != null) {
+            return UnionQueryExecutor.exists(entityManager, type, branches);
+        }
+        return ProjectionQueryExecutor.exists(entityManager, type, specification(query));
+    }
+
+    @Override
+    public long count(Query<T> query) {
+        if (SpecificationQuery.isNone(query)) return 0;
+        Long replicated = replicatedCount(query);
+        if (replicated != null) return replicated;
+        if (unionBranches(query) != null) {
+            return UnionQueryExecutor.count(entityManager, type, specification(query));
+        }
+        return ProjectionQueryExecutor.count(entityManager, type, specification(query));
+    }
+
+    @Override
+    public Optional<P> findFirst(Query<T> query, Sort sort) {
+        return findTop(query, sort, 1).stream().findFirst();
+    }
+
+    @Override
+    public List<AggregateRow> aggregate(Query<T> query, Aggregation aggregation) {
+        if (SpecificationQuery.isNone(query)) return AggregationQueryExecutor.empty(aggregation, dialect);
+        return AggregationQueryExecutor.aggregate(entityManager, type, specification(query), aggregation, dialect);
+    }
+
+    @Override
+    public <R> List<R> aggregate(Query<T> query, Aggregation aggregation, Class<R> rowType) {
+        if (SpecificationQuery.isNone(query)) return AggregationQueryExecutor.empty(rowType, aggregation, dialect);
+        return AggregationQueryExecutor.aggregate(entityManager, type, rowType, specification(query), aggregation, dialect);
+    }
+
+    @Override
+    public long export(Query<T> query, Sort sort, ExportFormat format, OutputStream output) {
+        return export(query, sort, ExportOptions.of(format), output);
+    }
+
+    @Override
+    public long export(Query<T> query, Sort sort, ExportOptions options, OutputStream output) {
+        if (options == null)
+            throw new IllegalArgumentException("Export options cannot be null.");
+        if (output == null)
+            throw new IllegalArgumentException("Output stream cannot be null.");
+        if (SpecificationQuery.isNone(query)) return ExportQueryExecutor.empty(projection, options, output);
+        return ExportQueryExecutor.export(entityManager, type, projection, specification(query), sort, options, output, dialect);
+    }
+
+    @Override
+    public Map<String, List<FacetBucket>> facets(SearchRequest request) {
+        if (request == null)
+            throw new IllegalArgumentException("Search request cannot be null.");
+        return facets(request, request.getFacetDefinitions());
+    }
+
+    @Override
+    public Map<String, List<FacetBucket>> facets(SearchRequest request, Collection<Facet> facets) {
+        if (request != null) validate(request);
+        return FacetQueryExecutor.facets(entityManager, type, request, facets, null, dialect);
+    }
+
+    @Override
+    public Map<String, List<FacetBucket>> facets(SearchRequest request, Collection<Facet> facets, Executor executor) {
+        if (executor == null)
+            throw new IllegalArgumentException("Executor cannot be null.");
+        if (request != null) validate(request);
+        return FacetQueryExecutor.facets(entityManager, type, request, facets, executor, dialect);
+    }
+
+    // Rejects unknown attributes and converts the filter values to the attribute types before any query is built
+    private void validate(SearchRequest request) {
+        request.validate(entityManager.getMetamodel(), type);
+    }
+
+    // The number of entities matching the query in the registered replica, or null if it must be counted in the database
+    private Long replicatedCount(Query<T> query) {
+        ReplicaTable<T> replica = replica();
+        return replica == null ? null : ReplicaQueryExecutor.count(replica, query, dialect);
+    }
+
+    private ReplicaTable<T> replica() {
+        return replicas == null ? null : replicas.find(type);
+    }
+
+    // The OR branches of the query when they run as separate queries, which needs a single id attribute
+    private List<Specification<T>> unionBranches(Query<T> query) {
+        List<Specification<T>> branches = SpecificationQuery.unionBranches(query, unionPolicy, dialect);
+        return branches == null || idAttribute() == null ? null : branches;
+    }
+
+    private String idAttribute() {
+        return CriteriaQueryUtils.idAttributeName(entityManager, type);
+    }
+
+    // The query is the whole restriction of the executed criteria query, so its nested filters may use INNER joins
+    private Specification<T> specification(Query<T> query) {
+        return query == null ? null : SpecificationQuery.rootSpecification(query, dialect);
     }
 }
@@ -0,0 +1,137 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import dev.rosemarylab.dataquerying.api.ColumnarResult;
+import dev.rosemarylab.dataquerying.api.JdbcProjection;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.SearchRequest;
+import dev.rosemarylab.dataquerying.api.TableMapping;
+import dev.rosemarylab.dataquerying.internal.jdbc.SqlSchema;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationQuery;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
+import jakarta.persistence.metamodel.Metamodel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcOperations;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Default implementation of the {@link JdbcProjection} interface.
+ *
+ * <p>The tables and columns of the entity are resolved once, when the projection is created, and the queries are
+ * executed by the {@link JdbcQueryExecutor}.</p>
+ *
+ * @param <T> the entity type from which data is queried
+ * @param <P> the projection (DTO) type to which results are mapped
+ */
+public class JdbcProjector<T, P> implements JdbcProjection<T, P> {
+    private final Metamodel metamodel;
+    private final Class<T> type;
+    private final JdbcOperations jdbcOperations;
+    private final SqlSchema schema;
+    private final Class<P> projection;
+    private final QueryDialect dialect;
+
+    /**
+     * Constructs a new {@code JdbcProjector} translating the queries with {@link QueryDialect#LOWER_CASE}.
+     *
+     * @param metamodel      the metamodel describing the entity
+     * @param jdbcOperations the JDBC operations running the SQL
+     * @param type           the entity class to be queried
+     * @param projection     the projection (DTO) class to which results will be mapped
+     * @param mapping        the tables and columns of the entities
+     */
+    public JdbcProjector(Metamodel metamodel, JdbcOperations jdbcOperations, Class<T> type, Class<P> projection, TableMapping mapping) {
+        this(metamodel, jdbcOperations, type, projection, mapping, QueryDialect.LOWER_CASE);
+    }
+
+    /**
+     * Constructs a new {@code JdbcProjector}.
+     *
+     * @param metamodel      the metamodel describing the entity
+     * @param jdbcOperations the JDBC operations running the SQL
+     * @param type           the entity class to be queried
+     * @param projection     the projection (DTO) class to which results will be mapped
+     * @param mapping        the tables and columns of the entities
+     * @param dialect        the dialect translating the case-insensitive filters
+     */
+    public JdbcProjector(Metamodel metamodel, JdbcOperations jdbcOperations, Class<T> type, Class<P> projection, TableMapping mapping,
+                         QueryDialect dialect) {
+        this.metamodel = metamodel;
+        this.type = type;
+        this.jdbcOperations = jdbcOperations;
+        this.dialect = dialect;
+        this.schema = new SqlSchema(metamodel, type, mapping);
+        this.projection = projection;
+        // Fails on creation rather than on the first query if an attribute of the projection has no column
+        ReflectionUtils.getAttributeNames(projection).forEach(schema::resolve);
+    }
+
+    @Override
+    public List<P> findAll(Query<T> query) {
+        return findAll(query, (Sort) null);
+    }
+
+    @Override
+    public List<P> findAll(Query<T> query, Sort sort) {
+        if (SpecificationQuery.isNone(query)) return List.of();
+        return JdbcQueryExecutor.top(jdbcOperations, schema, projection, query, sort, 0, -1, dialect);
+    }
+
+    @Override
+    public ColumnarResult findColumns(Query<T> query, Sort sort) {
+        if (SpecificationQuery.isNone(query)) return JdbcQueryExecutor.emptyColumns(schema, projection);
+        return JdbcQueryExecutor.columns(jdbcOperations, schema, projection, query, sort, dialect);
+    }
+
+    @Override
+    public Page<P> findAll(Query<T> query, Pageable pageable) {
+        if (pageable == null)
+            throw new IllegalArgumentException("Pageable cannot be null.");
+        if (SpecificationQuery.isNone(query)) return Page.empty(pageable);
+        return JdbcQueryExecutor.paged(jdbcOperations, schema, projection, query, pageable, dialect);
+    }
+
+    @Override
+    public Page<P> findAll(SearchRequest request) {
+        if (request == null)
+            throw new IllegalArgumentException("Search request cannot be null.");
+        request.validate(metamodel, type);
+        if (request.getFields() == null || request.getFields().isEmpty()) return findAll(request.getQuery(), request.getPageable());
+        return FieldsetQueryExecutor.toProjections(projection, findRows(request));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findRows(SearchRequest request) {
+        if (request == null)
+            throw new IllegalArgumentException("Search request cannot be null.");
+        request.validate(metamodel, type);
+        List<String> attributes = ProjectionUtils.selectAttributes(projection, request.getFields());
+        Query<T> query = request.getQuery();
+        if (SpecificationQuery.isNone(query)) return Page.empty(request.getPageable());
+        return JdbcQueryExecutor.pagedRows(jdbcOperations, schema, attributes, query, request.getPageable(), request.getSort(), dialect);
+    }
+
+    @Override
+    public List<P> findTop(Query<T> query, Sort sort, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("Number of results cannot be negative.");
+        if (SpecificationQuery.isNone(query)) return List.of();
+        return JdbcQueryExecutor.top(jdbcOperations, schema, projection, query, sort, 0, n, dialect);
+    }
+
+    @Override
+    public boolean exists(Query<T> query) {
+        if (SpecificationQuery.isNone(query)) return false;
+        return JdbcQueryExecutor.exists(jdbcOperations, schema, query, dialect);
+    }
+
+    @Override
+    public long count(Query<T> query) {
+        if (SpecificationQuery.isNone(query)) return 0;
+        return JdbcQueryExecutor.count(jdbcOperations, schema, query, dialect);
+    }
+}
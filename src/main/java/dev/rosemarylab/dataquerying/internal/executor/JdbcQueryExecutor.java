@@ -0,0 +1,155 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.ColumnarResult;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.internal.columnar.ColumnarResultBuilder;
+import dev.rosemarylab.dataquerying.internal.jdbc.SqlQueryBuilder;
+import dev.rosemarylab.dataquerying.internal.jdbc.SqlSchema;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Utility class for executing projection queries as SQL, see {@link SqlQueryBuilder}.
+ *
+ * <p>The columns of each row are read in the order of the projection's attributes and converted to the attribute
+ * types, then mapped to the projection as {@link ProjectionQueryExecutor} maps tuples. Offsets are skipped while reading
+ * the result set and limits set as the maximum number of rows of the statement, so the SQL doesn't depend on the
+ * database's pagination syntax.</p>
+ */
+class JdbcQueryExecutor {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JdbcQueryExecutor() {
+    }
+
+    public static <P> List<P> top(JdbcOperations jdbcOperations, SqlSchema schema, Class<P> returnType, Query<?> query, Sort sort, long offset, int limit, QueryDialect dialect) {
+        List<Map<String, Object>> rows = rows(jdbcOperations, schema, ReflectionUtils.getAttributeNames(returnType), query, sort, offset, limit, dialect);
+        return ProjectionUtils.convertToDtoList(returnType, rows, MAPPER);
+    }
+
+    // Rows of the selected attributes only, for sparse fieldsets
+    public static Page<Map<String, Object>> pagedRows(JdbcOperations jdbcOperations, SqlSchema schema, List<String> attributes, Query<?> query, Pageable pageable, Sort sort, QueryDialect dialect) {
+        if (pageable.isUnpaged()) {
+            List<Map<String, Object>> content = rows(jdbcOperations, schema, attributes, query, sort, 0, -1, dialect);
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        List<Map<String, Object>> content = rows(jdbcOperations, schema, attributes, query, pageable.getSort(), pageable.getOffset(), pageable.getPageSize(), dialect);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(jdbcOperations, schema, query, dialect));
+    }
+
+    private static List<Map<String, Object>> rows(JdbcOperations jdbcOperations, SqlSchema schema, List<String> attributes, Query<?> query, Sort sort, long offset, int limit, QueryDialect dialect) {
+        if (limit == 0) return List.of();
+        SqlQueryBuilder builder = new SqlQueryBuilder(schema, dialect).where(query).select(attributes).orderBy(sort);
+        int maxRows = limit < 0 ? 0 : Math.toIntExact(offset + limit);
+        List<SqlSchema.ColumnPath> columns = builder.getSelection();
+
+        ResultSetExtractor<List<Map<String, Object>>> extractor = resultSet -> {
+            List<Map<String, Object>> mapped = new ArrayList<>();
+            long skipped = 0;
+            while (skipped < offset && resultSet.next()) {
+                skipped++;
+            }
+            while ((limit < 0 || mapped.size() < limit) && resultSet.next()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    row.put(attributes.get(i), value(resultSet, i + 1, columns.get(i)));
+                }
+                mapped.add(row);
+            }
+            return mapped;
+        };
+        List<Map<String, Object>> rows = jdbcOperations.query(builder.buildSelect(maxRows), extractor);
+        return rows == null ? List.of() : rows;
+    }
+
+    // Primitive columns are read with the primitive getters of the result set, so their values are never boxed
+    public static <P> ColumnarResult columns(JdbcOperations jdbcOperations, SqlSchema schema, Class<P> returnType, Query<?> query, Sort sort, QueryDialect dialect) {
+        List<String> attributes = ReflectionUtils.getAttributeNames(returnType);
+        SqlQueryBuilder builder = new SqlQueryBuilder(schema, dialect).where(query).select(attributes).orderBy(sort);
+        List<SqlSchema.ColumnPath> columns = builder.getSelection();
+        ColumnarResultBuilder result = new ColumnarResultBuilder(attributes, columns.stream().<Class<?>>map(SqlSchema.ColumnPath::javaType).toList());
+
+        ResultSetExtractor<ColumnarResult> extractor = resultSet -> {
+            while (resultSet.next()) {
+                result.nextRow();
+                for (int i = 0; i < columns.size(); i++) {
+                    read(resultSet, i + 1, columns.get(i), result, i);
+                }
+            }
+            return result.build();
+        };
+        return jdbcOperations.query(builder.buildSelect(0), extractor);
+    }
+
+    public static <P> ColumnarResult emptyColumns(SqlSchema schema, Class<P> returnType) {
+        List<String> attributes = ReflectionUtils.getAttributeNames(returnType);
+        return new ColumnarResultBuilder(attributes, attributes.stream().<Class<?>>map(attribute -> schema.resolve(attribute).javaType()).toList()).build();
+    }
+
+    public static <P> Page<P> paged(JdbcOperations jdbcOperations, SqlSchema schema, Class<P> returnType, Query<?> query, Pageable pageable, QueryDialect dialect) {
+        if (pageable.isUnpaged()) {
+            List<P> content = top(jdbcOperations, schema, returnType, query, pageable.getSort(), 0, -1, dialect);
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        List<P> content = top(jdbcOperations, schema, returnType, query, pageable.getSort(), pageable.getOffset(), pageable.getPageSize(), dialect);
+        return new PageImpl<>(content, pageable, count(jdbcOperations, schema, query, dialect));
+    }
+
+    public static boolean exists(JdbcOperations jdbcOperations, SqlSchema schema, Query<?> query, QueryDialect dialect) {
+        ResultSetExtractor<Boolean> extractor = ResultSet::next;
+        Boolean exists = jdbcOperations.query(new SqlQueryBuilder(schema, dialect).where(query).buildSelect(1), extractor);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    public static long count(JdbcOperations jdbcOperations, SqlSchema schema, Query<?> query, QueryDialect dialect) {
+        ResultSetExtractor<Long> extractor = resultSet -> resultSet.next() ? resultSet.getLong(1) : 0L;
+        Long count = jdbcOperations.query(new SqlQueryBuilder(schema, dialect).where(query).buildCount(), extractor);
+        return count == null ? 0 : count;
+    }
+
+    private static void read(ResultSet resultSet, int index, SqlSchema.ColumnPath column, ColumnarResultBuilder result, int target) throws SQLException {
+        Class<?> type = result.type(target);
+        switch (result.kind(target)) {
+            case INT -> result.setInt(target, type == Boolean.class ? (resultSet.getBoolean(index) ? 1 : 0) : resultSet.getInt(index));
+            case LONG -> {
+                if (type == Long.class) {
+                    result.setLong(target, resultSet.getLong(index));
+                } else {
+                    Timestamp timestamp = resultSet.getTimestamp(index);
+                    result.setLong(target, timestamp == null ? 0 : timestamp.getTime());
+                }
+            }
+            case DOUBLE -> result.setDouble(target, resultSet.getDouble(index));
+            case DICTIONARY -> {
+                result.setText(target, type.isEnum() ? name(column.fromColumn(resultSet.getObject(index))) : resultSet.getString(index));
+                return;
+            }
+        }
+        if (resultSet.wasNull()) result.setNull(target);
+    }
+
+    private static String name(Object constant) {
+        return constant == null ? null : ((Enum<?>) constant).name();
+    }
+
+    private static Object value(ResultSet resultSet, int index, SqlSchema.ColumnPath column) throws SQLException {
+        if (column.javaType().isEnum()) {
+            return column.fromColumn(resultSet.getObject(index));
+        }
+        return JdbcUtils.getResultSetValue(resultSet, index, column.javaType());
+    }
+}
@@ -0,0 +1,68 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import dev.rosemarylab.dataquerying.api.JsonPage;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Utility class for executing projection queries whose pages are only serialized to JSON.
+ *
+ * <p>The query selects the attributes of the projection, as {@link ProjectionQueryExecutor} does, but its tuples are
+ * kept as they are and written by the {@link TupleJsonPage}: no map of field values and no projection object is built.
+ * A sorted distinct query selects the ids of the page first, as described in {@link TupleQueryExecutor}.
+ * The count query is skipped when the page content already tells the total, as for Spring Data repositories.</p>
+ */
+class JsonPageQueryExecutor {
+    private JsonPageQueryExecutor() {
+    }
+
+    /**
+     * Executes a paginated query for a JSON page.
+     *
+     * @param entityManager the entity manager used to create and execute the query
+     * @param entityClass   the entity class to be queried
+     * @param returnType    the projection (DTO) type whose attributes are selected
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param pageable      the pagination information
+     * @param dialect       the dialect computing the relevance orders
+     * @param <T>           the entity type
+     * @param <P>           the projection type
+     * @return the page
+     */
+    public static <T, P> JsonPage paged(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification, Pageable pageable,
+                                        QueryDialect dialect) {
+        List<Tuple> rows = TupleQueryExecutor.list(entityManager, entityClass, ReflectionUtils.getAttributeNames(returnType), specification, false, pageable, dialect);
+        if (pageable.isUnpaged()) {
+            return new TupleJsonPage(returnType, rows, 0, rows.size(), rows.size());
+        }
+
+        long totalElements;
+        if (rows.size() < pageable.getPageSize() && (!rows.isEmpty() || pageable.getOffset() == 0)) {
+            // A partial page is the last one
+            totalElements = pageable.getOffset() + rows.size();
+        } else {
+            totalElements = ProjectionQueryExecutor.count(entityManager, entityClass, specification);
+        }
+        return new TupleJsonPage(returnType, rows, pageable.getPageNumber(), pageable.getPageSize(), totalElements);
+    }
+
+    /**
+     * Returns an empty JSON page.
+     *
+     * @param returnType the projection (DTO) type
+     * @param pageable   the pagination information
+     * @return the page
+     */
+    public static JsonPage empty(Class<?> returnType, Pageable pageable) {
+        // Fails now rather than when serialized if the type has no attribute
+        JsonValues.fieldNames(returnType);
+        if (pageable.isUnpaged()) return new TupleJsonPage(returnType, List.of(), 0, 0, 0);
+        return new TupleJsonPage(returnType, List.of(), pageable.getPageNumber(), pageable.getPageSize(), 0);
+    }
+}
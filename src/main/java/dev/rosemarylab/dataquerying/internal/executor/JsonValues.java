@@ -0,0 +1,174 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
+import jakarta.persistence.Tuple;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+
+/**
+ * Utility class for writing selected attribute values to a {@link JsonGenerator} without building the projection.
+ */
+class JsonValues {
+    // The quoted and escaped field names of every projection type, computed once per type
+    private static final ClassValue<SerializableString[]> FIELD_NAMES = new ClassValue<>() {
+        @Override
+        protected SerializableString[] computeValue(Class<?> type) {
+            return ReflectionUtils.getAttributeNames(type).stream()
+                    .map(SerializedString::new)
+                    .toArray(SerializableString[]::new);
+        }
+    };
+
+    private JsonValues() {
+    }
+
+    /**
+     * Returns the field names of the projection type, in the order its attributes are selected.
+     *
+     * @param returnType the projection (DTO) type
+     * @return the precomputed field names; must not be modified
+     */
+    public static SerializableString[] fieldNames(Class<?> returnType) {
+        return FIELD_NAMES.get(returnType);
+    }
+
+    /**
+     * Writes a selected value. Values without a JSON type, such as dates, are written as their ISO text.
+     *
+     * @param generator the generator
+     * @param value     the value, may be {@code null}
+     * @throws IOException if writing fails
+     */
+    public static void write(JsonGenerator generator, Object value) throws IOException {
+        switch (value) {
+            case null -> generator.writeNull();
+            case String text -> generator.writeString(text);
+            case Boolean bool -> generator.writeBoolean(bool);
+            case BigDecimal decimal -> generator.writeNumber(decimal);
+            case Number number -> generator.writeObject(number);
+            case Enum<?> constant -> generator.writeString(constant.name());
+            case UUID uuid -> generator.writeString(uuid.toString());
+            case TemporalAccessor temporal -> generator.writeString(temporal.toString());
+            default -> generator.writeObject(value);
+        }
+    }
+
+    /**
+     * Returns the fields the provider writes for the projection type, in its order and under its names, so the
+     * selected values are written as the projection would be: <code>&#64;JsonProperty</code>,
+     * <code>&#64;JsonIgnore</code>, <code>&#64;JsonFormat</code>, the naming strategy and the serializers of the
+     * application's mapper all apply. Without a provider, or if the type isn't serialized as a bean, every attribute is
+     * written under its own name by {@link #write(JsonGenerator, Object)}.
+     *
+     * @param returnType the projection (DTO) type
+     * @param provider   the serializer provider, may be {@code null}
+     * @return the fields
+     */
+    public static Fields fields(Class<?> returnType, SerializerProvider provider) {
+        SerializableString[] attributeNames = fieldNames(returnType);
+        if (provider != null) {
+            try {
+                if (provider.findValueSerializer(returnType) instanceof BeanSerializerBase serializer) {
+                    return beanFields(returnType, provider, serializer);
+                }
+            } catch (IOException e) {
+                // Not serializable as a bean, its attributes are written as they are
+            }
+        }
+        int[] columns = new int[attributeNames.length];
+        Arrays.setAll(columns, i -> i);
+        return new Fields(null, columns, attributeNames, null);
+    }
+
+    private static Fields beanFields(Class<?> returnType, SerializerProvider provider, BeanSerializerBase serializer) {
+        List<String> attributes = ReflectionUtils.getAttributeNames(returnType);
+        BeanDescription description = provider.getConfig().introspect(provider.constructType(returnType));
+        Map<String, String> internalNames = new HashMap<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            internalNames.put(property.getName(), property.getInternalName());
+        }
+
+        // Properties that aren't selected attributes, such as computed getters, have no value to write
+        List<Integer> columns = new ArrayList<>();
+        List<BeanPropertyWriter> writers = new ArrayList<>();
+        for (Iterator<PropertyWriter> it = serializer.properties(); it.hasNext(); ) {
+            if (!(it.next() instanceof BeanPropertyWriter writer)) continue;
+            int column = attributes.indexOf(internalNames.getOrDefault(writer.getName(), writer.getName()));
+            if (column < 0) continue;
+            columns.add(column);
+            writers.add(writer);
+        }
+        return new Fields(provider,
+                columns.stream().mapToInt(Integer::intValue).toArray(),
+                writers.stream().map(BeanPropertyWriter::getSerializedName).toArray(SerializableString[]::new),
+                writers.toArray(new BeanPropertyWriter[0]));
+    }
+
+    /**
+     * The fields a projection type is written with, each holding a selected value.
+     */
+    static final class Fields {
+        private final SerializerProvider provider;
+        private final int[] columns;
+        private final SerializableString[] names;
+        private final BeanPropertyWriter[] writers;
+        // The serializer of the last value class of every field, resolved for its property
+        private final Class<?>[] valueTypes;
+        private final JsonSerializer<Object>[] serializers;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Fields(SerializerProvider provider, int[] columns, SerializableString[] names, BeanPropertyWriter[] writers) {
+            this.provider = provider;
+            this.columns = columns;
+            this.names = names;
+            this.writers = writers;
+            this.valueTypes = new Class<?>[columns.length];
+            this.serializers = new JsonSerializer[columns.length];
+        }
+
+        /**
+         * Writes the fields of a row, without the enclosing object.
+         *
+         * @param generator the generator
+         * @param row       the selected values of the row, in the order of the projection's attributes
+         * @throws IOException if writing fails
+         */
+        void write(JsonGenerator generator, Tuple row) throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                Object value = row.get(columns[i]);
+                if (writers == null) {
+                    generator.writeFieldName(names[i]);
+                    JsonValues.write(generator, value);
+                } else if (value == null) {
+                    if (writers[i].willSuppressNulls()) continue;
+                    generator.writeFieldName(names[i]);
+                    provider.defaultSerializeNull(generator);
+                } else {
+                    generator.writeFieldName(names[i]);
+                    serializer(i, value.getClass()).serialize(value, generator, provider);
+                }
+            }
+        }
+
+        private JsonSerializer<Object> serializer(int field, Class<?> valueType) throws IOException {
+            if (valueTypes[field] != valueType) {
+                serializers[field] = provider.findValueSerializer(valueType, writers[field]);
+                valueTypes[field] = valueType;
+            }
+            return serializers[field];
+        }
+    }
+}
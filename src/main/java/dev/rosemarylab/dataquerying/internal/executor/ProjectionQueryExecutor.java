@@ -1,16 +1,15 @@
 package dev.rosemarylab.dataquerying.internal.executor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Tuple;
-import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
@@ -30,26 +29,25 @@ class ProjectionQueryExecutor {
      * Executes a query that retrieves all entities matching the specified criteria,
      * maps the results to the projection type, and returns them as a list.
      *
-     * <p>This method prepares the criteria query, executes it, maps the resulting tuples to field values,
-     * and converts them to DTOs using reflection.</p>
+     * <p>This method prepares the criteria query, applies sorting, executes it, maps the resulting tuples to field
+     * values, and converts them to DTOs using reflection. Sorted distinct queries select the ids first, as described in
+     * {@link TupleQueryExecutor}.</p>
      *
      * @param entityManager the entity manager used to create and execute the query
      * @param entityClass   the entity class to be queried
      * @param returnType    the projection (DTO) type to which results will be mapped
      * @param specification the specification defining the query predicate; may be {@code null}
+     * @param sort          the sort criteria; may be {@code null}
      * @param distinct      {@code true} to eliminate duplicate results, {@code false} otherwise
+     * @param dialect       the dialect computing the relevance orders
      * @param <T>           the entity type
      * @param <P>           the projection type
      * @return a list of projections matching the criteria
      */
-    public static <T, P> List<P> all(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification, boolean distinct) {
-        Map.Entry<CriteriaQuery<Tuple>, Root<T>> preparedQueryObjects =
-                CriteriaQueryUtils.prepareCriteriaQuery(entityManager, entityClass, returnType, distinct, specification);
-        CriteriaQuery<Tuple> criteriaQuery = preparedQueryObjects.getKey();
-
-        // Execute the query
-        TypedQuery<Tuple> query = entityManager.createQuery(criteriaQuery);
-        List<Tuple> results = query.getResultList();
+    public static <T, P> List<P> all(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification, Sort sort, boolean distinct,
+                                     QueryDialect dialect) {
+        // Execute the query, sorted with support for joined paths
+        List<Tuple> results = TupleQueryExecutor.list(entityManager, entityClass, ReflectionUtils.getAttributeNames(returnType), specification, distinct, sort, -1, dialect);
 
         List<Map<String, Object>> mappedResults = ProjectionUtils.mapTuplesToFieldValues(results, returnType);
 
@@ -58,6 +56,36 @@ class ProjectionQueryExecutor {
         return ProjectionUtils.convertToDtoList(returnType, mappedResults, mapper);
     }
 
+    /**
+     * Executes a query that retrieves the first {@code limit} entities matching the specified criteria in the given
+     * order, mapped to the projection type.
+     *
+     * <p>Both the sort and the limit are applied by the database, so it can stop after the first rows of an
+     * index-ordered scan. Distinct queries select the ids first, as described in {@link TupleQueryExecutor}.</p>
+     *
+     * @param entityManager the entity manager used to create and execute the query
+     * @param entityClass   the entity class to be queried
+     * @param returnType    the projection (DTO) type to which results will be mapped
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param sort          the sort criteria; may be {@code null}
+     * @param limit         the maximum number of results
+     * @param distinct      {@code true} to eliminate duplicate results, {@code false} otherwise
+     * @param dialect       the dialect computing the relevance orders
+     * @param <T>           the entity type
+     * @param <P>           the projection type
+     * @return at most {@code limit} projections matching the criteria
+     */
+    public static <T, P> List<P> top(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification, Sort sort, int limit, boolean distinct,
+                                     QueryDialect dialect) {
+        if (limit == 0) {
+            return List.of();
+        }
+        List<Tuple> results = TupleQueryExecutor.list(entityManager, entityClass, ReflectionUtils.getAttributeNames(returnType), specification, distinct, sort, limit, dialect);
+
+        List<Map<String, Object>> mappedResults = ProjectionUtils.mapTuplesToFieldValues(results, returnType);
+        return ProjectionUtils.convertToDtoList(returnType, mappedResults, new ObjectMapper());
+    }
+
     /**
      * Executes a paginated query that retrieves entities matching the specified criteria,
      * maps the results to the projection type, and returns a {@code Page} of projections.
@@ -66,43 +94,28 @@ class ProjectionQueryExecutor {
      * executes the query, counts the total number of matching entities,
      * and converts the results to DTOs using reflection.</p>
      *
+     * <p>Distinct queries, typically produced by filters on joined collections, are paged in two phases: first a page
+     * of distinct root ids is selected using the filter, sort and limit, then the projections of those ids are
+     * fetched and put back in page order, see {@link TupleQueryExecutor}.</p>
+     *
      * @param entityManager the entity manager used to create and execute the query
      * @param entityClass   the entity class to be queried
      * @param returnType    the projection (DTO) type to which results will be mapped
      * @param specification the specification defining the query predicate; may be {@code null}
      * @param pageable      the pagination information
      * @param distinct      {@code true} to eliminate duplicate results, {@code false} otherwise
+     * @param dialect       the dialect computing the relevance orders
      * @param <T>           the entity type
      * @param <P>           the projection type
      * @return a page of projections matching the criteria
      */
-    public static <T, P> Page<P> paged(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification, Pageable pageable, boolean distinct) {
-        Map.Entry<CriteriaQuery<Tuple>, Root<T>> preparedQueryObjects = CriteriaQueryUtils.prepareCriteriaQuery(entityManager, entityClass, returnType, distinct, specification);
-        CriteriaQuery<Tuple> criteriaQuery = preparedQueryObjects.getKey();
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        Root<T> root = preparedQueryObjects.getValue();
-
-        // Apply sorting with support for joined paths
-        CriteriaQueryUtils.applySorting(pageable, root, criteriaBuilder, criteriaQuery);
-
-        // Execute the query with pagination
-        TypedQuery<Tuple> query = entityManager.createQuery(criteriaQuery);
-        query.setFirstResult((int) pageable.getOffset());
-        query.setMaxResults(pageable.getPageSize());
-
-        List<Tuple> results = query.getResultList();
+    public static <T, P> Page<P> paged(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification, Pageable pageable, boolean distinct,
+                                       QueryDialect dialect) {
+        // Execute the query with sorting and pagination
+        List<Tuple> results = TupleQueryExecutor.list(entityManager, entityClass, ReflectionUtils.getAttributeNames(returnType), specification, distinct, pageable, dialect);
 
         // Count total elements for pagination metadata
-        CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
-        Root<T> countRoot = countQuery.from(entityClass);
-        if (specification != null) {
-            Predicate predicate = specification.toPredicate(countRoot, countQuery, criteriaBuilder);
-            if (predicate != null) {
-                countQuery.where(predicate);
-            }
-        }
-        countQuery.select(criteriaBuilder.count(countRoot));
-        Long totalElements = entityManager.createQuery(countQuery).getSingleResult();
+        long totalElements = count(entityManager, entityClass, specification, distinct);
 
         // Map the tuples to a list of maps with field values
         List<Map<String, Object>> mappedResults = ProjectionUtils.mapTuplesToFieldValues(results, returnType);
@@ -114,4 +127,73 @@ class ProjectionQueryExecutor {
         // Return a Page containing the content and pagination metadata
         return new PageImpl<>(content, pageable, totalElements);
     }
+
+    /**
+     * Checks whether any entity matches the specified criteria.
+     *
+     * <p>Only a constant is selected and at most one row is fetched, so neither the projection nor a count is
+     * computed.</p>
+     *
+     * @param entityManager the entity manager used to create and execute the query
+     * @param entityClass   the entity class to be queried
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param <T>           the entity type
+     * @return {@code true} if at least one entity matches
+     */
+    public static <T> boolean exists(EntityManager entityManager, Class<T> entityClass, Specification<T> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> existsQuery = criteriaBuilder.createQuery(Integer.class);
+        Root<T> root = existsQuery.from(entityClass);
+        applySpecification(specification, root, existsQuery, criteriaBuilder);
+
+        // Duplicates produced by joins don't matter when a single row is fetched
+        existsQuery.distinct(false);
+        existsQuery.select(criteriaBuilder.literal(1));
+
+        return !entityManager.createQuery(existsQuery)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Counts the entities matching the specified criteria.
+     *
+     * <p>If the specification asks for distinct results, the distinct entities are counted, so rows duplicated by
+     * to-many joins are not counted twice.</p>
+     *
+     * @param entityManager the entity manager used to create and execute the query
+     * @param entityClass   the entity class to be queried
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param <T>           the entity type
+     * @return the number of matching entities
+     */
+    public static <T> long count(EntityManager entityManager, Class<T> entityClass, Specification<T> specification) {
+        return count(entityManager, entityClass, specification, false);
+    }
+
+    private static <T> long count(EntityManager entityManager, Class<T> entityClass, Specification<T> specification, boolean distinct) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
+        Root<T> countRoot = countQuery.from(entityClass);
+        applySpecification(specification, countRoot, countQuery, criteriaBuilder);
+
+        if (distinct || countQuery.isDistinct()) {
+            countQuery.distinct(false);
+            countQuery.select(criteriaBuilder.countDistinct(countRoot));
+        } else {
+            countQuery.select(criteriaBuilder.count(countRoot));
+        }
+        Long count = entityManager.createQuery(countQuery).getSingleResult();
+        return count == null ? 0 : count;
+    }
+
+    private static <T> void applySpecification(Specification<T> specification, Root<T> root, CriteriaQuery<?> criteriaQuery, CriteriaBuilder criteriaBuilder) {
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, criteriaQuery, criteriaBuilder);
+            if (predicate != null) {
+                criteriaQuery.where(predicate);
+            }
+        }
+    }
 }
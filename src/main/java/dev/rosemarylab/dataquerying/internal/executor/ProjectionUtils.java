@@ -1,13 +1,11 @@
 package dev.rosemarylab.dataquerying.internal.executor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
 import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
 import jakarta.persistence.Tuple;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 class ProjectionUtils {
     private ProjectionUtils() {
@@ -26,6 +24,19 @@ class ProjectionUtils {
         return results;
     }
 
+    // The attributes of a sparse fieldset in request order, all attributes of the projection when no field is requested
+    public static List<String> selectAttributes(Class<?> dtoClass, List<String> fields) {
+        List<String> attributes = ReflectionUtils.getAttributeNames(dtoClass);
+        if (fields == null || fields.isEmpty()) return attributes;
+
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (!attributes.contains(field)) throw new AttributeNotFoundException(field);
+            selected.add(field);
+        }
+        return List.copyOf(selected);
+    }
+
     public static <R> List<Map<String, Object>> mapTuplesToFieldValues(List<Tuple> tuples, Class<R> dtoClass) {
         List<String> selectedFields = ReflectionUtils.getAttributeNames(dtoClass);
 
@@ -0,0 +1,49 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.internal.memory.ReplicaTable;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Utility class for answering projection queries from a registered {@link ReplicaTable} instead of the database.
+ *
+ * <p>Each method returns {@code null} when the replica can't answer, e.g. when the query filters an attribute that
+ * isn't replicated, so the caller runs the query in the database.</p>
+ */
+class ReplicaQueryExecutor {
+    private ReplicaQueryExecutor() {
+    }
+
+    public static <T, P> List<P> all(ReplicaTable<T> replica, Class<P> returnType, Query<T> query, Sort sort, QueryDialect dialect) {
+        return top(replica, returnType, query, sort, -1, dialect);
+    }
+
+    public static <T, P> List<P> top(ReplicaTable<T> replica, Class<P> returnType, Query<T> query, Sort sort, int limit, QueryDialect dialect) {
+        ReplicaTable.Result result = replica.select(query, sort, ReflectionUtils.getAttributeNames(returnType), 0, limit, dialect);
+        return result == null ? null : convert(returnType, result);
+    }
+
+    public static <T, P> Page<P> paged(ReplicaTable<T> replica, Class<P> returnType, Query<T> query, Pageable pageable, QueryDialect dialect) {
+        ReplicaTable.Result result = pageable.isUnpaged()
+                ? replica.select(query, pageable.getSort(), ReflectionUtils.getAttributeNames(returnType), 0, -1, dialect)
+                : replica.select(query, pageable.getSort(), ReflectionUtils.getAttributeNames(returnType), pageable.getOffset(), pageable.getPageSize(), dialect);
+        return result == null ? null : new PageImpl<>(convert(returnType, result), pageable, result.total());
+    }
+
+    public static <T> Long count(ReplicaTable<T> replica, Query<T> query, QueryDialect dialect) {
+        ReplicaTable.Result result = replica.select(query, null, List.of(), 0, 0, dialect);
+        return result == null ? null : result.total();
+    }
+
+    private static <P> List<P> convert(Class<P> returnType, ReplicaTable.Result result) {
+        return ProjectionUtils.convertToDtoList(returnType, result.rows(), new ObjectMapper());
+    }
+}
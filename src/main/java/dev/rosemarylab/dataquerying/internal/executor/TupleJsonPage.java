@@ -0,0 +1,112 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import dev.rosemarylab.dataquerying.api.JsonPage;
+import jakarta.persistence.Tuple;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link JsonPage} holding the tuples of a query, whose elements are in the order of the projection's attributes.
+ */
+class TupleJsonPage implements JsonPage {
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString PAGE = new SerializedString("page");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+
+    private final Class<?> returnType;
+    private final List<Tuple> rows;
+    private final int number;
+    private final int size;
+    private final long totalElements;
+
+    TupleJsonPage(Class<?> returnType, List<Tuple> rows, int number, int size, long totalElements) {
+        this.returnType = returnType;
+        this.rows = rows;
+        this.number = number;
+        this.size = size;
+        this.totalElements = totalElements;
+    }
+
+    @Override
+    public int getNumber() {
+        return number;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getNumberOfElements() {
+        return rows.size();
+    }
+
+    @Override
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    @Override
+    public int getTotalPages() {
+        // As Spring Data's PageImpl does, an empty unpaged page still has a page
+        return size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        writeTo(generator, generator.getCodec() instanceof ObjectMapper mapper ? mapper.getSerializerProviderInstance() : null);
+    }
+
+    // The fields of the rows are written as the provider would write the projection
+    private void writeTo(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        JsonValues.Fields fields = JsonValues.fields(returnType, serializers);
+        generator.writeStartObject();
+        generator.writeFieldName(CONTENT);
+        generator.writeStartArray(rows, rows.size());
+        for (Tuple row : rows) {
+            generator.writeStartObject();
+            fields.write(generator, row);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeFieldName(PAGE);
+        generator.writeStartObject();
+        generator.writeFieldName(SIZE);
+        generator.writeNumber(size);
+        generator.writeFieldName(NUMBER);
+        generator.writeNumber(number);
+        generator.writeFieldName(TOTAL_ELEMENTS);
+        generator.writeNumber(totalElements);
+        generator.writeFieldName(TOTAL_PAGES);
+        generator.writeNumber(getTotalPages());
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        writeTo(generator, serializers);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+        writeTo(generator, serializers);
+    }
+
+    @Override
+    public String toString() {
+        return "JsonPage[number=" + number + ", size=" + size + ", totalElements=" + totalElements + "]";
+    }
+}
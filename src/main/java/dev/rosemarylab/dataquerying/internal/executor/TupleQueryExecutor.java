@@ -0,0 +1,260 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utility class for reading the tuples of the selected attributes of the entities matching a specification, in sort
+ * order. It is shared by the executors that select the attributes of a projection.
+ *
+ * <p>A distinct query can only be ordered by expressions it selects, and a specification makes the query distinct as
+ * soon as it filters on a joined path. Sorted or limited distinct queries are therefore run in two phases: first the
+ * distinct root ids are selected using the filter, sort and limit, then the attributes of those ids are read by primary
+ * key, in chunks of {@value #ID_CHUNK_SIZE} ids, and put back in id order. This way the database neither rejects a
+ * sort on an unselected attribute nor has to sort and deduplicate the whole joined row set to produce a single page.
+ * Other queries select the attributes directly.</p>
+ *
+ * <p>When the tuples are streamed, the ids are read from a cursor as well, and each chunk is read when the previous
+ * one has been consumed, so neither the ids nor the tuples are ever held all at once. The id cursor stays open while
+ * the chunks are read, so the JDBC driver must allow a second statement on a connection with an open result set.</p>
+ *
+ * <p>The tuple elements are in the order of the attributes. A tuple read by id may have the id as an additional, last
+ * element.</p>
+ */
+class TupleQueryExecutor {
+    /**
+     * The maximum number of ids in the IN list of a query by primary key.
+     */
+    static final int ID_CHUNK_SIZE = 500;
+
+    private TupleQueryExecutor() {
+    }
+
+    /**
+     * Reads the first tuples into a list.
+     *
+     * @param entityManager the entity manager used to create and execute the queries
+     * @param entityClass   the entity class to be queried
+     * @param attributes    the attributes to select
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param distinct      {@code true} to eliminate duplicate results, {@code false} otherwise
+     * @param sort          the sort criteria; may be {@code null}
+     * @param limit         the maximum number of rows, or {@code -1} for all of them
+     * @param dialect       the dialect computing the relevance orders
+     * @param <T>           the entity type
+     * @return the tuples in sort order
+     */
+    static <T> List<Tuple> list(EntityManager entityManager, Class<T> entityClass, List<String> attributes, Specification<T> specification,
+                                boolean distinct, Sort sort, int limit, QueryDialect dialect) {
+        try (Stream<Tuple> tuples = read(entityManager, entityClass, attributes, specification, distinct, sort, -1, limit, Map.of(), false, dialect)) {
+            return tuples.toList();
+        }
+    }
+
+    /**
+     * Reads the tuples following the first {@code offset} ones into a list.
+     *
+     * @param entityManager the entity manager used to create and execute the queries
+     * @param entityClass   the entity class to be queried
+     * @param attributes    the attributes to select
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param distinct      {@code true} to eliminate duplicate results, {@code false} otherwise
+     * @param sort          the sort criteria; may be {@code null}
+     * @param offset        the number of rows to skip
+     * @param limit         the maximum number of rows, or {@code -1} for all of them
+     * @param dialect       the dialect computing the relevance orders
+     * @param <T>           the entity type
+     * @return the tuples in sort order
+     */
+    static <T> List<Tuple> list(EntityManager entityManager, Class<T> entityClass, List<String> attributes, Specification<T> specification,
+                                boolean distinct, Sort sort, long offset, int limit, QueryDialect dialect) {
+        try (Stream<Tuple> tuples = read(entityManager, entityClass, attributes, specification, distinct, sort, offset, limit, Map.of(), false, dialect)) {
+            return tuples.toList();
+        }
+    }
+
+    /**
+     * Reads the tuples of a page into a list.
+     *
+     * @param entityManager the entity manager used to create and execute the queries
+     * @param entityClass   the entity class to be queried
+     * @param attributes    the attributes to select
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param distinct      {@code true} to eliminate duplicate results, {@code false} otherwise
+     * @param pageable      the pagination information, may be unpaged
+     * @param dialect       the dialect computing the relevance orders
+     * @param <T>           the entity type
+     * @return the tuples of the page in sort order
+     */
+    static <T> List<Tuple> list(EntityManager entityManager, Class<T> entityClass, List<String> attributes, Specification<T> specification,
+                                boolean distinct, Pageable pageable, QueryDialect dialect) {
+        if (pageable.isUnpaged()) {
+            return list(entityManager, entityClass, attributes, specification, distinct, pageable.getSort(), -1, dialect);
+        }
+        try (Stream<Tuple> tuples = read(entityManager, entityClass, attributes, specification, distinct, pageable.getSort(),
+                pageable.getOffset(), pageable.getPageSize(), Map.of(), false, dialect)) {
+            return tuples.toList();
+        }
+    }
+
+    /**
+     * Reads the tuples as a stream, which the JPA provider backs with a scrolling database cursor. The stream must be
+     * closed.
+     *
+     * @param entityManager the entity manager used to create and execute the queries
+     * @param entityClass   the entity class to be queried
+     * @param attributes    the attributes to select
+     * @param specification the specification defining the query predicate; may be {@code null}
+     * @param distinct      {@code true} to eliminate duplicate results, {@code false} otherwise
+     * @param sort          the sort criteria; may be {@code null}
+     * @param hints         the hints of the query selecting the attributes
+     * @param dialect       the dialect computing the relevance orders
+     * @param <T>           the entity type
+     * @return the tuples in sort order
+     */
+    static <T> Stream<Tuple> stream(EntityManager entityManager, Class<T> entityClass, List<String> attributes, Specification<T> specification,
+                                    boolean distinct, Sort sort, Map<String, Object> hints, QueryDialect dialect) {
+        return read(entityManager, entityClass, attributes, specification, distinct, sort, -1, -1, hints, true, dialect);
+    }
+
+    // A negative offset leaves the first result of the queries unset
+    private static <T> Stream<Tuple> read(EntityManager entityManager, Class<T> entityClass, List<String> attributes, Specification<T> specification,
+                                          boolean distinct, Sort sort, long offset, int limit, Map<String, Object> hints, boolean scroll,
+                                          QueryDialect dialect) {
+        Sort order = sort == null ? Sort.unsorted() : sort;
+        Map.Entry<CriteriaQuery<Tuple>, Root<T>> filteredQueryObjects =
+                CriteriaQueryUtils.filterCriteriaQuery(entityManager, entityClass, distinct, specification);
+        CriteriaQuery<Tuple> criteriaQuery = filteredQueryObjects.getKey();
+        Root<T> root = filteredQueryObjects.getValue();
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        if (criteriaQuery.isDistinct() && (order.isSorted() || limit >= 0)) {
+            String idAttribute = CriteriaQueryUtils.idAttributeName(entityManager, entityClass);
+            if (idAttribute != null) {
+                TypedQuery<Tuple> idQuery = ids(entityManager, criteriaQuery, root, order, offset, limit, idAttribute, dialect);
+                hints.forEach(idQuery::setHint);
+                if (scroll) {
+                    Stream<Object> ids = idQuery.getResultStream().map(tuple -> tuple.get(0));
+                    return chunks(ids).flatMap(chunk -> byIds(entityManager, entityClass, attributes, chunk, idAttribute, hints).stream());
+                }
+                List<Object> ids = idQuery.getResultList().stream()
+                        .map(tuple -> tuple.get(0))
+                        .toList();
+                return IntStream.range(0, (ids.size() + ID_CHUNK_SIZE - 1) / ID_CHUNK_SIZE)
+                        .mapToObj(chunk -> ids.subList(chunk * ID_CHUNK_SIZE, Math.min(ids.size(), (chunk + 1) * ID_CHUNK_SIZE)))
+                        .flatMap(chunk -> byIds(entityManager, entityClass, attributes, chunk, idAttribute, hints).stream());
+            }
+        }
+
+        SpecificationEngine.applySelection(root, criteriaQuery, criteriaBuilder, attributes);
+        CriteriaQueryUtils.applySorting(order, root, criteriaBuilder, criteriaQuery, dialect);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(criteriaQuery);
+        hints.forEach(query::setHint);
+        if (offset >= 0) {
+            query.setFirstResult(Math.toIntExact(offset));
+        }
+        if (limit >= 0) {
+            query.setMaxResults(limit);
+        }
+        return scroll ? query.getResultStream() : query.getResultList().stream();
+    }
+
+    // Phase 1: the filtered query becomes the query of the distinct ids. Grouping by id replaces DISTINCT, and a joined
+    // sort path may have several values per id, so the lowest value is used for ascending and the highest for
+    // descending order.
+    private static <T> TypedQuery<Tuple> ids(EntityManager entityManager, CriteriaQuery<Tuple> idQuery, Root<T> idRoot, Sort sort,
+                                        long offset, int limit, String idAttribute, QueryDialect dialect) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        idQuery.distinct(false);
+
+        Path<?> id = idRoot.get(idAttribute);
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(aggregatedOrder(criteriaBuilder, CriteriaQueryUtils.sortExpression(idRoot, criteriaBuilder, order.getProperty(), dialect), order.isAscending()));
+        }
+        // The id makes the order total, so no id can appear on two pages
+        orders.add(criteriaBuilder.asc(id));
+        idQuery.select(criteriaBuilder.tuple(id)).groupBy(id).orderBy(orders);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(idQuery);
+        if (offset >= 0) {
+            query.setFirstResult(Math.toIntExact(offset));
+        }
+        if (limit >= 0) {
+            query.setMaxResults(limit);
+        }
+        return query;
+    }
+
+    // Groups the ids read from the cursor into chunks, each one read only when the stream reaches it. Closing the
+    // chunks closes the cursor.
+    private static Stream<List<Object>> chunks(Stream<Object> ids) {
+        Iterator<Object> iterator = ids.iterator();
+        Spliterator<List<Object>> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super List<Object>> action) {
+                if (!iterator.hasNext()) return false;
+                List<Object> chunk = new ArrayList<>(ID_CHUNK_SIZE);
+                while (chunk.size() < ID_CHUNK_SIZE && iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                }
+                action.accept(chunk);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(ids::close);
+    }
+
+    // Phase 2: the attributes of the ids, without the filter joins, in the order of the ids
+    private static <T> List<Tuple> byIds(EntityManager entityManager, Class<T> entityClass, List<String> attributes, List<Object> ids, String idAttribute,
+                                         Map<String, Object> hints) {
+        Specification<T> byIds = (root, query, cb) -> root.get(idAttribute).in(ids);
+        Map.Entry<CriteriaQuery<Tuple>, Root<T>> preparedQueryObjects = CriteriaQueryUtils.prepareCriteriaQuery(entityManager, entityClass, attributes, false, byIds);
+        CriteriaQuery<Tuple> criteriaQuery = preparedQueryObjects.getKey();
+        String idAlias = selectId(criteriaQuery, preparedQueryObjects.getValue(), entityManager.getCriteriaBuilder(), idAttribute);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(criteriaQuery);
+        hints.forEach(query::setHint);
+        Map<Object, Tuple> tuplesById = new HashMap<>();
+        for (Tuple tuple : query.getResultList()) {
+            tuplesById.put(tuple.get(idAlias), tuple);
+        }
+        return ids.stream()
+                .map(tuplesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Order aggregatedOrder(CriteriaBuilder criteriaBuilder, Expression expression, boolean ascending) {
+        return ascending
+                ? criteriaBuilder.asc(criteriaBuilder.least(expression))
+                : criteriaBuilder.desc(criteriaBuilder.greatest(expression));
+    }
+
+    // Returns the alias of the id in the selection, adding the id as the last element if it isn't selected
+    private static <T> String selectId(CriteriaQuery<Tuple> criteriaQuery, Root<T> root, CriteriaBuilder criteriaBuilder, String idAttribute) {
+        List<Selection<?>> selections = new ArrayList<>(criteriaQuery.getSelection().getCompoundSelectionItems());
+        for (Selection<?> selection : selections) {
+            if (idAttribute.equals(selection.getAlias())) return idAttribute;
+        }
+        String idAlias = "__" + idAttribute;
+        selections.add(root.get(idAttribute).alias(idAlias));
+        criteriaQuery.select(criteriaBuilder.tuple(selections.toArray(new Selection<?>[0])));
+        return idAlias;
+    }
+}
@@ -0,0 +1,155 @@
+package dev.rosemarylab.dataquerying.internal.executor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.*;
+
+/**
+ * Utility class for executing queries whose top-level OR branches are run as separate queries.
+ *
+ * <p>Each branch selects the ids of its matching entities, so the database can use the index of the branch's own
+ * condition. The ids are merged in memory, and the projections of the merged ids are fetched by primary key, with the
+ * sort and the limit applied by the database. When a limit is known, each branch selects at most the ids of the first
+ * <code>offset + limit</code> entities in sort order, since the first results of the union are among them.</p>
+ *
+ * <p>The merged ids are fetched with a single IN list of at most {@value TupleQueryExecutor#ID_CHUNK_SIZE} ids, which
+ * stays within the bind parameter limits of every database. A branch without any restriction matches every entity, and
+ * a union of more ids can't be sorted by the database in one query, so the branches then stop selecting ids and the
+ * whole query runs as a single OR query instead, its distinct ids being read in chunks by {@link TupleQueryExecutor}.
+ * The entities are counted by that single query as well, since counting needs no index order.</p>
+ */
+class UnionQueryExecutor {
+    private UnionQueryExecutor() {
+    }
+
+    public static <T, P> List<P> all(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification,
+                                     List<Specification<T>> branches, Sort sort, String idAttribute, QueryDialect dialect) {
+        Set<Object> ids = ids(entityManager, entityClass, branches, Sort.unsorted(), -1, idAttribute, dialect);
+        return fetch(entityManager, entityClass, returnType, specification, ids, sort, 0, -1, idAttribute, dialect);
+    }
+
+    public static <T, P> List<P> top(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification,
+                                     List<Specification<T>> branches, Sort sort, int limit, String idAttribute, QueryDialect dialect) {
+        if (limit == 0) {
+            return List.of();
+        }
+        Set<Object> ids = ids(entityManager, entityClass, branches, sort, limit, idAttribute, dialect);
+        return fetch(entityManager, entityClass, returnType, specification, ids, sort, 0, limit, idAttribute, dialect);
+    }
+
+    public static <T, P> Page<P> paged(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification,
+                                       List<Specification<T>> branches, Pageable pageable, String idAttribute, QueryDialect dialect) {
+        if (pageable.isUnpaged()) {
+            List<P> content = all(entityManager, entityClass, returnType, specification, branches, pageable.getSort(), idAttribute, dialect);
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        long total = count(entityManager, entityClass, specification);
+        if (total <= pageable.getOffset()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        int candidates = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        Set<Object> ids = ids(entityManager, entityClass, branches, pageable.getSort(), candidates, idAttribute, dialect);
+        List<P> content = fetch(entityManager, entityClass, returnType, specification, ids, pageable.getSort(), pageable.getOffset(), pageable.getPageSize(), idAttribute, dialect);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // The distinct entities matching the OR of the branches, counted by the database
+    public static <T> long count(EntityManager entityManager, Class<T> entityClass, Specification<T> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = countQuery.from(entityClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, countQuery, criteriaBuilder);
+        if (predicate != null) {
+            countQuery.where(predicate);
+        }
+        countQuery.distinct(false);
+        countQuery.select(criteriaBuilder.countDistinct(root));
+        Long count = entityManager.createQuery(countQuery).getSingleResult();
+        return count == null ? 0 : count;
+    }
+
+    public static <T> boolean exists(EntityManager entityManager, Class<T> entityClass, List<Specification<T>> branches) {
+        for (Specification<T> branch : branches) {
+            if (ProjectionQueryExecutor.exists(entityManager, entityClass, branch)) return true;
+        }
+        return false;
+    }
+
+    // The distinct ids matching any branch, or null if a branch has no restriction or the ids don't fit in a single IN
+    // list. With a limit, only the ids of the first entities of each branch in sort order are selected.
+    private static <T> Set<Object> ids(EntityManager entityManager, Class<T> entityClass, List<Specification<T>> branches, Sort sort, int limit, String idAttribute,
+                                       QueryDialect dialect) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        // One id more than fits in the IN list tells that the union is too large
+        int maxResults = limit < 0 ? TupleQueryExecutor.ID_CHUNK_SIZE + 1 : Math.min(limit, TupleQueryExecutor.ID_CHUNK_SIZE + 1);
+        Set<Object> ids = new LinkedHashSet<>();
+        for (Specification<T> branch : branches) {
+            CriteriaQuery<Tuple> idQuery = criteriaBuilder.createTupleQuery();
+            Root<T> root = idQuery.from(entityClass);
+            Predicate predicate = branch.toPredicate(root, idQuery, criteriaBuilder);
+            if (predicate != null) {
+                idQuery.where(predicate);
+            }
+            if (idQuery.getRestriction() == null) {
+                return null;
+            }
+            idQuery.distinct(false);
+
+            // Grouping by id removes the duplicates of joins, see TupleQueryExecutor
+            Path<?> id = root.get(idAttribute);
+            List<Order> orders = new ArrayList<>();
+            for (Sort.Order order : sort == null ? Sort.unsorted() : sort) {
+                orders.add(TupleQueryExecutor.aggregatedOrder(criteriaBuilder, CriteriaQueryUtils.sortExpression(root, criteriaBuilder, order.getProperty(), dialect), order.isAscending()));
+            }
+            orders.add(criteriaBuilder.asc(id));
+            idQuery.select(criteriaBuilder.tuple(id)).groupBy(id).orderBy(orders);
+
+            TypedQuery<Tuple> query = entityManager.createQuery(idQuery).setMaxResults(maxResults);
+            query.getResultList().forEach(tuple -> ids.add(tuple.get(0)));
+            if (ids.size() > TupleQueryExecutor.ID_CHUNK_SIZE) {
+                return null;
+            }
+        }
+        return ids;
+    }
+
+    // The projections of the ids in sort order, or of the entities matching the whole query if the ids are null
+    private static <T, P> List<P> fetch(EntityManager entityManager, Class<T> entityClass, Class<P> returnType, Specification<T> specification, Set<Object> ids,
+                                        Sort sort, long offset, int limit, String idAttribute, QueryDialect dialect) {
+        if (ids != null && ids.isEmpty()) {
+            return List.of();
+        }
+        // The id makes the order total, as it is in the branches
+        Sort order = sort == null ? Sort.by(idAttribute) : sort.and(Sort.by(idAttribute));
+        List<Tuple> tuples;
+        if (ids == null) {
+            tuples = TupleQueryExecutor.list(entityManager, entityClass, ReflectionUtils.getAttributeNames(returnType), specification, true, order, offset, limit, dialect);
+        } else {
+            Specification<T> byIds = (root, query, cb) -> root.get(idAttribute).in(ids);
+            Map.Entry<CriteriaQuery<Tuple>, Root<T>> preparedQueryObjects = CriteriaQueryUtils.prepareCriteriaQuery(entityManager, entityClass, returnType, false, byIds);
+            CriteriaQuery<Tuple> criteriaQuery = preparedQueryObjects.getKey();
+            CriteriaQueryUtils.applySorting(order, preparedQueryObjects.getValue(), entityManager.getCriteriaBuilder(), criteriaQuery, dialect);
+
+            TypedQuery<Tuple> query = entityManager.createQuery(criteriaQuery);
+            query.setFirstResult((int) offset);
+            if (limit >= 0) {
+                query.setMaxResults(limit);
+            }
+            tuples = query.getResultList();
+        }
+
+        List<Map<String, Object>> mappedResults = ProjectionUtils.mapTuplesToFieldValues(tuples, returnType);
+        return ProjectionUtils.convertToDtoList(returnType, mappedResults, new ObjectMapper());
+    }
+}
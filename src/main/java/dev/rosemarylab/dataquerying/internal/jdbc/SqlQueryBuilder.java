@@ -0,0 +1,326 @@
+package dev.rosemarylab.dataquerying.internal.jdbc;
+
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.QueryVisitor;
+import dev.rosemarylab.dataquerying.api.Relevance;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.domain.Sort;
+
+import java.util.*;
+
+/**
+ * Translates a {@link Query}, a {@link Sort} and a selection of attributes to a parameterized SQL statement over the
+ * tables of a {@link SqlSchema}.
+ *
+ * <p>The translation follows the one of the JPA criteria queries: nested attributes are read through LEFT joins,
+ * explicit INNER joins restrict the rows to the entities having the association, comparisons with {@code null} test
+ * for NULL, and the text operators build the same LIKE patterns with the same case folding. Every value is bound as a
+ * parameter, and IN lists are padded to the next power of two by repeating their last value, so queries of the same
+ * shape share the same SQL and the prepared statements cached by the driver or the connection pool are reused.</p>
+ *
+ * <p>The DISTINCT flag of a query is ignored: only to-one associations are joined, so no row is duplicated.
+ * Specifications can't be translated and fail with an {@link UnsupportedOperationException}, sorting by
+ * {@link Relevance} with a {@link SpecificationBuilderException}. The case-insensitive and full-text filters are
+ * translated by the SQL methods of the {@link QueryDialect}.</p>
+ */
+public class SqlQueryBuilder {
+    private static final String ROOT_ALIAS = "t0";
+    // A backslash starts an escape sequence in the string literals of MySQL's default mode, '!' means nothing anywhere
+    private static final char LIKE_ESCAPE = '!';
+
+    private final SqlSchema schema;
+    private final QueryDialect dialect;
+    // Joined association paths, in the order they are rendered: a join always follows the join of its parent
+    private final Map<String, Join> joins = new LinkedHashMap<>();
+    private final List<SqlSchema.ColumnPath> selection = new ArrayList<>();
+    private final StringBuilder select = new StringBuilder();
+    private final StringBuilder orderBy = new StringBuilder();
+    private Fragment where;
+
+    private record Join(SqlSchema.JoinStep step, String alias, String parentAlias, boolean inner) {
+    }
+
+    // A condition and the values of its parameters, in the order they appear
+    private record Fragment(String sql, List<Object> parameters) {
+    }
+
+    public SqlQueryBuilder(SqlSchema schema) {
+        this(schema, QueryDialect.LOWER_CASE);
+    }
+
+    public SqlQueryBuilder(SqlSchema schema, QueryDialect dialect) {
+        this.schema = schema;
+        this.dialect = dialect;
+    }
+
+    /**
+     * Restricts the statement to the rows matching a query.
+     *
+     * @param query the query, {@code null} for no restriction
+     * @return this builder
+     */
+    public SqlQueryBuilder where(Query<?> query) {
+        this.where = query == null ? null : query.accept(new ConditionVisitor());
+        return this;
+    }
+
+    /**
+     * Selects the columns of the given attributes, read back in this order.
+     *
+     * @param attributes the attribute paths
+     * @return this builder
+     */
+    public SqlQueryBuilder select(List<String> attributes) {
+        for (String attribute : attributes) {
+            SqlSchema.ColumnPath path = schema.resolve(attribute);
+            if (!selection.isEmpty()) select.append(", ");
+            select.append(column(path));
+            selection.add(path);
+        }
+        return this;
+    }
+
+    /**
+     * Orders the rows. Nested attributes are read through LEFT joins, so rows without the association are kept.
+     *
+     * @param sort the sort, {@code null} for database order
+     * @return this builder
+     */
+    public SqlQueryBuilder orderBy(Sort sort) {
+        if (sort == null) return this;
+        for (Sort.Order order : sort) {
+            if (Relevance.parse(order.getProperty()) != null)
+                throw new SpecificationBuilderException("Sorting by relevance can't be translated to SQL");
+            if (!orderBy.isEmpty()) orderBy.append(", ");
+            orderBy.append(column(schema.resolve(order.getProperty()))).append(order.isAscending() ? " ASC" : " DESC");
+            switch (order.getNullHandling()) {
+                case NULLS_FIRST -> orderBy.append(" NULLS FIRST");
+                case NULLS_LAST -> orderBy.append(" NULLS LAST");
+                case NATIVE -> {
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the columns of the selected attributes, in the order of the selection.
+     *
+     * @return the selected columns
+     */
+    public List<SqlSchema.ColumnPath> getSelection() {
+        return Collections.unmodifiableList(selection);
+    }
+
+    /**
+     * Builds the statement selecting the rows.
+     *
+     * @param maxRows the maximum number of rows read, <code>0</code> for no limit
+     * @return the statement
+     */
+    public SqlStatement buildSelect(int maxRows) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(select.isEmpty() ? "1" : select);
+        appendFromWhere(sql);
+        if (!orderBy.isEmpty()) sql.append(" ORDER BY ").append(orderBy);
+        return new SqlStatement(sql.toString(), parameters(), maxRows);
+    }
+
+    /**
+     * Builds the statement counting the rows.
+     *
+     * @return the statement
+     */
+    public SqlStatement buildCount() {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*)");
+        appendFromWhere(sql);
+        return new SqlStatement(sql.toString(), parameters(), 0);
+    }
+
+    private void appendFromWhere(StringBuilder sql) {
+        sql.append(" FROM ").append(schema.getTable()).append(' ').append(ROOT_ALIAS);
+        for (Join join : joins.values()) {
+            sql.append(join.inner() ? " INNER JOIN " : " LEFT JOIN ")
+                    .append(join.step().table()).append(' ').append(join.alias())
+                    .append(" ON ").append(join.alias()).append('.').append(join.step().referencedColumn())
+                    .append(" = ").append(join.parentAlias()).append('.').append(join.step().foreignKey());
+        }
+        if (where != null) sql.append(" WHERE ").append(where.sql());
+    }
+
+    private List<Object> parameters() {
+        return where == null ? List.of() : where.parameters();
+    }
+
+    private String column(SqlSchema.ColumnPath path) {
+        return alias(path.joins(), false) + "." + path.column();
+    }
+
+    // Joins the associations, reusing the joins already made, and returns the alias of the last one
+    private String alias(List<SqlSchema.JoinStep> steps, boolean inner) {
+        String alias = ROOT_ALIAS;
+        for (SqlSchema.JoinStep step : steps) {
+            Join join = joins.get(step.path());
+            if (join == null) {
+                join = new Join(step, "t" + (joins.size() + 1), alias, inner);
+                joins.put(step.path(), join);
+            }
+            alias = join.alias();
+        }
+        return alias;
+    }
+
+    private String foldCase(String expression) {
+        return dialect.foldCaseSql(expression);
+    }
+
+    private String foldCaseValue(String value) {
+        return dialect.foldCase(value);
+    }
+
+    private static String escape(String value) {
+        return SpecificationEngine.escape(value, LIKE_ESCAPE);
+    }
+
+    /**
+     * Translates the conditions of a query to a SQL condition, {@code null} when they don't restrict the rows.
+     */
+    private class ConditionVisitor implements QueryVisitor<Fragment> {
+
+        @Override
+        public Fragment visitAnd(List<Fragment> operands) {
+            return combine(operands, " AND ");
+        }
+
+        @Override
+        public Fragment visitOr(List<Fragment> operands) {
+            return combine(operands, " OR ");
+        }
+
+        @Override
+        public Fragment visitComparison(String attribute, SearchOperator operator, Object value) {
+            SqlSchema.ColumnPath path = schema.resolve(attribute);
+            String column = column(path);
+            if (value == null) {
+                return new Fragment(column + (operator == SearchOperator.NOT_EQ ? " IS NOT NULL" : " IS NULL"), List.of());
+            }
+            return switch (operator) {
+                case EQ -> parameter(column + " = ?", path.toColumn(value));
+                case NOT_EQ -> parameter(column + " <> ?", path.toColumn(value));
+                case GT -> parameter(column + " > ?", path.toColumn(value));
+                case GTE -> parameter(column + " >= ?", path.toColumn(value));
+                case LT -> parameter(column + " < ?", path.toColumn(value));
+                case LTE -> parameter(column + " <= ?", path.toColumn(value));
+                case EQ_IGNORE_CASE -> parameter(foldCase(text(path, column)) + " = ?", foldCaseValue(textValue(operator, value)));
+                default -> throw new SpecificationBuilderException("Unsupported comparison operator " + operator);
+            };
+        }
+
+        @Override
+        public Fragment visitIn(String attribute, Collection<?> values) {
+            if (values.isEmpty()) return visitNone();
+            SqlSchema.ColumnPath path = schema.resolve(attribute);
+            List<Object> parameters = new ArrayList<>();
+            for (Object value : values) {
+                parameters.add(path.toColumn(value));
+            }
+            Object last = parameters.getLast();
+            while (Integer.bitCount(parameters.size()) != 1) {
+                parameters.add(last);
+            }
+            String placeholders = String.join(", ", Collections.nCopies(parameters.size(), "?"));
+            return new Fragment(column(path) + " IN (" + placeholders + ")", parameters);
+        }
+
+        @Override
+        public Fragment visitBetween(String attribute, Object lower, Object upper) {
+            SqlSchema.ColumnPath path = schema.resolve(attribute);
+            return new Fragment(column(path) + " BETWEEN ? AND ?", Arrays.asList(path.toColumn(lower), path.toColumn(upper)));
+        }
+
+        @Override
+        public Fragment visitLike(String attribute, SearchOperator operator, String value) {
+            SqlSchema.ColumnPath path = schema.resolve(attribute);
+            String text = text(path, column(path));
+            return switch (operator) {
+                case LIKE -> like(text, "%" + escape(value) + "%", value, false);
+                case NOT_LIKE -> like(text, "%" + escape(value) + "%", value, true);
+                case STARTS_WITH -> like(text, escape(value) + "%", value, false);
+                case ENDS_WITH -> like(text, "%" + escape(value), value, false);
+                case MATCHES -> parameter(text + " LIKE ?", value);
+                case LIKE_IGNORE_CASE -> {
+                    String folded = foldCaseValue(value);
+                    yield like(foldCase(text), "%" + escape(folded) + "%", folded, false);
+                }
+                case STARTS_WITH_IGNORE_CASE -> {
+                    String folded = foldCaseValue(value);
+                    yield like(foldCase(text), escape(folded) + "%", folded, false);
+                }
+                case FULL_TEXT -> {
+                    String condition = dialect.fullTextSql(text);
+                    if (condition != null) yield parameter(condition, value);
+                    List<Fragment> words = new ArrayList<>();
+                    for (String word : value.trim().split("\\s+")) {
+                        if (word.isEmpty()) continue;
+                        String folded = foldCaseValue(word);
+                        words.add(like(foldCase(text), "%" + escape(folded) + "%", folded, false));
+                    }
+                    yield combine(words, " AND ");
+                }
+                default -> throw new SpecificationBuilderException("Unsupported text operator " + operator);
+            };
+        }
+
+        @Override
+        public Fragment visitNone() {
+            return new Fragment("1 = 0", List.of());
+        }
+
+        @Override
+        public void visitJoin(String attribute, JoinType joinType) {
+            if (joinType == JoinType.RIGHT)
+                throw new SpecificationBuilderException("RIGHT joins can't be translated to SQL");
+            // LEFT joins of to-one associations don't change the rows, INNER joins drop the entities without them
+            if (joinType == JoinType.INNER) {
+                alias(schema.joins(attribute), true);
+            }
+        }
+
+        // The escape character is only declared for patterns with escaped characters, as the JPA translation does
+        private Fragment like(String text, String pattern, String value, boolean negated) {
+            String escape = escape(value).equals(value) ? "" : " ESCAPE '" + LIKE_ESCAPE + "'";
+            return parameter(text + (negated ? " NOT LIKE ?" : " LIKE ?") + escape, pattern);
+        }
+
+        private Fragment combine(List<Fragment> operands, String operator) {
+            List<Fragment> fragments = operands.stream().filter(Objects::nonNull).toList();
+            if (fragments.isEmpty()) return null;
+            if (fragments.size() == 1) return fragments.getFirst();
+            StringJoiner sql = new StringJoiner(operator, "(", ")");
+            List<Object> parameters = new ArrayList<>();
+            for (Fragment fragment : fragments) {
+                sql.add(fragment.sql());
+                parameters.addAll(fragment.parameters());
+            }
+            return new Fragment(sql.toString(), parameters);
+        }
+
+        private static Fragment parameter(String sql, Object value) {
+            return new Fragment(sql, Collections.singletonList(value));
+        }
+
+        // Casts only non-string columns, a cast on a string column would keep the database from using its index
+        private static String text(SqlSchema.ColumnPath path, String column) {
+            return path.javaType() == String.class ? column : "CAST(" + column + " AS VARCHAR(255))";
+        }
+
+        private static String textValue(SearchOperator operator, Object value) {
+            if (!(value instanceof String text))
+                throw new SpecificationBuilderException(operator + " operator requires a String value");
+            return text;
+        }
+    }
+}
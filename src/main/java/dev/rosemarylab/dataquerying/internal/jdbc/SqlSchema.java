@@ -0,0 +1,258 @@
+package dev.rosemarylab.dataquerying.internal.jdbc;
+
+import dev.rosemarylab.dataquerying.api.TableMapping;
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.api.exceptions.JoinNotFoundException;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.internal.utils.ValueConverter;
+import jakarta.persistence.*;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The tables and columns of an entity, read from the JPA metamodel and the mapping annotations, see
+ * {@link TableMapping}.
+ *
+ * <p>Attribute paths are resolved to a column, reached through the to-one associations along the path. Embedded
+ * attributes are read from the table holding them. Collections, associations mapped by the other side or through a
+ * join table, converted attributes and entity inheritance can't be mapped and are reported with a
+ * {@link SpecificationBuilderException}.</p>
+ */
+public class SqlSchema {
+    private final Metamodel metamodel;
+    private final EntityType<?> entityType;
+    private final TableMapping mapping;
+    private final String table;
+    private final Map<String, ColumnPath> paths = new ConcurrentHashMap<>();
+
+    /**
+     * A to-one association joined along an attribute path.
+     *
+     * @param path             the association path, such as <code>role</code>
+     * @param table            the table of the associated entity
+     * @param foreignKey       the join column in the table of the owning entity
+     * @param referencedColumn the column of the associated entity referenced by the join column
+     */
+    public record JoinStep(String path, String table, String foreignKey, String referencedColumn) {
+    }
+
+    /**
+     * The column of an attribute path.
+     *
+     * @param joins    the associations joined to reach the column, in path order
+     * @param column   the column
+     * @param javaType the Java type of the attribute
+     * @param enumType how an enum attribute is stored, {@code null} for other attributes
+     */
+    public record ColumnPath(List<JoinStep> joins, String column, Class<?> javaType, EnumType enumType) {
+
+        /**
+         * Converts a filter value to the value stored in the column.
+         *
+         * @param value the filter value
+         * @return the column value
+         */
+        public Object toColumn(Object value) {
+            Object converted = ValueConverter.convert(value, javaType);
+            if (converted instanceof Enum<?> constant) {
+                return enumType == EnumType.STRING ? constant.name() : constant.ordinal();
+            }
+            if (converted instanceof Character character) return character.toString();
+            return converted;
+        }
+
+        /**
+         * Converts a value read from the column to the attribute type.
+         *
+         * @param value the column value
+         * @return the attribute value
+         */
+        public Object fromColumn(Object value) {
+            if (value == null || !javaType.isEnum()) return value;
+            Object[] constants = javaType.getEnumConstants();
+            if (value instanceof Number ordinal) return constants[ordinal.intValue()];
+            return ValueConverter.convert(value.toString(), javaType);
+        }
+    }
+
+    public SqlSchema(Metamodel metamodel, Class<?> entityClass, TableMapping mapping) {
+        this.metamodel = metamodel;
+        this.entityType = metamodel.entity(entityClass);
+        this.mapping = mapping;
+        if (entityType.getSupertype() instanceof EntityType<?>)
+            throw new SpecificationBuilderException("Entity " + entityType.getName() + " inherits from another entity and can't be queried with SQL");
+        this.table = table(entityType);
+    }
+
+    /**
+     * Returns the table of the entity.
+     *
+     * @return the table
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Resolves an attribute path, such as <code>role.name</code>, to its column.
+     *
+     * @param attribute the attribute path
+     * @return the column
+     * @throws AttributeNotFoundException    if the last segment does not exist
+     * @throws JoinNotFoundException         if an intermediate segment does not exist or can't be navigated
+     * @throws SpecificationBuilderException if the path can't be mapped to a column
+     */
+    public ColumnPath resolve(String attribute) {
+        ColumnPath path = paths.get(attribute);
+        if (path == null) {
+            path = compile(attribute, false);
+            paths.putIfAbsent(attribute, path);
+        }
+        return path;
+    }
+
+    /**
+     * Resolves the to-one associations along an association path, such as <code>role</code>.
+     *
+     * @param association the association path
+     * @return the joined associations, in path order
+     * @throws JoinNotFoundException         if a segment does not exist or can't be navigated
+     * @throws SpecificationBuilderException if an association can't be joined
+     */
+    public List<JoinStep> joins(String association) {
+        return compile(association, true).joins();
+    }
+
+    private ColumnPath compile(String path, boolean association) {
+        String[] segments = path.split("\\.");
+        List<JoinStep> joins = new ArrayList<>();
+        ManagedType<?> current = entityType;
+        for (int i = 0; i < segments.length; i++) {
+            Attribute<?, ?> attribute = findAttribute(current, segments[i]);
+            boolean last = i == segments.length - 1;
+            if (attribute == null) {
+                throw last && !association
+                        ? new AttributeNotFoundException(segments[i])
+                        : new JoinNotFoundException(String.join(".", Arrays.copyOf(segments, i + 1)));
+            }
+            if (attribute.isCollection())
+                throw unsupported(path, "collections can't be queried with SQL");
+            SingularAttribute<?, ?> singular = (SingularAttribute<?, ?>) attribute;
+            if (last && !association) {
+                if (attribute.isAssociation())
+                    throw unsupported(path, "associations can only be queried through their attributes");
+                if (annotation(attribute, Convert.class) != null)
+                    throw unsupported(path, "converted attributes can't be queried with SQL");
+                Enumerated enumerated = annotation(attribute, Enumerated.class);
+                Class<?> javaType = ValueConverter.wrapper(attribute.getJavaType());
+                EnumType enumType = javaType.isEnum() ? (enumerated == null ? EnumType.ORDINAL : enumerated.value()) : null;
+                return new ColumnPath(List.copyOf(joins), column(current, attribute), javaType, enumType);
+            }
+            if (attribute.isAssociation()) {
+                EntityType<?> target = metamodel.entity(singular.getJavaType());
+                joins.add(join(String.join(".", Arrays.copyOf(segments, i + 1)), current, singular, target));
+                current = target;
+                if (last) return new ColumnPath(List.copyOf(joins), null, target.getJavaType(), null);
+            } else if (!last && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+                current = (ManagedType<?>) singular.getType();
+            } else {
+                throw new JoinNotFoundException(String.join(".", Arrays.copyOf(segments, i + 1)));
+            }
+        }
+        throw new AttributeNotFoundException(path);
+    }
+
+    private JoinStep join(String path, ManagedType<?> owner, SingularAttribute<?, ?> attribute, EntityType<?> target) {
+        OneToOne oneToOne = annotation(attribute, OneToOne.class);
+        if (oneToOne != null && !oneToOne.mappedBy().isEmpty())
+            throw unsupported(path, "associations mapped by the other side can't be joined with SQL");
+        if (annotation(attribute, JoinTable.class) != null)
+            throw unsupported(path, "associations with a join table can't be joined with SQL");
+
+        JoinColumn joinColumn = annotation(attribute, JoinColumn.class);
+        String referenced = joinColumn != null && !joinColumn.referencedColumnName().isEmpty()
+                ? mapping.naming().apply(joinColumn.referencedColumnName())
+                : idColumn(target, path);
+        String foreignKey = explicitColumn(owner, attribute);
+        if (foreignKey == null) {
+            foreignKey = mapping.naming().apply(joinColumn != null && !joinColumn.name().isEmpty()
+                    ? joinColumn.name()
+                    : attribute.getName() + "_" + referenced);
+        }
+        return new JoinStep(path, table(target), foreignKey, referenced);
+    }
+
+    private String idColumn(EntityType<?> type, String path) {
+        if (!type.hasSingleIdAttribute())
+            throw unsupported(path, "entities with a composite id can't be joined with SQL");
+        SingularAttribute<?, ?> id = type.getId(type.getIdType().getJavaType());
+        return column(type, id);
+    }
+
+    private String table(EntityType<?> type) {
+        String explicit = mapping.tables().get(type.getJavaType());
+        if (explicit != null) return explicit;
+        Table annotation = type.getJavaType().getAnnotation(Table.class);
+        String name = mapping.naming().apply(annotation != null && !annotation.name().isEmpty() ? annotation.name() : type.getName());
+        return annotation != null && !annotation.schema().isEmpty() ? mapping.naming().apply(annotation.schema()) + "." + name : name;
+    }
+
+    private String column(ManagedType<?> type, Attribute<?, ?> attribute) {
+        String explicit = explicitColumn(type, attribute);
+        if (explicit != null) return explicit;
+        Column annotation = annotation(attribute, Column.class);
+        return mapping.naming().apply(annotation != null && !annotation.name().isEmpty() ? annotation.name() : attribute.getName());
+    }
+
+    // The column given in the mapping for the attribute of the type it is read from, or of the type declaring it
+    private String explicitColumn(ManagedType<?> type, Attribute<?, ?> attribute) {
+        Map<String, String> columns = mapping.columns().get(type.getJavaType());
+        if (columns == null) columns = mapping.columns().get(attribute.getDeclaringType().getJavaType());
+        return columns == null ? null : columns.get(attribute.getName());
+    }
+
+    private static Attribute<?, ?> findAttribute(ManagedType<?> type, String name) {
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            if (attribute.getName().equals(name)) return attribute;
+        }
+        return null;
+    }
+
+    // Mapping annotations are placed on the field or on the getter, depending on the access type
+    private static <A extends Annotation> A annotation(Attribute<?, ?> attribute, Class<A> annotationType) {
+        Member member = attribute.getJavaMember();
+        if (member instanceof AnnotatedElement element && element.isAnnotationPresent(annotationType)) {
+            return element.getAnnotation(annotationType);
+        }
+        Class<?> declaringClass = attribute.getDeclaringType().getJavaType();
+        if (member instanceof Method) {
+            for (Class<?> type = declaringClass; type != null && type != Object.class; type = type.getSuperclass()) {
+                try {
+                    Field field = type.getDeclaredField(attribute.getName());
+                    return field.getAnnotation(annotationType);
+                } catch (NoSuchFieldException e) {
+                    // declared in a superclass
+                }
+            }
+        }
+        return null;
+    }
+
+    private static SpecificationBuilderException unsupported(String path, String reason) {
+        return new SpecificationBuilderException("Attribute '" + path + "' can't be mapped to a column: " + reason);
+    }
+}
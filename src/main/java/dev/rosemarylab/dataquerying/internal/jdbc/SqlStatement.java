@@ -0,0 +1,33 @@
+package dev.rosemarylab.dataquerying.internal.jdbc;
+
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A parameterized SQL statement and the values of its parameters.
+ *
+ * @param sql        the SQL, with a <code>?</code> per parameter
+ * @param parameters the values of the parameters
+ * @param maxRows    the maximum number of rows read, <code>0</code> for no limit
+ */
+public record SqlStatement(String sql, List<Object> parameters, int maxRows) implements PreparedStatementCreator, SqlProvider {
+
+    @Override
+    public PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        new ArgumentPreparedStatementSetter(parameters.toArray()).setValues(statement);
+        if (maxRows > 0) statement.setMaxRows(maxRows);
+        return statement;
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+}
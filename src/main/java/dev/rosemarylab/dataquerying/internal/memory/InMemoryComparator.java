@@ -0,0 +1,88 @@
+package dev.rosemarylab.dataquerying.internal.memory;
+
+import dev.rosemarylab.dataquerying.api.Relevance;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Builds a {@link Comparator} from a {@link Sort}, ordering Java objects as the database orders the entities.
+ * <p>Each order reads its property through a {@link PropertyAccessor}, or computes the {@link Relevance} of an
+ * attribute as the default dialect does. {@code null} values come first in ascending order and last in descending
+ * order, unless the order asks otherwise, and orders marked to ignore case compare strings case-insensitively.</p>
+ */
+public class InMemoryComparator {
+    private InMemoryComparator() {
+    }
+
+    /**
+     * Creates the comparator of a sort.
+     *
+     * @param sort the sort, {@code null} or unsorted for no order
+     * @param <T>  the type of the compared objects
+     * @return the comparator, treating every object as equal if the sort has no order
+     */
+    public static <T> Comparator<T> of(Sort sort) {
+        return of(sort, attribute -> PropertyAccessor.of(attribute)::value);
+    }
+
+    /**
+     * Creates the comparator of a sort, reading the properties of the compared objects with the given function.
+     *
+     * @param sort  the sort, {@code null} or unsorted for no order
+     * @param paths returns, for an attribute path, the function giving the value of the path on a compared object
+     * @param <T>   the type of the compared objects
+     * @return the comparator, treating every object as equal if the sort has no order
+     */
+    public static <T> Comparator<T> of(Sort sort, Function<String, Function<Object, Object>> paths) {
+        Comparator<Object> comparator = (left, right) -> 0;
+        if (sort == null) return cast(comparator);
+        InMemoryPredicateVisitor visitor = new InMemoryPredicateVisitor();
+        for (Sort.Order order : sort) {
+            comparator = comparator.thenComparing(order(order, visitor, paths));
+        }
+        return cast(comparator);
+    }
+
+    private static Comparator<Object> order(Sort.Order order, InMemoryPredicateVisitor visitor, Function<String, Function<Object, Object>> paths) {
+        Function<Object, Object> key;
+        String[] relevance = Relevance.parse(order.getProperty());
+        if (relevance != null) {
+            Function<Object, Object> accessor = paths.apply(relevance[0]);
+            key = object -> visitor.relevance(accessor.apply(object), relevance[1]);
+        } else {
+            key = paths.apply(order.getProperty());
+        }
+
+        Comparator<Object> values = order.isIgnoreCase() ? InMemoryComparator::compareIgnoreCase : InMemoryComparator::compare;
+        if (order.isDescending()) values = values.reversed();
+        boolean nullsFirst = switch (order.getNullHandling()) {
+            case NULLS_FIRST -> true;
+            case NULLS_LAST -> false;
+            case NATIVE -> order.isAscending();
+        };
+        return Comparator.comparing(key, nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object left, Object right) {
+        if (left instanceof Number number && right instanceof Number other && left.getClass() != right.getClass()) {
+            return new BigDecimal(number.toString()).compareTo(new BigDecimal(other.toString()));
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private static int compareIgnoreCase(Object left, Object right) {
+        if (left instanceof String text && right instanceof String other) {
+            return String.CASE_INSENSITIVE_ORDER.compare(text, other);
+        }
+        return compare(left, right);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<T> cast(Comparator<Object> comparator) {
+        return (Comparator<T>) (Comparator<?>) comparator;
+    }
+}
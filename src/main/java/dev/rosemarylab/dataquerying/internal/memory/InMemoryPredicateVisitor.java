@@ -0,0 +1,283 @@
+package dev.rosemarylab.dataquerying.internal.memory;
+
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.QueryVisitor;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import dev.rosemarylab.dataquerying.internal.utils.ValueConverter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles a query into a {@link Predicate} evaluated on Java objects, with the semantics of the predicate
+ * {@link SpecificationEngine} builds for the database.
+ * <p>As in SQL, a comparison with a {@code null} attribute is not satisfied, other than <code>EQ null</code> and
+ * <code>NOT_EQ null</code>, and a path through a collection is satisfied when any element satisfies it, as with a join.
+ * Filter values are converted to the type of the attribute, as {@link ValueConverter} does for validated requests, and
+ * numbers of different types are compared by value. The case-insensitive operators fold both sides with
+ * {@link QueryDialect#foldCase(String)} of the visitor's dialect, {@link QueryDialect#LOWER_CASE} unless one is given,
+ * and {@link SearchOperator#FULL_TEXT} matches every word of the query, as the default dialect does.</p>
+ */
+public class InMemoryPredicateVisitor implements QueryVisitor<Predicate<Object>> {
+    private final Function<String, Function<Object, List<Object>>> paths;
+    private final QueryDialect dialect;
+
+    /**
+     * Creates a visitor reading the attributes of the evaluated objects with {@link PropertyAccessor}.
+     */
+    public InMemoryPredicateVisitor() {
+        this(attribute -> PropertyAccessor.of(attribute)::values);
+    }
+
+    /**
+     * Creates a visitor reading the attributes of the evaluated objects with the given function.
+     *
+     * @param paths returns, for an attribute path, the function giving the values of the path on an evaluated object
+     */
+    public InMemoryPredicateVisitor(Function<String, Function<Object, List<Object>>> paths) {
+        this(paths, QueryDialect.LOWER_CASE);
+    }
+
+    /**
+     * Creates a visitor reading the attributes of the evaluated objects with the given function, and folding the case
+     * of the case-insensitive operators with the given dialect.
+     *
+     * @param paths   returns, for an attribute path, the function giving the values of the path on an evaluated object
+     * @param dialect the dialect folding the case of the compared strings
+     */
+    public InMemoryPredicateVisitor(Function<String, Function<Object, List<Object>>> paths, QueryDialect dialect) {
+        this.paths = paths;
+        this.dialect = dialect;
+    }
+
+    @Override
+    public Predicate<Object> visitAnd(List<Predicate<Object>> operands) {
+        if (operands.isEmpty()) return object -> true;
+        if (operands.size() == 1) return operands.get(0);
+        List<Predicate<Object>> predicates = List.copyOf(operands);
+        return object -> {
+            for (Predicate<Object> predicate : predicates) {
+                if (!predicate.test(object)) return false;
+            }
+            return true;
+        };
+    }
+
+    @Override
+    public Predicate<Object> visitOr(List<Predicate<Object>> operands) {
+        if (operands.isEmpty()) return object -> true;
+        if (operands.size() == 1) return operands.get(0);
+        List<Predicate<Object>> predicates = List.copyOf(operands);
+        return object -> {
+            for (Predicate<Object> predicate : predicates) {
+                if (predicate.test(object)) return true;
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public Predicate<Object> visitComparison(String attribute, SearchOperator operator, Object value) {
+        Function<Object, List<Object>> accessor = paths.apply(attribute);
+        if (value == null) {
+            boolean isNull = operator == SearchOperator.EQ;
+            return object -> accessor.apply(object).stream().anyMatch(actual -> (actual == null) == isNull);
+        }
+        Operand operand = new Operand(value);
+        Predicate<Object> test = switch (operator) {
+            case EQ -> actual -> valueEquals(actual, operand);
+            case NOT_EQ -> actual -> !valueEquals(actual, operand);
+            case GT -> actual -> compare(actual, operand) > 0;
+            case GTE -> actual -> compare(actual, operand) >= 0;
+            case LT -> actual -> compare(actual, operand) < 0;
+            case LTE -> actual -> compare(actual, operand) <= 0;
+            case EQ_IGNORE_CASE -> {
+                String folded = dialect.foldCase(text(operator, value));
+                yield actual -> dialect.foldCase(asText(actual)).equals(folded);
+            }
+            default -> throw new SpecificationBuilderException(operator + " is not a comparison");
+        };
+        return matching(accessor, test);
+    }
+
+    @Override
+    public Predicate<Object> visitIn(String attribute, Collection<?> values) {
+        List<Operand> operands = values.stream().map(Operand::new).toList();
+        return matching(paths.apply(attribute), actual -> {
+            for (Operand operand : operands) {
+                if (valueEquals(actual, operand)) return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public Predicate<Object> visitBetween(String attribute, Object lower, Object upper) {
+        Operand lowerBound = new Operand(lower);
+        Operand upperBound = new Operand(upper);
+        return matching(paths.apply(attribute), actual -> compare(actual, lowerBound) >= 0 && compare(actual, upperBound) <= 0);
+    }
+
+    @Override
+    public Predicate<Object> visitLike(String attribute, SearchOperator operator, String value) {
+        Predicate<String> test = switch (operator) {
+            case LIKE -> text -> text.contains(value);
+            case NOT_LIKE -> text -> !text.contains(value);
+            case STARTS_WITH -> text -> text.startsWith(value);
+            case ENDS_WITH -> text -> text.endsWith(value);
+            case MATCHES -> {
+                Pattern pattern = likePattern(value);
+                yield text -> pattern.matcher(text).matches();
+            }
+            case LIKE_IGNORE_CASE -> {
+                String folded = dialect.foldCase(value);
+                yield text -> dialect.foldCase(text).contains(folded);
+            }
+            case STARTS_WITH_IGNORE_CASE -> {
+                String folded = dialect.foldCase(value);
+                yield text -> dialect.foldCase(text).startsWith(folded);
+            }
+            case FULL_TEXT -> {
+                List<String> words = words(value);
+                yield text -> {
+                    String folded = dialect.foldCase(text);
+                    return words.stream().allMatch(folded::contains);
+                };
+            }
+            default -> throw new SpecificationBuilderException(operator + " is not a text operator");
+        };
+        return matching(paths.apply(attribute), actual -> test.test(asText(actual)));
+    }
+
+    @Override
+    public Predicate<Object> visitNone() {
+        return object -> false;
+    }
+
+    /**
+     * Counts the words of a full-text query found in a value, the relevance the default dialect computes.
+     *
+     * @param actual the attribute value, may be {@code null}
+     * @param query  the full-text query
+     * @return the number of words found
+     */
+    public int relevance(Object actual, String query) {
+        if (actual == null) return 0;
+        String folded = dialect.foldCase(asText(actual));
+        int found = 0;
+        for (String word : words(query)) {
+            if (folded.contains(word)) found++;
+        }
+        return found;
+    }
+
+    // Satisfied when a non-null value of the path passes the test
+    private static Predicate<Object> matching(Function<Object, List<Object>> accessor, Predicate<Object> test) {
+        return object -> {
+            for (Object actual : accessor.apply(object)) {
+                if (actual != null && test.test(actual)) return true;
+            }
+            return false;
+        };
+    }
+
+    private List<String> words(String query) {
+        List<String> words = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (!word.isEmpty()) words.add(dialect.foldCase(word));
+        }
+        return words;
+    }
+
+    private static String text(SearchOperator operator, Object value) {
+        if (!(value instanceof String text)) {
+            throw new SpecificationBuilderException(operator + " operator requires a String value");
+        }
+        return text;
+    }
+
+    // A non-string attribute is compared by its text, as the database casts it
+    private static String asText(Object actual) {
+        return actual instanceof String text ? text : String.valueOf(actual);
+    }
+
+    // Translates a LIKE pattern, '%' matching any text and '_' any character
+    private static Pattern likePattern(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '%' || c == '_') {
+                if (!literal.isEmpty()) regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) regex.append(Pattern.quote(literal.toString()));
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static boolean valueEquals(Object actual, Operand operand) {
+        Object value = operand.as(actual.getClass());
+        if (actual instanceof Number number && value instanceof Number other) {
+            return decimal(number).compareTo(decimal(other)) == 0;
+        }
+        return Objects.equals(actual, value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object actual, Operand operand) {
+        Object value = operand.as(actual.getClass());
+        if (actual instanceof Number number && value instanceof Number other) {
+            return decimal(number).compareTo(decimal(other));
+        }
+        if (actual instanceof Comparable comparable && actual.getClass().isInstance(value)) {
+            return comparable.compareTo(value);
+        }
+        throw new SpecificationBuilderException("Cannot compare " + actual.getClass().getSimpleName() + " with " + value);
+    }
+
+    private static BigDecimal decimal(Number number) {
+        return number instanceof BigDecimal decimal ? decimal : new BigDecimal(number.toString());
+    }
+
+    /**
+     * A filter value, converted once to the type of the attribute it is compared with.
+     */
+    private static final class Operand {
+        private final Object value;
+        private volatile Converted converted;
+
+        private record Converted(Class<?> type, Object value) {
+        }
+
+        private Operand(Object value) {
+            this.value = value;
+        }
+
+        private Object as(Class<?> type) {
+            Converted current = converted;
+            if (current == null || current.type() != type) {
+                Object convertedValue;
+                try {
+                    convertedValue = ValueConverter.convert(value, type);
+                } catch (IllegalArgumentException e) {
+                    convertedValue = value;
+                }
+                current = new Converted(type, convertedValue);
+                converted = current;
+            }
+            return current.value();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package dev.rosemarylab.dataquerying.internal.memory;
+
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads attribute paths such as <code>role.name</code> from Java objects, the way a JPA path navigates the entity.
+ * <p>Each property of a class is read through a {@link MethodHandle} resolved once and cached per class: the public
+ * getter (<code>getName</code>, <code>isActive</code> or the record accessor) if there is one, so lazy proxies are
+ * initialized as they are by the application, otherwise the field.</p>
+ */
+public class PropertyAccessor {
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Map<String, MethodHandle>> HANDLES = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final String attribute;
+    private final String[] segments;
+
+    private PropertyAccessor(String attribute) {
+        this.attribute = attribute;
+        this.segments = attribute.split("\\.");
+    }
+
+    /**
+     * Creates the accessor of an attribute path.
+     *
+     * @param attribute the attribute path, segments separated by dots
+     * @return the accessor
+     */
+    public static PropertyAccessor of(String attribute) {
+        if (attribute == null || attribute.isEmpty()) throw new AttributeNotFoundException(attribute);
+        return new PropertyAccessor(attribute);
+    }
+
+    /**
+     * Returns the values of the path on an object. A collection along the path contributes each of its elements, as a
+     * join does; a {@code null} along the path gives a {@code null} value, as a left join does.
+     *
+     * @param object the object the path starts from
+     * @return the values, never empty unless a collection along the path is empty
+     */
+    public List<Object> values(Object object) {
+        List<Object> current = List.of(object);
+        for (String segment : segments) {
+            List<Object> next = new ArrayList<>(current.size());
+            for (Object value : current) {
+                Object property = value == null ? null : read(value, segment);
+                if (property instanceof Collection<?> elements) {
+                    next.addAll(elements);
+                } else {
+                    next.add(property);
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the first value of the path on an object, see {@link #values(Object)}.
+     *
+     * @param object the object the path starts from
+     * @return the value, {@code null} if there is none
+     */
+    public Object value(Object object) {
+        Object current = object;
+        for (String segment : segments) {
+            if (current == null) return null;
+            current = read(current, segment);
+            if (current instanceof Collection<?> elements) {
+                current = elements.isEmpty() ? null : elements.iterator().next();
+            }
+        }
+        return current;
+    }
+
+    private Object read(Object object, String property) {
+        MethodHandle handle = HANDLES.get(object.getClass()).computeIfAbsent(property, name -> resolve(object.getClass(), name));
+        try {
+            return (Object) handle.invokeExact(object);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SpecificationBuilderException("Failed to read attribute '" + attribute + "': " + e.getMessage());
+        }
+    }
+
+    private MethodHandle resolve(Class<?> type, String property) {
+        try {
+            Method getter = getter(type, property);
+            if (getter != null) {
+                return MethodHandles.publicLookup().unreflect(getter).asType(ACCESSOR_TYPE);
+            }
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (field.getName().equals(property) && !Modifier.isStatic(field.getModifiers())) {
+                        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(current, MethodHandles.lookup());
+                        return lookup.unreflectGetter(field).asType(ACCESSOR_TYPE);
+                    }
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new SpecificationBuilderException("Attribute '" + attribute + "' is not accessible: " + e.getMessage());
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    private static Method getter(Class<?> type, String property) {
+        String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        Method method = publicMethod(type, "get" + capitalized);
+        if (method == null) {
+            method = publicMethod(type, "is" + capitalized);
+            if (method != null && method.getReturnType() != boolean.class && method.getReturnType() != Boolean.class) method = null;
+        }
+        if (method == null && type.isRecord()) {
+            method = publicMethod(type, property);
+        }
+        // A public method of a non-public class, e.g. a package-private entity, is read through the field
+        if (method == null || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) return null;
+        return method;
+    }
+
+    private static Method publicMethod(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            return method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
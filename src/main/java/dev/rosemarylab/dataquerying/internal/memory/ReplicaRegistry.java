@@ -0,0 +1,100 @@
+package dev.rosemarylab.dataquerying.internal.memory;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link ReplicaTable}s of a projection factory, one per entity class. Only the projections of that factory answer
+ * from them, so replicas registered by another application context sharing the JVM are never read.
+ * <p>The changes of a Spring managed transaction reach the replica once it commits, so a rolled back transaction
+ * leaves it untouched. Meanwhile, the replica doesn't see the transaction's own changes, so queries of a read-write
+ * transaction don't use it.</p>
+ */
+public class ReplicaRegistry {
+    private final Map<Class<?>, ReplicaTable<?>> replicas = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a replica, replacing the replica of the same entity class.
+     *
+     * @param replica the replica
+     */
+    public void register(ReplicaTable<?> replica) {
+        replicas.put(replica.getEntityClass(), replica);
+    }
+
+    /**
+     * Returns the replica registered for an entity class, to answer a query.
+     *
+     * @param entityClass the entity class
+     * @param <T>         the entity type
+     * @return the replica, or {@code null} if none is registered, it is closed or the current transaction is read-write
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ReplicaTable<T> find(Class<T> entityClass) {
+        if (replicas.isEmpty()) return null;
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return null;
+        return (ReplicaTable<T>) open(entityClass);
+    }
+
+    /**
+     * Refreshes the row of an entity in the replica of its class, if one is registered, once the current transaction
+     * commits. The row is read immediately, as the entity may change until then.
+     *
+     * @param entity the entity
+     */
+    public void refresh(Object entity) {
+        ReplicaTable<?> replica = replicaOf(entity);
+        if (replica == null) return;
+        Object[] row = replica.row(entity);
+        afterCommit(() -> replica.refreshRow(row));
+    }
+
+    /**
+     * Removes the row of an entity from the replica of its class, if one is registered, once the current transaction
+     * commits.
+     *
+     * @param entity the entity
+     */
+    public void remove(Object entity) {
+        ReplicaTable<?> replica = replicaOf(entity);
+        if (replica == null) return;
+        Object id = replica.id(entity);
+        afterCommit(() -> replica.removeRow(id));
+    }
+
+    // Applies the change when the transaction commits, or immediately outside of a transaction
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    // Proxies and subclasses of an entity are replicated by the replica of the entity
+    private ReplicaTable<?> replicaOf(Object entity) {
+        if (entity == null || replicas.isEmpty()) return null;
+        for (Class<?> type = entity.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            ReplicaTable<?> replica = open(type);
+            if (replica != null) return replica;
+        }
+        return null;
+    }
+
+    // The replica of a class, a closed replica being dropped
+    private ReplicaTable<?> open(Class<?> entityClass) {
+        ReplicaTable<?> replica = replicas.get(entityClass);
+        if (replica == null || !replica.isClosed()) return replica;
+        replicas.remove(entityClass, replica);
+        return null;
+    }
+}
@@ -0,0 +1,592 @@
+package dev.rosemarylab.dataquerying.internal.memory;
+
+import dev.rosemarylab.dataquerying.api.EntityReplica;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.Relevance;
+import dev.rosemarylab.dataquerying.api.QueryVisitor;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import dev.rosemarylab.dataquerying.internal.utils.ValueConverter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Default implementation of {@link EntityReplica}.
+ *
+ * <p>Rows are stored in slots, reused once their entity is removed, and a live bitmap marks the occupied slots. Each
+ * column keeps a bitmap of its {@code null} rows, a bitmap per value while it has at most
+ * {@value #BITMAP_CARDINALITY} distinct values, and, for comparable values, its slots ordered by value in a tree, each
+ * change updating the entries of its own row. Filters the indexes can't answer are evaluated on every live row with the
+ * semantics of {@link InMemoryPredicateVisitor}.</p>
+ *
+ * <p>Reads share a read lock and see a consistent table; changes take the write lock. A reload reads the rows without
+ * the lock, so queries keep being answered meanwhile, and replays the changes applied during the read once the new rows
+ * are in place, so a commit refreshing a row while the reload runs isn't undone by older data.</p>
+ *
+ * @param <T> the entity type
+ */
+public class ReplicaTable<T> implements EntityReplica<T> {
+    static final int BITMAP_CARDINALITY = 1024;
+
+    private final EntityManager entityManager;
+    private final Class<T> entityClass;
+    private final List<String> attributes;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final Class<?>[] types;
+    private final PropertyAccessor[] accessors;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Object[]> rows = new ArrayList<>();
+    private final Map<Object, Integer> slots = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final List<ColumnIndex> indexes = new ArrayList<>();
+    private volatile boolean closed;
+    // Serializes the reloads
+    private final Object loading = new Object();
+    // The changes applied while a reload reads the rows, null otherwise, guarded by the write lock
+    private List<Runnable> changesDuringLoad;
+
+    /**
+     * The rows selected by a query.
+     *
+     * @param rows  the values of the selected attributes of each row, in sort order
+     * @param total the number of rows matching the query
+     */
+    public record Result(List<Map<String, Object>> rows, long total) {
+    }
+
+    public ReplicaTable(EntityManager entityManager, Class<T> entityClass, String... attributes) {
+        if (entityManager == null || entityClass == null)
+            throw new IllegalArgumentException("Entity manager and entity class cannot be null.");
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+
+        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        if (!entityType.hasSingleIdAttribute())
+            throw new SpecificationBuilderException("Entity " + entityClass.getSimpleName() + " must have a single id attribute to be replicated");
+        LinkedHashSet<String> replicated = new LinkedHashSet<>();
+        replicated.add(entityType.getId(entityType.getIdType().getJavaType()).getName());
+        replicated.addAll(Arrays.asList(attributes));
+        this.attributes = List.copyOf(replicated);
+
+        this.types = new Class<?>[this.attributes.size()];
+        this.accessors = new PropertyAccessor[this.attributes.size()];
+        for (int column = 0; column < this.attributes.size(); column++) {
+            String attribute = this.attributes.get(column);
+            Class<?> type = SpecificationEngine.attributeType(entityType, attribute);
+            if (type == null) throw new AttributeNotFoundException(attribute);
+            columns.put(attribute, column);
+            types[column] = type;
+            accessors[column] = PropertyAccessor.of(attribute);
+            indexes.add(new ColumnIndex(column));
+        }
+        load();
+    }
+
+    @Override
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void reload() {
+        load();
+    }
+
+    @Override
+    public void refresh(T entity) {
+        refreshEntity(entity);
+    }
+
+    @Override
+    public void remove(T entity) {
+        removeEntity(entity);
+    }
+
+    private void load() {
+        synchronized (loading) {
+            List<Tuple> tuples;
+            lock.writeLock().lock();
+            try {
+                changesDuringLoad = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                tuples = read();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    changesDuringLoad = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                rows.clear();
+                slots.clear();
+                live.clear();
+                freeSlots.clear();
+                for (int column = 0; column < indexes.size(); column++) {
+                    indexes.set(column, new ColumnIndex(column));
+                }
+                for (Tuple tuple : tuples) {
+                    put(tuple.toArray());
+                }
+                // The read may predate these changes
+                changesDuringLoad.forEach(Runnable::run);
+            } finally {
+                changesDuringLoad = null;
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private List<Tuple> read() {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<T> root = criteriaQuery.from(entityClass);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String attribute : attributes) {
+            selections.add(SpecificationEngine.resolvePath(root, attribute));
+        }
+        criteriaQuery.select(criteriaBuilder.tuple(selections.toArray(new Selection<?>[0])));
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+
+    void refreshEntity(Object entity) {
+        refreshRow(row(entity));
+    }
+
+    void removeEntity(Object entity) {
+        removeRow(id(entity));
+    }
+
+    // The replicated values of an entity, or null if it has no id yet
+    Object[] row(Object entity) {
+        Object[] row = new Object[attributes.size()];
+        for (int column = 0; column < row.length; column++) {
+            row[column] = accessors[column].value(entity);
+        }
+        return row[0] == null ? null : row;
+    }
+
+    Object id(Object entity) {
+        return accessors[0].value(entity);
+    }
+
+    void refreshRow(Object[] row) {
+        if (row == null) return;
+        apply(() -> put(row));
+    }
+
+    void removeRow(Object id) {
+        if (id == null) return;
+        apply(() -> {
+            Integer slot = slots.remove(key(id));
+            if (slot != null) clear(slot);
+        });
+    }
+
+    // Applies a change, and records it to be replayed if a reload is reading the rows
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (changesDuringLoad != null) changesDuringLoad.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Selects the rows matching a query.
+     *
+     * @param query      the query, {@code null} for every row
+     * @param sort       the sort, may be {@code null}
+     * @param attributes the attributes to return for each selected row
+     * @param offset     the number of matching rows to skip
+     * @param limit      the maximum number of rows to return, {@code -1} for no limit
+     * @param dialect    the dialect folding the case of the case-insensitive filters
+     * @return the selected rows, or {@code null} if the query, the sort or the attributes refer to an attribute that
+     * isn't replicated, or the query can't be evaluated in memory
+     */
+    public Result select(Query<?> query, Sort sort, Collection<String> attributes, long offset, int limit, QueryDialect dialect) {
+        lock.readLock().lock();
+        try {
+            int[] selected = new int[attributes.size()];
+            String[] names = attributes.toArray(new String[0]);
+            for (int i = 0; i < names.length; i++) {
+                selected[i] = column(names[i]);
+                if (selected[i] < 0) return null;
+            }
+            if (!replicates(sort)) return null;
+            BitSet matching = query == null ? (BitSet) live.clone() : query.accept(new ReplicaVisitor(dialect));
+            if (matching == null) return null;
+            Comparator<Object> comparator = sort == null || sort.isUnsorted() ? null : InMemoryComparator.of(sort, this::cellReader);
+
+            long total = matching.cardinality();
+            if (limit == 0 || offset >= total) return new Result(List.of(), total);
+            List<Integer> ordered = new ArrayList<>((int) total);
+            matching.stream().forEach(ordered::add);
+            if (comparator != null) ordered.sort(comparator);
+
+            int from = (int) offset;
+            int to = limit < 0 ? ordered.size() : (int) Math.min(ordered.size(), offset + limit);
+            List<Map<String, Object>> result = new ArrayList<>(to - from);
+            for (int slot : ordered.subList(from, to)) {
+                Object[] row = rows.get(slot);
+                Map<String, Object> values = new LinkedHashMap<>();
+                for (int i = 0; i < names.length; i++) {
+                    values.put(names[i], row[selected[i]]);
+                }
+                result.add(values);
+            }
+            return new Result(result, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Adds or replaces the row of its id, the first value
+    private void put(Object[] row) {
+        Object id = key(row[0]);
+        Integer slot = slots.get(id);
+        if (slot != null) {
+            unindex(slot);
+        } else {
+            slot = freeSlots.isEmpty() ? rows.size() : freeSlots.pop();
+            slots.put(id, slot);
+        }
+        if (slot == rows.size()) {
+            rows.add(row);
+        } else {
+            rows.set(slot, row);
+        }
+        live.set(slot);
+        for (ColumnIndex index : indexes) {
+            index.add(slot, row[index.column]);
+        }
+    }
+
+    private void clear(int slot) {
+        unindex(slot);
+        rows.set(slot, null);
+        live.clear(slot);
+        freeSlots.push(slot);
+    }
+
+    private void unindex(int slot) {
+        Object[] row = rows.get(slot);
+        for (ColumnIndex index : indexes) {
+            index.remove(slot, row[index.column]);
+        }
+    }
+
+    // The column of an attribute, or -1 if it isn't replicated
+    private int column(String attribute) {
+        return columns.getOrDefault(attribute, -1);
+    }
+
+    // Whether every sorted attribute is replicated, relevance orders reading their text attribute
+    private boolean replicates(Sort sort) {
+        if (sort == null) return true;
+        for (Sort.Order order : sort) {
+            String[] relevance = Relevance.parse(order.getProperty());
+            if (column(relevance != null ? relevance[0] : order.getProperty()) < 0) return false;
+        }
+        return true;
+    }
+
+    private Function<Object, Object> cellReader(String attribute) {
+        int column = column(attribute);
+        return slot -> rows.get((Integer) slot)[column];
+    }
+
+    // BigDecimals equal in value are the same key, as they are the same value in the database
+    private static Object key(Object value) {
+        return value instanceof BigDecimal decimal ? decimal.stripTrailingZeros() : value;
+    }
+
+    /**
+     * The indexes of a column.
+     */
+    private final class ColumnIndex {
+        private final int column;
+        private final BitSet nulls = new BitSet();
+        private Map<Object, BitSet> bitmaps = new HashMap<>();
+        // The slots of each value, sorted, or null if the values aren't comparable
+        private final NavigableMap<Object, int[]> slotsByValue;
+
+        private ColumnIndex(int column) {
+            this.column = column;
+            this.slotsByValue = Comparable.class.isAssignableFrom(ValueConverter.wrapper(types[column])) ? new TreeMap<>() : null;
+        }
+
+        private void add(int slot, Object value) {
+            if (value == null) {
+                nulls.set(slot);
+                return;
+            }
+            if (bitmaps != null) {
+                bitmaps.computeIfAbsent(key(value), k -> new BitSet()).set(slot);
+                // Beyond the cardinality limit the bitmaps cost more than scanning the rows
+                if (bitmaps.size() > BITMAP_CARDINALITY) bitmaps = null;
+            }
+            if (slotsByValue != null) {
+                slotsByValue.merge(key(value), new int[]{slot}, (slots, added) -> {
+                    int position = -Arrays.binarySearch(slots, slot) - 1;
+                    if (position < 0) return slots;
+                    int[] merged = new int[slots.length + 1];
+                    System.arraycopy(slots, 0, merged, 0, position);
+                    merged[position] = slot;
+                    System.arraycopy(slots, position, merged, position + 1, slots.length - position);
+                    return merged;
+                });
+            }
+        }
+
+        private void remove(int slot, Object value) {
+            if (value == null) {
+                nulls.clear(slot);
+                return;
+            }
+            if (bitmaps != null) {
+                Object key = key(value);
+                BitSet bitmap = bitmaps.get(key);
+                if (bitmap != null) {
+                    bitmap.clear(slot);
+                    if (bitmap.isEmpty()) bitmaps.remove(key);
+                }
+            }
+            if (slotsByValue != null) {
+                // A null result removes the value
+                slotsByValue.computeIfPresent(key(value), (key, slots) -> {
+                    int position = Arrays.binarySearch(slots, slot);
+                    if (position < 0) return slots;
+                    if (slots.length == 1) return null;
+                    int[] remaining = new int[slots.length - 1];
+                    System.arraycopy(slots, 0, remaining, 0, position);
+                    System.arraycopy(slots, position + 1, remaining, position, remaining.length - position);
+                    return remaining;
+                });
+            }
+        }
+
+        // The rows equal to the value, or null if the column has no bitmaps
+        private BitSet equal(Object value) {
+            if (bitmaps == null) return null;
+            BitSet bitmap = bitmaps.get(key(value));
+            return bitmap == null ? new BitSet() : (BitSet) bitmap.clone();
+        }
+
+        // The rows within the bounds, a null bound being open, or null if the column isn't comparable
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private BitSet range(Comparable lower, boolean lowerInclusive, Comparable upper, boolean upperInclusive) {
+            if (slotsByValue == null) return null;
+            BitSet result = new BitSet();
+            NavigableMap<Object, int[]> values;
+            if (lower != null && upper != null) {
+                if (lower.compareTo(upper) > 0) return result;
+                values = slotsByValue.subMap(key(lower), lowerInclusive, key(upper), upperInclusive);
+            } else if (lower != null) {
+                values = slotsByValue.tailMap(key(lower), lowerInclusive);
+            } else if (upper != null) {
+                values = slotsByValue.headMap(key(upper), upperInclusive);
+            } else {
+                values = slotsByValue;
+            }
+            for (int[] slots : values.values()) {
+                for (int slot : slots) {
+                    result.set(slot);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Evaluates a query into the bitmap of its matching rows, or {@code null} if the replica can't evaluate it, e.g.
+     * because it filters an attribute that isn't replicated. An AND or OR with a {@code null} operand is {@code null}.
+     */
+    private final class ReplicaVisitor implements QueryVisitor<BitSet> {
+        private final InMemoryPredicateVisitor scanVisitor;
+        private boolean unsupportedJoin;
+
+        private ReplicaVisitor(QueryDialect dialect) {
+            scanVisitor = new InMemoryPredicateVisitor(attribute -> {
+                int column = column(attribute);
+                return slot -> Collections.singletonList(rows.get((Integer) slot)[column]);
+            }, dialect);
+        }
+
+        @Override
+        public BitSet visitAnd(List<BitSet> operands) {
+            if (unsupportedJoin) return null;
+            BitSet result = (BitSet) live.clone();
+            for (BitSet operand : operands) {
+                if (operand == null) return null;
+                result.and(operand);
+            }
+            return result;
+        }
+
+        @Override
+        public BitSet visitOr(List<BitSet> operands) {
+            if (unsupportedJoin) return null;
+            if (operands.isEmpty()) return (BitSet) live.clone();
+            BitSet result = new BitSet();
+            for (BitSet operand : operands) {
+                if (operand == null) return null;
+                result.or(operand);
+            }
+            return result;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public BitSet visitComparison(String attribute, SearchOperator operator, Object value) {
+            ColumnIndex index = index(attribute);
+            if (index == null) return null;
+            if (value == null) {
+                // A nested filter joins the association with an INNER join, which also drops the rows without it
+                if (attribute.indexOf('.') >= 0) return null;
+                if (operator == SearchOperator.EQ) return (BitSet) index.nulls.clone();
+                return notNull(index);
+            }
+            Object converted = convert(index, value);
+            BitSet result = converted == null ? null : switch (operator) {
+                case EQ -> index.equal(converted);
+                case NOT_EQ -> {
+                    BitSet equal = index.equal(converted);
+                    if (equal == null) yield null;
+                    BitSet notEqual = notNull(index);
+                    notEqual.andNot(equal);
+                    yield notEqual;
+                }
+                case GT -> index.range((Comparable) converted, false, null, false);
+                case GTE -> index.range((Comparable) converted, true, null, false);
+                case LT -> index.range(null, false, (Comparable) converted, false);
+                case LTE -> index.range(null, false, (Comparable) converted, true);
+                default -> null;
+            };
+            return result != null ? result : scan(scanVisitor.visitComparison(attribute, operator, value));
+        }
+
+        @Override
+        public BitSet visitIn(String attribute, Collection<?> values) {
+            ColumnIndex index = index(attribute);
+            if (index == null) return null;
+            BitSet result = new BitSet();
+            for (Object value : values) {
+                Object converted = value == null ? null : convert(index, value);
+                BitSet equal = converted == null ? null : index.equal(converted);
+                if (equal == null) return scan(scanVisitor.visitIn(attribute, values));
+                result.or(equal);
+            }
+            return result;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public BitSet visitBetween(String attribute, Object lower, Object upper) {
+            ColumnIndex index = index(attribute);
+            if (index == null) return null;
+            Object lowerBound = lower == null ? null : convert(index, lower);
+            Object upperBound = upper == null ? null : convert(index, upper);
+            BitSet result = lowerBound == null || upperBound == null ? null
+                    : index.range((Comparable) lowerBound, true, (Comparable) upperBound, true);
+            return result != null ? result : scan(scanVisitor.visitBetween(attribute, lower, upper));
+        }
+
+        @Override
+        public BitSet visitLike(String attribute, SearchOperator operator, String value) {
+            return column(attribute) < 0 ? null : scan(scanVisitor.visitLike(attribute, operator, value));
+        }
+
+        @Override
+        public BitSet visitNone() {
+            return new BitSet();
+        }
+
+        @Override
+        public BitSet visitSpecification(Specification<?> specification) {
+            return null;
+        }
+
+        @Override
+        public void visitJoin(String attribute, JoinType joinType) {
+            // Rows are never duplicated, but an INNER join drops the rows without the association
+            if (joinType != JoinType.LEFT) unsupportedJoin = true;
+        }
+
+        // The indexes of the column of an attribute, or null if it isn't replicated
+        private ColumnIndex index(String attribute) {
+            int column = column(attribute);
+            return column < 0 ? null : indexes.get(column);
+        }
+
+        private BitSet notNull(ColumnIndex index) {
+            BitSet result = (BitSet) live.clone();
+            result.andNot(index.nulls);
+            return result;
+        }
+
+        // The value converted to the type of the column, or null if it doesn't convert and the rows must be scanned
+        private Object convert(ColumnIndex index, Object value) {
+            try {
+                Object converted = ValueConverter.convert(value, types[index.column]);
+                return ValueConverter.wrapper(types[index.column]).isInstance(converted) ? converted : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private BitSet scan(Predicate<Object> predicate) {
+            BitSet result = new BitSet();
+            live.stream().filter(slot -> predicate.test(slot)).forEach(result::set);
+            return result;
+        }
+    }
+}
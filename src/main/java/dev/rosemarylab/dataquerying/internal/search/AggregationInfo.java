@@ -0,0 +1,15 @@
+package dev.rosemarylab.dataquerying.internal.search;
+
+import dev.rosemarylab.dataquerying.api.AggregateFunction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AggregationInfo {
+    private String attribute; // Attribute to aggregate, may be null for COUNT
+    private AggregateFunction function; // COUNT, SUM, AVG, etc.
+    private String alias; // Name of the aggregated value in the result row
+}
@@ -0,0 +1,17 @@
+package dev.rosemarylab.dataquerying.internal.search;
+
+import dev.rosemarylab.dataquerying.api.FacetType;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FacetInfo {
+    private String name; // Name of the facet in the result, defaults to the attribute
+    private String attribute; // Attribute to compute the buckets for
+    private FacetType type; // TERMS, RANGE
+    private List<RangeInfo> ranges = new ArrayList<>(); // Buckets of a RANGE facet
+    private Integer size; // Maximum number of buckets of a TERMS facet
+    private boolean excludeOwnFilter; // Ignore filters on the facet's attribute, for multi-select facets
+}
@@ -1,5 +1,6 @@
 package dev.rosemarylab.dataquerying.internal.search;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import dev.rosemarylab.dataquerying.internal.enums.ConditionalOperator;
 import dev.rosemarylab.dataquerying.api.SearchOperator;
 import lombok.Getter;
@@ -15,4 +16,6 @@ public class FilterData {
     private SearchOperator searchOperator; // EQ, NOT_EQ, GTE, LTE, IN, LIKE, etc.
     private List<FilterData> filters; // nested filters
     private ConditionalOperator conditionalOperator; // AND, OR for a filter group
+    @JsonIgnore
+    private Class<?> valueType; // Java type of the attribute once the value is converted to it by the validator
 }
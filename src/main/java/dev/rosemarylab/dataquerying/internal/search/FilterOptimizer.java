@@ -0,0 +1,356 @@
+package dev.rosemarylab.dataquerying.internal.search;
+
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.internal.enums.ConditionalOperator;
+
+import java.io.Serial;
+import java.math.BigDecimal;
+import java.time.temporal.Temporal;
+import java.util.*;
+
+/**
+ * Simplifies a filter tree of a {@link dev.rosemarylab.dataquerying.api.SearchRequest} before it is turned into a query.
+ * <ul>
+ *     <li>Nested groups with the same operator as their parent are flattened, and duplicate filters are dropped.</li>
+ *     <li>In an OR group, <code>EQ</code> and <code>IN</code> filters on the same attribute are merged into one
+ *     <code>IN</code>.</li>
+ *     <li>In an AND group, <code>EQ</code>, <code>IN</code> and range filters on the same attribute are merged into a
+ *     single <code>EQ</code>, <code>IN</code> or range, <code>BETWEEN</code> when both bounds are inclusive.</li>
+ *     <li>Contradictions, such as <code>x = 1 AND x = 2</code>, disjoint ranges or an empty <code>IN</code>, make an AND
+ *     group unsatisfiable and are removed from an OR group.</li>
+ * </ul>
+ * Values are ordered once {@link SearchRequestValidator} has converted them to the Java type of their attribute, since
+ * raw JSON values don't tell how the database compares them: <code>"9"</code> sorts after <code>"100"</code> as a string
+ * but not as a number. Before that, only the equality of numbers and booleans of the same class is checked, whatever the
+ * attribute type; raw strings may stand for numbers or dates, e.g. <code>"01"</code> and <code>"1"</code>. An empty
+ * <code>IN</code> never matches, whatever its values. Ranges are only folded for numbers, dates and times, whose order in
+ * Java is the order of the database; string ranges depend on the collation. Filters whose values can't be compared are
+ * left as they are.
+ */
+public class FilterOptimizer {
+    private static final Set<SearchOperator> MERGEABLE = EnumSet.of(SearchOperator.EQ, SearchOperator.IN,
+            SearchOperator.GT, SearchOperator.GTE, SearchOperator.LT, SearchOperator.LTE, SearchOperator.BETWEEN);
+
+    private FilterOptimizer() {
+    }
+
+    /**
+     * Optimizes a filter group. The given filters are not modified.
+     *
+     * @param filters  the filters of the group
+     * @param operator the operator combining the filters, {@code null} combines them with OR
+     * @return the optimized group, or {@code null} if no entity can match it
+     */
+    public static FilterData optimize(List<FilterData> filters, ConditionalOperator operator) {
+        return optimizeGroup(filters, operator == ConditionalOperator.AND);
+    }
+
+    private static FilterData optimizeGroup(List<FilterData> filters, boolean and) {
+        List<FilterData> children = new ArrayList<>();
+        for (FilterData filter : filters) {
+            if (isGroup(filter)) {
+                boolean childAnd = filter.getConditionalOperator() == ConditionalOperator.AND;
+                FilterData optimized = optimizeGroup(filter.getFilters(), childAnd);
+                if (optimized == null) {
+                    if (and) return null;
+                    continue;
+                }
+                if (optimized.getFilters().isEmpty()) continue;
+                if (childAnd == and) {
+                    children.addAll(optimized.getFilters());
+                } else {
+                    children.add(optimized);
+                }
+            } else {
+                children.add(filter);
+            }
+        }
+
+        children = withoutDuplicates(children);
+        children = and ? mergeConjunction(children) : mergeDisjunction(children);
+        if (children == null || !and && children.isEmpty() && !filters.isEmpty()) return null;
+        return group(children, and ? ConditionalOperator.AND : ConditionalOperator.OR);
+    }
+
+    private static List<FilterData> withoutDuplicates(List<FilterData> filters) {
+        Set<List<Object>> seen = new HashSet<>();
+        List<FilterData> unique = new ArrayList<>(filters.size());
+        for (FilterData filter : filters) {
+            if (isGroup(filter) || seen.add(Arrays.asList(filter.getAttribute(), filter.getSearchOperator(), filter.getValue()))) {
+                unique.add(filter);
+            }
+        }
+        return unique;
+    }
+
+    // Merges EQ and IN filters on the same attribute into one IN; an empty IN can't match and is dropped
+    private static List<FilterData> mergeDisjunction(List<FilterData> filters) {
+        Map<String, Set<Object>> valuesByAttribute = new LinkedHashMap<>();
+        Map<String, Integer> countByAttribute = new HashMap<>();
+        Map<String, Boolean> typedByAttribute = new HashMap<>();
+        for (FilterData filter : filters) {
+            if (isValueList(filter)) {
+                valuesByAttribute.computeIfAbsent(filter.getAttribute(), k -> new LinkedHashSet<>()).addAll(values(filter));
+                countByAttribute.merge(filter.getAttribute(), 1, Integer::sum);
+                typedByAttribute.merge(filter.getAttribute(), filter.getValueType() != null, Boolean::logicalAnd);
+            }
+        }
+
+        List<FilterData> merged = new ArrayList<>(filters.size());
+        for (FilterData filter : filters) {
+            if (!isValueList(filter)) {
+                merged.add(filter);
+                continue;
+            }
+            // The values of every filter on the attribute are emitted once, in place of the first of them
+            Set<Object> values = valuesByAttribute.remove(filter.getAttribute());
+            if (values == null || values.isEmpty()) continue;
+            merged.add(countByAttribute.get(filter.getAttribute()) == 1
+                    ? filter
+                    : leaf(filter.getAttribute(), SearchOperator.IN, new ArrayList<>(values),
+                    typedByAttribute.get(filter.getAttribute()) ? filter.getValueType() : null));
+        }
+        return merged;
+    }
+
+    // An EQ on a non-null value or an IN on a collection, which both match one of a list of values
+    private static boolean isValueList(FilterData filter) {
+        return isInList(filter) || !isGroup(filter) && filter.getSearchOperator() == SearchOperator.EQ && filter.getValue() != null;
+    }
+
+    // Merges the EQ, IN and range filters of every attribute, returns null on a contradiction
+    private static List<FilterData> mergeConjunction(List<FilterData> filters) {
+        Map<String, List<FilterData>> byAttribute = new LinkedHashMap<>();
+        for (FilterData filter : filters) {
+            if (isMergeable(filter)) {
+                byAttribute.computeIfAbsent(filter.getAttribute(), k -> new ArrayList<>()).add(filter);
+            }
+        }
+
+        List<FilterData> merged = new ArrayList<>(filters.size());
+        for (FilterData filter : filters) {
+            if (!isMergeable(filter)) {
+                merged.add(filter);
+                continue;
+            }
+            List<FilterData> sameAttribute = byAttribute.remove(filter.getAttribute());
+            if (sameAttribute == null) continue;
+            List<FilterData> attributeFilters = sameAttribute.size() == 1 && !isInList(filter)
+                    ? sameAttribute
+                    : new AttributeConstraint(filter.getAttribute()).merge(sameAttribute);
+            if (attributeFilters == null) return null;
+            merged.addAll(attributeFilters);
+        }
+        return merged;
+    }
+
+    // The constraints of the AND-ed filters on one attribute
+    private static class AttributeConstraint {
+        private final String attribute;
+        private Class<?> type;
+        private boolean typed = true;
+        private boolean isNull;
+        private Object equal;
+        private List<Object> allowed;
+        private Object lower;
+        private boolean lowerInclusive;
+        private Object upper;
+        private boolean upperInclusive;
+
+        AttributeConstraint(String attribute) {
+            this.attribute = attribute;
+        }
+
+        // Returns the merged filters, the given filters if their values can't be compared, or null on a contradiction
+        List<FilterData> merge(List<FilterData> filters) {
+            if (filters.stream().anyMatch(filter -> isInList(filter) && values(filter).isEmpty())) return null;
+            try {
+                for (FilterData filter : filters) {
+                    if (!add(filter)) return null;
+                }
+                return result();
+            } catch (IncomparableException e) {
+                return filters;
+            }
+        }
+
+        private boolean add(FilterData filter) {
+            Class<?> valueType = filter.getValueType() != null ? filter.getValueType() : runtimeType(filter);
+            if (valueType == null || type != null && type != valueType) throw new IncomparableException();
+            type = valueType;
+            typed &= filter.getValueType() != null;
+            Object value = filter.getValue();
+            switch (filter.getSearchOperator()) {
+                case EQ -> {
+                    if (value == null) {
+                        isNull = true;
+                    } else if (equal != null && compare(equal, value) != 0) {
+                        return false;
+                    } else {
+                        equal = value;
+                    }
+                }
+                case IN -> {
+                    List<Object> values = values(filter);
+                    if (allowed == null) {
+                        allowed = new ArrayList<>(values);
+                    } else {
+                        allowed.removeIf(a -> values.stream().noneMatch(v -> compare(a, v) == 0));
+                    }
+                    if (allowed.isEmpty()) return false;
+                }
+                case GT -> lowerBound(value, false);
+                case GTE -> lowerBound(value, true);
+                case LT -> upperBound(value, false);
+                case LTE -> upperBound(value, true);
+                case BETWEEN -> {
+                    if (!(value instanceof List<?> bounds) || bounds.size() != 2) throw new IncomparableException();
+                    lowerBound(bounds.get(0), true);
+                    upperBound(bounds.get(1), true);
+                }
+                default -> throw new IncomparableException();
+            }
+            return true;
+        }
+
+        // The class of the values of an unconverted EQ or IN, if they are all numbers or all booleans of one class
+        private static Class<?> runtimeType(FilterData filter) {
+            SearchOperator operator = filter.getSearchOperator();
+            if (operator != SearchOperator.EQ && operator != SearchOperator.IN || filter.getValue() == null) return null;
+            Class<?> runtimeType = null;
+            for (Object value : values(filter)) {
+                if (!(value instanceof Number || value instanceof Boolean)) return null;
+                if (runtimeType != null && runtimeType != value.getClass()) return null;
+                runtimeType = value.getClass();
+            }
+            return runtimeType;
+        }
+
+        private void lowerBound(Object value, boolean inclusive) {
+            if (value == null || !isOrdered()) throw new IncomparableException();
+            int comparison = lower == null ? 1 : compare(value, lower);
+            if (comparison > 0 || comparison == 0 && !inclusive) {
+                lower = value;
+                lowerInclusive = inclusive;
+            }
+        }
+
+        private void upperBound(Object value, boolean inclusive) {
+            if (value == null || !isOrdered()) throw new IncomparableException();
+            int comparison = upper == null ? -1 : compare(value, upper);
+            if (comparison < 0 || comparison == 0 && !inclusive) {
+                upper = value;
+                upperInclusive = inclusive;
+            }
+        }
+
+        private boolean inRange(Object value) {
+            if (lower != null) {
+                int comparison = compare(value, lower);
+                if (comparison < 0 || comparison == 0 && !lowerInclusive) return false;
+            }
+            if (upper != null) {
+                int comparison = compare(value, upper);
+                return comparison < 0 || comparison == 0 && upperInclusive;
+            }
+            return true;
+        }
+
+        private List<FilterData> result() {
+            // Unconverted values keep no type, as they were only compared for equality
+            Class<?> valueType = typed ? type : null;
+            if (isNull) {
+                // NULL is neither equal to a value nor inside a range
+                if (equal != null || allowed != null || lower != null || upper != null) return null;
+                return List.of(leaf(attribute, SearchOperator.EQ, null, valueType));
+            }
+            if (equal != null) {
+                if (allowed != null && allowed.stream().noneMatch(a -> compare(a, equal) == 0) || !inRange(equal)) return null;
+                return List.of(leaf(attribute, SearchOperator.EQ, equal, valueType));
+            }
+            if (allowed != null) {
+                allowed.removeIf(value -> !inRange(value));
+                if (allowed.isEmpty()) return null;
+                return List.of(allowed.size() == 1
+                        ? leaf(attribute, SearchOperator.EQ, allowed.getFirst(), valueType)
+                        : leaf(attribute, SearchOperator.IN, allowed, valueType));
+            }
+            if (lower != null && upper != null) {
+                int comparison = compare(lower, upper);
+                if (comparison > 0 || comparison == 0 && !(lowerInclusive && upperInclusive)) return null;
+                if (comparison == 0) return List.of(leaf(attribute, SearchOperator.EQ, lower, valueType));
+                if (lowerInclusive && upperInclusive) {
+                    return List.of(leaf(attribute, SearchOperator.BETWEEN, List.of(lower, upper), valueType));
+                }
+            }
+            List<FilterData> bounds = new ArrayList<>(2);
+            if (lower != null) bounds.add(leaf(attribute, lowerInclusive ? SearchOperator.GTE : SearchOperator.GT, lower, valueType));
+            if (upper != null) bounds.add(leaf(attribute, upperInclusive ? SearchOperator.LTE : SearchOperator.LT, upper, valueType));
+            return bounds;
+        }
+
+        // Numbers, dates and times are ordered the same way in Java and in the database
+        private boolean isOrdered() {
+            return Number.class.isAssignableFrom(type) || Temporal.class.isAssignableFrom(type) || Date.class.isAssignableFrom(type);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private int compare(Object a, Object b) {
+            if (!type.isInstance(a) || !type.isInstance(b)) throw new IncomparableException();
+            if (a instanceof Number x && b instanceof Number y) {
+                try {
+                    return new BigDecimal(x.toString()).compareTo(new BigDecimal(y.toString()));
+                } catch (NumberFormatException e) {
+                    throw new IncomparableException();
+                }
+            }
+            if (a instanceof Comparable comparable) {
+                return comparable.compareTo(b);
+            }
+            throw new IncomparableException();
+        }
+    }
+
+    // Thrown when the filters on an attribute can't be merged safely
+    private static class IncomparableException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        IncomparableException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static boolean isGroup(FilterData filter) {
+        return filter.getFilters() != null && !filter.getFilters().isEmpty();
+    }
+
+    private static boolean isMergeable(FilterData filter) {
+        return !isGroup(filter) && filter.getAttribute() != null && MERGEABLE.contains(filter.getSearchOperator())
+                && (filter.getSearchOperator() != SearchOperator.IN || filter.getValue() instanceof Collection<?>);
+    }
+
+    private static boolean isInList(FilterData filter) {
+        return !isGroup(filter) && filter.getSearchOperator() == SearchOperator.IN && filter.getValue() instanceof Collection<?>;
+    }
+
+    private static List<Object> values(FilterData filter) {
+        return filter.getValue() instanceof Collection<?> values ? new ArrayList<>(values) : Collections.singletonList(filter.getValue());
+    }
+
+    private static FilterData leaf(String attribute, SearchOperator operator, Object value, Class<?> valueType) {
+        FilterData filter = new FilterData();
+        filter.setAttribute(attribute);
+        filter.setSearchOperator(operator);
+        filter.setValue(value);
+        filter.setValueType(valueType);
+        return filter;
+    }
+
+    private static FilterData group(List<FilterData> filters, ConditionalOperator operator) {
+        FilterData group = new FilterData();
+        group.setFilters(filters);
+        group.setConditionalOperator(operator);
+        return group;
+    }
+}
@@ -0,0 +1,14 @@
+package dev.rosemarylab.dataquerying.internal.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RangeInfo {
+    private String key; // Key of the bucket in the result
+    private Object from; // Inclusive lower bound, null for unbounded
+    private Object to; // Exclusive upper bound, null for unbounded
+}
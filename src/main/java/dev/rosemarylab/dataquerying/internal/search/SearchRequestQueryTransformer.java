@@ -6,6 +6,7 @@ import dev.rosemarylab.dataquerying.api.SearchRequest;
 import dev.rosemarylab.dataquerying.internal.enums.ConditionalOperator;
 import jakarta.persistence.criteria.JoinType;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class SearchRequestQueryTransformer {
@@ -14,55 +15,109 @@ public class SearchRequestQueryTransformer {
     }
 
     public static <T> Query<T> toQuery(SearchRequest request) {
+        return toQuery(request, null);
+    }
+
+    // Builds the query while ignoring the filters on the excluded attribute, which is how multi-select facets are
+    // counted. The filter tree is simplified by the FilterOptimizer first, and a tree that can't match anything yields
+    // Query.none(), which is never sent to the database.
+    public static <T> Query<T> toQuery(SearchRequest request, String excludedAttribute) {
         // Start with an empty Query
         Query<T> query = Query.get();
 
         // Process top-level filter data if present
         if (request.getFilters() != null && !request.getFilters().isEmpty()) {
-            processFilters(query, request.getFilters(), request.getConditionalOperator());
+            List<FilterData> filters = excludedAttribute == null
+                    ? request.getFilters()
+                    : withoutAttribute(request.getFilters(), request.getConditionalOperator() == ConditionalOperator.AND, excludedAttribute);
+            if (filters == null) {
+                return query;
+            }
+            FilterData optimized = FilterOptimizer.optimize(filters, request.getConditionalOperator());
+            if (optimized == null) {
+                return Query.none();
+            }
+            query = processFilters(query, optimized.getFilters(), optimized.getConditionalOperator());
         }
 
         return query;
     }
 
-    // Recursively processes the list of filters and appends them to the Query.
-    private static <T> void processFilters(Query<T> query,
-                                           List<FilterData> filters,
-                                           ConditionalOperator groupOperator) {
+    // Returns true if any filter of the request, at any nesting level, is on the given attribute.
+    public static boolean isFiltered(SearchRequest request, String attribute) {
+        return request.getFilters() != null && isFiltered(request.getFilters(), attribute);
+    }
+
+    private static boolean isFiltered(List<FilterData> filters, String attribute) {
+        for (FilterData filter : filters) {
+            if (filter.getFilters() != null && !filter.getFilters().isEmpty()) {
+                if (isFiltered(filter.getFilters(), attribute)) return true;
+            } else if (attribute.equals(filter.getAttribute())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Recursively processes the list of filters and returns the Query with them appended.
+    private static <T> Query<T> processFilters(Query<T> query, List<FilterData> filters, ConditionalOperator groupOperator) {
         for (FilterData filter : filters) {
             // If the filter has nested filters, it represents a group
             if (filter.getFilters() != null && !filter.getFilters().isEmpty()) {
-                Query<T> subQuery = Query.get();
-                processFilters(subQuery, filter.getFilters(), filter.getConditionalOperator());
+                Query<T> subQuery = processFilters(Query.get(), filter.getFilters(), filter.getConditionalOperator());
 
                 // Attach the subQuery to the main query with the correct group operator
                 if (groupOperator == ConditionalOperator.AND) {
-                    query.and(subQuery);
+                    query = query.and(subQuery);
                 } else {
-                    query.or(subQuery);
+                    query = query.or(subQuery);
                 }
 
             } else {
-                processLeafFilter(query, groupOperator, filter);
+                query = processLeafFilter(query, groupOperator, filter);
+            }
+        }
+        return query;
+    }
+
+    // Copies the filter tree without the constraints on the attribute. A filter on the attribute is dropped from an AND
+    // group, but in an OR group it would make the group match less, so the whole OR group is dropped instead. Returns
+    // null if nothing is left to constrain the entities.
+    private static List<FilterData> withoutAttribute(List<FilterData> filters, boolean and, String attribute) {
+        List<FilterData> remaining = new ArrayList<>(filters.size());
+        for (FilterData filter : filters) {
+            if (filter.getFilters() != null && !filter.getFilters().isEmpty()) {
+                List<FilterData> children = withoutAttribute(filter.getFilters(), filter.getConditionalOperator() == ConditionalOperator.AND, attribute);
+                if (children == null) {
+                    if (and) continue;
+                    return null;
+                }
+                FilterData group = new FilterData();
+                group.setFilters(children);
+                group.setConditionalOperator(filter.getConditionalOperator());
+                remaining.add(group);
+            } else if (attribute.equals(filter.getAttribute())) {
+                if (!and) return null;
+            } else {
+                remaining.add(filter);
             }
         }
+        return remaining.isEmpty() ? null : remaining;
     }
 
-    private static <T> void processLeafFilter(Query<T> query, ConditionalOperator groupOperator, FilterData filter) {
+    private static <T> Query<T> processLeafFilter(Query<T> query, ConditionalOperator groupOperator, FilterData filter) {
         String attribute = filter.getAttribute();
         SearchOperator operator = filter.getSearchOperator();
         Object value = filter.getValue();
 
         if (attribute.contains(".")) {
-            query.join(filter.getAttribute().split("\\.")[0], JoinType.INNER);
-            query.distinct();
+            query = query.join(filter.getAttribute().split("\\.")[0], JoinType.INNER).distinct();
         }
         // Example: if groupOperator == AND, then we do query.and(attribute, operator, value)
         // if groupOperator == OR, then we do query.or(attribute, operator, value)
         if (groupOperator == ConditionalOperator.AND) {
-            query.and(attribute, operator, value);
-        } else {
-            query.or(attribute, operator, value);
+            return query.and(attribute, operator, value);
         }
+        return query.or(attribute, operator, value);
     }
 }
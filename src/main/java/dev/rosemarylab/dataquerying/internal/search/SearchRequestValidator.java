@@ -0,0 +1,187 @@
+package dev.rosemarylab.dataquerying.internal.search;
+
+import dev.rosemarylab.dataquerying.api.FacetType;
+import dev.rosemarylab.dataquerying.api.Relevance;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.SearchRequest;
+import dev.rosemarylab.dataquerying.api.exceptions.InvalidSearchRequestException;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import dev.rosemarylab.dataquerying.internal.utils.ValueConverter;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class SearchRequestValidator {
+
+    private SearchRequestValidator() {
+    }
+
+    // Checks every attribute of the request against the metamodel and converts filter values and range bounds in place
+    // to the Java type of their attribute. All errors are collected and reported by a single exception.
+    public static void validate(SearchRequest request, Metamodel metamodel, Class<?> entityClass) {
+        ManagedType<?> type = metamodel.managedType(entityClass);
+        List<String> errors = new ArrayList<>();
+
+        if (request.getFilters() != null) {
+            validateFilters(type, request.getFilters(), "filters", errors);
+        }
+        // Orders of an aggregation refer to aliases, which are not entity attributes
+        boolean aggregated = !isEmpty(request.getGroupBy()) || !isEmpty(request.getAggregations());
+        if (!aggregated && request.getOrder() != null) {
+            for (int i = 0; i < request.getOrder().size(); i++) {
+                String attribute = request.getOrder().get(i).getAttribute();
+                String[] relevance = Relevance.parse(attribute);
+                attributeType(type, relevance != null ? relevance[0] : attribute, "order[" + i + "]", errors);
+            }
+        }
+        if (request.getGroupBy() != null) {
+            for (int i = 0; i < request.getGroupBy().size(); i++) {
+                attributeType(type, request.getGroupBy().get(i), "groupBy[" + i + "]", errors);
+            }
+        }
+        if (request.getAggregations() != null) {
+            for (int i = 0; i < request.getAggregations().size(); i++) {
+                AggregationInfo aggregation = request.getAggregations().get(i);
+                if (aggregation.getAttribute() != null) {
+                    attributeType(type, aggregation.getAttribute(), "aggregations[" + i + "]", errors);
+                }
+            }
+        }
+        if (request.getFacets() != null) {
+            for (int i = 0; i < request.getFacets().size(); i++) {
+                validateFacet(type, request.getFacets().get(i), "facets[" + i + "]", errors);
+            }
+        }
+        if (request.getFields() != null) {
+            for (int i = 0; i < request.getFields().size(); i++) {
+                attributeType(type, request.getFields().get(i), "fields[" + i + "]", errors);
+            }
+        }
+        if (request.getPage() != null) {
+            validatePage(request.getPage(), errors);
+        }
+
+        if (!errors.isEmpty()) {
+            throw new InvalidSearchRequestException(errors);
+        }
+    }
+
+    private static void validateFilters(ManagedType<?> type, List<FilterData> filters, String location, List<String> errors) {
+        for (int i = 0; i < filters.size(); i++) {
+            FilterData filter = filters.get(i);
+            String filterLocation = location + "[" + i + "]";
+            if (filter.getFilters() != null && !filter.getFilters().isEmpty()) {
+                validateFilters(type, filter.getFilters(), filterLocation + ".filters", errors);
+            } else {
+                validateLeafFilter(type, filter, filterLocation, errors);
+            }
+        }
+    }
+
+    private static void validateLeafFilter(ManagedType<?> type, FilterData filter, String location, List<String> errors) {
+        Class<?> attributeType = attributeType(type, filter.getAttribute(), location, errors);
+        SearchOperator operator = filter.getSearchOperator();
+        if (operator == null) {
+            errors.add(location + ": search operator is required");
+            return;
+        }
+        if (attributeType == null) return;
+
+        Object value = filter.getValue();
+        int errorCount = errors.size();
+        switch (operator) {
+            case EQ, NOT_EQ -> filter.setValue(convert(value, attributeType, location, errors));
+            case GT, GTE, LT, LTE -> {
+                if (value == null) {
+                    errors.add(location + ": " + operator + " operator requires a value");
+                } else {
+                    filter.setValue(convert(value, attributeType, location, errors));
+                }
+            }
+            case LIKE, NOT_LIKE, STARTS_WITH, ENDS_WITH, MATCHES, EQ_IGNORE_CASE, LIKE_IGNORE_CASE, STARTS_WITH_IGNORE_CASE,
+                 FULL_TEXT -> {
+                if (!(value instanceof String text)) {
+                    errors.add(location + ": " + operator + " operator requires a String value");
+                } else if (operator == SearchOperator.FULL_TEXT && text.isBlank()) {
+                    errors.add(location + ": FULL_TEXT operator requires at least one word");
+                }
+            }
+            case IN -> {
+                if (value instanceof Collection<?> values) {
+                    filter.setValue(convertAll(values, attributeType, location, errors));
+                } else {
+                    errors.add(location + ": IN operator requires a collection of values");
+                }
+            }
+            case BETWEEN -> {
+                if (value instanceof List<?> values && values.size() == 2) {
+                    filter.setValue(convertAll(values, attributeType, location, errors));
+                } else {
+                    errors.add(location + ": BETWEEN operator requires a list of two comparable values");
+                }
+            }
+        }
+        // The FilterOptimizer only compares values known to have the attribute's type
+        if (errors.size() == errorCount) {
+            filter.setValueType(ValueConverter.wrapper(attributeType));
+        }
+    }
+
+    private static void validateFacet(ManagedType<?> type, FacetInfo facet, String location, List<String> errors) {
+        Class<?> attributeType = attributeType(type, facet.getAttribute(), location, errors);
+        if (attributeType == null || facet.getType() != FacetType.RANGE || facet.getRanges() == null) return;
+
+        for (int i = 0; i < facet.getRanges().size(); i++) {
+            RangeInfo range = facet.getRanges().get(i);
+            String rangeLocation = location + ".ranges[" + i + "]";
+            range.setFrom(convert(range.getFrom(), attributeType, rangeLocation, errors));
+            range.setTo(convert(range.getTo(), attributeType, rangeLocation, errors));
+        }
+    }
+
+    private static void validatePage(PageInfo page, List<String> errors) {
+        if (page.getPageNumber() != null && page.getPageNumber() < 0) {
+            errors.add("page: page number must not be negative");
+        }
+        if (page.getPageSize() != null && page.getPageSize() < 1) {
+            errors.add("page: page size must be positive");
+        }
+    }
+
+    // Returns the Java type of the attribute, or null after recording an error if it does not resolve
+    private static Class<?> attributeType(ManagedType<?> type, String attribute, String location, List<String> errors) {
+        if (attribute == null) {
+            errors.add(location + ": attribute is required");
+            return null;
+        }
+        Class<?> attributeType = SpecificationEngine.attributeType(type, attribute);
+        if (attributeType == null) {
+            errors.add(location + ": attribute '" + attribute + "' not found");
+        }
+        return attributeType;
+    }
+
+    private static List<Object> convertAll(Collection<?> values, Class<?> type, String location, List<String> errors) {
+        List<Object> converted = new ArrayList<>(values.size());
+        for (Object value : values) {
+            converted.add(convert(value, type, location, errors));
+        }
+        return converted;
+    }
+
+    private static Object convert(Object value, Class<?> type, String location, List<String> errors) {
+        try {
+            return ValueConverter.convert(value, type);
+        } catch (IllegalArgumentException e) {
+            errors.add(location + ": " + e.getMessage());
+            return value;
+        }
+    }
+
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.isEmpty();
+    }
+}
@@ -0,0 +1,193 @@
+package dev.rosemarylab.dataquerying.internal.specification;
+
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.api.exceptions.JoinNotFoundException;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.metamodel.*;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An attribute path, such as <code>role.name</code>, compiled against the JPA metamodel of an entity.
+ *
+ * <p>Compilation splits the path and resolves every segment to its metamodel {@link Attribute}, recording which
+ * segments are associations that need a join. Valid paths are cached per managed type, so resolving a path while
+ * building a query is a walk over the precomputed segments. Paths that fail to resolve are compiled again on every use,
+ * so made-up attribute names sent by clients don't take the place of valid paths.</p>
+ *
+ * <p>The paths are cached in a {@link ClassValue} of the managed type's Java class, so a lookup takes no lock. Each
+ * managed type caches its first {@value #MAX_CACHED_PATHS} valid paths; further paths are compiled on every use. The
+ * managed type is weakly referenced, so the cache doesn't keep the metamodel of a closed entity manager factory alive,
+ * and the paths of another metamodel of the same class replace them.</p>
+ */
+final class AttributePath {
+    // Paths through cyclic associations are unbounded, e.g. role.users.role.users...
+    private static final int MAX_CACHED_PATHS = 1024;
+    private static final ClassValue<TypePaths> CACHE = new ClassValue<>() {
+        @Override
+        protected TypePaths computeValue(Class<?> type) {
+            return new TypePaths();
+        }
+    };
+
+    private final String[] segments;
+    private final boolean[] associations;
+    // Index of the segment that failed to resolve, -1 if the path is valid
+    private final int failedSegment;
+    // Java type of the last segment, null if the path is invalid
+    private final Class<?> javaType;
+
+    private AttributePath(String[] segments, boolean[] associations, int failedSegment, Class<?> javaType) {
+        this.segments = segments;
+        this.associations = associations;
+        this.failedSegment = failedSegment;
+        this.javaType = javaType;
+    }
+
+    /**
+     * Returns the compiled path for the given managed type, compiling it on first use and caching it if it is valid.
+     *
+     * @param type the managed type the path starts from
+     * @param path the dot-separated attribute path
+     * @return the compiled path, which may be invalid
+     */
+    static AttributePath of(ManagedType<?> type, String path) {
+        if (type.getJavaType() == null) return compile(type, path);
+        Map<String, AttributePath> paths = CACHE.get(type.getJavaType()).paths(type);
+        AttributePath compiled = paths.get(path);
+        if (compiled == null) {
+            compiled = compile(type, path);
+            if (compiled.failedSegment < 0 && paths.size() < MAX_CACHED_PATHS) {
+                paths.putIfAbsent(path, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    // The cached paths of the managed type of a Java class, for the metamodel that last resolved a path of it
+    private static final class TypePaths {
+        private volatile MetamodelPaths current;
+
+        Map<String, AttributePath> paths(ManagedType<?> type) {
+            MetamodelPaths paths = current;
+            if (paths == null || paths.type.get() != type) {
+                paths = new MetamodelPaths(new WeakReference<>(type), new ConcurrentHashMap<>());
+                current = paths;
+            }
+            return paths.paths;
+        }
+    }
+
+    private record MetamodelPaths(WeakReference<ManagedType<?>> type, Map<String, AttributePath> paths) {
+    }
+
+    private static AttributePath compile(ManagedType<?> type, String path) {
+        String[] segments = split(path);
+        boolean[] associations = new boolean[segments.length];
+        ManagedType<?> current = type;
+        Class<?> javaType = null;
+
+        for (int i = 0; i < segments.length; i++) {
+            Attribute<?, ?> attribute = current == null ? null : findAttribute(current, segments[i]);
+            if (attribute == null) {
+                return new AttributePath(segments, associations, i, null);
+            }
+            associations[i] = attribute.isAssociation();
+            current = targetType(attribute);
+            javaType = attribute instanceof PluralAttribute<?, ?, ?> plural
+                    ? plural.getElementType().getJavaType()
+                    : attribute.getJavaType();
+        }
+        return new AttributePath(segments, associations, -1, javaType);
+    }
+
+    // Looks the attribute up without getAttribute(String), which reports a missing attribute with an exception
+    private static Attribute<?, ?> findAttribute(ManagedType<?> type, String name) {
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            if (attribute.getName().equals(name)) return attribute;
+        }
+        return null;
+    }
+
+    // The managed type further segments are resolved against, null if the attribute is basic
+    private static ManagedType<?> targetType(Attribute<?, ?> attribute) {
+        Type<?> target = attribute instanceof PluralAttribute<?, ?, ?> plural
+                ? plural.getElementType()
+                : ((SingularAttribute<?, ?>) attribute).getType();
+        return target instanceof ManagedType<?> managedType ? managedType : null;
+    }
+
+    // Splits on dots without compiling a regular expression
+    static String[] split(String path) {
+        List<String> segments = new ArrayList<>(4);
+        int start = 0;
+        int dot;
+        while ((dot = path.indexOf('.', start)) >= 0) {
+            segments.add(path.substring(start, dot));
+            start = dot + 1;
+        }
+        segments.add(path.substring(start));
+        return segments.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the Java type of the last segment, the element type for a collection.
+     *
+     * @return the Java type of the path, {@code null} if the path is invalid
+     */
+    Class<?> getJavaType() {
+        return javaType;
+    }
+
+    private void checkValid() {
+        if (failedSegment >= 0) {
+            throw failedSegment == segments.length - 1
+                    ? new AttributeNotFoundException(segments[failedSegment])
+                    : new JoinNotFoundException(String.join(".", Arrays.copyOf(segments, failedSegment + 1)));
+        }
+    }
+
+    /**
+     * Resolves the path from the given root. Associations are joined with {@link JoinType#LEFT}, reusing a join
+     * already present on the same parent for the same attribute, see {@link JoinRegistry}.
+     *
+     * @param from the root or join the path starts from
+     * @return the path of the last segment
+     * @throws AttributeNotFoundException if the last segment does not exist
+     * @throws JoinNotFoundException      if an intermediate segment does not exist or cannot be navigated
+     */
+    Path<?> resolve(From<?, ?> from) {
+        checkValid();
+
+        Path<?> current = from;
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (associations[i] && current instanceof From<?, ?> parent) {
+                current = JoinRegistry.join(parent, segments[i], JoinType.LEFT);
+            } else {
+                // Embedded attributes are navigated without a join
+                current = current.get(segments[i]);
+            }
+        }
+        return current.get(segments[segments.length - 1]);
+    }
+
+    /**
+     * Joins the associations along the path with the given join type, reusing existing joins. Called before the
+     * path is resolved, it makes {@link #resolve(From)} use these joins.
+     *
+     * @param from     the root or join the path starts from
+     * @param joinType the join type of the associations
+     */
+    void joinAssociations(From<?, ?> from, JoinType joinType) {
+        if (failedSegment >= 0) return;
+
+        From<?, ?> current = from;
+        for (int i = 0; i < segments.length - 1 && associations[i]; i++) {
+            current = JoinRegistry.join(current, segments[i], joinType);
+        }
+    }
+}
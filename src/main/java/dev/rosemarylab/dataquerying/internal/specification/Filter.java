@@ -2,14 +2,12 @@ package dev.rosemarylab.dataquerying.internal.specification;
 
 import dev.rosemarylab.dataquerying.api.SearchOperator;
 import lombok.Getter;
-import lombok.Setter;
 
 @Getter
-@Setter
 public class Filter {
-    private SearchOperator operator;
-    private Object value;
-    private String attribute;
+    private final SearchOperator operator;
+    private final Object value;
+    private final String attribute;
 
     public Filter(String attribute, SearchOperator operator, Object value) {
         this.operator = operator;
@@ -0,0 +1,52 @@
+package dev.rosemarylab.dataquerying.internal.specification;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+
+/**
+ * Hands out the canonical join per path and join type of a criteria query.
+ *
+ * <p>The joins already attached to the query's root form the registry, so filters, sorting and explicit joins that
+ * go through this class share their joins without any state outside the query. A {@link JoinType#LEFT} request reuses
+ * an existing join of any type, since an {@link JoinType#INNER} join already restricts the rows to those having the
+ * association. Any other request only reuses a join of the same type.</p>
+ */
+final class JoinRegistry {
+    private JoinRegistry() {
+    }
+
+    /**
+     * Returns the join of the attribute on the given parent, creating it if no reusable join exists.
+     *
+     * @param parent    the root or join to join from
+     * @param attribute the association attribute
+     * @param joinType  the requested join type
+     * @return the canonical join
+     */
+    static Join<?, ?> join(From<?, ?> parent, String attribute, JoinType joinType) {
+        for (Join<?, ?> join : parent.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute)
+                    && (join.getJoinType() == joinType || joinType == JoinType.LEFT && join.getJoinType() == JoinType.INNER)) {
+                return join;
+            }
+        }
+        return parent.join(attribute, joinType);
+    }
+
+    /**
+     * Joins every segment of an association path, reusing existing joins on each level.
+     *
+     * @param root     the root or join the path starts from
+     * @param segments the association path segments
+     * @param joinType the requested join type
+     * @return the join of the last segment
+     */
+    static Join<?, ?> join(From<?, ?> root, String[] segments, JoinType joinType) {
+        From<?, ?> current = root;
+        for (String segment : segments) {
+            current = join(current, segment, joinType);
+        }
+        return (Join<?, ?>) current;
+    }
+}
@@ -0,0 +1,122 @@
+package dev.rosemarylab.dataquerying.internal.specification;
+
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.QueryVisitor;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Translates a query to a JPA predicate of a criteria query, creating its joins and setting its DISTINCT flag.
+ * Conditions without a predicate are visited as {@code null} and ignored by their group.
+ *
+ * @param <T> the entity type
+ */
+class PredicateVisitor<T> implements QueryVisitor<Predicate> {
+    private final Root<T> root;
+    private final CriteriaQuery<?> query;
+    private final CriteriaBuilder criteriaBuilder;
+    private final QueryDialect dialect;
+
+    PredicateVisitor(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, QueryDialect dialect) {
+        this.root = root;
+        this.query = query;
+        this.criteriaBuilder = criteriaBuilder;
+        this.dialect = dialect;
+    }
+
+    @Override
+    public Predicate visitAnd(List<Predicate> operands) {
+        return combine(operands, true);
+    }
+
+    @Override
+    public Predicate visitOr(List<Predicate> operands) {
+        return combine(operands, false);
+    }
+
+    @Override
+    public Predicate visitComparison(String attribute, SearchOperator operator, Object value) {
+        return predicate(attribute, operator, value);
+    }
+
+    @Override
+    public Predicate visitIn(String attribute, Collection<?> values) {
+        return predicate(attribute, SearchOperator.IN, values);
+    }
+
+    @Override
+    public Predicate visitBetween(String attribute, Object lower, Object upper) {
+        return predicate(attribute, SearchOperator.BETWEEN, Arrays.asList(lower, upper));
+    }
+
+    @Override
+    public Predicate visitLike(String attribute, SearchOperator operator, String value) {
+        return predicate(attribute, operator, value);
+    }
+
+    @Override
+    public Predicate visitNone() {
+        return criteriaBuilder.disjunction();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Predicate visitSpecification(Specification<?> specification) {
+        return ((Specification<T>) specification).toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Override
+    public void visitJoin(String attribute, JoinType joinType) {
+        String[] attributes = AttributePath.split(attribute);
+        if (root.getModel() == null) {
+            // Without a metamodel, paths can't be told apart from associations, so the joins are created as requested
+            createJoins(attributes, joinType);
+        } else {
+            JoinRegistry.join(root, attributes, joinType);
+        }
+    }
+
+    @Override
+    public void visitDistinct() {
+        query.distinct(true);
+    }
+
+    private Predicate predicate(String attribute, SearchOperator operator, Object value) {
+        Path<?> fieldPath = SpecificationUtils.getPath(root, attribute);
+        return SpecificationEngine.predicate(new Filter(attribute, operator, value), criteriaBuilder, fieldPath, dialect);
+    }
+
+    private Predicate combine(List<Predicate> operands, boolean and) {
+        List<Predicate> predicates = operands.stream().filter(p -> p != null).toList();
+        if (predicates.isEmpty()) return null;
+        if (predicates.size() == 1) return predicates.getFirst();
+        // Two predicates use the binary form, as composed specifications do
+        if (predicates.size() == 2) {
+            return and
+                    ? criteriaBuilder.and(predicates.get(0), predicates.get(1))
+                    : criteriaBuilder.or(predicates.get(0), predicates.get(1));
+        }
+        Predicate[] array = predicates.toArray(new Predicate[0]);
+        return and ? criteriaBuilder.and(array) : criteriaBuilder.or(array);
+    }
+
+    private void createJoins(String[] attributes, JoinType joinType) {
+        Join<?, ?> join = null;
+
+        // Perform the join(s)
+        for (int i = 0; i < attributes.length; i++) {
+            if (i == 0) {
+                // First part joins directly from the root
+                join = root.join(attributes[i], joinType);
+            } else {
+                // Subsequent parts join from the previous join
+                join = join.join(attributes[i], joinType);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package dev.rosemarylab.dataquerying.internal.specification;
+
+import dev.rosemarylab.dataquerying.api.QueryVisitor;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable node of the condition tree of a {@link SpecificationQuery}.
+ * <p>Conditions combined with the same operator are kept in a single n-ary {@link Group}, so a query built from
+ * thousands of <code>and</code> calls is one flat group, not a chain of nested specifications. Nodes are never
+ * modified once created: combining conditions creates new groups that share the existing nodes, so a node can be
+ * shared between queries and threads.</p>
+ */
+public sealed interface QueryNode permits QueryNode.Group, QueryNode.Condition, QueryNode.Custom, QueryNode.Nothing {
+
+    /**
+     * Conditions combined with AND or OR.
+     *
+     * @param and      {@code true} for AND, {@code false} for OR
+     * @param children the combined conditions, at least two
+     */
+    record Group(boolean and, List<QueryNode> children) implements QueryNode {
+        public Group {
+            children = List.copyOf(children);
+        }
+    }
+
+    /**
+     * A filter on an attribute.
+     *
+     * @param filter the filter
+     */
+    record Condition(Filter filter) implements QueryNode {
+    }
+
+    /**
+     * A condition given as a {@link Specification}, which can't be inspected.
+     *
+     * @param specification the specification
+     */
+    record Custom(Specification<?> specification) implements QueryNode {
+    }
+
+    /**
+     * A condition no entity matches.
+     */
+    record Nothing() implements QueryNode {
+    }
+
+    QueryNode NOTHING = new Nothing();
+
+    /**
+     * Combines two conditions, either of which may be {@code null} for no condition. Groups with the same operator are
+     * merged into one.
+     *
+     * @param left  the left condition
+     * @param right the right condition
+     * @param and   {@code true} to combine with AND, {@code false} with OR
+     * @return the combined condition
+     */
+    static QueryNode combine(QueryNode left, QueryNode right, boolean and) {
+        if (left == null) return right;
+        if (right == null) return left;
+        List<QueryNode> children = new ArrayList<>();
+        addFlattened(children, left, and);
+        addFlattened(children, right, and);
+        return new Group(and, children);
+    }
+
+    private static void addFlattened(List<QueryNode> children, QueryNode node, boolean and) {
+        if (node instanceof Group group && group.and() == and) {
+            children.addAll(group.children());
+        } else {
+            children.add(node);
+        }
+    }
+
+    /**
+     * Tells whether no entity can match the condition.
+     *
+     * @param node the condition, {@code null} for no condition
+     * @return {@code true} if the condition matches nothing
+     */
+    static boolean isNothing(QueryNode node) {
+        if (node instanceof Nothing) return true;
+        if (!(node instanceof Group group)) return false;
+        return group.and()
+                ? group.children().stream().anyMatch(QueryNode::isNothing)
+                : group.children().stream().allMatch(QueryNode::isNothing);
+    }
+
+    /**
+     * Returns the attributes filtered by the condition.
+     *
+     * @param node the condition, {@code null} for no condition
+     * @return the attributes, or {@code null} if the condition contains a {@link Custom} node
+     */
+    static Set<String> attributes(QueryNode node) {
+        Set<String> attributes = new LinkedHashSet<>();
+        List<QueryNode> pending = new ArrayList<>();
+        if (node != null) pending.add(node);
+        while (!pending.isEmpty()) {
+            QueryNode current = pending.removeLast();
+            switch (current) {
+                case Group group -> pending.addAll(group.children());
+                case Condition condition -> attributes.add(condition.filter().getAttribute());
+                case Custom custom -> {
+                    return null;
+                }
+                case Nothing nothing -> {
+                }
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Visits the condition bottom-up, see {@link QueryVisitor}.
+     *
+     * @param node    the condition, {@code null} for no condition
+     * @param visitor the visitor
+     * @param <R>     the result of the visit
+     * @return the result of the visit
+     */
+    static <R> R accept(QueryNode node, QueryVisitor<R> visitor) {
+        if (node == null) return visitor.visitAnd(List.of());
+        return switch (node) {
+            case Group group -> {
+                List<R> operands = new ArrayList<>(group.children().size());
+                for (QueryNode child : group.children()) {
+                    // Incomplete filters don't restrict the query and are left out of their group
+                    if (child instanceof Condition condition && isIncomplete(condition.filter())) continue;
+                    operands.add(accept(child, visitor));
+                }
+                yield group.and() ? visitor.visitAnd(operands) : visitor.visitOr(operands);
+            }
+            case Condition condition -> isIncomplete(condition.filter())
+                    ? visitor.visitAnd(List.of())
+                    : visitFilter(condition.filter(), visitor);
+            case Custom custom -> visitor.visitSpecification(custom.specification());
+            case Nothing nothing -> visitor.visitNone();
+        };
+    }
+
+    private static <R> R visitFilter(Filter filter, QueryVisitor<R> visitor) {
+        SearchOperator operator = filter.getOperator();
+        Object value = filter.getValue();
+        return switch (operator) {
+            case EQ, NOT_EQ, GT, GTE, LT, LTE, EQ_IGNORE_CASE -> visitor.visitComparison(filter.getAttribute(), operator, value);
+            case IN -> {
+                if (!(value instanceof Collection<?> values)) {
+                    throw new SpecificationBuilderException("IN operator requires a collection of values");
+                }
+                yield visitor.visitIn(filter.getAttribute(), values);
+            }
+            case BETWEEN -> {
+                if (!(value instanceof List<?> bounds) || bounds.size() != 2) {
+                    throw new SpecificationBuilderException("BETWEEN operator requires a list of two comparable values");
+                }
+                yield visitor.visitBetween(filter.getAttribute(), bounds.get(0), bounds.get(1));
+            }
+            case LIKE, NOT_LIKE, STARTS_WITH, ENDS_WITH, MATCHES, LIKE_IGNORE_CASE, STARTS_WITH_IGNORE_CASE, FULL_TEXT -> {
+                if (!(value instanceof String text)) {
+                    throw new SpecificationBuilderException(operator + " operator requires a String value");
+                }
+                // A blank query has no word to match, which would match every entity
+                if (operator == SearchOperator.FULL_TEXT && text.isBlank()) {
+                    throw new SpecificationBuilderException("FULL_TEXT operator requires at least one word");
+                }
+                yield visitor.visitLike(filter.getAttribute(), operator, text);
+            }
+        };
+    }
+
+    // A filter without attribute, or without value for an operator other than EQ and NOT_EQ
+    private static boolean isIncomplete(Filter filter) {
+        return filter.getAttribute() == null || filter.getValue() == null
+                && filter.getOperator() != SearchOperator.EQ && filter.getOperator() != SearchOperator.NOT_EQ;
+    }
+}
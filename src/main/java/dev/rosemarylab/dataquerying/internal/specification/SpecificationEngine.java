@@ -1,26 +1,122 @@
 package dev.rosemarylab.dataquerying.internal.specification;
 
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.Relevance;
 import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
 import dev.rosemarylab.dataquerying.internal.utils.ReflectionUtils;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.ManagedType;
 
 import java.util.Collection;
 import java.util.List;
 
 public class SpecificationEngine {
+    /**
+     * The escape character of the LIKE patterns built for text operators.
+     */
+    public static final char LIKE_ESCAPE = '\\';
 
     private SpecificationEngine() {
     }
 
-    public static Predicate eq(Filter filter, CriteriaBuilder criteriaBuilder, Path<?> fieldPath) {
+    /**
+     * Resolves an attribute, possibly a nested path such as <code>role.name</code>, against the given root.
+     * Missing joins are created as {@link JoinType#LEFT} joins.
+     *
+     * @param root      the query root
+     * @param attribute the attribute path
+     * @param <T>       the entity type
+     * @return the resolved path
+     */
+    public static <T> Path<?> resolvePath(Root<T> root, String attribute) {
+        return SpecificationUtils.getPath(root, attribute);
+    }
+
+    /**
+     * Returns the Java type of an attribute, possibly a nested path such as <code>role.name</code>, using the JPA
+     * metamodel. For a collection the element type is returned.
+     *
+     * @param type      the managed type the path starts from
+     * @param attribute the attribute path
+     * @return the Java type of the attribute, or {@code null} if the path does not resolve
+     */
+    public static Class<?> attributeType(ManagedType<?> type, String attribute) {
+        return AttributePath.of(type, attribute).getJavaType();
+    }
+
+    /**
+     * Resolves a sort property against the given root: an attribute path, or the {@link Relevance} of an attribute for
+     * a full-text query.
+     *
+     * @param root            the query root
+     * @param property        the sort property
+     * @param criteriaBuilder the criteria builder
+     * @param dialect         the dialect computing the relevance
+     * @param <T>             the entity type
+     * @return the expression to sort by
+     */
+    public static <T> Expression<?> resolveSortExpression(Root<T> root, String property, CriteriaBuilder criteriaBuilder, QueryDialect dialect) {
+        String[] relevance = Relevance.parse(property);
+        if (relevance != null) {
+            return dialect.relevance(criteriaBuilder, resolvePath(root, relevance[0]), relevance[1]);
+        }
+        return resolvePath(root, property);
+    }
+
+    /**
+     * Builds the predicate for the filter's operator against the given expression, with the case-insensitive and
+     * full-text operators of {@link QueryDialect#LOWER_CASE}.
+     *
+     * @param filter          the filter holding the operator and the value
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the expression the filter is applied to
+     * @return the predicate for the filter
+     */
+    public static Predicate predicate(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> expression) {
+        return predicate(filter, criteriaBuilder, expression, QueryDialect.LOWER_CASE);
+    }
+
+    /**
+     * Builds the predicate for the filter's operator against the given expression.
+     *
+     * @param filter          the filter holding the operator and the value
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the expression the filter is applied to
+     * @param dialect         the dialect translating the case-insensitive and full-text operators
+     * @return the predicate for the filter
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Predicate predicate(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> expression, QueryDialect dialect) {
+        return switch (filter.getOperator()) {
+            case EQ -> eq(filter, criteriaBuilder, expression);
+            case NOT_EQ -> notEq(filter, criteriaBuilder, expression);
+            case GTE -> gte(filter, criteriaBuilder, (Expression<? extends Comparable>) expression);
+            case LTE -> lte(filter, criteriaBuilder, (Expression<? extends Comparable>) expression);
+            case GT -> gt(filter, criteriaBuilder, (Expression<? extends Comparable>) expression);
+            case LT -> lt(filter, criteriaBuilder, (Expression<? extends Comparable>) expression);
+            case LIKE -> like(filter, criteriaBuilder, expression);
+            case NOT_LIKE -> notLike(filter, criteriaBuilder, expression);
+            case STARTS_WITH -> startsWith(filter, criteriaBuilder, expression);
+            case ENDS_WITH -> endsWith(filter, criteriaBuilder, expression);
+            case MATCHES -> matches(filter, criteriaBuilder, expression);
+            case EQ_IGNORE_CASE -> eqIgnoreCase(filter, criteriaBuilder, expression, dialect);
+            case LIKE_IGNORE_CASE -> likeIgnoreCase(filter, criteriaBuilder, expression, dialect);
+            case STARTS_WITH_IGNORE_CASE -> startsWithIgnoreCase(filter, criteriaBuilder, expression, dialect);
+            case FULL_TEXT -> fullText(filter, criteriaBuilder, expression, dialect);
+            case BETWEEN -> between(filter, criteriaBuilder, (Expression<? extends Comparable>) expression);
+            case IN -> in(filter, criteriaBuilder, expression);
+        };
+    }
+
+    public static Predicate eq(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath) {
         if (filter.getValue() == null) {
             return criteriaBuilder.isNull(fieldPath);
         }
         return criteriaBuilder.equal(fieldPath, filter.getValue());
     }
 
-    public static Predicate notEq(Filter filter, CriteriaBuilder criteriaBuilder, Path<?> fieldPath) {
+    public static Predicate notEq(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath) {
         if (filter.getValue() == null) {
             return criteriaBuilder.isNotNull(fieldPath);
         }
@@ -35,7 +131,7 @@ public class SpecificationEngine {
         );
     }
 
-    public static CriteriaBuilder.In<Object> in(Filter filter, CriteriaBuilder criteriaBuilder, Path<?> fieldPath) {
+    public static CriteriaBuilder.In<Object> in(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath) {
         if (!(filter.getValue() instanceof Collection<?> values)) {
             throw new SpecificationBuilderException("IN operator requires a collection of values");
         }
@@ -60,18 +156,120 @@ public class SpecificationEngine {
         );
     }
 
-    public static Predicate notLike(Filter filter, CriteriaBuilder criteriaBuilder, Path<?> fieldPath) {
-        if (!(filter.getValue() instanceof String value)) {
-            throw new SpecificationBuilderException("NOT_LIKE operator requires a String value");
+    public static Predicate notLike(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath) {
+        String value = textValue(filter);
+        return likePattern(criteriaBuilder, fieldPath, "%" + escape(value) + "%", value, true);
+    }
+
+    public static Predicate like(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath) {
+        String value = textValue(filter);
+        return likePattern(criteriaBuilder, fieldPath, "%" + escape(value) + "%", value, false);
+    }
+
+    public static Predicate startsWith(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath) {
+        String value = textValue(filter);
+        return likePattern(criteriaBuilder, fieldPath, escape(value) + "%", value, false);
+    }
+
+    public static Predicate endsWith(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath) {
+        String value = textValue(filter);
+        return likePattern(criteriaBuilder, fieldPath, "%" + escape(value), value, false);
+    }
+
+    public static Predicate matches(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath) {
+        return criteriaBuilder.like(asString(fieldPath), textValue(filter));
+    }
+
+    public static Predicate eqIgnoreCase(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath, QueryDialect dialect) {
+        return dialect.equalIgnoreCase(criteriaBuilder, asString(fieldPath), dialect.foldCase(textValue(filter)));
+    }
+
+    public static Predicate likeIgnoreCase(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath, QueryDialect dialect) {
+        String value = dialect.foldCase(textValue(filter));
+        return dialect.likeIgnoreCase(criteriaBuilder, asString(fieldPath), "%" + escape(value) + "%", escapeChar(value));
+    }
+
+    public static Predicate startsWithIgnoreCase(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath, QueryDialect dialect) {
+        String value = dialect.foldCase(textValue(filter));
+        return dialect.likeIgnoreCase(criteriaBuilder, asString(fieldPath), escape(value) + "%", escapeChar(value));
+    }
+
+    public static Predicate fullText(Filter filter, CriteriaBuilder criteriaBuilder, Expression<?> fieldPath, QueryDialect dialect) {
+        if (!(fieldPath instanceof Path<?> path)) {
+            throw new SpecificationBuilderException("FULL_TEXT operator requires an attribute");
+        }
+        String query = textValue(filter);
+        if (query.isBlank()) {
+            throw new SpecificationBuilderException("FULL_TEXT operator requires at least one word");
         }
-        return criteriaBuilder.notLike(fieldPath.as(String.class), "%" + value + "%");
+        return dialect.fullText(criteriaBuilder, path, query);
     }
 
-    public static Predicate like(Filter filter, CriteriaBuilder criteriaBuilder, Path<?> fieldPath) {
+    private static Character escapeChar(String value) {
+        return needsEscape(value) ? LIKE_ESCAPE : null;
+    }
+
+    private static String textValue(Filter filter) {
         if (!(filter.getValue() instanceof String value)) {
-            throw new SpecificationBuilderException("LIKE operator requires a String value");
+            throw new SpecificationBuilderException(filter.getOperator() + " operator requires a String value");
+        }
+        return value;
+    }
+
+    // Only patterns with escaped characters declare the escape character, plain patterns keep the simpler SQL
+    private static Predicate likePattern(CriteriaBuilder criteriaBuilder, Expression<?> fieldPath, String pattern, String value, boolean negated) {
+        Expression<String> text = asString(fieldPath);
+        if (needsEscape(value)) {
+            return negated ? criteriaBuilder.notLike(text, pattern, LIKE_ESCAPE) : criteriaBuilder.like(text, pattern, LIKE_ESCAPE);
+        }
+        return negated ? criteriaBuilder.notLike(text, pattern) : criteriaBuilder.like(text, pattern);
+    }
+
+    /**
+     * Escapes the LIKE wildcards of a value, so it is matched literally in a pattern using {@link #LIKE_ESCAPE}.
+     *
+     * @param value the value to escape
+     * @return the escaped value
+     */
+    public static String escape(String value) {
+        return escape(value, LIKE_ESCAPE);
+    }
+
+    /**
+     * Escapes the LIKE wildcards of a value, so it is matched literally in a pattern using the given escape character.
+     *
+     * @param value      the value to escape
+     * @param escapeChar the escape character of the pattern
+     * @return the escaped value
+     */
+    public static String escape(String value, char escapeChar) {
+        if (!needsEscape(value, escapeChar)) return value;
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == escapeChar) {
+                escaped.append(escapeChar);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static boolean needsEscape(String value) {
+        return needsEscape(value, LIKE_ESCAPE);
+    }
+
+    private static boolean needsEscape(String value, char escapeChar) {
+        return value.indexOf('%') >= 0 || value.indexOf('_') >= 0 || value.indexOf(escapeChar) >= 0;
+    }
+
+    // Casts only non-string expressions, a cast on a string column would keep the database from using its index
+    @SuppressWarnings("unchecked")
+    private static Expression<String> asString(Expression<?> fieldPath) {
+        if (fieldPath.getJavaType() == String.class) {
+            return (Expression<String>) fieldPath;
         }
-        return criteriaBuilder.like(fieldPath.as(String.class), "%" + value + "%");
+        return fieldPath.as(String.class);
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -100,8 +298,11 @@ public class SpecificationEngine {
 
     // Utility method to apply the selected fields to the CriteriaQuery
     public static <T, R> void applySelection(Root<T> root, CriteriaQuery<Tuple> query, CriteriaBuilder criteriaBuilder, Class<R> dtoClass) {
-        List<String> selectedFields = ReflectionUtils.getAttributeNames(dtoClass);
+        applySelection(root, query, criteriaBuilder, ReflectionUtils.getAttributeNames(dtoClass));
+    }
 
+    // Selects the given attributes of the root entity, in order, aliased by their names
+    public static <T> void applySelection(Root<T> root, CriteriaQuery<Tuple> query, CriteriaBuilder criteriaBuilder, List<String> selectedFields) {
         // Create selections for the selected fields from the root entity
         List<? extends Selection<?>> selections = selectedFields.stream()
                 .map(field -> {
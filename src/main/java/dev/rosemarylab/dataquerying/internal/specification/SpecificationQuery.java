@@ -1,42 +1,79 @@
 package dev.rosemarylab.dataquerying.internal.specification;
 
 import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.QueryVisitor;
 import dev.rosemarylab.dataquerying.api.SearchOperator;
-import jakarta.persistence.criteria.Join;
+import dev.rosemarylab.dataquerying.api.UnionPolicy;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Default implementation of the {@link Query} interface using a {@link Specification}-based approach.
+ * <p>Instances are immutable: every builder method returns a new query, sharing the unchanged state of this one, so a
+ * query can be extended in several ways, cached and shared between threads. The conditions are kept as a tree of
+ * immutable {@link QueryNode}s, where the conditions combined with the same operator form one flat group.</p>
  *
  * @param <T> the type of the entity being queried.
  */
-public class SpecificationQuery<T> implements Query<T> {
-    private Specification<T> specification;
-    private boolean distinct = false;
+public final class SpecificationQuery<T> implements Query<T> {
+    private static final SpecificationQuery<?> EMPTY = new SpecificationQuery<>(null, false, Set.of(), Set.of(), false);
 
-    private SpecificationQuery() {
-        this.specification = new SpecificationWrapper<>(null);
+    // The conditions of the query, null while it has none
+    private final QueryNode root;
+    private final boolean distinct;
+    // Explicit joins, applied before any predicate so that filters and sorting reuse them
+    private final Set<JoinKey> joins;
+    // Nested filter paths whose joins can be INNER: the filters reject NULLs and are only ever combined with AND
+    private final Set<String> innerJoinPaths;
+    private final boolean unionOr;
+
+    private record JoinKey(String path, JoinType joinType) {
+    }
+
+    // The sets are never modified once they are given to an instance
+    private SpecificationQuery(QueryNode root, boolean distinct, Set<JoinKey> joins, Set<String> innerJoinPaths, boolean unionOr) {
+        this.root = root;
+        this.distinct = distinct;
+        this.joins = joins;
+        this.innerJoinPaths = innerJoinPaths;
+        this.unionOr = unionOr;
     }
 
+    @SuppressWarnings("unchecked")
     public static <T> Query<T> get() {
-        return new SpecificationQuery<>();
+        return (Query<T>) EMPTY;
+    }
+
+    public static <T> Query<T> none() {
+        return new SpecificationQuery<>(QueryNode.NOTHING, false, Set.of(), Set.of(), false);
+    }
+
+    /**
+     * Tells whether the query is known to match no entity, so it doesn't need to be executed.
+     *
+     * @param query the query
+     * @return {@code true} if the query matches nothing
+     */
+    public static boolean isNone(Query<?> query) {
+        return query instanceof SpecificationQuery<?> specificationQuery && QueryNode.isNothing(specificationQuery.root);
     }
 
     public static <T> Query<T> get(Specification<T> specification) {
-        SpecificationQuery<T> instance = new SpecificationQuery<>();
-        instance.specification = Specification.where(specification);
-        return instance;
+        QueryNode root = specification == null ? null : new QueryNode.Custom(specification);
+        return new SpecificationQuery<>(root, false, Set.of(), Set.of(), false);
     }
 
+    @SuppressWarnings("unchecked")
     public static <T> Query<T> get(Query<T> query) {
-        SpecificationQuery<T> instance = new SpecificationQuery<>();
-        instance.specification = Specification.where(query.buildSpecification());
-        return instance;
+        return ((SpecificationQuery<T>) EMPTY).add(query, true);
     }
 
     public static <T> SpecificationQuery<T> where(String attribute, Object value) {
@@ -44,9 +81,8 @@ public class SpecificationQuery<T> implements Query<T> {
     }
 
     public static <T> SpecificationQuery<T> where(String attribute, SearchOperator operator, Object value) {
-        SpecificationQuery<T> instance = new SpecificationQuery<>();
-        instance.specification = new SpecificationWrapper<>(new Filter(attribute, operator, value));
-        return instance;
+        QueryNode root = new QueryNode.Condition(new Filter(attribute, operator, value));
+        return new SpecificationQuery<>(root, false, Set.of(), innerJoinCandidates(Set.of(), attribute, operator, value), false);
     }
 
     @Override
@@ -56,15 +92,13 @@ public class SpecificationQuery<T> implements Query<T> {
 
     @Override
     public SpecificationQuery<T> and(String attribute, SearchOperator operator, Object value) {
-        Specification<T> newSpec = new SpecificationWrapper<>(new Filter(attribute, operator, value));
-        this.specification = this.specification.and(newSpec);
-        return this;
+        QueryNode combined = QueryNode.combine(this.root, new QueryNode.Condition(new Filter(attribute, operator, value)), true);
+        return new SpecificationQuery<>(combined, distinct, joins, innerJoinCandidates(innerJoinPaths, attribute, operator, value), unionOr);
     }
 
     @Override
     public SpecificationQuery<T> and(Query<T> query) {
-        this.specification = this.specification.and(query.buildSpecification());
-        return this;
+        return add(query, true);
     }
 
     @Override
@@ -74,73 +108,155 @@ public class SpecificationQuery<T> implements Query<T> {
 
     @Override
     public SpecificationQuery<T> or(String attribute, SearchOperator operator, Object value) {
-        Specification<T> newSpec = new SpecificationWrapper<>(new Filter(attribute, operator, value));
-        this.specification = this.specification.or(newSpec);
-        return this;
+        QueryNode combined = QueryNode.combine(this.root, new QueryNode.Condition(new Filter(attribute, operator, value)), false);
+        // Once OR-ed, no filter is required to hold on its own anymore
+        return new SpecificationQuery<>(combined, distinct, joins, Set.of(), unionOr);
     }
 
     @Override
     public SpecificationQuery<T> or(Query<T> query) {
-        this.specification = this.specification.or(query.buildSpecification());
-        return this;
+        return add(query, false);
     }
 
-    @Override
-    public SpecificationQuery<T> join(String joinAttribute, JoinType joinType) {
-        Specification<T> joinSpec = (root, query, criteriaBuilder) -> {
-            String[] attributes = joinAttribute.split("\\.");
-            Join<?, ?> join = null;
-
-            // Perform the join(s)
-            for (int i = 0; i < attributes.length; i++) {
-                if (i == 0) {
-                    // First part joins directly from the root
-                    join = root.join(attributes[i], joinType);
-                } else {
-                    // Subsequent parts join from the previous join
-                    join = join.join(attributes[i], joinType);
-                }
-            }
-
-            // Return null to avoid adding unnecessary predicates
-            return null;
-        };
+    // Combines the conditions of another query with this one. The joins and the DISTINCT flag of the other query apply
+    // to the whole criteria query, so they are taken over as well.
+    private SpecificationQuery<T> add(Query<T> query, boolean and) {
+        if (query instanceof SpecificationQuery<T> other) {
+            Set<String> innerPaths = and ? union(this.innerJoinPaths, other.innerJoinPaths) : Set.of();
+            return new SpecificationQuery<>(QueryNode.combine(this.root, other.root, and), this.distinct || other.distinct,
+                    union(this.joins, other.joins), innerPaths, unionOr);
+        }
+        QueryNode combined = QueryNode.combine(this.root, new QueryNode.Custom(query.buildSpecification()), and);
+        return new SpecificationQuery<>(combined, distinct, joins, and ? innerJoinPaths : Set.of(), unionOr);
+    }
 
-        this.specification = this.specification == null ? joinSpec : this.specification.and(joinSpec);
+    @Override
+    public SpecificationQuery<T> unionOr() {
+        return unionOr ? this : new SpecificationQuery<>(root, distinct, joins, innerJoinPaths, true);
+    }
 
-        return this;
+    @Override
+    public SpecificationQuery<T> join(String joinAttribute, JoinType joinType) {
+        return new SpecificationQuery<>(root, distinct, union(joins, Set.of(new JoinKey(joinAttribute, joinType))), innerJoinPaths, unionOr);
     }
 
     @Override
     public SpecificationQuery<T> distinct() {
-        this.distinct = true;
-        return this;
+        return distinct ? this : new SpecificationQuery<>(root, true, joins, innerJoinPaths, unionOr);
     }
 
     @Override
     public Specification<T> buildSpecification() {
-        return (root, query, criteriaBuilder) -> {
-            if (query == null) return null;
+        return buildSpecification(QueryDialect.LOWER_CASE);
+    }
 
-            List<Predicate> predicates = new ArrayList<>();
+    @Override
+    public Specification<T> buildSpecification(QueryDialect dialect) {
+        return buildSpecification(this.root, false, dialect);
+    }
 
-            if (this.distinct) {
-                query = query.distinct(true);
-            }
+    /**
+     * Builds the specification of a query that is the whole restriction of the criteria query, as opposed to a part
+     * composed with other specifications. Joins on nested paths that are only filtered with NULL-rejecting conditions
+     * combined with AND are then created as {@link JoinType#INNER} joins, which lets the database pick the join order.
+     *
+     * @param dialect the dialect translating the case-insensitive and full-text operators
+     * @return the {@link Specification} of the query
+     */
+    public Specification<T> buildRootSpecification(QueryDialect dialect) {
+        return buildSpecification(this.root, true, dialect);
+    }
+
+    /**
+     * Builds the root specification of the query, see {@link #buildRootSpecification(QueryDialect)}. Queries of other
+     * implementations build their regular specification.
+     *
+     * @param query   the query
+     * @param dialect the dialect translating the case-insensitive and full-text operators
+     * @param <T>     the entity type
+     * @return the {@link Specification} of the query
+     */
+    public static <T> Specification<T> rootSpecification(Query<T> query, QueryDialect dialect) {
+        return query instanceof SpecificationQuery<T> specificationQuery
+                ? specificationQuery.buildRootSpecification(dialect)
+                : query.buildSpecification(dialect);
+    }
 
-            // Collect predicates from the specification
-            if (specification != null) {
-                Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
-                if (predicate != null && SpecificationUtils.isNonTrivialPredicate(predicate, criteriaBuilder)) {
-                    predicates.add(predicate);
+    /**
+     * Returns the specifications of the top-level OR branches of the query, if they are to be run as separate
+     * queries, because of {@link Query#unionOr()} or of the given {@link UnionPolicy}. Each specification applies the
+     * joins and the DISTINCT of the whole query.
+     *
+     * @param query       the query
+     * @param unionPolicy the policy deciding whether the branches of a query not marked with {@link Query#unionOr()}
+     *                    run separately
+     * @param dialect     the dialect translating the case-insensitive and full-text operators
+     * @param <T>         the entity type
+     * @return the specifications of the branches, or {@code null} if the query runs as a single query
+     */
+    public static <T> List<Specification<T>> unionBranches(Query<T> query, UnionPolicy unionPolicy, QueryDialect dialect) {
+        if (!(query instanceof SpecificationQuery<T> specificationQuery)
+                || !(specificationQuery.root instanceof QueryNode.Group group) || group.and()
+                || QueryNode.isNothing(group)) {
+            return null;
+        }
+        if (!specificationQuery.unionOr) {
+            List<Set<String>> branchAttributes = new ArrayList<>();
+            group.children().forEach(branch -> branchAttributes.add(QueryNode.attributes(branch)));
+            if (!unionPolicy.useUnion(branchAttributes)) return null;
+        }
+        return group.children().stream()
+                .map(branch -> specificationQuery.buildSpecification(branch, false, dialect))
+                .toList();
+    }
+
+    @Override
+    public <R> R accept(QueryVisitor<R> visitor) {
+        return accept(root, List.copyOf(joins), distinct, visitor);
+    }
+
+    private static <R> R accept(QueryNode node, List<JoinKey> joins, boolean distinct, QueryVisitor<R> visitor) {
+        if (distinct) {
+            visitor.visitDistinct();
+        }
+        joins.forEach(join -> visitor.visitJoin(join.path(), join.joinType()));
+        return QueryNode.accept(node, visitor);
+    }
+
+    private Specification<T> buildSpecification(QueryNode node, boolean innerJoins, QueryDialect dialect) {
+        boolean isDistinct = this.distinct;
+        List<JoinKey> joinKeys = List.copyOf(this.joins);
+        List<String> innerPaths = innerJoins ? List.copyOf(this.innerJoinPaths) : List.of();
+        return (root, query, criteriaBuilder) -> {
+            if (query == null) return null;
+
+            if (root.getModel() != null) {
+                for (String path : innerPaths) {
+                    AttributePath.of(root.getModel(), path).joinAssociations(root, JoinType.INNER);
                 }
             }
-            // Combine predicates if they are not empty
-            if (!predicates.isEmpty()) {
-                query = query.where(criteriaBuilder.and(predicates.toArray(new Predicate[0])));
+            Predicate predicate = accept(node, joinKeys, isDistinct, new PredicateVisitor<>(root, query, criteriaBuilder, dialect));
+            if (predicate != null && SpecificationUtils.isNonTrivialPredicate(predicate, criteriaBuilder)) {
+                query = query.where(criteriaBuilder.and(predicate));
             }
 
             return query.getRestriction();
         };
     }
+
+    // A filter on a nested path rejects the rows where the association is missing, unless it matches NULL
+    private static Set<String> innerJoinCandidates(Set<String> paths, String attribute, SearchOperator operator, Object value) {
+        if (attribute != null && attribute.indexOf('.') >= 0 && (value != null || operator == SearchOperator.NOT_EQ)) {
+            return union(paths, Set.of(attribute));
+        }
+        return paths;
+    }
+
+    // The elements of both sets in order, without copying when the second set adds nothing
+    private static <E> Set<E> union(Set<E> first, Set<E> second) {
+        if (first.containsAll(second)) return first;
+        Set<E> union = new LinkedHashSet<>(first);
+        union.addAll(second);
+        return Collections.unmodifiableSet(union);
+    }
 }
@@ -10,8 +10,12 @@ class SpecificationUtils {
 
     // Utility method to retrieve the correct Path based on attribute
     static <T> Path<?> getPath(Root<T> root, String attribute) throws AttributeNotFoundException, JoinNotFoundException {
+        if (root.getModel() != null) {
+            return AttributePath.of(root.getModel(), attribute).resolve(root);
+        }
+        // Without a metamodel, the path is resolved by trial against the criteria API
         if (attribute.contains(".")) {
-            String[] parts = attribute.split("\\.");
+            String[] parts = AttributePath.split(attribute);
             Join<?, ?> join = root.getJoins().stream()
                     .filter(e -> e.getAttribute().getName().equals(parts[0]))
                     .findFirst()
@@ -1,41 +1,42 @@
 package dev.rosemarylab.dataquerying.internal.specification;
 
+import dev.rosemarylab.dataquerying.api.QueryDialect;
 import dev.rosemarylab.dataquerying.api.SearchOperator;
 import jakarta.persistence.criteria.*;
 import org.springframework.data.jpa.domain.Specification;
 
 public class SpecificationWrapper<T> implements Specification<T> {
     private final transient Filter filter;
+    private final transient QueryDialect dialect;
 
     public SpecificationWrapper(Filter filter) {
+        this(filter, QueryDialect.LOWER_CASE);
+    }
+
+    public SpecificationWrapper(Filter filter, QueryDialect dialect) {
+        if (dialect == null)
+            throw new IllegalArgumentException("Dialect cannot be null.");
         this.filter = filter;
+        this.dialect = dialect;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
-        if (filter == null || isFilterInvalid()) {
+        return predicate(filter, root, criteriaBuilder, dialect);
+    }
+
+    // Returns the predicate of the filter, or null if the filter is missing or incomplete
+    static Predicate predicate(Filter filter, Root<?> root, CriteriaBuilder criteriaBuilder, QueryDialect dialect) {
+        if (filter == null || isFilterInvalid(filter)) {
             // Return null to avoid adding trivial predicates
             return null;
         }
 
         Path<?> fieldPath = SpecificationUtils.getPath(root, filter.getAttribute());
-        return switch (filter.getOperator()) {
-            case EQ -> SpecificationEngine.eq(filter, criteriaBuilder, fieldPath);
-            case NOT_EQ -> SpecificationEngine.notEq(filter, criteriaBuilder, fieldPath);
-            case GTE -> SpecificationEngine.gte(filter, criteriaBuilder, (Expression<? extends Comparable>) fieldPath);
-            case LTE -> SpecificationEngine.lte(filter, criteriaBuilder, (Expression<? extends Comparable>) fieldPath);
-            case GT -> SpecificationEngine.gt(filter, criteriaBuilder, (Expression<? extends Comparable>) fieldPath);
-            case LT -> SpecificationEngine.lt(filter, criteriaBuilder, (Expression<? extends Comparable>) fieldPath);
-            case LIKE -> SpecificationEngine.like(filter, criteriaBuilder, fieldPath);
-            case NOT_LIKE -> SpecificationEngine.notLike(filter, criteriaBuilder, fieldPath);
-            case BETWEEN ->
-                    SpecificationEngine.between(filter, criteriaBuilder, (Expression<? extends Comparable>) fieldPath);
-            case IN -> SpecificationEngine.in(filter, criteriaBuilder, fieldPath);
-        };
+        return SpecificationEngine.predicate(filter, criteriaBuilder, fieldPath, dialect);
     }
 
-    private boolean isFilterInvalid() {
+    private static boolean isFilterInvalid(Filter filter) {
         return filter.getAttribute() == null ||
                 (filter.getValue() == null && (filter.getOperator() != SearchOperator.EQ && filter.getOperator() != SearchOperator.NOT_EQ));
     }
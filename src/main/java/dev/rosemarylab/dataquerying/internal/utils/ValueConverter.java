@@ -0,0 +1,127 @@
+package dev.rosemarylab.dataquerying.internal.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.time.temporal.Temporal;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Converts filter values as they come from JSON (strings, numbers and booleans) to the Java type of the attribute
+ * they are compared with, so the database compares values of the column's own type.
+ */
+public class ValueConverter {
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            boolean.class, Boolean.class,
+            byte.class, Byte.class,
+            short.class, Short.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class,
+            char.class, Character.class);
+
+    private ValueConverter() {
+    }
+
+    /**
+     * Returns the wrapper of a primitive type.
+     *
+     * @param type the type
+     * @return the wrapper of the type if it is primitive, otherwise the type itself
+     */
+    public static Class<?> wrapper(Class<?> type) {
+        return WRAPPERS.getOrDefault(type, type);
+    }
+
+    /**
+     * Converts the value to the given type.
+     *
+     * @param value the value to convert, may be {@code null}
+     * @param type  the target type, primitive types are converted to their wrapper
+     * @return the converted value, or the value itself if it already has the type or no conversion is known
+     * @throws IllegalArgumentException if the value cannot be represented in the target type
+     */
+    public static Object convert(Object value, Class<?> type) {
+        if (value == null || type == null) return value;
+        Class<?> target = WRAPPERS.getOrDefault(type, type);
+        if (target.isInstance(value)) return value;
+
+        try {
+            if (value instanceof Number number) return fromNumber(number, target, value);
+            if (value instanceof String text) return fromString(text, target, value);
+        } catch (ArithmeticException | DateTimeException e) {
+            throw new IllegalArgumentException(invalid(value, target));
+        }
+        return value;
+    }
+
+    private static Object fromNumber(Number number, Class<?> target, Object value) {
+        if (target == Long.class) return new BigDecimal(number.toString()).longValueExact();
+        if (target == Integer.class) return new BigDecimal(number.toString()).intValueExact();
+        if (target == Short.class) return new BigDecimal(number.toString()).shortValueExact();
+        if (target == Byte.class) return new BigDecimal(number.toString()).byteValueExact();
+        if (target == Double.class) return number.doubleValue();
+        if (target == Float.class) return number.floatValue();
+        if (target == BigDecimal.class) return new BigDecimal(number.toString());
+        if (target == BigInteger.class) return new BigDecimal(number.toString()).toBigIntegerExact();
+        if (target == Instant.class) return Instant.ofEpochMilli(number.longValue());
+        if (target == String.class) return number.toString();
+        if (target == Boolean.class || target == Character.class || target == UUID.class || target.isEnum()
+                || Temporal.class.isAssignableFrom(target)) {
+            throw new IllegalArgumentException(invalid(value, target));
+        }
+        return value;
+    }
+
+    private static Object fromString(String text, Class<?> target, Object value) {
+        try {
+            if (target == Long.class) return Long.valueOf(text);
+            if (target == Integer.class) return Integer.valueOf(text);
+            if (target == Short.class) return Short.valueOf(text);
+            if (target == Byte.class) return Byte.valueOf(text);
+            if (target == Double.class) return Double.valueOf(text);
+            if (target == Float.class) return Float.valueOf(text);
+            if (target == BigDecimal.class) return new BigDecimal(text);
+            if (target == BigInteger.class) return new BigInteger(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(invalid(value, target));
+        }
+        if (target == Boolean.class) {
+            if (text.equalsIgnoreCase("true")) return Boolean.TRUE;
+            if (text.equalsIgnoreCase("false")) return Boolean.FALSE;
+            throw new IllegalArgumentException(invalid(value, target));
+        }
+        if (target == Character.class) {
+            if (text.length() == 1) return text.charAt(0);
+            throw new IllegalArgumentException(invalid(value, target));
+        }
+        if (target.isEnum()) return toEnum(text, target, value);
+        if (target == UUID.class) {
+            try {
+                return UUID.fromString(text);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(invalid(value, target));
+            }
+        }
+        if (target == LocalDate.class) return LocalDate.parse(text);
+        if (target == LocalDateTime.class) return LocalDateTime.parse(text);
+        if (target == LocalTime.class) return LocalTime.parse(text);
+        if (target == Instant.class) return Instant.parse(text);
+        if (target == OffsetDateTime.class) return OffsetDateTime.parse(text);
+        if (target == ZonedDateTime.class) return ZonedDateTime.parse(text);
+        return value;
+    }
+
+    private static Object toEnum(String text, Class<?> target, Object value) {
+        for (Object constant : target.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equalsIgnoreCase(text)) return constant;
+        }
+        throw new IllegalArgumentException(invalid(value, target));
+    }
+
+    private static String invalid(Object value, Class<?> target) {
+        return "Value '" + value + "' is not a valid " + target.getSimpleName();
+    }
+}
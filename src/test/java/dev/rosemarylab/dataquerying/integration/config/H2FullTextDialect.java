@@ -0,0 +1,31 @@
+package dev.rosemarylab.dataquerying.integration.config;
+
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Full-text search through H2's native index. The index covers whole rows, so the attribute only selects the entity
+ * whose row is searched.
+ */
+public class H2FullTextDialect implements QueryDialect {
+    private final String table;
+
+    public H2FullTextDialect(String table) {
+        this.table = table;
+    }
+
+    @Override
+    public Predicate fullText(CriteriaBuilder criteriaBuilder, Path<?> path, String query) {
+        return criteriaBuilder.isTrue(criteriaBuilder.function("ft_match", Boolean.class,
+                path.getParentPath().get("id"), criteriaBuilder.literal(query), criteriaBuilder.literal(table)));
+    }
+
+    @Override
+    public Expression<? extends Number> relevance(CriteriaBuilder criteriaBuilder, Path<?> path, String query) {
+        return criteriaBuilder.function("ft_score", Double.class,
+                path.getParentPath().get("id"), criteriaBuilder.literal(query), criteriaBuilder.literal(table));
+    }
+}
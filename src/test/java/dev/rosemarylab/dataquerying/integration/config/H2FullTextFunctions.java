@@ -0,0 +1,23 @@
+package dev.rosemarylab.dataquerying.integration.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers functions searching H2's native full-text index (<code>FT_SEARCH_DATA</code>), called with the id of the
+ * entity, the query and the indexed table.
+ */
+public class H2FullTextFunctions implements FunctionContributor {
+    private static final String MATCHES = "from FT_SEARCH_DATA(?2, 0, 0) ft where ft.\"TABLE\" = ?3 and cast(ft.keys[1] as bigint) = ?1";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern("ft_match",
+                "exists(select 1 " + MATCHES + ")", types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern("ft_score",
+                "coalesce((select max(ft.score) " + MATCHES + "), 0)", types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
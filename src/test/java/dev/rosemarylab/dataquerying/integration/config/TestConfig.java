@@ -1,7 +1,9 @@
 package dev.rosemarylab.dataquerying.integration.config;
 
 import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -9,10 +11,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
 import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
 
 import javax.sql.DataSource;
-import java.util.Properties;
+import java.util.Map;
 
 @Configuration
 @EnableJpaRepositories(basePackages = "dev.rosemarylab.dataquerying.integration.repository")
@@ -26,17 +30,22 @@ public class TestConfig {
                 .build();
     }
 
+    // Entity listeners are created by Spring, as Spring Boot configures Hibernate to do
     @Bean
-    @SuppressWarnings("unused")
-    public EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+    public EntityManagerFactory entityManagerFactory(DataSource dataSource, ConfigurableListableBeanFactory beanFactory) {
         HibernatePersistenceProvider persistenceProvider = new HibernatePersistenceProvider();
-        return persistenceProvider.createEntityManagerFactory("test-unit", new Properties());
+        return persistenceProvider.createEntityManagerFactory("test-unit", Map.of(
+                "jakarta.persistence.nonJtaDataSource", dataSource,
+                AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory)));
     }
 
+    // The data source and the dialect expose the connection of the JPA transaction to JDBC
     @Bean
-    public JpaTransactionManager transactionManager(@Autowired EntityManagerFactory emf) {
+    public JpaTransactionManager transactionManager(@Autowired EntityManagerFactory emf, DataSource dataSource) {
         JpaTransactionManager txManager = new JpaTransactionManager();
         txManager.setEntityManagerFactory(emf);
+        txManager.setDataSource(dataSource);
+        txManager.setJpaDialect(new HibernateJpaDialect());
         return txManager;
     }
 }
@@ -5,6 +5,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @SuppressWarnings("JpaDataSourceORMInspection")
 @Entity
 @Table(name = "roles")
@@ -17,4 +20,7 @@ public class Role {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String name;
+
+    @OneToMany(mappedBy = "role")
+    private List<User> users = new ArrayList<>();
 }
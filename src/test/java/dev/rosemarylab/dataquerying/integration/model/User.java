@@ -1,5 +1,6 @@
 package dev.rosemarylab.dataquerying.integration.model;
 
+import dev.rosemarylab.dataquerying.api.EntityReplicaListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -9,6 +10,7 @@ import lombok.Setter;
 @SuppressWarnings("JpaDataSourceORMInspection")
 @Entity
 @Table(name = "users")
+@EntityListeners(EntityReplicaListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,183 @@
+package dev.rosemarylab.dataquerying.integration.test;
+
+import dev.rosemarylab.dataquerying.api.*;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.integration.config.TestConfig;
+import dev.rosemarylab.dataquerying.integration.dto.RoleDto;
+import dev.rosemarylab.dataquerying.integration.dto.UserDto;
+import dev.rosemarylab.dataquerying.integration.model.Role;
+import dev.rosemarylab.dataquerying.integration.model.User;
+import dev.rosemarylab.dataquerying.integration.repository.RoleRepository;
+import dev.rosemarylab.dataquerying.integration.repository.UserRepository;
+import dev.rosemarylab.dataquerying.integration.utils.JsonUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = TestConfig.class)
+@Transactional
+class AggregationIntegrationTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Projection<User, UserDto> projection;
+
+    public record RoleCount(String roleName, Long users) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+
+        Role adminRole = new Role();
+        adminRole.setName("ADMIN");
+        roleRepository.save(adminRole);
+
+        Role userRole = new Role();
+        userRole.setName("USER");
+        roleRepository.save(userRole);
+
+        userRepository.save(new User(null, "Alice", "alice@example.com", false, adminRole));
+        userRepository.save(new User(null, "Bob", "bob@example.com", true, userRole));
+        userRepository.save(new User(null, "Charlie", "charlie@example.com", false, userRole));
+        userRepository.save(new User(null, "Dave", "dave@other.org", false, null));
+        entityManager.flush();
+
+        projection = Projection.create(entityManager, User.class, UserDto.class);
+    }
+
+    @Test
+    void testCountWithoutGrouping() {
+        List<AggregateRow> rows = projection.aggregate(Query.where("superuser", false), Aggregation.create().count("users"));
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.getFirst().get("users", Long.class)).isEqualTo(3L);
+    }
+
+    @Test
+    void testGroupByJoinedPath() {
+        Aggregation aggregation = Aggregation.groupBy("role.name")
+                .count("users")
+                .min("name", "firstName")
+                .orderBy(Sort.by("roleName").descending());
+
+        List<AggregateRow> rows = projection.aggregate(Query.get(), aggregation);
+
+        // Dave has no role, so the LEFT join produces a null group
+        assertThat(rows).extracting(row -> row.get("roleName"), row -> row.get("users"), row -> row.get("firstName"))
+                .containsExactlyInAnyOrder(
+                        tuple("USER", 2L, "Bob"),
+                        tuple("ADMIN", 1L, "Alice"),
+                        tuple(null, 1L, "Dave"));
+    }
+
+    @Test
+    void testFilterOnToManyAssociation_aggregatesEachEntityOnce() {
+        Projection<Role, RoleDto> roles = Projection.create(entityManager, Role.class, RoleDto.class);
+        Aggregation aggregation = Aggregation.create().count("roles");
+
+        // The USER role matches through both Bob and Charlie, yet it is counted once
+        List<AggregateRow> rows = roles.aggregate(Query.where("users.email", SearchOperator.ENDS_WITH, "@example.com"), aggregation);
+
+        assertThat(rows.getFirst().get("roles", Long.class)).isEqualTo(2L);
+    }
+
+    @Test
+    void testHavingFiltersOnAggregatedValue() {
+        Aggregation aggregation = Aggregation.groupBy("role.name")
+                .count("users")
+                .having("users", SearchOperator.GTE, 2);
+
+        List<RoleCount> rows = projection.aggregate(null, aggregation, RoleCount.class);
+
+        assertThat(rows).containsExactly(new RoleCount("USER", 2L));
+    }
+
+    @Test
+    void testHavingUsesTheDialect() {
+        // Leaves the case alone, as a database comparing with a case-insensitive collation would
+        QueryDialect caseSensitive = new QueryDialect() {
+            @Override
+            public Expression<String> foldCase(CriteriaBuilder criteriaBuilder, Expression<String> expression) {
+                return expression;
+            }
+
+            @Override
+            public String foldCase(String value) {
+                return value;
+            }
+        };
+        Projection<User, UserDto> folded = Projection.create(entityManager, User.class, UserDto.class, caseSensitive);
+
+        Query<User> where = Query.where("role.name", SearchOperator.EQ_IGNORE_CASE, "user");
+        Aggregation having = Aggregation.create().thenGroupBy("role.name", "roleName").count("users")
+                .having("roleName", SearchOperator.EQ_IGNORE_CASE, "user");
+
+        // WHERE and HAVING agree on the same condition
+        assertThat(projection.count(where)).isEqualTo(2);
+        assertThat(projection.aggregate(null, having)).hasSize(1);
+        assertThat(folded.count(where)).isZero();
+        assertThat(folded.aggregate(null, having)).isEmpty();
+    }
+
+    @Test
+    void testAggregationFromSearchRequest() {
+        SearchRequest request = JsonUtils.loadSearchRequestFromJson("searchRequest_withAggregations.json");
+
+        List<AggregateRow> rows = projection.aggregate(request.getQuery(), request.getAggregation());
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.getFirst().toMap())
+                .containsEntry("roleName", "USER")
+                .containsEntry("users", 2L)
+                .containsEntry("lastName", "Charlie");
+    }
+
+    @Test
+    void testContradictoryQuery_aggregatesLikeAnEmptyTable() {
+        Query<User> none = Query.none();
+        Query<User> nobody = Query.where("name", "Nobody");
+
+        // Answered without the database, as the database answers a query matching no row
+        for (Query<User> query : List.of(none, nobody)) {
+            List<AggregateRow> rows = projection.aggregate(query, Aggregation.create().count("users").sum("id", "ids"));
+            assertThat(rows).hasSize(1);
+            assertThat(rows.getFirst().toMap()).containsEntry("users", 0L).containsEntry("ids", null);
+            assertThat(projection.aggregate(query, Aggregation.create().count("users").having("users", SearchOperator.GT, 0))).isEmpty();
+            assertThat(projection.aggregate(query, Aggregation.groupBy("role.name").count("users"))).isEmpty();
+            assertThat(projection.aggregate(query, Aggregation.groupBy("role.name").count("users"), RoleCount.class)).isEmpty();
+        }
+        Aggregation unknownAlias = Aggregation.groupBy("role.name").count("users").having("missing", SearchOperator.GT, 1);
+        assertThrows(SpecificationBuilderException.class, () -> projection.aggregate(none, unknownAlias));
+    }
+
+    @Test
+    void testUnknownAliasInHavingThrows() {
+        Aggregation aggregation = Aggregation.groupBy("role.name").count("users").having("missing", SearchOperator.GT, 1);
+
+        assertThrows(SpecificationBuilderException.class, () -> projection.aggregate(Query.get(), aggregation));
+    }
+}
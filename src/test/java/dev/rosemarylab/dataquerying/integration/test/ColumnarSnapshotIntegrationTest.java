@@ -0,0 +1,121 @@
+package dev.rosemarylab.dataquerying.integration.test;
+
+import dev.rosemarylab.dataquerying.api.AggregateRow;
+import dev.rosemarylab.dataquerying.api.Aggregation;
+import dev.rosemarylab.dataquerying.api.ColumnarSnapshot;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.integration.config.TestConfig;
+import dev.rosemarylab.dataquerying.integration.model.Role;
+import dev.rosemarylab.dataquerying.integration.model.User;
+import dev.rosemarylab.dataquerying.integration.repository.RoleRepository;
+import dev.rosemarylab.dataquerying.integration.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = TestConfig.class)
+@Transactional
+class ColumnarSnapshotIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+
+        Role adminRole = new Role();
+        adminRole.setName("ADMIN");
+        roleRepository.save(adminRole);
+        Role userRole = new Role();
+        userRole.setName("USER");
+        roleRepository.save(userRole);
+
+        userRepository.save(new User(null, "Alice", "alice@example.com", false, adminRole));
+        userRepository.save(new User(null, "Bob", "bob@example.com", true, userRole));
+        userRepository.save(new User(null, "Charlie", "charlie@example.com", false, userRole));
+        userRepository.save(new User(null, "Dave", null, false, null));
+        entityManager.flush();
+    }
+
+    @Test
+    void testFiltersMatchDatabase() {
+        try (ColumnarSnapshot<User> snapshot = ColumnarSnapshot.create(entityManager, User.class, directory.resolve("users.snapshot"),
+                "id", "name", "email", "superuser", "role.name")) {
+            long firstId = userRepository.findAll(Sort.by("id")).getFirst().getId();
+            List<Query<User>> queries = List.of(
+                    Query.where("superuser", false),
+                    Query.<User>where("id", SearchOperator.GT, firstId).and("name", SearchOperator.LT, "Dave"),
+                    Query.<User>where("id", SearchOperator.BETWEEN, List.of(firstId, firstId + 1)).or("role.name", null),
+                    Query.<User>where("role.name", SearchOperator.IN, List.of("ADMIN", "GUEST")).or("email", SearchOperator.ENDS_WITH, "e@example.com"),
+                    Query.<User>where("email", SearchOperator.NOT_EQ, "bob@example.com").and("name", SearchOperator.NOT_EQ, "Alice"),
+                    Query.where("role.name", SearchOperator.GTE, "B"),
+                    Query.none());
+
+            assertThat(snapshot.size()).isEqualTo(4);
+            for (Query<User> query : queries) {
+                assertThat(snapshot.count(query)).isEqualTo(userRepository.count(query.buildSpecification()));
+            }
+        }
+    }
+
+    @Test
+    void testAggregateAndRefresh() {
+        Path file = directory.resolve("users.snapshot");
+        try (ColumnarSnapshot<User> snapshot = ColumnarSnapshot.create(entityManager, User.class, file, "name", "superuser", "role.name")) {
+            Aggregation aggregation = Aggregation.groupBy("role.name")
+                    .count("users")
+                    .max("name", "lastName")
+                    .countDistinct("superuser", "flags")
+                    .having("users", SearchOperator.GT, 0)
+                    .orderBy(Sort.by(Sort.Order.desc("users"), Sort.Order.asc("roleName").nullsLast()));
+
+            List<AggregateRow> rows = snapshot.aggregate(Query.where("name", SearchOperator.NOT_EQ, "Bob"), aggregation);
+
+            assertThat(rows).extracting(row -> row.get("roleName"), row -> row.get("users"), row -> row.get("lastName"), row -> row.get("flags"))
+                    .containsExactly(tuple("ADMIN", 1L, "Alice", 1L), tuple("USER", 1L, "Charlie", 1L), tuple(null, 1L, "Dave", 1L));
+
+            userRepository.save(new User(null, "Eve", "eve@example.com", true, null));
+            entityManager.flush();
+            snapshot.refresh();
+            assertThat(snapshot.count(Query.where("superuser", true))).isEqualTo(2);
+            assertThat(file).exists();
+        }
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void testUnknownAttribute_throws() {
+        try (ColumnarSnapshot<User> snapshot = ColumnarSnapshot.create(entityManager, User.class, directory.resolve("users.snapshot"), "name")) {
+            assertThrows(AttributeNotFoundException.class, () -> snapshot.count(Query.where("email", "alice@example.com")));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package dev.rosemarylab.dataquerying.integration.test;
+
+import dev.rosemarylab.dataquerying.api.EntityReplica;
+import dev.rosemarylab.dataquerying.api.Projection;
+import dev.rosemarylab.dataquerying.api.ProjectionFactory;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.integration.config.TestConfig;
+import dev.rosemarylab.dataquerying.integration.dto.UserDto;
+import dev.rosemarylab.dataquerying.integration.model.Role;
+import dev.rosemarylab.dataquerying.integration.model.User;
+import dev.rosemarylab.dataquerying.integration.repository.RoleRepository;
+import dev.rosemarylab.dataquerying.integration.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = TestConfig.class)
+class EntityReplicaIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProjectionFactory projectionFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transaction;
+    private EntityReplica<User> replica;
+
+    // The replica only sees committed changes, so the data is committed and the projections called outside of a transaction
+    @BeforeEach
+    public void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            userRepository.deleteAll();
+            roleRepository.deleteAll();
+
+            Role adminRole = new Role();
+            adminRole.setName("ADMIN");
+            roleRepository.save(adminRole);
+            Role userRole = new Role();
+            userRole.setName("USER");
+            roleRepository.save(userRole);
+
+            userRepository.save(new User(null, "Alice", "alice@example.com", false, adminRole));
+            userRepository.save(new User(null, "Bob", "bob@example.com", true, userRole));
+            userRepository.save(new User(null, "Charlie", "charlie@example.com", false, userRole));
+        });
+
+        replica = EntityReplica.create(entityManager, User.class, "name", "email", "superuser", "role.name");
+        projectionFactory.replicate(replica);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        replica.close();
+        transaction.executeWithoutResult(status -> {
+            userRepository.deleteAll();
+            roleRepository.deleteAll();
+        });
+    }
+
+    // Deletes the rows behind the replica's back, so only the replica can still answer
+    private void deleteFromDatabase() {
+        transaction.executeWithoutResult(status -> entityManager.createNativeQuery("DELETE FROM users").executeUpdate());
+    }
+
+    @Test
+    void testProjectionAnsweredFromReplica() {
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+        Query<User> query = Query.<User>where("role.name", "USER").or("name", SearchOperator.IN, List.of("Alice"));
+        deleteFromDatabase();
+
+        assertThat(replica.size()).isEqualTo(3);
+        assertThat(projection.findAll(query, Sort.by(Sort.Order.desc("name"))))
+                .extracting(UserDto::getName)
+                .containsExactly("Charlie", "Bob", "Alice");
+        assertThat(projection.findTop(Query.where("superuser", false), Sort.by("email"), 1))
+                .extracting(UserDto::getName)
+                .containsExactly("Alice");
+        Page<UserDto> page = projection.findAll(Query.where("name", SearchOperator.GT, "Alice"), PageRequest.of(1, 1, Sort.by("name")));
+        assertThat(page.getContent()).extracting(UserDto::getName).containsExactly("Charlie");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(projection.count(Query.where("email", SearchOperator.ENDS_WITH, "@example.com"))).isEqualTo(3);
+        assertThat(projection.exists(Query.<User>where("superuser", true).and("role.name", "ADMIN"))).isFalse();
+    }
+
+    @Test
+    void testReplicaRefreshedFromEntityEvents() {
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+        transaction.executeWithoutResult(status -> {
+            User bob = userRepository.findAll(Query.<User>where("name", "Bob").buildSpecification()).getFirst();
+            bob.setSuperuser(false);
+            userRepository.save(new User(null, "Dave", "dave@example.com", true, bob.getRole()));
+            entityManager.flush();
+            userRepository.delete(userRepository.findAll(Query.<User>where("name", "Alice").buildSpecification()).getFirst());
+            entityManager.flush();
+
+            // Not applied before the commit, and the transaction queries the database, which sees its changes
+            assertThat(projection.count(Query.where("name", "Alice"))).isZero();
+            assertThat(projection.count(Query.where("name", "Dave"))).isEqualTo(1);
+        });
+        deleteFromDatabase();
+
+        assertThat(replica.size()).isEqualTo(3);
+        assertThat(projection.findAll(Query.where("superuser", true), Sort.by("name")))
+                .extracting(UserDto::getName)
+                .containsExactly("Dave");
+        // The value order of the names follows the added, updated and removed rows
+        assertThat(projection.findAll(Query.where("name", SearchOperator.GTE, "Bob"), Sort.by("name")))
+                .extracting(UserDto::getName)
+                .containsExactly("Bob", "Charlie", "Dave");
+        assertThat(projection.count(Query.where("name", SearchOperator.LT, "Charlie"))).isEqualTo(1);
+    }
+
+    @Test
+    void testReplicaOnlyAnswersItsFactory() {
+        deleteFromDatabase();
+
+        assertThat(projectionFactory.create(User.class, UserDto.class).count(Query.where("superuser", false))).isEqualTo(2);
+        assertThat(new ProjectionFactory(entityManager).create(User.class, UserDto.class).count(Query.where("superuser", false))).isZero();
+        assertThat(Projection.create(entityManager, User.class, UserDto.class).count(Query.where("superuser", false))).isZero();
+
+        replica.close();
+        assertThat(projectionFactory.create(User.class, UserDto.class).count(Query.where("superuser", false))).isZero();
+    }
+
+    @Test
+    void testRolledBackChangesNotReplicated() {
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+        transaction.executeWithoutResult(status -> {
+            User alice = userRepository.findAll(Query.<User>where("name", "Alice").buildSpecification()).getFirst();
+            userRepository.save(new User(null, "Dave", "dave@example.com", true, alice.getRole()));
+            userRepository.delete(alice);
+            entityManager.flush();
+            status.setRollbackOnly();
+        });
+        deleteFromDatabase();
+
+        assertThat(replica.size()).isEqualTo(3);
+        assertThat(projection.findAll(Query.where("superuser", false), Sort.by("name")))
+                .extracting(UserDto::getName)
+                .containsExactly("Alice", "Charlie");
+    }
+
+    @Test
+    void testReadWriteTransactionQueriesDatabase() {
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+        deleteFromDatabase();
+
+        assertThat(projection.count(Query.where("superuser", false))).isEqualTo(2);
+        assertThat(transaction.<Long>execute(status -> projection.count(Query.where("superuser", false)))).isZero();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertThat(readOnly.<Long>execute(status -> projection.count(Query.where("superuser", false)))).isEqualTo(2);
+    }
+
+    @Test
+    void testUnreplicatedAttributeQueriesDatabase() {
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+        deleteFromDatabase();
+
+        // role.id is not replicated, so the query runs in the now empty table
+        assertThat(projection.count(Query.where("role.id", SearchOperator.GT, 0))).isZero();
+        assertThat(projection.count(Query.where("role.name", SearchOperator.NOT_EQ, "ADMIN"))).isEqualTo(2);
+    }
+}
@@ -0,0 +1,196 @@
+package dev.rosemarylab.dataquerying.integration.test;
+
+import dev.rosemarylab.dataquerying.api.*;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.integration.config.TestConfig;
+import dev.rosemarylab.dataquerying.integration.dto.UserDto;
+import dev.rosemarylab.dataquerying.integration.model.Role;
+import dev.rosemarylab.dataquerying.integration.model.User;
+import dev.rosemarylab.dataquerying.integration.repository.RoleRepository;
+import dev.rosemarylab.dataquerying.integration.repository.UserRepository;
+import dev.rosemarylab.dataquerying.integration.utils.JsonUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Not transactional: parallel facet queries run on their own entity managers and only see committed data
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = TestConfig.class)
+class FacetIntegrationTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Projection<User, UserDto> projection;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+
+        Role adminRole = new Role();
+        adminRole.setName("ADMIN");
+        roleRepository.save(adminRole);
+
+        Role userRole = new Role();
+        userRole.setName("USER");
+        roleRepository.save(userRole);
+
+        userRepository.save(new User(null, "Alice", "alice@example.com", false, adminRole));
+        userRepository.save(new User(null, "Bob", "bob@example.com", true, userRole));
+        userRepository.save(new User(null, "Charlie", "charlie@example.com", false, userRole));
+        userRepository.save(new User(null, "Dave", "dave@other.org", false, null));
+
+        projection = Projection.create(entityManager, User.class, UserDto.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void testTermsFacetWithoutFilters() {
+        Map<String, List<FacetBucket>> facets = projection.facets(null, List.of(Facet.terms("role.name")));
+
+        // Dave has no role, so no bucket is counted for him
+        assertThat(facets.get("role.name")).containsExactly(
+                new FacetBucket("USER", 2L),
+                new FacetBucket("ADMIN", 1L));
+    }
+
+    @Test
+    void testFacetsFromJson() {
+        SearchRequest request = JsonUtils.loadSearchRequestFromJson("searchRequest_withFacets.json");
+
+        Map<String, List<FacetBucket>> facets = projection.facets(request);
+
+        assertThat(facets).containsOnlyKeys("role.name", "initial");
+        // The role facet ignores the role filter, the name facet counts Bob and Charlie only
+        assertThat(facets.get("role.name")).containsExactly(
+                new FacetBucket("USER", 2L),
+                new FacetBucket("ADMIN", 1L));
+        assertThat(facets.get("initial")).containsExactly(
+                new FacetBucket("A-B", 1L),
+                new FacetBucket("C-Z", 1L));
+    }
+
+    @Test
+    void testExcludedFilterInOrGroup_dropsTheGroup() {
+        SearchRequest request = JsonUtils.loadSearchRequestFromJson("searchRequest_withFacetsInOrGroup.json");
+
+        Map<String, List<FacetBucket>> facets = projection.facets(request);
+
+        // Without the OR group on the role, every user with an example.com email is counted, not only Bob
+        assertThat(facets.get("role.name")).containsExactly(
+                new FacetBucket("USER", 2L),
+                new FacetBucket("ADMIN", 1L));
+        // The superuser facet has no filter of its own, so it counts Alice and Bob
+        assertThat(facets.get("superuser")).containsExactly(
+                new FacetBucket(false, 1L),
+                new FacetBucket(true, 1L));
+    }
+
+    @Test
+    void testTermsFacetHonorsOwnFilterByDefault() {
+        SearchRequest request = JsonUtils.loadSearchRequestFromJson("searchRequest_withFacets.json");
+
+        Map<String, List<FacetBucket>> facets = projection.facets(request, List.of(Facet.terms("role.name")));
+
+        assertThat(facets.get("role.name")).containsExactly(new FacetBucket("USER", 2L));
+    }
+
+    @Test
+    void testTermsFacetLimit() {
+        Map<String, List<FacetBucket>> facets = projection.facets(null, List.of(Facet.terms("role.name").named("roles").limit(1)));
+
+        assertThat(facets.get("roles")).containsExactly(new FacetBucket("USER", 2L));
+    }
+
+    @Test
+    void testRangeFacetsWithOpenBounds() {
+        Facet byName = Facet.range("name")
+                .bucket("first", null, "C")
+                .bucket("rest", "C", null);
+        Facet bySuperuser = Facet.terms("superuser");
+
+        Map<String, List<FacetBucket>> facets = projection.facets(null, List.of(byName, bySuperuser));
+
+        assertThat(facets.get("name")).containsExactly(
+                new FacetBucket("first", 2L),
+                new FacetBucket("rest", 2L));
+        assertThat(facets.get("superuser")).containsExactly(
+                new FacetBucket(false, 3L),
+                new FacetBucket(true, 1L));
+    }
+
+    @Test
+    void testFacetsInParallel() {
+        SearchRequest request = JsonUtils.loadSearchRequestFromJson("searchRequest_withFacets.json");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Map<String, List<FacetBucket>> facets = projection.facets(request, request.getFacetDefinitions(), executor);
+
+            assertThat(facets.get("role.name")).containsExactly(
+                    new FacetBucket("USER", 2L),
+                    new FacetBucket("ADMIN", 1L));
+            assertThat(facets.get("initial")).containsExactly(
+                    new FacetBucket("A-B", 1L),
+                    new FacetBucket("C-Z", 1L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testFacetsInReadWriteTransaction_seeItsChanges() {
+        List<Facet> facets = List.of(Facet.terms("role.name"), Facet.terms("superuser"));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                userRepository.saveAndFlush(new User(null, "Eve", "eve@example.com", true, null));
+
+                Map<String, List<FacetBucket>> result = projection.facets(null, facets, executor);
+
+                assertThat(result.get("superuser")).containsExactly(
+                        new FacetBucket(false, 3L),
+                        new FacetBucket(true, 2L));
+                status.setRollbackOnly();
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testDuplicateFacetName_throwsException() {
+        List<Facet> facets = List.of(Facet.terms("name").named("same"), Facet.terms("email").named("same"));
+
+        assertThrows(SpecificationBuilderException.class, () -> projection.facets(null, facets));
+    }
+}
@@ -0,0 +1,109 @@
+package dev.rosemarylab.dataquerying.integration.test;
+
+import dev.rosemarylab.dataquerying.api.InMemorySearch;
+import dev.rosemarylab.dataquerying.api.Projection;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.Relevance;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.integration.config.H2FullTextDialect;
+import dev.rosemarylab.dataquerying.integration.config.TestConfig;
+import dev.rosemarylab.dataquerying.integration.dto.UserDto;
+import dev.rosemarylab.dataquerying.integration.model.User;
+import dev.rosemarylab.dataquerying.integration.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Not transactional: creating H2's full-text index is DDL, which commits the running transaction
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = TestConfig.class)
+class FullTextIntegrationTest {
+    private static final QueryDialect DIALECT = new H2FullTextDialect("USERS");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        execute("CREATE ALIAS IF NOT EXISTS FT_INIT FOR 'org.h2.fulltext.FullText.init'",
+                "CALL FT_INIT()",
+                "CALL FT_CREATE_INDEX('PUBLIC', 'USERS', 'NAME,EMAIL')");
+
+        userRepository.save(new User(null, "Alice Smith", "alice@example.com", false, null));
+        userRepository.save(new User(null, "Bob Smith", "bob@example.com", false, null));
+        userRepository.save(new User(null, "Alice Jones", "jones@other.org", false, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        execute("CALL FT_DROP_INDEX('PUBLIC', 'USERS')");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testFullTextMatchesAllWords() {
+        List<UserDto> results = Projection.create(entityManager, User.class, UserDto.class, DIALECT)
+                .findAll(Query.where("name", SearchOperator.FULL_TEXT, "alice smith"));
+
+        assertThat(results).extracting(UserDto::getName).containsExactly("Alice Smith");
+    }
+
+    @Test
+    void testFullTextSortedByRelevance() {
+        // H2's index scores every match 1 and every other row 0, so ranking the Smiths by "bob" gives them different
+        // scores, and an order the name alone wouldn't give
+        Query<User> query = Query.where("name", SearchOperator.FULL_TEXT, "smith");
+        Sort sort = Sort.by(Relevance.desc("name", "bob"), Sort.Order.asc("name"));
+
+        List<UserDto> results = Projection.create(entityManager, User.class, UserDto.class, DIALECT).findAll(query, sort);
+
+        assertThat(results).extracting(UserDto::getName).containsExactly("Bob Smith", "Alice Smith");
+    }
+
+    @Test
+    void testBlankFullText_throws() {
+        // A blank query has no word, so it can neither be matched word by word nor by the index
+        Query<User> query = Query.where("name", SearchOperator.FULL_TEXT, "  ");
+
+        assertThrows(SpecificationBuilderException.class,
+                () -> Projection.create(entityManager, User.class, UserDto.class).findAll(query));
+        assertThrows(SpecificationBuilderException.class,
+                () -> Projection.create(entityManager, User.class, UserDto.class, DIALECT).findAll(query));
+        assertThrows(SpecificationBuilderException.class, () -> InMemorySearch.predicate(query));
+    }
+
+    private void execute(String... statements) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (String statement : statements) {
+                em.createNativeQuery(statement).executeUpdate();
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package dev.rosemarylab.dataquerying.integration.test;
+
+import dev.rosemarylab.dataquerying.api.ColumnarResult;
+import dev.rosemarylab.dataquerying.api.JdbcProjection;
+import dev.rosemarylab.dataquerying.api.Projection;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.SearchRequest;
+import dev.rosemarylab.dataquerying.api.TableMapping;
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.api.exceptions.InvalidSearchRequestException;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
+import dev.rosemarylab.dataquerying.integration.config.TestConfig;
+import dev.rosemarylab.dataquerying.integration.dto.UserDto;
+import dev.rosemarylab.dataquerying.integration.model.Role;
+import dev.rosemarylab.dataquerying.integration.model.User;
+import dev.rosemarylab.dataquerying.integration.repository.RoleRepository;
+import dev.rosemarylab.dataquerying.integration.repository.UserRepository;
+import dev.rosemarylab.dataquerying.integration.utils.JsonUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = TestConfig.class)
+@Transactional
+class JdbcProjectionIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Projection<User, UserDto> projection;
+    private JdbcProjection<User, UserDto> jdbcProjection;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+
+        Role adminRole = new Role();
+        adminRole.setName("ADMIN");
+        roleRepository.save(adminRole);
+        Role userRole = new Role();
+        userRole.setName("USER");
+        roleRepository.save(userRole);
+
+        userRepository.save(new User(null, "Alice", "alice@example.com", false, adminRole));
+        userRepository.save(new User(null, "Bob", "bob@example.com", true, userRole));
+        userRepository.save(new User(null, "Charlie", "charlie@example.com", false, userRole));
+        userRepository.save(new User(null, "Dave", null, false, null));
+        userRepository.save(new User(null, "Eve_1", "EVE@example.com", true, null));
+        entityManager.flush();
+
+        projection = Projection.create(entityManager, User.class, UserDto.class);
+        jdbcProjection = JdbcProjection.create(entityManager, dataSource, User.class, UserDto.class);
+    }
+
+    @Test
+    void testFindAll_matchesProjection() {
+        Sort sort = Sort.by(Sort.Order.asc("role.name").nullsFirst(), Sort.Order.desc("name"));
+        List<Query<User>> queries = List.of(
+                Query.get(),
+                Query.where("superuser", true),
+                Query.<User>where("role.name", "USER").and("email", SearchOperator.NOT_EQ, "bob@example.com"),
+                Query.<User>where("role.name", null).or("name", SearchOperator.IN, List.of("Alice", "Bob", "Zoe")),
+                Query.<User>where("email", SearchOperator.LIKE_IGNORE_CASE, "EVE").or("name", SearchOperator.STARTS_WITH, "Ch"),
+                Query.<User>where("name", SearchOperator.LIKE, "e_").or("email", SearchOperator.ENDS_WITH, "b@example.com"),
+                Query.<User>where("name", SearchOperator.BETWEEN, List.of("B", "D")).and("email", SearchOperator.NOT_LIKE, "bob"),
+                Query.<User>where("name", SearchOperator.MATCHES, "%a%").and("email", SearchOperator.EQ_IGNORE_CASE, "ALICE@EXAMPLE.COM"),
+                Query.<User>where("email", SearchOperator.FULL_TEXT, "example alice"),
+                Query.<User>where("name", SearchOperator.IN, List.of()),
+                Query.<User>get().join("role", JoinType.INNER).and("name", SearchOperator.GT, "A"));
+
+        for (Query<User> query : queries) {
+            assertThat(jdbcProjection.findAll(query, sort))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(projection.findAll(query, sort));
+            assertThat(jdbcProjection.count(query)).isEqualTo(projection.count(query));
+            assertThat(jdbcProjection.exists(query)).isEqualTo(projection.exists(query));
+        }
+    }
+
+    @Test
+    void testDialect_matchesProjection() {
+        // Matches the whole text, where the default full-text search would match the words
+        QueryDialect dialect = new QueryDialect() {
+            @Override
+            public Predicate fullText(CriteriaBuilder criteriaBuilder, Path<?> path, String query) {
+                return criteriaBuilder.equal(path, query);
+            }
+
+            @Override
+            public String fullTextSql(String column) {
+                return column + " = ?";
+            }
+
+            @Override
+            public Expression<String> foldCase(CriteriaBuilder criteriaBuilder, Expression<String> expression) {
+                return criteriaBuilder.upper(expression);
+            }
+
+            @Override
+            public String foldCase(String value) {
+                return value.toUpperCase(Locale.ROOT);
+            }
+
+            @Override
+            public String foldCaseSql(String column) {
+                return "UPPER(" + column + ")";
+            }
+        };
+        userRepository.save(new User(null, "Zed!_\\", "zed@example.com", false, null));
+        entityManager.flush();
+        Projection<User, UserDto> dialectProjection = Projection.create(entityManager, User.class, UserDto.class, dialect);
+        JdbcProjection<User, UserDto> dialectJdbcProjection = JdbcProjection.create(entityManager, new JdbcTemplate(dataSource),
+                User.class, UserDto.class, TableMapping.defaults(), dialect);
+
+        List<Query<User>> queries = List.of(
+                Query.where("email", SearchOperator.FULL_TEXT, "alice"),
+                Query.where("email", SearchOperator.FULL_TEXT, "alice@example.com"),
+                Query.where("name", SearchOperator.LIKE_IGNORE_CASE, "ZED!_"),
+                Query.where("name", SearchOperator.LIKE, "!_\\"),
+                Query.where("name", SearchOperator.ENDS_WITH, "_1"),
+                Query.where("email", SearchOperator.STARTS_WITH_IGNORE_CASE, "eve@"));
+
+        for (Query<User> query : queries) {
+            assertThat(dialectJdbcProjection.findAll(query, Sort.by("name")))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(dialectProjection.findAll(query, Sort.by("name")));
+        }
+        assertThat(dialectJdbcProjection.findAll(Query.where("email", SearchOperator.FULL_TEXT, "alice@example.com")))
+                .extracting(UserDto::getName)
+                .containsExactly("Alice");
+        assertThat(dialectJdbcProjection.findAll(Query.where("name", SearchOperator.LIKE, "!_\\")))
+                .extracting(UserDto::getName)
+                .containsExactly("Zed!_\\");
+    }
+
+    @Test
+    void testPagingAndTop_matchesProjection() {
+        Query<User> query = Query.where("name", SearchOperator.NOT_EQ, "Charlie");
+        PageRequest pageRequest = PageRequest.of(1, 2, Sort.by("name"));
+
+        Page<UserDto> page = jdbcProjection.findAll(query, pageRequest);
+        Page<UserDto> expected = projection.findAll(query, pageRequest);
+
+        assertThat(page.getTotalElements()).isEqualTo(expected.getTotalElements());
+        assertThat(page.getContent()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected.getContent());
+        assertThat(page.getContent()).extracting(UserDto::getName).containsExactly("Dave", "Eve_1");
+        assertThat(jdbcProjection.findTop(query, Sort.by(Sort.Direction.DESC, "email"), 2))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(projection.findTop(query, Sort.by(Sort.Direction.DESC, "email"), 2));
+        assertThat(jdbcProjection.findAll(Query.none())).isEmpty();
+    }
+
+    @Test
+    void testSearchRequest_matchesProjection() {
+        for (String file : List.of("searchRequest_withPageAndOrder.json", "searchRequest_withUntypedValues.json")) {
+            SearchRequest request = JsonUtils.loadSearchRequestFromJson(file).validate(entityManager.getMetamodel(), User.class);
+
+            Page<UserDto> page = jdbcProjection.findAll(request);
+            List<UserDto> expected = request.getPageable().isPaged()
+                    ? projection.findAll(request.<User>getQuery(), request.getPageable()).getContent()
+                    : projection.findAll(request.<User>getQuery(), request.getSort());
+
+            assertThat(page.getContent()).isNotEmpty();
+            assertThat(page.getContent()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void testFindColumns_matchesProjection() {
+        Sort sort = Sort.by("name");
+        List<Query<User>> queries = List.of(
+                Query.where("name", SearchOperator.NOT_EQ, "Charlie"),
+                Query.<User>where("role.name", "USER").or("email", null),
+                Query.none());
+
+        for (Query<User> query : queries) {
+            ColumnarResult expected = projection.findColumns(query, sort);
+            ColumnarResult columns = jdbcProjection.findColumns(query, sort);
+
+            assertThat(columns.size()).isEqualTo(expected.size());
+            assertThat(columns.getAttributes()).containsExactlyElementsOf(expected.getAttributes());
+            for (String attribute : expected.getAttributes()) {
+                assertThat(columns.getType(attribute)).isEqualTo(expected.getType(attribute));
+                assertThat(values(columns, attribute)).containsExactlyElementsOf(values(expected, attribute));
+            }
+        }
+    }
+
+    // The values of a column, decoded and boxed, nulls included
+    private static List<Object> values(ColumnarResult columns, String attribute) {
+        List<Object> values = new ArrayList<>();
+        for (int row = 0; row < columns.size(); row++) {
+            if (columns.isNull(attribute, row)) {
+                values.add(null);
+                continue;
+            }
+            values.add(switch (columns.getType(attribute)) {
+                case INT -> columns.getInts(attribute)[row];
+                case LONG -> columns.getLongs(attribute)[row];
+                case DOUBLE -> columns.getDoubles(attribute)[row];
+                case DICTIONARY -> columns.getDictionary(attribute).get(columns.getCodes(attribute)[row]);
+            });
+        }
+        return values;
+    }
+
+    @Test
+    void testSparseFieldsets_matchProjection() {
+        for (String file : List.of("searchRequest_withFields.json", "searchRequest_withFieldsOnJoin.json")) {
+            SearchRequest request = JsonUtils.loadSearchRequestFromJson(file);
+            Page<UserDto> page = jdbcProjection.findAll(request);
+            Page<UserDto> expected = projection.findAll(request);
+
+            assertThat(page.getTotalElements()).isEqualTo(expected.getTotalElements());
+            assertThat(page.getContent()).isNotEmpty();
+            assertThat(page.getContent()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected.getContent());
+            assertThat(jdbcProjection.findRows(request).getContent()).containsExactlyElementsOf(projection.findRows(request).getContent());
+        }
+
+        // An attribute of the entity missing from the projection type, then one missing from the entity
+        SearchRequest request = JsonUtils.loadSearchRequestFromJson("searchRequest_withFields.json");
+        request.setFields(List.of("name", "role"));
+        assertThrows(AttributeNotFoundException.class, () -> jdbcProjection.findAll(request));
+        assertThrows(AttributeNotFoundException.class, () -> jdbcProjection.findRows(request));
+        request.setFields(List.of("name", "nickname"));
+        assertThrows(InvalidSearchRequestException.class, () -> jdbcProjection.findAll(request));
+        assertThrows(InvalidSearchRequestException.class, () -> jdbcProjection.findRows(request));
+    }
+
+    @Test
+    void testUntranslatableQueries_throw() {
+        assertThrows(AttributeNotFoundException.class, () -> jdbcProjection.count(Query.where("nickname", "Al")));
+        assertThrows(SpecificationBuilderException.class, () -> jdbcProjection.count(Query.where("role", "ADMIN")));
+        assertThrows(UnsupportedOperationException.class,
+                () -> jdbcProjection.count(Query.get((root, query, cb) -> cb.isTrue(root.get("superuser")))));
+    }
+}
@@ -1,8 +1,21 @@
 package dev.rosemarylab.dataquerying.integration.test;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import dev.rosemarylab.dataquerying.api.ColumnType;
+import dev.rosemarylab.dataquerying.api.ColumnarResult;
+import dev.rosemarylab.dataquerying.api.ExportFormat;
+import dev.rosemarylab.dataquerying.api.ExportOptions;
+import dev.rosemarylab.dataquerying.api.JsonPage;
 import dev.rosemarylab.dataquerying.api.ProjectionFactory;
+import dev.rosemarylab.dataquerying.api.Projection;
 import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
 import dev.rosemarylab.dataquerying.integration.config.TestConfig;
+import dev.rosemarylab.dataquerying.integration.dto.RoleDto;
 import dev.rosemarylab.dataquerying.integration.dto.UserDto;
 import dev.rosemarylab.dataquerying.integration.model.Role;
 import dev.rosemarylab.dataquerying.integration.model.User;
@@ -10,19 +23,28 @@ import dev.rosemarylab.dataquerying.integration.repository.RoleRepository;
 import dev.rosemarylab.dataquerying.integration.repository.UserRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.JoinType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.web.PagedModel;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = TestConfig.class)
@@ -40,6 +62,16 @@ class ProjectionIntegrationTest {
     @PersistenceContext
     EntityManager entityManager;
 
+    public record RoleName(String name) {
+    }
+
+    public record UserRow(String name, String email, boolean superuser) {
+    }
+
+    @JsonPropertyOrder({"superuser", "name"})
+    public record AnnotatedUserRow(String name, @JsonIgnore String email, @JsonFormat(shape = JsonFormat.Shape.STRING) boolean superuser) {
+    }
+
     @BeforeEach
     public void setUp() {
         // Clear existing data
@@ -104,4 +136,283 @@ class ProjectionIntegrationTest {
         assertThat(dtos).hasSize(1);
         assertThat(dtos.getFirst().getName()).isEqualTo("Bob");
     }
+
+    @Test
+    void testExists() {
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+
+        assertThat(projection.exists(Query.where("role.name", "ADMIN"))).isTrue();
+        assertThat(projection.exists(Query.where("name", "Nobody"))).isFalse();
+        assertThat(projection.exists(null)).isTrue();
+    }
+
+    @Test
+    void testCount() {
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+
+        assertThat(projection.count(Query.where("role.name", "USER"))).isEqualTo(2L);
+        assertThat(projection.count(Query.where("name", "Nobody"))).isZero();
+        assertThat(projection.count(null)).isEqualTo(3L);
+    }
+
+    @Test
+    void testCountDistinct() {
+        Query<User> query = Query.<User>where("email", SearchOperator.LIKE, "example.com")
+                .join("role", JoinType.INNER)
+                .distinct();
+
+        assertThat(projectionFactory.create(User.class, UserDto.class).count(query)).isEqualTo(3L);
+    }
+
+    @Test
+    void testFindFirst() {
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+
+        Optional<UserDto> last = projection.findFirst(Query.where("role.name", "USER"), Sort.by(Sort.Direction.DESC, "name"));
+        assertThat(last).isPresent();
+        assertThat(last.get().getName()).isEqualTo("Charlie");
+
+        Optional<UserDto> first = projection.findFirst(null, Sort.by("role.name", "name"));
+        assertThat(first).isPresent();
+        assertThat(first.get().getName()).isEqualTo("Alice");
+
+        assertThat(projection.findFirst(Query.where("name", "Nobody"), Sort.by("name"))).isEmpty();
+    }
+
+    @Test
+    void testPagedDistinctOverCollectionJoin() {
+        // USER has two matching users, so the join produces three rows for two roles
+        Query<Role> query = Query.<Role>where("users.email", SearchOperator.LIKE, "example.com")
+                .join("users", JoinType.INNER)
+                .distinct();
+        Projection<Role, RoleDto> projection = projectionFactory.create(Role.class, RoleDto.class);
+
+        Page<RoleDto> first = projection.findAll(query, PageRequest.of(0, 1, Sort.by("name")));
+        Page<RoleDto> second = projection.findAll(query, PageRequest.of(1, 1, Sort.by("name")));
+
+        assertThat(first.getTotalElements()).isEqualTo(2L);
+        assertThat(first.getContent()).extracting(RoleDto::getName).containsExactly("ADMIN");
+        assertThat(second.getContent()).extracting(RoleDto::getName).containsExactly("USER");
+    }
+
+    @Test
+    void testPagedDistinctSortedByJoinedCollection() {
+        Query<Role> query = Query.<Role>where("users.email", SearchOperator.LIKE, "example.com")
+                .join("users", JoinType.INNER);
+        // The highest user name of USER (Charlie) sorts before the one of ADMIN (Alice)
+        Page<RoleName> page = projectionFactory.create(Role.class, RoleName.class)
+                .findAll(query, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "users.name")), true);
+
+        assertThat(page.getTotalElements()).isEqualTo(2L);
+        assertThat(page.getContent()).extracting(RoleName::name).containsExactly("USER", "ADMIN");
+    }
+
+    @Test
+    void testFindAllDistinctSortedByUnselectedAttribute() {
+        // A distinct query can't be ordered by the id, which the projection doesn't select
+        Query<User> query = Query.<User>where("role.name", "USER").distinct();
+        Projection<User, UserRow> projection = projectionFactory.create(User.class, UserRow.class);
+
+        assertThat(projection.findAll(query, Sort.by(Sort.Direction.DESC, "id")))
+                .extracting(UserRow::name)
+                .containsExactly("Charlie", "Bob");
+        assertThat(projection.findAll(query, PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"))).getContent())
+                .extracting(UserRow::name)
+                .containsExactly("Charlie");
+    }
+
+    @Test
+    void testFindAllAppliesSort() {
+        List<UserDto> dtos = projectionFactory.create(User.class, UserDto.class)
+                .findAll((Specification<User>) null, Sort.by(Sort.Direction.DESC, "name"), false);
+
+        assertThat(dtos).extracting(UserDto::getName).containsExactly("Charlie", "Bob", "Alice");
+    }
+
+    @Test
+    void testFindTop() {
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+
+        assertThat(projection.findTop(null, Sort.by(Sort.Direction.DESC, "name"), 2))
+                .extracting(UserDto::getName)
+                .containsExactly("Charlie", "Bob");
+        assertThat(projection.findTop(Query.where("role.name", "USER"), Sort.by("name"), 5))
+                .extracting(UserDto::getName)
+                .containsExactly("Bob", "Charlie");
+        assertThat(projection.findTop(null, Sort.by("name"), 0)).isEmpty();
+    }
+
+    @Test
+    void testFindTopDistinctOverCollectionJoin() {
+        Query<Role> query = Query.<Role>where("users.email", SearchOperator.LIKE, "example.com")
+                .join("users", JoinType.INNER)
+                .distinct();
+
+        List<RoleDto> roles = projectionFactory.create(Role.class, RoleDto.class)
+                .findTop(query, Sort.by(Sort.Direction.DESC, "name"), 1);
+
+        assertThat(roles).extracting(RoleDto::getName).containsExactly("USER");
+    }
+
+    @Test
+    void testFindColumns() {
+        userRepository.save(new User(null, "Dave", null, false, null));
+        entityManager.flush();
+        Projection<User, UserDto> projection = projectionFactory.create(User.class, UserDto.class);
+        Query<User> query = Query.where("name", SearchOperator.NOT_EQ, "Charlie");
+        List<UserDto> expected = projection.findAll(query, Sort.by("name"));
+
+        ColumnarResult columns = projection.findColumns(query, Sort.by("name"));
+
+        assertThat(columns.size()).isEqualTo(3);
+        assertThat(columns.getAttributes()).containsExactly("id", "name", "email", "superuser");
+        assertThat(columns.getType("id")).isEqualTo(ColumnType.LONG);
+        assertThat(columns.getType("name")).isEqualTo(ColumnType.DICTIONARY);
+        assertThat(columns.getType("superuser")).isEqualTo(ColumnType.INT);
+        assertThat(columns.getLongs("id")).containsExactly(expected.stream().mapToLong(UserDto::getId).toArray());
+        assertThat(columns.getInts("superuser")).containsExactly(0, 1, 0);
+        assertThat(columns.getDictionary("name")).containsExactly("Alice", "Bob", "Dave");
+
+        int[] codes = columns.getCodes("email");
+        assertThat(codes[2]).isEqualTo(-1);
+        assertThat(columns.isNull("email", 2)).isTrue();
+        assertThat(columns.isNull("email", 1)).isFalse();
+        assertThat(columns.getDictionary("email").get(codes[1])).isEqualTo("bob@example.com");
+        assertThrows(IllegalArgumentException.class, () -> columns.getDoubles("id"));
+
+        // A distinct query sorted on the role name, which isn't selected
+        Query<User> distinct = Query.<User>where("role.name", SearchOperator.IN, List.of("ADMIN", "USER")).distinct();
+        ColumnarResult byRole = projection.findColumns(distinct, Sort.by(Sort.Order.desc("role.name"), Sort.Order.asc("name")));
+        assertThat(byRole.size()).isEqualTo(3);
+        assertThat(byRole.getDictionary("name")).containsExactly("Bob", "Charlie", "Alice");
+
+        ColumnarResult empty = projection.findColumns(Query.none(), null);
+        assertThat(empty.size()).isZero();
+        assertThat(empty.getLongs("id")).isEmpty();
+        assertThat(empty.getCodes("name")).isEmpty();
+    }
+
+    @Test
+    void testExportCsv() {
+        userRepository.save(new User(null, "Dave \"D\", Jr.", null, false, null));
+        entityManager.flush();
+        Projection<User, UserRow> projection = projectionFactory.create(User.class, UserRow.class);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = projection.export(Query.where("name", SearchOperator.NOT_EQ, "Bob"), Sort.by("name"),
+                ExportOptions.of(ExportFormat.CSV).withFetchSize(2).withFlushInterval(1), output);
+
+        assertThat(rows).isEqualTo(3);
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                name,email,superuser\r
+                Alice,alice@example.com,false\r
+                Charlie,charlie@example.com,false\r
+                "Dave ""D"", Jr.",,false\r
+                """);
+    }
+
+    @Test
+    void testExportDistinctSortedByUnselectedAttribute() {
+        Projection<User, UserRow> projection = projectionFactory.create(User.class, UserRow.class);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = projection.export(Query.<User>where("role.name", "USER").distinct(), Sort.by(Sort.Direction.DESC, "id"),
+                ExportFormat.CSV, output);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                name,email,superuser\r
+                Charlie,charlie@example.com,false\r
+                Bob,bob@example.com,true\r
+                """);
+    }
+
+    @Test
+    void testExportDistinctReadsIdsInChunks() {
+        Role userRole = roleRepository.findAll().stream().filter(role -> role.getName().equals("USER")).findFirst().orElseThrow();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            users.add(new User(null, String.format("User %04d", i), null, false, userRole));
+        }
+        userRepository.saveAll(users);
+        entityManager.flush();
+        Projection<User, UserRow> projection = projectionFactory.create(User.class, UserRow.class);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // More ids than fit in one chunk, read through a cursor
+        long rows = projection.export(Query.<User>where("role.name", "USER").distinct(), Sort.by(Sort.Direction.DESC, "name"),
+                ExportOptions.of(ExportFormat.CSV).withFetchSize(100), output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(1202);
+        assertThat(lines).hasSize(1203);
+        assertThat(lines.subList(1, 3)).containsExactly("User 1199,,false", "User 1198,,false");
+        assertThat(lines.subList(1201, 1203)).containsExactly("Charlie,charlie@example.com,false", "Bob,bob@example.com,true");
+    }
+
+    @Test
+    void testExportNdjson() throws Exception {
+        Projection<User, UserRow> projection = projectionFactory.create(User.class, UserRow.class);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = projection.export(null, Sort.by(Sort.Direction.DESC, "name"), ExportFormat.NDJSON, output);
+
+        ObjectMapper mapper = new ObjectMapper();
+        List<UserRow> exported = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            exported.add(mapper.readValue(line, UserRow.class));
+        }
+        assertThat(rows).isEqualTo(3);
+        assertThat(exported).containsExactly(
+                new UserRow("Charlie", "charlie@example.com", false),
+                new UserRow("Bob", "bob@example.com", true),
+                new UserRow("Alice", "alice@example.com", false));
+
+        output.reset();
+        assertThat(projection.export(Query.none(), null, ExportFormat.CSV, output)).isZero();
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("name,email,superuser\r\n");
+    }
+
+    @Test
+    void testFindAllAsJson() throws Exception {
+        Projection<User, UserRow> projection = projectionFactory.create(User.class, UserRow.class);
+        ObjectMapper mapper = new ObjectMapper();
+        Query<User> query = Query.where("name", SearchOperator.NOT_EQ, "Alice");
+
+        for (PageRequest pageable : List.of(PageRequest.of(0, 1, Sort.by("name")), PageRequest.of(1, 1, Sort.by("name")), PageRequest.of(0, 5, Sort.by("name")))) {
+            JsonPage page = projection.findAllAsJson(query, pageable);
+            String expected = mapper.writeValueAsString(new PagedModel<>(projection.findAll(query, pageable)));
+
+            assertThat(mapper.writeValueAsString(page)).isEqualTo(expected);
+            assertThat(page.getTotalElements()).isEqualTo(2);
+        }
+
+        // A distinct query sorted on the id, which isn't selected
+        Query<User> distinct = Query.<User>where("role.name", "USER").distinct();
+        PageRequest byIdDesc = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"));
+        assertThat(mapper.writeValueAsString(projection.findAllAsJson(distinct, byIdDesc)))
+                .isEqualTo(mapper.writeValueAsString(new PagedModel<>(projection.findAll(distinct, byIdDesc))))
+                .contains("Charlie");
+
+        JsonPage empty = projection.findAllAsJson(Query.none(), PageRequest.of(2, 10));
+        assertThat(mapper.writeValueAsString(empty))
+                .isEqualTo("{\"content\":[],\"page\":{\"size\":10,\"number\":2,\"totalElements\":0,\"totalPages\":0}}");
+    }
+
+    @Test
+    void testFindAllAsJson_followsTheMapper() throws Exception {
+        Projection<User, AnnotatedUserRow> projection = projectionFactory.create(User.class, AnnotatedUserRow.class);
+        Query<User> query = Query.where("name", "Bob");
+        PageRequest pageable = PageRequest.of(0, 5);
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertThat(mapper.writeValueAsString(projection.findAllAsJson(query, pageable)))
+                .isEqualTo(mapper.writeValueAsString(new PagedModel<>(projection.findAll(query, pageable))))
+                .startsWith("{\"content\":[{\"superuser\":\"true\",\"name\":\"Bob\"}]");
+
+        // The naming strategy applies to the rows, the page keeps the names of PagedModel
+        ObjectMapper upperCamelCase = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE);
+        assertThat(upperCamelCase.writeValueAsString(projection.findAllAsJson(query, pageable)))
+                .startsWith("{\"content\":[{\"Superuser\":\"true\",\"Name\":\"Bob\"}]");
+    }
 }
@@ -1,9 +1,19 @@
 package dev.rosemarylab.dataquerying.integration.test;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import dev.rosemarylab.dataquerying.api.InMemorySearch;
 import dev.rosemarylab.dataquerying.api.Projection;
 import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.api.QueryDialect;
+import dev.rosemarylab.dataquerying.api.Relevance;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.UnionPolicy;
+import dev.rosemarylab.dataquerying.api.exceptions.JoinNotFoundException;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationEngine;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationQuery;
 import dev.rosemarylab.dataquerying.integration.config.TestConfig;
+import dev.rosemarylab.dataquerying.integration.dto.RoleDto;
 import dev.rosemarylab.dataquerying.integration.dto.UserDto;
 import dev.rosemarylab.dataquerying.integration.model.Role;
 import dev.rosemarylab.dataquerying.integration.model.User;
@@ -11,7 +21,14 @@ import dev.rosemarylab.dataquerying.integration.repository.RoleRepository;
 import dev.rosemarylab.dataquerying.integration.repository.UserRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,14 +42,18 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = TestConfig.class)
 @Transactional
 class QueryIntegrationTest {
+    public record SuperuserRow(boolean superuser) {
+    }
 
     @Autowired
     private UserRepository userRepository;
@@ -392,4 +413,273 @@ class QueryIntegrationTest {
         assertThat(secondContent).extracting(UserDto::getName)
                 .containsExactly("Bob");
     }
+
+    @Test
+    void testProjectionNestedPathThroughCollection() {
+        // users.role.name walks two associations; the resolved path is cached for the following query
+        Query<Role> query = Query.where("users.role.name", "USER");
+        Projection<Role, RoleDto> projection = Projection.create(entityManager, Role.class, RoleDto.class);
+
+        assertThat(projection.count(query)).isEqualTo(2L);
+        assertThat(projection.count(Query.<Role>where("users.role.name", "USER").distinct())).isEqualTo(1L);
+    }
+
+    @Test
+    void testProjectionUnknownAttribute_throwsException() {
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+
+        assertThrows(AttributeNotFoundException.class, () -> projection.findAll(Query.where("nickname", "Al")));
+        assertThrows(AttributeNotFoundException.class, () -> projection.findAll(Query.where("role.title", "ADMIN")));
+        // Failed paths aren't cached and keep failing the same way
+        assertThrows(AttributeNotFoundException.class, () -> projection.findAll(Query.where("nickname", "Al")));
+    }
+
+    @Test
+    void testProjectionUnknownJoin_throwsException() {
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+
+        assertThrows(JoinNotFoundException.class, () -> projection.findAll(Query.where("department.name", "IT")));
+        assertThrows(JoinNotFoundException.class, () -> projection.findAll(Query.where("name.first.value", "Al")));
+    }
+
+    @Test
+    void testTextOperatorsMatchWildcardsLiterally() {
+        userRepository.save(new User(null, "Ann_Lee", "ann%team@example.com", false, null));
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+
+        assertThat(projection.findAll(Query.where("name", SearchOperator.STARTS_WITH, "A")))
+                .extracting(UserDto::getName)
+                .containsExactlyInAnyOrder("Alice", "Ann_Lee");
+        assertThat(projection.findAll(Query.where("name", SearchOperator.ENDS_WITH, "_Lee")))
+                .extracting(UserDto::getName)
+                .containsExactly("Ann_Lee");
+        assertThat(projection.findAll(Query.where("email", SearchOperator.LIKE, "%")))
+                .extracting(UserDto::getName)
+                .containsExactly("Ann_Lee");
+        assertThat(projection.findAll(Query.where("name", SearchOperator.MATCHES, "A__ce")))
+                .extracting(UserDto::getName)
+                .containsExactly("Alice");
+    }
+
+    @Test
+    void testIgnoreCaseOperators() {
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+
+        assertThat(projection.findAll(Query.where("name", SearchOperator.EQ_IGNORE_CASE, "aLiCe")))
+                .extracting(UserDto::getName)
+                .containsExactly("Alice");
+        assertThat(projection.findAll(Query.where("name", SearchOperator.LIKE_IGNORE_CASE, "LI")))
+                .extracting(UserDto::getName)
+                .containsExactlyInAnyOrder("Alice", "Charlie");
+        assertThat(projection.findAll(Query.where("role.name", SearchOperator.STARTS_WITH_IGNORE_CASE, "adm")))
+                .extracting(UserDto::getName)
+                .containsExactly("Alice");
+    }
+
+    @Test
+    void testIgnoreCaseOperatorsWithCustomDialect() {
+        QueryDialect dialect = new QueryDialect() {
+            @Override
+            public Predicate likeIgnoreCase(CriteriaBuilder cb, Expression<String> expression, String pattern, Character escapeChar) {
+                return ((HibernateCriteriaBuilder) cb).ilike(expression, pattern);
+            }
+        };
+
+        List<UserDto> results = Projection.create(entityManager, User.class, UserDto.class, dialect)
+                .findAll(Query.where("email", SearchOperator.STARTS_WITH_IGNORE_CASE, "BOB@"));
+
+        assertThat(results).extracting(UserDto::getName).containsExactly("Bob");
+    }
+
+    @Test
+    void testFullTextFallbackAndRelevance() {
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+
+        assertThat(projection.findAll(Query.where("email", SearchOperator.FULL_TEXT, "EXAMPLE bob")))
+                .extracting(UserDto::getName)
+                .containsExactly("Bob");
+        // Charlie contains both words, Alice one of them
+        assertThat(projection.findAll(Query.get(), Sort.by(Relevance.desc("name", "ch e"), Sort.Order.asc("name"))))
+                .extracting(UserDto::getName)
+                .containsExactly("Charlie", "Alice", "Bob");
+    }
+
+    @Test
+    void testJoinsSharedBetweenFilterAndSort() {
+        Query<User> query = Query.<User>where("role.name", "ADMIN").and("role.id", SearchOperator.GT, 0L);
+
+        Set<? extends Join<User, ?>> joins = applyAndSort(SpecificationQuery.rootSpecification(query, QueryDialect.LOWER_CASE), "role.name");
+
+        // Both filters and the sort share one join, upgraded to INNER since the filters reject NULLs
+        assertThat(joins).hasSize(1);
+        assertThat(joins.iterator().next().getJoinType()).isEqualTo(JoinType.INNER);
+    }
+
+    @Test
+    void testJoinNotUpgradedUnderOr() {
+        Query<User> query = Query.<User>where("role.name", "ADMIN").or("name", "Charlie");
+
+        Set<? extends Join<User, ?>> joins = applyAndSort(SpecificationQuery.rootSpecification(query, QueryDialect.LOWER_CASE), "role.name");
+
+        assertThat(joins).hasSize(1);
+        assertThat(joins.iterator().next().getJoinType()).isEqualTo(JoinType.LEFT);
+        assertThat(Projection.create(entityManager, User.class, UserDto.class).findAll(query))
+                .extracting(UserDto::getName)
+                .containsExactlyInAnyOrder("Alice", "Charlie");
+    }
+
+    @Test
+    void testJoinNotUpgradedWhenComposed() {
+        // A specification built for composition may be OR-ed by the caller, so its joins are kept LEFT
+        Query<User> query = Query.where("role.name", "ADMIN");
+
+        Set<? extends Join<User, ?>> joins = applyAndSort(query.buildSpecification(), "name");
+
+        assertThat(joins).hasSize(1);
+        assertThat(joins.iterator().next().getJoinType()).isEqualTo(JoinType.LEFT);
+    }
+
+    @Test
+    void testExplicitJoinReusedByLaterFilter() {
+        Query<User> query = Query.<User>get()
+                .and(Query.<User>where("name", SearchOperator.LIKE, "a"))
+                .and("role.name", "USER")
+                .join("role", JoinType.INNER);
+
+        Set<? extends Join<User, ?>> joins = applyAndSort(query.buildSpecification(), "role.name");
+
+        assertThat(joins).hasSize(1);
+        assertThat(joins.iterator().next().getJoinType()).isEqualTo(JoinType.INNER);
+        assertThat(Projection.create(entityManager, User.class, UserDto.class).findAll(query, Sort.by("role.name", "name")))
+                .extracting(UserDto::getName)
+                .containsExactly("Charlie");
+    }
+
+    @Test
+    void testUnionOrMatchesSingleQuery() {
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+        Query<User> query = Query.<User>where("email", "alice@example.com")
+                .or("superuser", true)
+                .or("role.name", "USER")
+                .unionOr();
+        Sort byNameDesc = Sort.by(Sort.Order.desc("name"));
+
+        assertThat(projection.findAll(query, byNameDesc))
+                .extracting(UserDto::getName)
+                .containsExactly("Charlie", "Bob", "Alice");
+        assertThat(projection.findTop(query, byNameDesc, 2))
+                .extracting(UserDto::getName)
+                .containsExactly("Charlie", "Bob");
+        Page<UserDto> page = projection.findAll(query, PageRequest.of(1, 2, Sort.by("name")));
+        assertThat(page.getContent()).extracting(UserDto::getName).containsExactly("Charlie");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(projection.count(query)).isEqualTo(3);
+        assertThat(projection.exists(Query.<User>where("name", "Dave").or("email", "dave@example.com").unionOr())).isFalse();
+    }
+
+    @Test
+    void testUnionOrDistinctProjections() {
+        Projection<User, SuperuserRow> projection = Projection.create(entityManager, User.class, SuperuserRow.class);
+        Query<User> query = Query.<User>where("superuser", false).or("email", SearchOperator.ENDS_WITH, "@example.com").unionOr();
+
+        // Distinct projections are deduplicated by value, not by entity
+        assertThat(projection.findAll(query, (Sort) null, false)).hasSize(3);
+        assertThat(projection.findAll(query, (Sort) null, true)).containsExactlyInAnyOrder(new SuperuserRow(false), new SuperuserRow(true));
+    }
+
+    @Test
+    void testUnionPolicy() {
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class,
+                QueryDialect.LOWER_CASE, UnionPolicy.ACROSS_ATTRIBUTES);
+        Query<User> query = Query.<User>where("name", "Alice").or("email", "bob@example.com");
+
+        assertThat(SpecificationQuery.unionBranches(query, UnionPolicy.NEVER, QueryDialect.LOWER_CASE)).isNull();
+        assertThat(SpecificationQuery.unionBranches(query, UnionPolicy.ACROSS_ATTRIBUTES, QueryDialect.LOWER_CASE)).hasSize(2);
+        assertThat(SpecificationQuery.unionBranches(Query.<User>where("name", "Alice").or("name", "Bob"),
+                UnionPolicy.ACROSS_ATTRIBUTES, QueryDialect.LOWER_CASE)).isNull();
+        // AND-ed after the OR, the query is a single branch
+        assertThat(SpecificationQuery.unionBranches(Query.<User>where("name", "Alice").or("email", "bob@example.com")
+                .and("superuser", false), UnionPolicy.ACROSS_ATTRIBUTES, QueryDialect.LOWER_CASE)).isNull();
+        assertThat(projection.findAll(query, Sort.by("name")))
+                .extracting(UserDto::getName)
+                .containsExactly("Alice", "Bob");
+    }
+
+    @Test
+    void testUnionOrLargerThanInList() {
+        for (int i = 0; i < 1100; i++) {
+            userRepository.save(new User(null, String.format("User %04d", i), "user" + i + "@example.com", i % 2 == 0, null));
+        }
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+        Query<User> query = Query.<User>where("superuser", true).or("email", SearchOperator.ENDS_WITH, "1@example.com").unionOr();
+
+        // More ids than fit in one IN list: 550 even users, the 110 users whose number ends with 1 and Bob
+        assertThat(projection.count(query)).isEqualTo(661);
+        assertThat(projection.findAll(query, Sort.by("name"))).hasSize(661);
+        Page<UserDto> page = projection.findAll(query, PageRequest.of(1, 3, Sort.by(Sort.Order.desc("name"))));
+        assertThat(page.getTotalElements()).isEqualTo(661);
+        assertThat(page.getContent()).extracting(UserDto::getName).containsExactly("User 1092", "User 1091", "User 1090");
+    }
+
+    @Test
+    void testLargeQueryBuildsFlatPredicate() {
+        Query<User> query = Query.get();
+        for (int i = 0; i < 2000; i++) {
+            query = query.or("email", "user" + i + "@example.com");
+        }
+        query = query.or("email", "bob@example.com");
+
+        assertThat(userRepository.findAll(query.buildSpecification()))
+                .extracting(User::getName)
+                .containsExactly("Bob");
+    }
+
+    @Test
+    void testQueryIsImmutable() {
+        Query<User> query = Query.where("superuser", false);
+        Specification<User> specification = query.buildSpecification();
+
+        Query<User> extended = query.and("name", "Alice").distinct().join("role", JoinType.LEFT);
+
+        assertThat(userRepository.findAll(specification, Sort.by("name")))
+                .extracting(User::getName)
+                .containsExactly("Alice", "Charlie");
+        assertThat(userRepository.findAll(query.buildSpecification(), Sort.by("name")))
+                .extracting(User::getName)
+                .containsExactly("Alice", "Charlie");
+        assertThat(userRepository.findAll(extended.buildSpecification()))
+                .extracting(User::getName)
+                .containsExactly("Alice");
+    }
+
+    @Test
+    void testInMemorySearchMatchesDatabase() {
+        List<User> users = userRepository.findAll();
+        List<Query<User>> queries = List.of(
+                Query.where("role.name", "USER"),
+                Query.<User>where("name", SearchOperator.GT, "Alice").and("superuser", false),
+                Query.<User>where("email", SearchOperator.ENDS_WITH, "@example.com").and("name", SearchOperator.NOT_EQ, "Bob"),
+                Query.<User>where("name", SearchOperator.LIKE_IGNORE_CASE, "AR").or("role.name", SearchOperator.IN, List.of("ADMIN")),
+                Query.<User>where("name", SearchOperator.MATCHES, "_o%").or("email", SearchOperator.FULL_TEXT, "CHARLIE example"),
+                Query.none());
+        Sort sort = Sort.by(Sort.Order.desc("role.name"), Sort.Order.asc("name"));
+
+        for (Query<User> query : queries) {
+            assertThat(InMemorySearch.findAll(users, query, sort))
+                    .extracting(User::getName)
+                    .containsExactlyElementsOf(userRepository.findAll(query.buildSpecification(), sort).stream().map(User::getName).toList());
+        }
+        Page<User> page = InMemorySearch.findAll(users, Query.where("superuser", false), PageRequest.of(1, 1, Sort.by("name")));
+        assertThat(page.getContent()).extracting(User::getName).containsExactly("Charlie");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    private Set<? extends Join<User, ?>> applyAndSort(Specification<User> specification, String sortProperty) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> criteriaQuery = criteriaBuilder.createQuery(User.class);
+        Root<User> root = criteriaQuery.from(User.class);
+        criteriaQuery.where(specification.toPredicate(root, criteriaQuery, criteriaBuilder));
+        criteriaQuery.orderBy(criteriaBuilder.asc(SpecificationEngine.resolvePath(root, sortProperty)));
+        return root.getJoins();
+    }
 }
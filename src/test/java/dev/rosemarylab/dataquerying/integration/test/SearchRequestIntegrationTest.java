@@ -1,12 +1,20 @@
 package dev.rosemarylab.dataquerying.integration.test;
 
+import dev.rosemarylab.dataquerying.api.Projection;
+import dev.rosemarylab.dataquerying.api.Query;
 import dev.rosemarylab.dataquerying.api.SearchRequest;
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.api.exceptions.InvalidSearchRequestException;
+import dev.rosemarylab.dataquerying.internal.specification.SpecificationQuery;
 import dev.rosemarylab.dataquerying.integration.config.TestConfig;
+import dev.rosemarylab.dataquerying.integration.dto.UserDto;
 import dev.rosemarylab.dataquerying.integration.model.Role;
 import dev.rosemarylab.dataquerying.integration.model.User;
 import dev.rosemarylab.dataquerying.integration.repository.RoleRepository;
 import dev.rosemarylab.dataquerying.integration.repository.UserRepository;
 import dev.rosemarylab.dataquerying.integration.utils.JsonUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,6 +29,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
@@ -37,6 +46,9 @@ class SearchRequestIntegrationTest {
     @Autowired
     private RoleRepository roleRepository; // Ensure you have this repository
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @BeforeEach
     void setUp() {
         // Initialize test data
@@ -221,4 +233,119 @@ class SearchRequestIntegrationTest {
                 .extracting(User::getName)
                 .containsExactlyInAnyOrder("Alice", "Bob");
     }
+
+    @Test
+    void whenValidated_thenValuesAreConvertedToAttributeTypes() {
+        SearchRequest searchRequest = JsonUtils.loadSearchRequestFromJson("searchRequest_withUntypedValues.json");
+
+        searchRequest.validate(entityManager.getMetamodel(), User.class);
+
+        assertThat(searchRequest.getFilters().get(0).getValue()).isEqualTo(Boolean.FALSE);
+        assertThat(searchRequest.getFilters().get(1).getValue()).isEqualTo(0L);
+        List<User> users = userRepository.findAll(searchRequest.getSpecification(), searchRequest.getSort());
+        assertThat(users).extracting(User::getName)
+                .containsExactly("Alice", "Bob", "Charlie");
+    }
+
+    @Test
+    void whenInvalid_thenValidateReportsAllErrors() {
+        SearchRequest searchRequest = JsonUtils.loadSearchRequestFromJson("searchRequest_invalid.json");
+
+        InvalidSearchRequestException exception = assertThrows(InvalidSearchRequestException.class,
+                () -> searchRequest.validate(entityManager.getMetamodel(), User.class));
+
+        assertThat(exception.getErrors()).containsExactly(
+                "filters[0]: attribute 'nickname' not found",
+                "filters[1].filters[0]: Value 'maybe' is not a valid Boolean",
+                "filters[1].filters[1]: BETWEEN operator requires a list of two comparable values",
+                "order[0]: attribute 'role.label' not found");
+        assertThat(exception.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void whenInvalid_thenProjectionRejectsItBeforeQuerying() {
+        SearchRequest searchRequest = JsonUtils.loadSearchRequestFromJson("searchRequest_invalid.json");
+        Projection<User, User> projection = Projection.create(entityManager, User.class, User.class);
+
+        InvalidSearchRequestException exception = assertThrows(InvalidSearchRequestException.class,
+                () -> projection.findAll(searchRequest));
+
+        assertThat(exception.getErrors()).contains("filters[0]: attribute 'nickname' not found");
+        assertThrows(InvalidSearchRequestException.class, () -> projection.findRows(searchRequest));
+        assertThrows(InvalidSearchRequestException.class, () -> projection.facets(searchRequest));
+    }
+
+    @Test
+    void whenNotValidated_thenProjectionConvertsValues() {
+        SearchRequest searchRequest = JsonUtils.loadSearchRequestFromJson("searchRequest_withUntypedValues.json");
+        Projection<User, User> projection = Projection.create(entityManager, User.class, User.class);
+
+        Page<User> users = projection.findAll(searchRequest);
+
+        assertThat(searchRequest.getFilters().get(0).getValue()).isEqualTo(Boolean.FALSE);
+        assertThat(searchRequest.getFilters().get(1).getValue()).isEqualTo(0L);
+        assertThat(users).extracting(User::getName)
+                .containsExactly("Alice", "Bob", "Charlie");
+    }
+
+    @Test
+    void whenFieldsAreSet_thenProjectionSelectsOnlyThem() {
+        userRepository.save(new User(null, "Dave", "dave@example.com", true, null));
+        SearchRequest searchRequest = JsonUtils.loadSearchRequestFromJson("searchRequest_withFields.json");
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+
+        Page<UserDto> page = projection.findAll(searchRequest);
+        Page<Map<String, Object>> rows = projection.findRows(searchRequest);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(UserDto::getName).containsExactly("Dave", "Bob", "Alice");
+        assertThat(page.getContent()).extracting(UserDto::isSuperuser).containsExactly(true, false, false);
+        assertThat(page.getContent()).extracting(UserDto::getId, UserDto::getEmail).containsOnly(tuple(null, null));
+        assertThat(rows.getContent()).containsExactly(
+                Map.of("name", "Dave", "superuser", true),
+                Map.of("name", "Bob", "superuser", false),
+                Map.of("name", "Alice", "superuser", false));
+        assertThat(rows.getContent().get(0).keySet()).containsExactly("name", "superuser");
+    }
+
+    @Test
+    void whenFieldsAreSetOnDistinctQuery_thenProjectionSortsOnUnselectedAttribute() {
+        // The filter on the role makes the query distinct, and the email it is sorted on isn't selected
+        SearchRequest searchRequest = JsonUtils.loadSearchRequestFromJson("searchRequest_withFieldsOnJoin.json");
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+
+        Page<Map<String, Object>> rows = projection.findRows(searchRequest);
+
+        assertThat(rows.getTotalElements()).isEqualTo(2);
+        assertThat(rows.getContent()).containsExactly(Map.of("name", "Charlie"), Map.of("name", "Bob"));
+    }
+
+    @Test
+    void whenFieldsAreUnknown_thenProjectionThrows() {
+        SearchRequest searchRequest = JsonUtils.loadSearchRequestFromJson("searchRequest_withFields.json");
+        Projection<User, UserDto> projection = Projection.create(entityManager, User.class, UserDto.class);
+
+        // An attribute of the entity missing from the projection type, then one missing from the entity
+        searchRequest.setFields(List.of("name", "role"));
+        assertThrows(AttributeNotFoundException.class, () -> projection.findAll(searchRequest));
+        assertThrows(AttributeNotFoundException.class, () -> projection.findRows(searchRequest));
+        searchRequest.setFields(List.of("name", "nickname"));
+        assertThrows(InvalidSearchRequestException.class, () -> projection.findAll(searchRequest));
+        assertThrows(InvalidSearchRequestException.class, () -> projection.findRows(searchRequest));
+    }
+
+    @Test
+    void whenFiltersContradict_thenQueryMatchesNothing() {
+        // Values are only compared once they are converted to the types of their attributes
+        SearchRequest searchRequest = JsonUtils.loadSearchRequestFromJson("searchRequest_contradictory.json")
+                .validate(entityManager.getMetamodel(), User.class);
+
+        Query<User> query = searchRequest.getQuery();
+
+        assertThat(SpecificationQuery.isNone(query)).isTrue();
+        assertThat(userRepository.findAll(searchRequest.getSpecification())).isEmpty();
+        Projection<User, User> projection = Projection.create(entityManager, User.class, User.class);
+        assertThat(projection.count(query)).isZero();
+        assertThat(projection.findAll(query, PageRequest.of(0, 10))).isEmpty();
+    }
 }
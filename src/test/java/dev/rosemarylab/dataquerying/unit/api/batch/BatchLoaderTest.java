@@ -0,0 +1,136 @@
+package dev.rosemarylab.dataquerying.unit.api.batch;
+
+import dev.rosemarylab.dataquerying.api.BatchLoader;
+import dev.rosemarylab.dataquerying.api.BatchLoaderOptions;
+import dev.rosemarylab.dataquerying.api.Projection;
+import dev.rosemarylab.dataquerying.api.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class BatchLoaderTest {
+
+    record Row(Long key, String name) {
+    }
+
+    private Projection<Object, Row> projection;
+
+    @BeforeEach
+    void setUp() {
+        projection = mock(Projection.class);
+    }
+
+    @Test
+    void testLoadsWithinWindowAreSentAsOneQuery() throws Exception {
+        when(projection.findAll(any(Query.class), any(Sort.class))).thenReturn(List.of(
+                new Row(1L, "a"), new Row(2L, "b"), new Row(1L, "c")));
+
+        try (BatchLoader<Long, Row> loader = BatchLoader.create(projection, "key", Row::key,
+                BatchLoaderOptions.defaults().withWindow(Duration.ofMillis(50)))) {
+            CompletableFuture<List<Row>> first = loader.load(1L);
+            CompletableFuture<List<Row>> second = loader.load(2L);
+            CompletableFuture<List<Row>> missing = loader.load(3L);
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).extracting(Row::name).containsExactly("a", "c");
+            assertThat(second.get(5, TimeUnit.SECONDS)).extracting(Row::name).containsExactly("b");
+            assertThat(missing.get(5, TimeUnit.SECONDS)).isEmpty();
+        }
+
+        verify(projection, times(1)).findAll(any(Query.class), any(Sort.class));
+    }
+
+    @Test
+    void testMaxBatchSizeDispatchesWithoutWaitingForWindow() throws Exception {
+        when(projection.findAll(any(Query.class), any(Sort.class))).thenReturn(List.of(new Row(1L, "a"), new Row(2L, "b")));
+
+        try (BatchLoader<Long, Row> loader = BatchLoader.create(projection, "key", Row::key,
+                BatchLoaderOptions.defaults().withMaxBatchSize(2).withWindow(Duration.ofHours(1)))) {
+            CompletableFuture<List<Row>> first = loader.load(1L);
+            CompletableFuture<List<Row>> second = loader.load(2L);
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).extracting(Row::name).containsExactly("a");
+            assertThat(second.get(5, TimeUnit.SECONDS)).extracting(Row::name).containsExactly("b");
+        }
+    }
+
+    @Test
+    void testDuplicateKeysShareTheSameFuture() {
+        try (BatchLoader<Long, Row> loader = BatchLoader.create(projection, "key", Row::key,
+                BatchLoaderOptions.defaults().withWindow(Duration.ofHours(1)))) {
+            assertSame(loader.load(1L), loader.load(1L));
+        }
+    }
+
+    @Test
+    void testLoadManyKeepsRequestedKeyOrder() throws Exception {
+        when(projection.findAll(any(Query.class), any(Sort.class))).thenReturn(List.of(new Row(1L, "a"), new Row(2L, "b")));
+
+        try (BatchLoader<Long, Row> loader = BatchLoader.create(projection, "key", Row::key,
+                BatchLoaderOptions.defaults().withWindow(Duration.ofHours(1)))) {
+            CompletableFuture<Map<Long, List<Row>>> result = loader.loadMany(List.of(3L, 2L, 1L));
+            loader.dispatch();
+
+            assertThat(result.get(5, TimeUnit.SECONDS)).containsOnlyKeys(3L, 2L, 1L);
+            assertThat(result.get().keySet()).containsExactly(3L, 2L, 1L);
+            assertThat(result.get().get(3L)).isEmpty();
+        }
+    }
+
+    @Test
+    void testQueryFailureCompletesEveryFutureExceptionally() {
+        when(projection.findAll(any(Query.class), any(Sort.class))).thenThrow(new IllegalStateException("boom"));
+
+        try (BatchLoader<Long, Row> loader = BatchLoader.create(projection, "key", Row::key,
+                BatchLoaderOptions.defaults().withWindow(Duration.ofHours(1)))) {
+            CompletableFuture<List<Row>> first = loader.load(1L);
+            CompletableFuture<List<Row>> second = loader.load(2L);
+            loader.dispatch();
+
+            assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testMappingErrorCompletesEveryFutureExceptionally() {
+        when(projection.findAll(any(Query.class), any(Sort.class))).thenReturn(List.of(new Row(1L, "a")));
+        Function<Row, Long> keyExtractor = row -> {
+            throw new StackOverflowError();
+        };
+
+        // Runs the batch on the dispatching thread, so the error is rethrown there
+        try (BatchLoader<Long, Row> loader = BatchLoader.create(projection, "key", keyExtractor,
+                BatchLoaderOptions.defaults().withWindow(Duration.ofHours(1)).withExecutor(Runnable::run))) {
+            CompletableFuture<List<Row>> first = loader.load(1L);
+            CompletableFuture<List<Row>> second = loader.load(2L);
+
+            assertThrows(StackOverflowError.class, loader::dispatch);
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertThat(exception.getCause()).isInstanceOf(StackOverflowError.class);
+            assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testClosedLoaderRejectsNewKeys() {
+        BatchLoader<Long, Row> loader = BatchLoader.create(projection, "key", Row::key);
+        loader.close();
+
+        assertThrows(IllegalStateException.class, () -> loader.load(1L));
+    }
+}
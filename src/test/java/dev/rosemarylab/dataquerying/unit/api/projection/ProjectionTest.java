@@ -22,9 +22,11 @@ import org.springframework.data.domain.Sort;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
@@ -216,4 +218,55 @@ class ProjectionTest {
         // Optionally verify selection call if needed
         verify(criteriaQuery).select(any()); // The actual "select(...)" call
     }
+
+    @Test
+    void testFindFirst_fetchesSingleRowWithoutCount() {
+        Query<Dto> query = Query.where("age", SearchOperator.GT, 20);
+        Order order = mock(Order.class);
+        when(criteriaBuilder.desc(namePath)).thenReturn(order);
+        when(typedQuery.setMaxResults(1)).thenReturn(typedQuery);
+
+        Optional<DtoMinimal> result = new GenericProjector<>(entityManager, Dto.class, DtoMinimal.class)
+                .findFirst(query, Sort.by(Sort.Direction.DESC, "name"));
+
+        assertTrue(result.isPresent(), "Result should be present");
+        assertEquals("John", result.get().getName());
+
+        verify(criteriaQuery).orderBy(List.of(order));
+        verify(typedQuery).setMaxResults(1);
+        verify(typedQuery, never()).setFirstResult(anyInt());
+
+        // No count query is executed
+        verify(criteriaBuilder, never()).createQuery(Long.class);
+    }
+
+    @Test
+    void testFindAllWithSort_appliesOrder() {
+        Query<Dto> query = Query.where("age", SearchOperator.GT, 20);
+        Order order = mock(Order.class);
+        when(criteriaBuilder.asc(namePath)).thenReturn(order);
+
+        List<DtoMinimal> result = new GenericProjector<>(entityManager, Dto.class, DtoMinimal.class)
+                .findAll(query, Sort.by("name"));
+
+        assertEquals(1, result.size(), "Should have exactly one row");
+        verify(criteriaQuery).orderBy(List.of(order));
+        verify(typedQuery, never()).setMaxResults(anyInt());
+    }
+
+    @Test
+    void testFindTop_limitsInDatabase() {
+        Query<Dto> query = Query.where("age", SearchOperator.GT, 20);
+        Order order = mock(Order.class);
+        when(criteriaBuilder.asc(namePath)).thenReturn(order);
+        when(typedQuery.setMaxResults(5)).thenReturn(typedQuery);
+
+        List<DtoMinimal> result = new GenericProjector<>(entityManager, Dto.class, DtoMinimal.class)
+                .findTop(query, Sort.by("name"), 5);
+
+        assertEquals(1, result.size(), "Should have exactly one row");
+        verify(criteriaQuery).orderBy(List.of(order));
+        verify(typedQuery).setMaxResults(5);
+        verify(criteriaBuilder, never()).createQuery(Long.class);
+    }
 }
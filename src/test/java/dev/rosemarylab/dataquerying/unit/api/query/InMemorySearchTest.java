@@ -0,0 +1,64 @@
+package dev.rosemarylab.dataquerying.unit.api.query;
+
+import dev.rosemarylab.dataquerying.api.InMemorySearch;
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
+import dev.rosemarylab.dataquerying.utils.PersonEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemorySearchTest {
+
+    private static PersonEntity person(long id, String name, Integer age) {
+        PersonEntity person = new PersonEntity();
+        person.setId(id);
+        person.setName(name);
+        person.setAge(age);
+        return person;
+    }
+
+    @Test
+    void testPredicateFollowsDatabaseSemantics() {
+        PersonEntity john = person(1, "John", 30);
+        PersonEntity unknown = person(2, "Jane", null);
+
+        // Values are compared by value whatever their numeric type, and a comparison with NULL is not satisfied
+        Predicate<PersonEntity> older = InMemorySearch.predicate(Query.where("age", SearchOperator.GT, 18L));
+        assertTrue(older.test(john));
+        assertFalse(older.test(unknown));
+        assertFalse(InMemorySearch.<PersonEntity>predicate(Query.where("age", SearchOperator.NOT_EQ, 30)).test(unknown));
+        assertTrue(InMemorySearch.<PersonEntity>predicate(Query.where("age", null)).test(unknown));
+        assertTrue(InMemorySearch.<PersonEntity>predicate(Query.where("age", SearchOperator.BETWEEN, List.of("30", 40))).test(john));
+        assertTrue(InMemorySearch.<PersonEntity>predicate(Query.where("name", SearchOperator.MATCHES, "J_h%")).test(john));
+        assertFalse(InMemorySearch.<PersonEntity>predicate(Query.where("name", SearchOperator.LIKE, "%")).test(john));
+        assertTrue(InMemorySearch.<PersonEntity>predicate(Query.<PersonEntity>where("name", SearchOperator.EQ_IGNORE_CASE, "jane")
+                .or("age", SearchOperator.IN, List.of(30))).test(unknown));
+        assertFalse(InMemorySearch.<PersonEntity>predicate(Query.none()).test(john));
+        assertTrue(InMemorySearch.<PersonEntity>predicate(Query.get()).test(john));
+    }
+
+    @Test
+    void testComparatorOrdersNullsAsDatabase() {
+        List<PersonEntity> people = new ArrayList<>(List.of(person(1, "John", 30), person(2, "Jane", null), person(3, "anna", 30)));
+
+        people.sort(InMemorySearch.comparator(Sort.by(Sort.Order.desc("age"), Sort.Order.asc("name").ignoreCase())));
+
+        assertEquals(List.of(3L, 1L, 2L), people.stream().map(PersonEntity::getId).toList());
+        people.sort(InMemorySearch.comparator(Sort.by("age")));
+        assertEquals(2L, people.getFirst().getId());
+    }
+
+    @Test
+    void testUnknownAttribute_throws() {
+        Predicate<PersonEntity> predicate = InMemorySearch.predicate(Query.where("nickname", "Johnny"));
+
+        assertThrows(AttributeNotFoundException.class, () -> predicate.test(person(1, "John", 30)));
+    }
+}
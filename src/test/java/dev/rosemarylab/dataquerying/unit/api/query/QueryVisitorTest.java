@@ -0,0 +1,129 @@
+package dev.rosemarylab.dataquerying.unit.api.query;
+
+import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryVisitor;
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.utils.PersonEntity;
+import jakarta.persistence.criteria.JoinType;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class QueryVisitorTest {
+
+    /**
+     * Renders the query as text and records the joins and the DISTINCT flag.
+     */
+    private static class TextVisitor implements QueryVisitor<String> {
+        private final List<String> visited = new ArrayList<>();
+
+        @Override
+        public String visitAnd(List<String> operands) {
+            return "(" + String.join(" AND ", operands) + ")";
+        }
+
+        @Override
+        public String visitOr(List<String> operands) {
+            return "(" + String.join(" OR ", operands) + ")";
+        }
+
+        @Override
+        public String visitComparison(String attribute, SearchOperator operator, Object value) {
+            return attribute + " " + operator + " " + value;
+        }
+
+        @Override
+        public String visitIn(String attribute, Collection<?> values) {
+            return attribute + " IN " + values;
+        }
+
+        @Override
+        public String visitBetween(String attribute, Object lower, Object upper) {
+            return attribute + " BETWEEN " + lower + " AND " + upper;
+        }
+
+        @Override
+        public String visitLike(String attribute, SearchOperator operator, String value) {
+            return attribute + " " + operator + " '" + value + "'";
+        }
+
+        @Override
+        public String visitNone() {
+            return "FALSE";
+        }
+
+        @Override
+        public void visitJoin(String attribute, JoinType joinType) {
+            visited.add(joinType + " JOIN " + attribute);
+        }
+
+        @Override
+        public void visitDistinct() {
+            visited.add("DISTINCT");
+        }
+    }
+
+    @Test
+    void testVisitFlatGroups() {
+        Query<PersonEntity> query = Query.<PersonEntity>where("age", SearchOperator.GT, 18)
+                .and("name", SearchOperator.STARTS_WITH, "Jo")
+                .and("height", SearchOperator.BETWEEN, List.of(150, 200))
+                .or("id", SearchOperator.IN, List.of(1, 2))
+                .distinct()
+                .join("address", JoinType.LEFT);
+        TextVisitor visitor = new TextVisitor();
+
+        String text = query.accept(visitor);
+
+        assertEquals("((age GT 18 AND name STARTS_WITH 'Jo' AND height BETWEEN 150 AND 200) OR id IN [1, 2])", text);
+        assertEquals(List.of("DISTINCT", "LEFT JOIN address"), visitor.visited);
+    }
+
+    @Test
+    void testVisitNestedQueriesAndIncompleteFilters() {
+        Query<PersonEntity> query = Query.<PersonEntity>get()
+                .and(Query.<PersonEntity>where("name", null).or("age", SearchOperator.GT, null))
+                .and(Query.<PersonEntity>where("name", "John").and("age", SearchOperator.LT, 65));
+
+        // The nested AND is flattened, the filter without a value is left out
+        assertEquals("((name EQ null) AND name EQ John AND age LT 65)", query.accept(new TextVisitor()));
+        assertEquals("()", Query.<PersonEntity>get().accept(new TextVisitor()));
+        assertEquals("(FALSE OR name EQ John)", Query.<PersonEntity>none().or("name", "John").accept(new TextVisitor()));
+    }
+
+    @Test
+    void testVisitSpecification_throwsByDefault() {
+        Query<PersonEntity> query = Query.get((root, criteriaQuery, criteriaBuilder) -> null);
+
+        assertThrows(UnsupportedOperationException.class, () -> query.accept(new TextVisitor()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testVisitOtherImplementation_asSpecification() {
+        Specification<PersonEntity> specification = (root, criteriaQuery, criteriaBuilder) -> null;
+        Query<PersonEntity> query = mock(Query.class, CALLS_REAL_METHODS);
+        doReturn(specification).when(query).buildSpecification();
+        List<Specification<?>> visited = new ArrayList<>();
+
+        String text = query.accept(new TextVisitor() {
+            @Override
+            public String visitSpecification(Specification<?> visitedSpecification) {
+                visited.add(visitedSpecification);
+                return "SPECIFICATION";
+            }
+        });
+
+        assertEquals("SPECIFICATION", text);
+        assertEquals(List.of(specification), visited);
+    }
+}
@@ -0,0 +1,63 @@
+package dev.rosemarylab.dataquerying.unit.internal.deserializers;
+
+import dev.rosemarylab.dataquerying.api.AggregateFunction;
+import dev.rosemarylab.dataquerying.internal.deserializers.AggregateFunctionDeserializer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+class AggregateFunctionDeserializerTest {
+    private AutoCloseable closeable;
+
+    private AggregateFunctionDeserializer deserializer;
+
+    @Mock
+    private JsonParser jsonParser;
+
+    @Mock
+    private DeserializationContext context;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        deserializer = new AggregateFunctionDeserializer();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void testDeserializeValidValue_SUM() throws IOException {
+        // Suppose AggregateFunction.SUM has .function = "SUM"
+        when(jsonParser.getText()).thenReturn("SUM");
+        AggregateFunction result = deserializer.deserialize(jsonParser, context);
+        assertEquals(AggregateFunction.SUM, result);
+    }
+
+    @Test
+    void testDeserializeValidValue_countDistinctCaseInsensitive() throws IOException {
+        // Suppose AggregateFunction.COUNT_DISTINCT has .function = "COUNT_DISTINCT"
+        when(jsonParser.getText()).thenReturn("count_Distinct");
+        AggregateFunction result = deserializer.deserialize(jsonParser, context);
+        assertEquals(AggregateFunction.COUNT_DISTINCT, result);
+    }
+
+    @Test
+    void testDeserializeInvalidValue_throwsException() throws IOException {
+        when(jsonParser.getText()).thenReturn("INVALID");
+        assertThrows(IllegalArgumentException.class,
+                () -> deserializer.deserialize(jsonParser, context));
+    }
+}
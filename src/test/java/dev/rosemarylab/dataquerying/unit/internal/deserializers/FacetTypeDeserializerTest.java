@@ -0,0 +1,63 @@
+package dev.rosemarylab.dataquerying.unit.internal.deserializers;
+
+import dev.rosemarylab.dataquerying.api.FacetType;
+import dev.rosemarylab.dataquerying.internal.deserializers.FacetTypeDeserializer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+class FacetTypeDeserializerTest {
+    private AutoCloseable closeable;
+
+    private FacetTypeDeserializer deserializer;
+
+    @Mock
+    private JsonParser jsonParser;
+
+    @Mock
+    private DeserializationContext context;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        deserializer = new FacetTypeDeserializer();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void testDeserializeValidValue_TERMS() throws IOException {
+        // Suppose FacetType.TERMS has .type = "TERMS"
+        when(jsonParser.getText()).thenReturn("TERMS");
+        FacetType result = deserializer.deserialize(jsonParser, context);
+        assertEquals(FacetType.TERMS, result);
+    }
+
+    @Test
+    void testDeserializeValidValue_rangeCaseInsensitive() throws IOException {
+        // Suppose FacetType.RANGE has .type = "RANGE"
+        when(jsonParser.getText()).thenReturn("Range");
+        FacetType result = deserializer.deserialize(jsonParser, context);
+        assertEquals(FacetType.RANGE, result);
+    }
+
+    @Test
+    void testDeserializeInvalidValue_throwsException() throws IOException {
+        when(jsonParser.getText()).thenReturn("INVALID");
+        assertThrows(IllegalArgumentException.class,
+                () -> deserializer.deserialize(jsonParser, context));
+    }
+}
@@ -54,6 +54,13 @@ class SearchOperatorDeserializerTest {
         assertEquals(SearchOperator.LIKE, result);
     }
 
+    @Test
+    void testDeserializeValidValue_startsWith() throws IOException {
+        when(jsonParser.getText()).thenReturn("starts_with");
+        SearchOperator result = deserializer.deserialize(jsonParser, context);
+        assertEquals(SearchOperator.STARTS_WITH, result);
+    }
+
     @Test
     void testDeserializeInvalidValue_throwsException() throws IOException {
         when(jsonParser.getText()).thenReturn("INVALID");
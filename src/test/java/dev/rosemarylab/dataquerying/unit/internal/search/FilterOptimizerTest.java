@@ -0,0 +1,194 @@
+package dev.rosemarylab.dataquerying.unit.internal.search;
+
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.internal.enums.ConditionalOperator;
+import dev.rosemarylab.dataquerying.internal.search.FilterData;
+import dev.rosemarylab.dataquerying.internal.search.FilterOptimizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FilterOptimizerTest {
+
+    @Test
+    void testContradictoryEqualities_returnsNull() {
+        List<FilterData> filters = List.of(
+                typed(String.class, "name", SearchOperator.EQ, "Alice"),
+                typed(String.class, "name", SearchOperator.EQ, "Bob"));
+
+        assertThat(FilterOptimizer.optimize(filters, ConditionalOperator.AND)).isNull();
+    }
+
+    @Test
+    void testDisjointRanges_returnsNull() {
+        List<FilterData> filters = List.of(
+                typed(Long.class, "id", SearchOperator.GT, 10L),
+                typed(Long.class, "id", SearchOperator.LTE, 10L));
+
+        assertThat(FilterOptimizer.optimize(filters, ConditionalOperator.AND)).isNull();
+    }
+
+    @Test
+    void testRangesAreMergedIntoBetween() {
+        List<FilterData> filters = List.of(
+                typed(Long.class, "id", SearchOperator.GTE, 1L),
+                leaf("name", SearchOperator.LIKE, "A"),
+                typed(Long.class, "id", SearchOperator.LTE, 20L),
+                typed(Long.class, "id", SearchOperator.BETWEEN, List.of(5L, 30L)));
+
+        FilterData optimized = FilterOptimizer.optimize(filters, ConditionalOperator.AND);
+
+        assertThat(optimized.getFilters())
+                .extracting(FilterData::getAttribute, FilterData::getSearchOperator, FilterData::getValue)
+                .containsExactly(
+                        tuple("id", SearchOperator.BETWEEN, List.of(5L, 20L)),
+                        tuple("name", SearchOperator.LIKE, "A"));
+    }
+
+    @Test
+    void testInIsIntersectedWithEqualityAndRange() {
+        List<FilterData> filters = List.of(
+                typed(Long.class, "id", SearchOperator.IN, List.of(1L, 2L, 3L, 4L)),
+                typed(Long.class, "id", SearchOperator.IN, List.of(2L, 3L, 4L, 5L)),
+                typed(Long.class, "id", SearchOperator.LT, 4L));
+
+        FilterData optimized = FilterOptimizer.optimize(filters, ConditionalOperator.AND);
+
+        assertThat(optimized.getFilters())
+                .extracting(FilterData::getAttribute, FilterData::getSearchOperator, FilterData::getValue)
+                .containsExactly(tuple("id", SearchOperator.IN, List.of(2L, 3L)));
+    }
+
+    @Test
+    void testNestedGroupsAreFlattenedAndDuplicatesDropped() {
+        List<FilterData> filters = List.of(
+                leaf("name", SearchOperator.EQ, "Alice"),
+                group(ConditionalOperator.OR,
+                        leaf("name", SearchOperator.EQ, "Bob"),
+                        group(null, leaf("name", SearchOperator.IN, List.of("Alice", "Charlie"))),
+                        leaf("name", SearchOperator.EQ, "Bob")));
+
+        FilterData optimized = FilterOptimizer.optimize(filters, null);
+
+        assertThat(optimized.getConditionalOperator()).isEqualTo(ConditionalOperator.OR);
+        assertThat(optimized.getFilters())
+                .extracting(FilterData::getAttribute, FilterData::getSearchOperator, FilterData::getValue)
+                .containsExactly(tuple("name", SearchOperator.IN, List.of("Alice", "Bob", "Charlie")));
+    }
+
+    @Test
+    void testContradictoryGroupIsDroppedFromOr() {
+        List<FilterData> filters = List.of(
+                group(ConditionalOperator.AND,
+                        typed(Boolean.class, "superuser", SearchOperator.EQ, true),
+                        typed(Boolean.class, "superuser", SearchOperator.EQ, false)),
+                leaf("name", SearchOperator.LIKE, "li"));
+
+        FilterData optimized = FilterOptimizer.optimize(filters, ConditionalOperator.OR);
+
+        assertThat(optimized.getFilters())
+                .extracting(FilterData::getAttribute, FilterData::getSearchOperator, FilterData::getValue)
+                .containsExactly(tuple("name", SearchOperator.LIKE, "li"));
+        assertThat(FilterOptimizer.optimize(filters.subList(0, 1), ConditionalOperator.OR)).isNull();
+    }
+
+    @Test
+    void testIncomparableValuesAreLeftUnchanged() {
+        List<FilterData> filters = List.of(
+                leaf("id", SearchOperator.GT, "10"),
+                leaf("id", SearchOperator.LT, 5));
+
+        FilterData optimized = FilterOptimizer.optimize(filters, ConditionalOperator.AND);
+
+        assertThat(optimized.getFilters()).containsExactlyElementsOf(filters);
+    }
+
+    @Test
+    void testUnconvertedValues_areNotCompared() {
+        // As strings "9" > "100", but the id is a number
+        List<FilterData> filters = List.of(
+                leaf("id", SearchOperator.GT, "9"),
+                leaf("id", SearchOperator.LT, "100"),
+                leaf("name", SearchOperator.EQ, "Alice"),
+                leaf("name", SearchOperator.EQ, "Bob"));
+
+        FilterData optimized = FilterOptimizer.optimize(filters, ConditionalOperator.AND);
+
+        assertThat(optimized).isNotNull();
+        assertThat(optimized.getFilters()).containsExactlyElementsOf(filters);
+    }
+
+    @Test
+    void testEmptyIn_returnsNullWithoutType() {
+        List<FilterData> filters = List.of(
+                leaf("name", SearchOperator.LIKE, "A"),
+                leaf("id", SearchOperator.IN, List.of()));
+
+        assertThat(FilterOptimizer.optimize(filters, ConditionalOperator.AND)).isNull();
+        assertThat(FilterOptimizer.optimize(filters.subList(1, 2), ConditionalOperator.OR)).isNull();
+    }
+
+    @Test
+    void testUnconvertedNumbersOfOneClass_areComparedForEquality() {
+        List<FilterData> contradictory = List.of(
+                leaf("id", SearchOperator.EQ, 1),
+                leaf("id", SearchOperator.EQ, 2));
+        List<FilterData> intersected = List.of(
+                leaf("id", SearchOperator.IN, List.of(1, 2, 3)),
+                leaf("id", SearchOperator.IN, List.of(2, 3, 4)));
+
+        assertThat(FilterOptimizer.optimize(contradictory, ConditionalOperator.AND)).isNull();
+        assertThat(FilterOptimizer.optimize(intersected, ConditionalOperator.AND).getFilters())
+                .extracting(FilterData::getAttribute, FilterData::getSearchOperator, FilterData::getValue, FilterData::getValueType)
+                .containsExactly(tuple("id", SearchOperator.IN, List.of(2, 3), null));
+    }
+
+    @Test
+    void testUnconvertedValuesOfDifferentClasses_areNotCompared() {
+        List<FilterData> filters = List.of(
+                leaf("id", SearchOperator.EQ, 1),
+                leaf("id", SearchOperator.EQ, 1L));
+
+        FilterData optimized = FilterOptimizer.optimize(filters, ConditionalOperator.AND);
+
+        assertThat(optimized).isNotNull();
+        assertThat(optimized.getFilters()).containsExactlyElementsOf(filters);
+    }
+
+    @Test
+    void testStringRanges_areNotFolded() {
+        // The order of strings depends on the collation of the database
+        List<FilterData> filters = List.of(
+                typed(String.class, "name", SearchOperator.GT, "b"),
+                typed(String.class, "name", SearchOperator.LT, "B"));
+
+        FilterData optimized = FilterOptimizer.optimize(filters, ConditionalOperator.AND);
+
+        assertThat(optimized).isNotNull();
+        assertThat(optimized.getFilters()).containsExactlyElementsOf(filters);
+    }
+
+    private static FilterData typed(Class<?> valueType, String attribute, SearchOperator operator, Object value) {
+        FilterData filter = leaf(attribute, operator, value);
+        filter.setValueType(valueType);
+        return filter;
+    }
+
+    private static FilterData leaf(String attribute, SearchOperator operator, Object value) {
+        FilterData filter = new FilterData();
+        filter.setAttribute(attribute);
+        filter.setSearchOperator(operator);
+        filter.setValue(value);
+        return filter;
+    }
+
+    private static FilterData group(ConditionalOperator operator, FilterData... filters) {
+        FilterData group = new FilterData();
+        group.setConditionalOperator(operator);
+        group.setFilters(List.of(filters));
+        return group;
+    }
+}
@@ -1,44 +1,79 @@
 package dev.rosemarylab.dataquerying.unit.internal.search;
 
 import dev.rosemarylab.dataquerying.api.Query;
+import dev.rosemarylab.dataquerying.api.QueryVisitor;
 import dev.rosemarylab.dataquerying.api.SearchOperator;
 import dev.rosemarylab.dataquerying.api.SearchRequest;
 import dev.rosemarylab.dataquerying.internal.enums.ConditionalOperator;
 import dev.rosemarylab.dataquerying.internal.search.FilterData;
 import dev.rosemarylab.dataquerying.internal.search.SearchRequestQueryTransformer;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
+import jakarta.persistence.criteria.JoinType;
 import org.junit.jupiter.api.Test;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertSame;
-import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
-@SuppressWarnings("rawtypes")
 class SearchRequestQueryTransformerTest {
 
-    private MockedStatic<Query> queryStaticMock;
-    private Query<Object> querySpy;
-
-    @BeforeEach
-    void setUp() {
-        // 1) Create a real Query instance and spy on it
-        Query<Object> realQuery = Query.get(); // real instance
-        querySpy = spy(realQuery);
-
-        // 2) Mock the static Query.get() to return our spy
-        queryStaticMock = Mockito.mockStatic(Query.class);
-        queryStaticMock.when(Query::get).thenReturn(querySpy);
+    // Renders the conditions of a query, and records its joins and DISTINCT flag
+    private static class TextVisitor implements QueryVisitor<String> {
+        private final List<String> visited = new ArrayList<>();
+
+        @Override
+        public String visitAnd(List<String> operands) {
+            return "(" + String.join(" AND ", operands) + ")";
+        }
+
+        @Override
+        public String visitOr(List<String> operands) {
+            return "(" + String.join(" OR ", operands) + ")";
+        }
+
+        @Override
+        public String visitComparison(String attribute, SearchOperator operator, Object value) {
+            return attribute + " " + operator + " " + value;
+        }
+
+        @Override
+        public String visitIn(String attribute, Collection<?> values) {
+            return attribute + " IN " + values;
+        }
+
+        @Override
+        public String visitBetween(String attribute, Object lower, Object upper) {
+            return attribute + " BETWEEN " + lower + " AND " + upper;
+        }
+
+        @Override
+        public String visitLike(String attribute, SearchOperator operator, String value) {
+            return attribute + " " + operator + " '" + value + "'";
+        }
+
+        @Override
+        public String visitNone() {
+            return "FALSE";
+        }
+
+        @Override
+        public void visitJoin(String attribute, JoinType joinType) {
+            visited.add(joinType + " JOIN " + attribute);
+        }
+
+        @Override
+        public void visitDistinct() {
+            visited.add("DISTINCT");
+        }
     }
 
-    @AfterEach
-    void tearDown() {
-        // 3) Close the static mock after each test to avoid interference
-        queryStaticMock.close();
+    private static FilterData filter(String attribute, SearchOperator operator, Object value) {
+        FilterData filterData = new FilterData();
+        filterData.setAttribute(attribute);
+        filterData.setSearchOperator(operator);
+        filterData.setValue(value);
+        return filterData;
     }
 
     @Test
@@ -50,20 +85,10 @@ class SearchRequestQueryTransformerTest {
         // When
         Query<Object> result = SearchRequestQueryTransformer.toQuery(request);
 
-        // Then
-        // We expect the same spy to be returned
-        assertSame(querySpy, result, "Should return the spy instance from Query.get()");
-
-        // Verify that no 'and' or 'or' calls were made
-        verify(querySpy, never()).and(anyString(), any(), any());
-        verify(querySpy, never()).or(anyString(), any(), any());
-
-        // Or no join calls
-        verify(querySpy, never()).join(anyString(), any());
-
-        // Distinct should not be set
-        // (We can't directly check a private field, but we know no call should happen)
-        verify(querySpy, never()).distinct();
+        // Then no condition, join or DISTINCT is added
+        TextVisitor visitor = new TextVisitor();
+        assertEquals("()", result.accept(visitor));
+        assertEquals(List.of(), visitor.visited);
     }
 
     @Test
@@ -71,28 +96,15 @@ class SearchRequestQueryTransformerTest {
         // Given
         SearchRequest request = new SearchRequest();
         request.setConditionalOperator(ConditionalOperator.AND);
-
-        FilterData filterData = new FilterData();
-        filterData.setAttribute("age");
-        filterData.setSearchOperator(SearchOperator.GT);
-        filterData.setValue(30);
-
-        request.setFilters(List.of(filterData));
+        request.setFilters(List.of(filter("age", SearchOperator.GT, 30)));
 
         // When
         Query<Object> result = SearchRequestQueryTransformer.toQuery(request);
 
-        // Then
-        assertSame(querySpy, result);
-        // Because top-level operator is 'AND', we expect query.and("age", GT, 30)
-        verify(querySpy).and("age", SearchOperator.GT, 30);
-
-        // No OR calls
-        verify(querySpy, never()).or(anyString(), any(), any());
-        // No join calls
-        verify(querySpy, never()).join(anyString(), any());
-        // No distinct
-        verify(querySpy, never()).distinct();
+        // Then the single condition needs no join and no DISTINCT
+        TextVisitor visitor = new TextVisitor();
+        assertEquals("age GT 30", result.accept(visitor));
+        assertEquals(List.of(), visitor.visited);
     }
 
     @Test
@@ -100,25 +112,15 @@ class SearchRequestQueryTransformerTest {
         // Given
         SearchRequest request = new SearchRequest();
         request.setConditionalOperator(ConditionalOperator.OR);
-
-        FilterData filterData = new FilterData();
-        filterData.setAttribute("name");
-        filterData.setSearchOperator(SearchOperator.LIKE);
-        filterData.setValue("Alice");
-
-        request.setFilters(List.of(filterData));
+        request.setFilters(List.of(filter("name", SearchOperator.LIKE, "Alice")));
 
         // When
         Query<Object> result = SearchRequestQueryTransformer.toQuery(request);
 
         // Then
-        assertSame(querySpy, result);
-        verify(querySpy).or("name", SearchOperator.LIKE, "Alice");
-
-        // No 'AND' calls
-        verify(querySpy, never()).and(anyString(), any(), any());
-        verify(querySpy, never()).join(anyString(), any());
-        verify(querySpy, never()).distinct();
+        TextVisitor visitor = new TextVisitor();
+        assertEquals("name LIKE 'Alice'", result.accept(visitor));
+        assertEquals(List.of(), visitor.visited);
     }
 
     @Test
@@ -126,29 +128,16 @@ class SearchRequestQueryTransformerTest {
         // Given
         SearchRequest request = new SearchRequest();
         request.setConditionalOperator(ConditionalOperator.AND);
-
-        FilterData filterData = new FilterData();
         // "department.manager" => triggers join("department") + distinct
-        filterData.setAttribute("department.manager");
-        filterData.setSearchOperator(SearchOperator.EQ);
-        filterData.setValue("John");
-
-        request.setFilters(List.of(filterData));
+        request.setFilters(List.of(filter("department.manager", SearchOperator.EQ, "John")));
 
         // When
         Query<Object> result = SearchRequestQueryTransformer.toQuery(request);
 
         // Then
-        assertSame(querySpy, result);
-
-        // 1) Should call join("department", JoinType.INNER)
-        verify(querySpy).join("department", jakarta.persistence.criteria.JoinType.INNER);
-
-        // 2) Should set distinct
-        verify(querySpy).distinct();
-
-        // 3) Because it's top-level AND
-        verify(querySpy).and("department.manager", SearchOperator.EQ, "John");
+        TextVisitor visitor = new TextVisitor();
+        assertEquals("department.manager EQ John", result.accept(visitor));
+        assertEquals(List.of("DISTINCT", "INNER JOIN department"), visitor.visited);
     }
 
     @Test
@@ -156,74 +145,33 @@ class SearchRequestQueryTransformerTest {
         // 2 top-level filters with OR
         SearchRequest request = new SearchRequest();
         request.setConditionalOperator(ConditionalOperator.OR);
-
-        FilterData f1 = new FilterData();
-        f1.setAttribute("status");
-        f1.setSearchOperator(SearchOperator.EQ);
-        f1.setValue("ACTIVE");
-
-        FilterData f2 = new FilterData();
-        f2.setAttribute("age");
-        f2.setSearchOperator(SearchOperator.LT);
-        f2.setValue(40);
-
-        request.setFilters(List.of(f1, f2));
+        request.setFilters(List.of(filter("status", SearchOperator.EQ, "ACTIVE"), filter("age", SearchOperator.LT, 40)));
 
         // When
         Query<Object> result = SearchRequestQueryTransformer.toQuery(request);
 
-        // Then
-        assertNotNull(result);
-
-        // Expect 'OR' calls for each leaf
-        verify(querySpy).or("status", SearchOperator.EQ, "ACTIVE");
-        verify(querySpy).or("age", SearchOperator.LT, 40);
-
-        // No 'AND' calls, no join, no distinct
-        verify(querySpy, never()).and(anyString(), any(), any());
-        verify(querySpy, never()).join(anyString(), any());
-        verify(querySpy, never()).distinct();
+        // Then both leaves are OR-ed, with no join and no DISTINCT
+        TextVisitor visitor = new TextVisitor();
+        assertEquals("(status EQ ACTIVE OR age LT 40)", result.accept(visitor));
+        assertEquals(List.of(), visitor.visited);
     }
 
     @Test
     void testToQuery_nestedFilters() {
         SearchRequest request = new SearchRequest();
-        request.setConditionalOperator(ConditionalOperator.OR);
-
-        FilterData subF1 = new FilterData();
-        subF1.setAttribute("name");
-        subF1.setSearchOperator(SearchOperator.EQ);
-        subF1.setValue("Alice");
-
-        FilterData subF2 = new FilterData();
-        subF2.setAttribute("active");
-        subF2.setSearchOperator(SearchOperator.EQ);
-        subF2.setValue(true);
 
         // The top-level filter is a group:
         FilterData groupFilter = new FilterData();
-        groupFilter.setFilters(List.of(subF1, subF2));
+        groupFilter.setFilters(List.of(filter("name", SearchOperator.EQ, "Alice"), filter("active", SearchOperator.EQ, true)));
         groupFilter.setConditionalOperator(ConditionalOperator.AND);
 
-        request.setFilters(List.of(groupFilter));
+        request.setFilters(List.of(groupFilter, filter("age", SearchOperator.GT, 65)));
         request.setConditionalOperator(ConditionalOperator.OR);
 
         // When
         Query<Object> result = SearchRequestQueryTransformer.toQuery(request);
 
-        // Then
-        assertSame(querySpy, result);
-
-        // Because the top-level operator is OR, we expect: query.or(subQuery)
-        // But inside that subQuery, we do AND("name"=Alice) AND("active"=true)
-
-        // We can't directly see "subQuery" since it's ephemeral, but we can see the effect:
-        // 1) We expect one "or(...subQuery...)" call
-        // 2) That subQuery, internally, called and(...) for each leaf
-        verify(querySpy).or(argThat((Query<Object> innerQ) -> {
-            // We'll do a small spy on this subQuery or we can do a simpler approach:
-            // if we can't easily do an argument matcher, we at least confirm a single or(Query).
-            return true;
-        }));
+        // Then the group is OR-ed as a whole, its leaves combined with AND
+        assertEquals("((name EQ Alice AND active EQ true) OR age GT 65)", result.accept(new TextVisitor()));
     }
 }
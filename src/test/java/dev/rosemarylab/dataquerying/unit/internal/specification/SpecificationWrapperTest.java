@@ -1,8 +1,10 @@
 package dev.rosemarylab.dataquerying.unit.internal.specification;
 
+import dev.rosemarylab.dataquerying.api.QueryDialect;
 import dev.rosemarylab.dataquerying.api.SearchOperator;
 import dev.rosemarylab.dataquerying.api.exceptions.AttributeNotFoundException;
 import dev.rosemarylab.dataquerying.api.exceptions.JoinNotFoundException;
+import dev.rosemarylab.dataquerying.api.exceptions.SpecificationBuilderException;
 import dev.rosemarylab.dataquerying.internal.specification.Filter;
 import dev.rosemarylab.dataquerying.internal.specification.SpecificationWrapper;
 import jakarta.persistence.criteria.*;
@@ -238,6 +240,124 @@ class SpecificationWrapperTest {
         verify(criteriaBuilder).notLike(stringPath, "%Jane%");
     }
 
+    @Test
+    void testToPredicateStartsWith() {
+        Filter filter = new Filter("name", SearchOperator.STARTS_WITH, "Jo");
+        SpecificationWrapper<Dto> spec = new SpecificationWrapper<>(filter);
+
+        when(root.get("name")).thenReturn(stringPath);
+        when(stringPath.as(String.class)).thenReturn(stringPath);
+
+        Predicate likePredicate = mock(Predicate.class);
+        when(criteriaBuilder.like(stringPath, "Jo%")).thenReturn(likePredicate);
+
+        Predicate result = spec.toPredicate(root, query, criteriaBuilder);
+
+        assertSame(likePredicate, result);
+        verify(criteriaBuilder).like(stringPath, "Jo%");
+    }
+
+    @Test
+    void testToPredicateEndsWithEscapesWildcards() {
+        Filter filter = new Filter("name", SearchOperator.ENDS_WITH, "50%_off");
+        SpecificationWrapper<Dto> spec = new SpecificationWrapper<>(filter);
+
+        when(root.get("name")).thenReturn(stringPath);
+        when(stringPath.as(String.class)).thenReturn(stringPath);
+
+        Predicate likePredicate = mock(Predicate.class);
+        when(criteriaBuilder.like(stringPath, "%50\\%\\_off", '\\')).thenReturn(likePredicate);
+
+        Predicate result = spec.toPredicate(root, query, criteriaBuilder);
+
+        assertSame(likePredicate, result);
+        verify(criteriaBuilder).like(stringPath, "%50\\%\\_off", '\\');
+    }
+
+    @Test
+    void testToPredicateMatchesKeepsPattern() {
+        Filter filter = new Filter("name", SearchOperator.MATCHES, "J_n%");
+        SpecificationWrapper<Dto> spec = new SpecificationWrapper<>(filter);
+
+        when(root.get("name")).thenReturn(stringPath);
+        when(stringPath.as(String.class)).thenReturn(stringPath);
+
+        Predicate likePredicate = mock(Predicate.class);
+        when(criteriaBuilder.like(stringPath, "J_n%")).thenReturn(likePredicate);
+
+        Predicate result = spec.toPredicate(root, query, criteriaBuilder);
+
+        assertSame(likePredicate, result);
+        verify(criteriaBuilder).like(stringPath, "J_n%");
+    }
+
+    @Test
+    void testToPredicateEqIgnoreCaseFoldsValueOnce() {
+        Filter filter = new Filter("name", SearchOperator.EQ_IGNORE_CASE, "JoHn");
+        SpecificationWrapper<Dto> spec = new SpecificationWrapper<>(filter);
+
+        when(root.get("name")).thenReturn(stringPath);
+        when(stringPath.as(String.class)).thenReturn(stringPath);
+        Expression<String> lowerName = mock(Expression.class);
+        when(criteriaBuilder.lower(stringPath)).thenReturn(lowerName);
+
+        Predicate eqPredicate = mock(Predicate.class);
+        when(criteriaBuilder.equal(lowerName, "john")).thenReturn(eqPredicate);
+
+        Predicate result = spec.toPredicate(root, query, criteriaBuilder);
+
+        assertSame(eqPredicate, result);
+        verify(criteriaBuilder).equal(lowerName, "john");
+    }
+
+    @Test
+    void testToPredicateStartsWithIgnoreCase() {
+        Filter filter = new Filter("name", SearchOperator.STARTS_WITH_IGNORE_CASE, "Jo");
+        SpecificationWrapper<Dto> spec = new SpecificationWrapper<>(filter);
+
+        when(root.get("name")).thenReturn(stringPath);
+        when(stringPath.as(String.class)).thenReturn(stringPath);
+        Expression<String> lowerName = mock(Expression.class);
+        when(criteriaBuilder.lower(stringPath)).thenReturn(lowerName);
+
+        Predicate likePredicate = mock(Predicate.class);
+        when(criteriaBuilder.like(lowerName, "jo%")).thenReturn(likePredicate);
+
+        Predicate result = spec.toPredicate(root, query, criteriaBuilder);
+
+        assertSame(likePredicate, result);
+        verify(criteriaBuilder).like(lowerName, "jo%");
+    }
+
+    @Test
+    void testToPredicateStartsWithIgnoreCase_withDialect() {
+        Filter filter = new Filter("name", SearchOperator.STARTS_WITH_IGNORE_CASE, "Jo");
+        SpecificationWrapper<Dto> spec = new SpecificationWrapper<>(filter, QueryDialect.UPPER_CASE);
+
+        when(root.get("name")).thenReturn(stringPath);
+        when(stringPath.as(String.class)).thenReturn(stringPath);
+        Expression<String> upperName = mock(Expression.class);
+        when(criteriaBuilder.upper(stringPath)).thenReturn(upperName);
+
+        Predicate likePredicate = mock(Predicate.class);
+        when(criteriaBuilder.like(upperName, "JO%")).thenReturn(likePredicate);
+
+        Predicate result = spec.toPredicate(root, query, criteriaBuilder);
+
+        assertSame(likePredicate, result);
+        verify(criteriaBuilder, never()).lower(any());
+    }
+
+    @Test
+    void testToPredicateFullText_withBlankQueryThrows() {
+        Filter filter = new Filter("name", SearchOperator.FULL_TEXT, "   ");
+        SpecificationWrapper<Dto> spec = new SpecificationWrapper<>(filter);
+
+        when(root.get("name")).thenReturn(stringPath);
+
+        assertThrows(SpecificationBuilderException.class, () -> spec.toPredicate(root, query, criteriaBuilder));
+    }
+
     @Test
     void testToPredicateBetween() {
         Filter filter = new Filter("price", SearchOperator.BETWEEN, List.of(10, 20));
@@ -0,0 +1,52 @@
+package dev.rosemarylab.dataquerying.unit.internal.utils;
+
+import dev.rosemarylab.dataquerying.api.SearchOperator;
+import dev.rosemarylab.dataquerying.internal.utils.ValueConverter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueConverterTest {
+
+    @Test
+    void testConvertNumbers() {
+        assertEquals(5L, ValueConverter.convert(5, Long.class));
+        assertEquals(5L, ValueConverter.convert("5", long.class));
+        assertEquals(2.5, ValueConverter.convert(2.5f, Double.class));
+        assertEquals(new BigDecimal("1.10"), ValueConverter.convert("1.10", BigDecimal.class));
+    }
+
+    @Test
+    void testConvertTextualTypes() {
+        UUID uuid = UUID.randomUUID();
+
+        assertEquals(LocalDate.of(2024, 1, 31), ValueConverter.convert("2024-01-31", LocalDate.class));
+        assertEquals(LocalDateTime.of(2024, 1, 31, 10, 15), ValueConverter.convert("2024-01-31T10:15", LocalDateTime.class));
+        assertEquals(uuid, ValueConverter.convert(uuid.toString(), UUID.class));
+        assertEquals(SearchOperator.NOT_EQ, ValueConverter.convert("not_eq", SearchOperator.class));
+        assertEquals(Boolean.TRUE, ValueConverter.convert("TRUE", boolean.class));
+    }
+
+    @Test
+    void testConvertKeepsValueWithoutKnownConversion() {
+        Object value = new Object();
+
+        assertNull(ValueConverter.convert(null, Long.class));
+        assertSame(value, ValueConverter.convert(value, Long.class));
+        assertEquals("Alice", ValueConverter.convert("Alice", String.class));
+    }
+
+    @Test
+    void testConvertInvalidValue_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> ValueConverter.convert("abc", Long.class));
+        assertThrows(IllegalArgumentException.class, () -> ValueConverter.convert(1.5, Long.class));
+        assertThrows(IllegalArgumentException.class, () -> ValueConverter.convert("2024-13-01", LocalDate.class));
+        assertThrows(IllegalArgumentException.class, () -> ValueConverter.convert("UNKNOWN", SearchOperator.class));
+        assertThrows(IllegalArgumentException.class, () -> ValueConverter.convert(1, Boolean.class));
+    }
+}